@@ -30,6 +30,7 @@ import org.neo4j.jmx.impl.ManagementData;
 import org.neo4j.jmx.impl.Neo4jMBean;
 import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.kernel.info.LockInfo;
+import org.neo4j.kernel.info.LockWaitInfo;
 import org.neo4j.management.LockManager;
 
 @Service.Implementation( ManagementBeanProvider.class )
@@ -110,5 +111,22 @@ public final class LockManagerBean extends ManagementBeanProvider
             // Contended locks can no longer be found by the new lock manager, since that knowledge is not centralized.
             return getLocks();
         }
+
+        @Override
+        public List<LockWaitInfo> getLockWaits()
+        {
+            final List<LockWaitInfo> waits = new ArrayList<>();
+            lockManager.acceptWaits( new Locks.WaitVisitor()
+            {
+                @Override
+                public void visit( int lockSessionId, boolean exclusive, Locks.ResourceType resourceType,
+                        long resourceId, long waitTimeMillis, String blockedBy )
+                {
+                    waits.add( new LockWaitInfo( lockSessionId, exclusive ? "exclusive" : "shared",
+                            resourceType.toString(), String.valueOf( resourceId ), waitTimeMillis, blockedBy ) );
+                }
+            } );
+            return waits;
+        }
     }
 }
@@ -301,6 +301,12 @@ public class BufferedCharSeeker implements CharSeeker
         return absoluteBufferStartPosition + bufferPos;
     }
 
+    @Override
+    public long storedPosition()
+    {
+        return (long) (position() * reader.storedBytesPerChar());
+    }
+
     @Override
     public String sourceDescription()
     {
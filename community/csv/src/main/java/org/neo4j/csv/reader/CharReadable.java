@@ -56,6 +56,16 @@ public interface CharReadable extends Closeable, SourceTraceability
      */
     SectionedCharBuffer read( SectionedCharBuffer buffer, int from ) throws IOException;
 
+    /**
+     * @return number of bytes read from the source, as stored, per character read so far. Less than one for
+     * f.ex. a compressed file. Translates a character {@link #position() position} into a
+     * {@link #storedPosition() stored position}.
+     */
+    default double storedBytesPerChar()
+    {
+        return 1;
+    }
+
     public static abstract class Adapter extends SourceTraceability.Adapter implements CharReadable
     {
         @Override
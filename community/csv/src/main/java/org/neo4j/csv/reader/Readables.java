@@ -21,6 +21,7 @@ package org.neo4j.csv.reader;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -31,6 +32,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.function.LongConsumer;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
@@ -40,6 +42,8 @@ import org.neo4j.function.IOFunction;
 import org.neo4j.function.IOFunctions;
 import org.neo4j.function.ThrowingFunction;
 
+import static org.neo4j.csv.reader.ThreadAheadInputStream.threadAhead;
+
 /**
  * Means of instantiating common {@link CharReadable} instances.
  *
@@ -51,6 +55,11 @@ import org.neo4j.function.ThrowingFunction;
  * The single file in the given ZIP archive will be decompressed on the fly, while reading.</li>
  * <li>GZIP: is only a compression format and so will be decompressed on the fly, while reading.</li>
  * </ol>
+ * Decompression of either format happens in a {@link ThreadAheadInputStream separate thread}, so that it
+ * runs in parallel with decoding the characters and parsing them.
+ *
+ * {@link CharReadable Readables} of files know how many bytes of the files, as stored, they have read per
+ * character, see {@link CharReadable#storedBytesPerChar()}.
  */
 public class Readables
 {
@@ -148,13 +157,42 @@ public class Readables
         };
     }
 
+    private static final int GZIP_INPUT_BUFFER_SIZE = 64 * 1024;
+    private static final int DECOMPRESSION_READ_AHEAD_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * Counts bytes at the different stages of reading files, to relate characters read to bytes read from the files
+     * as stored. Decompression reads ahead in a separate thread, so bytes read from a compressed file are related
+     * to the decompressed bytes produced from them, and those in turn to the decompressed bytes handed on to
+     * character decoding.
+     */
+    private static class StoredBytes
+    {
+        // Each of these is only written by the thread reading at that stage
+        private volatile long stored;
+        private volatile long decompressed;
+        private volatile long decoded;
+
+        double perChar( long chars )
+        {
+            long decompressed = this.decompressed;
+            if ( chars == 0 || decompressed == 0 )
+            {
+                return 1;
+            }
+            return (double) decoded / chars * stored / decompressed;
+        }
+    }
+
     private static class FromFile implements IOFunction<File, Reader>
     {
         private final Charset charset;
+        private final StoredBytes storedBytes;
 
-        FromFile( Charset charset )
+        FromFile( Charset charset, StoredBytes storedBytes )
         {
             this.charset = charset;
+            this.storedBytes = storedBytes;
         }
 
         @Override
@@ -165,7 +203,16 @@ public class Readables
             {   // ZIP file
                 ZipFile zipFile = new ZipFile( file );
                 ZipEntry entry = getSingleSuitableEntry( zipFile );
-                return new InputStreamReader( zipFile.getInputStream( entry ), charset )
+                // The compressed bytes are read by the zip file itself, so go by the compression ratio of the entry
+                long compressedSize = entry.getCompressedSize();
+                long size = entry.getSize();
+                InputStream decompressed = counting( zipFile.getInputStream( entry ), bytes ->
+                {
+                    storedBytes.stored += compressedSize > 0 && size > 0 ? bytes * compressedSize / size : bytes;
+                    storedBytes.decompressed += bytes;
+                } );
+                return new InputStreamReader( decoded( threadAhead( decompressed, DECOMPRESSION_READ_AHEAD_SIZE ) ),
+                        charset )
                 {
                     @Override
                     public String toString()
@@ -180,8 +227,11 @@ public class Readables
                 // files into one blob, which is then compressed. If that's the case then
                 // the data will look like garbage and the reader will fail for whatever it will be used for.
                 // TODO add tar support
-                GZIPInputStream zipStream = new GZIPInputStream( new FileInputStream( file ) );
-                return new InputStreamReader( zipStream, charset )
+                InputStream stored = counting( new FileInputStream( file ), bytes -> storedBytes.stored += bytes );
+                InputStream decompressed = counting( new GZIPInputStream( stored, GZIP_INPUT_BUFFER_SIZE ),
+                        bytes -> storedBytes.decompressed += bytes );
+                return new InputStreamReader( decoded( threadAhead( decompressed, DECOMPRESSION_READ_AHEAD_SIZE ) ),
+                        charset )
                 {
                     @Override
                     public String toString()
@@ -200,7 +250,12 @@ public class Readables
                     in.skip( magic.length() );
                     usedCharset = magic.encoding();
                 }
-                return new InputStreamReader( in, usedCharset )
+                return new InputStreamReader( counting( in, bytes ->
+                {
+                    storedBytes.stored += bytes;
+                    storedBytes.decompressed += bytes;
+                    storedBytes.decoded += bytes;
+                } ), usedCharset )
                 {
                     @Override
                     public String toString()
@@ -211,6 +266,11 @@ public class Readables
             }
         }
 
+        private InputStream decoded( InputStream decompressed )
+        {
+            return counting( decompressed, bytes -> storedBytes.decoded += bytes );
+        }
+
         private ZipEntry getSingleSuitableEntry( ZipFile zipFile ) throws IOException
         {
             List<String> unsuitableEntries = new ArrayList<>();
@@ -244,6 +304,42 @@ public class Readables
         }
     }
 
+    private static InputStream counting( InputStream stream, LongConsumer counter )
+    {
+        return new FilterInputStream( stream )
+        {
+            @Override
+            public int read() throws IOException
+            {
+                int read = super.read();
+                if ( read != -1 )
+                {
+                    counter.accept( 1 );
+                }
+                return read;
+            }
+
+            @Override
+            public int read( byte[] b, int off, int len ) throws IOException
+            {
+                int read = super.read( b, off, len );
+                if ( read > 0 )
+                {
+                    counter.accept( read );
+                }
+                return read;
+            }
+
+            @Override
+            public long skip( long n ) throws IOException
+            {
+                long skipped = super.skip( n );
+                counter.accept( skipped );
+                return skipped;
+            }
+        };
+    }
+
     private static boolean invalidZipEntry( String name )
     {
         return name.contains( "__MACOSX" ) ||
@@ -253,15 +349,58 @@ public class Readables
 
     public static CharReadable files( Charset charset, File... files ) throws IOException
     {
-        IOFunction<File,Reader> opener = new FromFile( charset );
+        StoredBytes storedBytes = new StoredBytes();
+        IOFunction<File,Reader> opener = new FromFile( charset, storedBytes );
         switch ( files.length )
         {
         case 0:  return EMPTY;
-        case 1:  return wrap( opener.apply( files[0] ) );
-        default: return new MultiReadable( iterator( files, opener ) );
+        case 1:  return storedBytesPerChar( wrap( opener.apply( files[0] ) ), storedBytes );
+        default: return storedBytesPerChar( new MultiReadable( iterator( files, opener ) ), storedBytes );
         }
     }
 
+    private static CharReadable storedBytesPerChar( final CharReadable actual, final StoredBytes storedBytes )
+    {
+        return new CharReadable()
+        {
+            @Override
+            public SectionedCharBuffer read( SectionedCharBuffer buffer, int from ) throws IOException
+            {
+                return actual.read( buffer, from );
+            }
+
+            @Override
+            public double storedBytesPerChar()
+            {
+                return storedBytes.perChar( actual.position() );
+            }
+
+            @Override
+            public void close() throws IOException
+            {
+                actual.close();
+            }
+
+            @Override
+            public String sourceDescription()
+            {
+                return actual.sourceDescription();
+            }
+
+            @Override
+            public long lineNumber()
+            {
+                return actual.lineNumber();
+            }
+
+            @Override
+            public long position()
+            {
+                return actual.position();
+            }
+        };
+    }
+
     public static CharReadable sources( Reader... sources ) throws IOException
     {
         return new MultiReadable( iterator( sources, IOFunctions.<Reader>identity() ) );
@@ -49,6 +49,16 @@ public interface SourceTraceability
      */
     long position();
 
+    /**
+     * @return {@link #position()} translated into a position in the data source as it's stored, f.ex. the number
+     * of bytes read from a compressed file. Sources which aren't transformed while read return the same as
+     * {@link #position()}.
+     */
+    default long storedPosition()
+    {
+        return position();
+    }
+
     public static abstract class Adapter implements SourceTraceability
     {
         @Override
@@ -34,7 +34,9 @@ public abstract class ThreadAhead extends Thread implements Closeable
     // notifies/unparks each other when it's time to continue on anyways
     private static final long PARK_TIME = MILLISECONDS.toNanos( 100 );
 
-    private final Thread owner;
+    // Whoever waits for data is the one to unpark, which isn't necessarily the thread which created this
+    // instance, f.ex. when a source is opened lazily by another read-ahead thread.
+    private volatile Thread owner;
     private volatile boolean hasReadAhead;
     private volatile boolean closed;
     private volatile boolean eof;
@@ -69,6 +71,7 @@ public abstract class ThreadAhead extends Thread implements Closeable
 
     protected void waitUntilReadAhead() throws IOException
     {
+        owner = Thread.currentThread();
         assertHealthy();
         while ( !hasReadAhead )
         {
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.csv.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static java.lang.Math.min;
+
+/**
+ * An {@link InputStream} where the reading from the actual stream happens in a separate thread, one buffer ahead
+ * of the consumer. Put in between a decompressing stream and the character decoding on top of it so that
+ * decompression and decoding runs in parallel, instead of one after the other in the same thread.
+ *
+ * @see ThreadAheadReadable which does the same on the character level.
+ */
+public class ThreadAheadInputStream extends InputStream
+{
+    private final Ahead ahead;
+    private byte[] buffer;
+    private int position;
+    private int length;
+    private boolean exhausted;
+
+    private ThreadAheadInputStream( InputStream actual, int bufferSize )
+    {
+        this.buffer = new byte[bufferSize];
+        this.ahead = new Ahead( actual, bufferSize );
+        this.ahead.start();
+    }
+
+    @Override
+    public int read() throws IOException
+    {
+        if ( position == length && !fill() )
+        {
+            return -1;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    @Override
+    public int read( byte[] into, int offset, int len ) throws IOException
+    {
+        if ( len == 0 )
+        {
+            return 0;
+        }
+        if ( position == length && !fill() )
+        {
+            return -1;
+        }
+        int count = min( len, length - position );
+        System.arraycopy( buffer, position, into, offset, count );
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() throws IOException
+    {
+        return length - position;
+    }
+
+    /**
+     * Flips over to the buffer read ahead, handing our consumed buffer to the read-ahead thread to fill.
+     */
+    private boolean fill() throws IOException
+    {
+        if ( exhausted )
+        {
+            return false;
+        }
+
+        ahead.waitUntilReadAhead();
+        byte[] filled = ahead.buffer;
+        ahead.buffer = buffer;
+        buffer = filled;
+        position = 0;
+        length = ahead.length;
+        if ( length == 0 )
+        {   // The read-ahead thread has reached the end and won't read any more
+            exhausted = true;
+            return false;
+        }
+        ahead.pokeReader();
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        ahead.close();
+    }
+
+    public static InputStream threadAhead( InputStream actual, int bufferSize )
+    {
+        return new ThreadAheadInputStream( actual, bufferSize );
+    }
+
+    private static class Ahead extends ThreadAhead
+    {
+        private final InputStream actual;
+        // the variables below are read and changed in both the ahead thread and the consumer,
+        // but don't have to be volatile since they piggy-back off of hasReadAhead.
+        private byte[] buffer;
+        private int length;
+
+        Ahead( InputStream actual, int bufferSize )
+        {
+            super( actual );
+            this.actual = actual;
+            this.buffer = new byte[bufferSize];
+        }
+
+        @Override
+        protected boolean readAhead() throws IOException
+        {
+            // Fill the whole buffer, decompressing streams tend to return much less than asked for per read
+            int total = 0;
+            while ( total < buffer.length )
+            {
+                int read = actual.read( buffer, total, buffer.length - total );
+                if ( read == -1 )
+                {
+                    break;
+                }
+                total += read;
+            }
+            length = total;
+            return total > 0;
+        }
+    }
+}
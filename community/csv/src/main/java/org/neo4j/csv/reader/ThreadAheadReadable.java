@@ -89,6 +89,12 @@ public class ThreadAheadReadable extends ThreadAhead implements CharReadable
         return actual.position();
     }
 
+    @Override
+    public double storedBytesPerChar()
+    {
+        return actual.storedBytesPerChar();
+    }
+
     @Override
     public String sourceDescription()
     {   // Returns the source information of where this reader is perceived to be. The fact that this
@@ -145,6 +145,39 @@ public class ReadablesTest
         assertEquals( data.toCharArray().length, expected );
     }
 
+    @Test
+    public void shouldTranslatePositionIntoPositionInCompressedFile() throws Exception
+    {
+        // GIVEN
+        StringBuilder text = new StringBuilder();
+        for ( int i = 0; i < 100_000; i++ )
+        {
+            text.append( i ).append( ",name-" ).append( i % 100 ).append( '\n' );
+        }
+        File compressed = compressWithGZip( text.toString() );
+
+        // WHEN
+        CharReadable reader = readFully( Readables.files( Charset.defaultCharset(), compressed ) );
+
+        // THEN
+        assertEquals( text.length(), reader.position() );
+        assertEquals( (double) compressed.length() / text.length(), reader.storedBytesPerChar(), 0.001 );
+    }
+
+    @Test
+    public void shouldTranslatePositionIntoBytesOfMultiByteCharacters() throws Exception
+    {
+        // GIVEN
+        String data = "åäöåäöåäö";
+        File file = writeToFile( data, StandardCharsets.UTF_8 );
+
+        // WHEN
+        CharReadable reader = readFully( Readables.files( StandardCharsets.UTF_8, file ) );
+
+        // THEN
+        assertEquals( 2, reader.storedBytesPerChar(), 0.0 );
+    }
+
     @Test
     public void shouldComplyWithUtf8CharsetForExample() throws Exception
     {
@@ -289,6 +322,17 @@ public class ReadablesTest
         return file;
     }
 
+    private CharReadable readFully( CharReadable reader ) throws IOException
+    {
+        SectionedCharBuffer buffer = new SectionedCharBuffer( 1_000 );
+        do
+        {
+            buffer = reader.read( buffer, buffer.front() );
+        }
+        while ( buffer.hasAvailable() );
+        return reader;
+    }
+
     private void assertReadText( File file, String text ) throws IOException
     {
         assertReadText( Readables.files( Charset.defaultCharset(), file ), text );
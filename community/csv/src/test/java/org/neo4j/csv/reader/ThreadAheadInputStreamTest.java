@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.csv.reader;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ThreadAheadInputStreamTest
+{
+    @Test
+    public void shouldReadAllBytesInOrder() throws Exception
+    {
+        // GIVEN
+        byte[] data = new byte[10_000];
+        new Random( 1234 ).nextBytes( data );
+        InputStream in = ThreadAheadInputStream.threadAhead( new ByteArrayInputStream( data ), 64 );
+
+        // WHEN
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] chunk = new byte[100];
+        int read;
+        while ( (read = in.read( chunk, 0, chunk.length )) != -1 )
+        {
+            out.write( chunk, 0, read );
+        }
+
+        // THEN
+        assertArrayEquals( data, out.toByteArray() );
+        assertEquals( -1, in.read() );
+        in.close();
+    }
+
+    @Test
+    public void shouldReadSingleBytes() throws Exception
+    {
+        // GIVEN
+        byte[] data = {1, -2, 3, -4, 5};
+        InputStream in = ThreadAheadInputStream.threadAhead( new ByteArrayInputStream( data ), 2 );
+
+        // WHEN/THEN
+        for ( byte expected : data )
+        {
+            assertEquals( expected & 0xFF, in.read() );
+        }
+        assertEquals( -1, in.read() );
+        in.close();
+    }
+
+    @Test
+    public void shouldHandleEmptyStream() throws Exception
+    {
+        // GIVEN
+        InputStream in = ThreadAheadInputStream.threadAhead( new ByteArrayInputStream( new byte[0] ), 10 );
+
+        // WHEN/THEN
+        assertEquals( -1, in.read( new byte[5], 0, 5 ) );
+        assertEquals( -1, in.read() );
+        in.close();
+    }
+}
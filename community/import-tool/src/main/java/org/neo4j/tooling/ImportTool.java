@@ -54,6 +54,8 @@ import org.neo4j.kernel.impl.util.Validator;
 import org.neo4j.kernel.impl.util.Validators;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.unsafe.impl.batchimport.BatchImporter;
+import org.neo4j.unsafe.impl.batchimport.ImportMemoryEstimate;
+import org.neo4j.unsafe.impl.batchimport.InputSample;
 import org.neo4j.unsafe.impl.batchimport.ParallelBatchImporter;
 import org.neo4j.unsafe.impl.batchimport.cache.idmapping.string.DuplicateInputIdException;
 import org.neo4j.unsafe.impl.batchimport.input.Collector;
@@ -65,9 +67,14 @@ import org.neo4j.unsafe.impl.batchimport.input.csv.Configuration;
 import org.neo4j.unsafe.impl.batchimport.input.csv.CsvInput;
 import org.neo4j.unsafe.impl.batchimport.input.csv.DataFactory;
 import org.neo4j.unsafe.impl.batchimport.input.csv.IdType;
+import org.neo4j.unsafe.impl.batchimport.staging.ExecutionMonitor;
 import org.neo4j.unsafe.impl.batchimport.staging.ExecutionMonitors;
+import org.neo4j.unsafe.impl.batchimport.staging.MultiExecutionMonitor;
+import org.neo4j.unsafe.impl.batchimport.staging.StepTimelineExecutionMonitor;
 
+import static java.lang.Math.max;
 import static java.nio.charset.Charset.defaultCharset;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 import static org.neo4j.helpers.Exceptions.launderedException;
 import static org.neo4j.helpers.Format.bytes;
@@ -181,7 +188,22 @@ public class ImportTool
                 "<true/false>",
                 "Whether or not to ignore extra columns in the data not specified by the header. "
                         + "Skipped columns will be logged, containing at most number of entities specified by "
-                        + BAD_TOLERANCE.key() + "." );
+                        + BAD_TOLERANCE.key() + "." ),
+        SORT_RELATIONSHIPS( "sort-relationships", Boolean.FALSE,
+                "<true/false>",
+                "(advanced) Whether or not to order relationships by node before writing them, batch by batch. "
+                        + "Improves locality of relationship chains in the store for input where relationships "
+                        + "of the same node are near each other, but not necessarily adjacent." ),
+        DRY_RUN( "dry-run", Boolean.FALSE,
+                "<true/false>",
+                "Reads through the input without importing anything and prints the number of nodes, "
+                        + "relationships and properties found, together with estimates of how much memory "
+                        + "the import will need and how big the resulting store will be." ),
+        PROGRESS_FILE( "progress-file", null,
+                "<file>",
+                "(advanced) File to continuously write import progress to, in CSV format. Every few seconds "
+                        + "one line per step is written, containing rows per second, processors, time spent "
+                        + "busy, idle and blocked, I/O throughput and memory usage." );
 
         private final String key;
         private final Object defaultValue;
@@ -269,6 +291,17 @@ public class ImportTool
      */
     static final String MULTI_FILE_DELIMITER = ",";
 
+    /**
+     * Interval between writing progress lines to the file specified by {@link Options#PROGRESS_FILE}.
+     */
+    static final int PROGRESS_FILE_INTERVAL_SECONDS = 2;
+
+    /**
+     * Number of nodes and relationships, respectively, read by {@link Options#DRY_RUN} to estimate
+     * the size of the whole input.
+     */
+    static final int DRY_RUN_SAMPLE_SIZE = 100_000;
+
     /**
      * Runs the import tool given the supplied arguments.
      *
@@ -303,7 +336,9 @@ public class ImportTool
         Input input = null;
         int badTolerance;
         Charset inputEncoding;
-        boolean skipBadRelationships, skipDuplicateNodes, ignoreExtraColumns;
+        boolean skipBadRelationships, skipDuplicateNodes, ignoreExtraColumns, sortRelationships, dryRun;
+        File progressFile;
+        IdType idType;
 
         try
         {
@@ -317,7 +352,7 @@ public class ImportTool
             validateInputFiles( nodesFiles, relationshipsFiles );
             enableStacktrace = args.getBoolean( Options.STACKTRACE.key(), Boolean.FALSE, Boolean.TRUE );
             processors = args.getNumber( Options.PROCESSORS.key(), null );
-            IdType idType = args.interpretOption( Options.ID_TYPE.key(),
+            idType = args.interpretOption( Options.ID_TYPE.key(),
                     withDefault( (IdType)Options.ID_TYPE.defaultValue() ), TO_ID_TYPE );
             badTolerance = args.getNumber( Options.BAD_TOLERANCE.key(),
                     (Number) Options.BAD_TOLERANCE.defaultValue() ).intValue();
@@ -328,6 +363,11 @@ public class ImportTool
                     (Boolean)Options.SKIP_DUPLICATE_NODES.defaultValue(), true );
             ignoreExtraColumns = args.getBoolean( Options.IGNORE_EXTRA_COLUMNS.key(),
                     (Boolean)Options.IGNORE_EXTRA_COLUMNS.defaultValue(), true );
+            sortRelationships = args.getBoolean( Options.SORT_RELATIONSHIPS.key(),
+                    (Boolean)Options.SORT_RELATIONSHIPS.defaultValue(), true );
+            dryRun = args.getBoolean( Options.DRY_RUN.key(), (Boolean)Options.DRY_RUN.defaultValue(), true );
+            progressFile = args.interpretOption( Options.PROGRESS_FILE.key(), Converters.<File>optional(),
+                    Converters.toFile() );
 
             Collector badCollector = badCollector( badOutput, badTolerance, collect( skipBadRelationships,
                     skipDuplicateNodes, ignoreExtraColumns ) );
@@ -345,17 +385,39 @@ public class ImportTool
             throw andPrintError( "File error", e, false );
         }
 
+        if ( dryRun )
+        {
+            dryRun( fs, storeDir, nodesFiles, relationshipsFiles, input, idType, enableStacktrace );
+            return;
+        }
+
+        PrintStream progressOutput = null;
+        ExecutionMonitor monitor = ExecutionMonitors.defaultVisible();
+        if ( progressFile != null )
+        {
+            try
+            {
+                progressOutput = new PrintStream( fs.openAsOutputStream( progressFile, false ), true );
+            }
+            catch ( IOException e )
+            {
+                throw andPrintError( "File error", e, false );
+            }
+            monitor = new MultiExecutionMonitor( monitor,
+                    new StepTimelineExecutionMonitor( progressOutput, PROGRESS_FILE_INTERVAL_SECONDS, SECONDS ) );
+        }
+
         LifeSupport life = new LifeSupport();
 
         LogService logService = life.add( StoreLogService.inStoreDirectory( fs, storeDir ) );
 
         life.start();
         org.neo4j.unsafe.impl.batchimport.Configuration configuration =
-                importConfiguration( processors, defaultSettingsSuitableForTests );
+                importConfiguration( processors, sortRelationships, defaultSettingsSuitableForTests );
         BatchImporter importer = new ParallelBatchImporter( storeDir,
                 configuration,
                 logService,
-                ExecutionMonitors.defaultVisible() );
+                monitor );
         printOverview( storeDir, nodesFiles, relationshipsFiles );
         boolean success = false;
         try
@@ -382,6 +444,10 @@ public class ImportTool
             }
 
             life.shutdown();
+            if ( progressOutput != null )
+            {
+                progressOutput.close();
+            }
             if ( !success )
             {
                 try
@@ -415,6 +481,89 @@ public class ImportTool
         System.out.println();
     }
 
+    private static void dryRun( FileSystemAbstraction fs, File storeDir, Collection<Option<File[]>> nodesFiles,
+            Collection<Option<File[]>> relationshipsFiles, Input input, IdType idType, boolean enableStacktrace )
+    {
+        System.out.println( "Dry run, nothing will be imported" );
+        printOverview( storeDir, nodesFiles, relationshipsFiles );
+        try
+        {
+            InputSample nodes = InputSample.sample( input.nodes(), inputSize( fs, nodesFiles ), DRY_RUN_SAMPLE_SIZE );
+            InputSample relationships = InputSample.sample( input.relationships(),
+                    inputSize( fs, relationshipsFiles ), DRY_RUN_SAMPLE_SIZE );
+            ImportMemoryEstimate estimate = new ImportMemoryEstimate( nodes.entities(), relationships.entities(),
+                    nodes.propertyRecords() + relationships.propertyRecords(), idType != IdType.ACTUAL );
+            printEstimate( storeDir, nodes, relationships, estimate );
+        }
+        catch ( Exception e )
+        {
+            throw andPrintError( "Input error", e, enableStacktrace );
+        }
+        finally
+        {
+            input.badCollector().close();
+            fs.deleteFile( new File( storeDir, BAD_FILE_NAME ) );
+        }
+    }
+
+    /**
+     * @return size of the given files as stored, i.e. compressed for compressed files, to relate to
+     * {@link org.neo4j.csv.reader.SourceTraceability#storedPosition()}.
+     */
+    private static long inputSize( FileSystemAbstraction fs, Collection<Option<File[]>> files )
+    {
+        long size = 0;
+        for ( Option<File[]> group : files )
+        {
+            for ( File file : group.value() )
+            {
+                size += fs.getFileSize( file );
+            }
+        }
+        return size;
+    }
+
+    private static void printEstimate( File storeDir, InputSample nodes, InputSample relationships,
+            ImportMemoryEstimate estimate )
+    {
+        boolean exact = nodes.isExact() && relationships.isExact();
+        System.out.println( exact ? "Input:" : "Input, extrapolated from the first " + DRY_RUN_SAMPLE_SIZE +
+                " nodes and relationships:" );
+        printIndented( "Nodes: " + nodes.entities() + " with " + nodes.properties() + " properties" );
+        printIndented( "Relationships: " + relationships.entities() + " with " + relationships.properties() +
+                " properties" );
+        System.out.println();
+        System.out.println( "Estimated memory usage:" );
+        printIndented( "Id mapper: " + bytes( estimate.idMapperMemory() ) );
+        printIndented( "Node relationship cache: " + bytes( estimate.nodeRelationshipCacheMemory() ) );
+        printIndented( "Node labels cache: " + bytes( estimate.nodeLabelsCacheMemory() ) );
+        printIndented( "Node, relationship and linking stages: " + bytes( estimate.importStagesMemory() ) );
+        printIndented( "Counts stages: " + bytes( estimate.countsStagesMemory() ) );
+        long freeMemory = OsBeanUtil.getFreePhysicalMemory();
+        if ( freeMemory != OsBeanUtil.VALUE_UNAVAILABLE )
+        {
+            long maxHeap = Runtime.getRuntime().maxMemory();
+            if ( estimate.idMapperMemory() > max( freeMemory, maxHeap ) )
+            {
+                printIndented( "Id mapper doesn't fit in free machine memory or max heap, "
+                        + "the import will run out of memory" );
+            }
+            else if ( estimate.peakMemory() > freeMemory )
+            {
+                printIndented( "Peak memory usage exceeds free machine memory, the node relationship and "
+                        + "node labels caches will partly be backed by memory mapped files in "
+                        + new File( storeDir, ParallelBatchImporter.CACHE_DIRECTORY_NAME ) );
+            }
+        }
+        System.out.println();
+        System.out.println( "Estimated store size:" );
+        printIndented( "Nodes: " + bytes( estimate.nodeStoreSize() ) );
+        printIndented( "Relationships: " + bytes( estimate.relationshipStoreSize() ) );
+        printIndented( "Properties: " + bytes( estimate.propertyStoreSize() ) );
+        System.out.println( "Estimates don't include dense node relationship groups, label spill-over or "
+                + "long string and array values" );
+    }
+
     private static void printInputFiles( String name, Collection<Option<File[]>> files )
     {
         if ( files.isEmpty() )
@@ -460,7 +609,7 @@ public class ImportTool
     }
 
     private static org.neo4j.unsafe.impl.batchimport.Configuration importConfiguration( final Number processors,
-            final boolean defaultSettingsSuitableForTests )
+            final boolean sortRelationships, final boolean defaultSettingsSuitableForTests )
     {
         return new org.neo4j.unsafe.impl.batchimport.Configuration.Default()
         {
@@ -477,6 +626,12 @@ public class ImportTool
             {
                 return processors != null ? processors.intValue() : super.maxNumberOfProcessors();
             }
+
+            @Override
+            public boolean sortRelationshipsByNode()
+            {
+                return sortRelationships;
+            }
         };
     }
 
@@ -132,6 +132,33 @@ public class ImportToolTest
         verifyData();
     }
 
+    @Test
+    public void shouldOnlyPrintEstimatesOnDryRun() throws Exception
+    {
+        // GIVEN
+        List<String> nodeIds = nodeIds();
+        Configuration config = Configuration.COMMAS;
+        SuppressOutput.Voice outputVoice = suppressOutput.getOutputVoice();
+
+        // WHEN
+        importTool(
+                "--into", dbRule.getStoreDirAbsolutePath(),
+                "--dry-run", "true",
+                "--nodes", nodeData( true, config, nodeIds, alwaysTrue() ).getAbsolutePath(),
+                "--relationships", relationshipData( true, config, nodeIds, alwaysTrue(), true ).getAbsolutePath() );
+
+        // THEN
+        assertTrue( "Output should include estimates, but was:" + outputVoice,
+                outputVoice.containsMessage( "Estimated memory usage:" ) );
+        assertTrue( "Output should include node count, but was:" + outputVoice,
+                outputVoice.containsMessage( "Nodes: " + nodeIds.size() + " with" ) );
+        try ( Transaction tx = dbRule.beginTx() )
+        {
+            assertEquals( 0, count( at( dbRule ).getAllNodes() ) );
+            tx.success();
+        }
+    }
+
     @Test
     public void shouldImportWithHeadersBeingInSeparateFiles() throws Exception
     {
@@ -444,6 +444,9 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
             // Convert changes into commands and commit
             if ( hasChanges() )
             {
+                // Any deferred locks must be held before the commands are created from the current store state
+                locks.prepare();
+
                 // Gather up commands from the various sources
                 Collection<Command> extractedCommands = storageEngine.createCommands(
                         txState,
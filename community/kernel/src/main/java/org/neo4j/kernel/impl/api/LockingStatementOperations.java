@@ -512,6 +512,8 @@ public class LockingStatementOperations implements
     public void acquireExclusive( KernelStatement state, Locks.ResourceType resourceType, long resourceId )
     {
         state.locks().acquireExclusive( resourceType, resourceId );
+        // An explicitly acquired lock is expected to be held as soon as this returns
+        state.locks().prepare();
         state.assertOpen();
     }
 
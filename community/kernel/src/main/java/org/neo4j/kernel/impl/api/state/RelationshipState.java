@@ -72,10 +72,10 @@ public interface RelationshipState extends PropertyContainerState
         }
     }
 
-    abstract class Defaults extends StateDefaults<Long, RelationshipState, RelationshipState.Mutable>
+    abstract class Defaults extends PrimitiveLongStateDefaults<RelationshipState, RelationshipState.Mutable>
     {
         @Override
-        Mutable createValue( Long id, TxState state )
+        Mutable createValue( long id, TxState state )
         {
             return new Mutable( id );
         }
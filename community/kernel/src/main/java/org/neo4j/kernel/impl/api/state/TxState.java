@@ -29,6 +29,7 @@ import org.neo4j.collection.primitive.Primitive;
 import org.neo4j.collection.primitive.PrimitiveIntIterator;
 import org.neo4j.collection.primitive.PrimitiveIntObjectMap;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.collection.primitive.PrimitiveLongObjectMap;
 import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.cursor.Cursor;
 import org.neo4j.function.Consumer;
@@ -108,32 +109,32 @@ public final class TxState implements TransactionState, RelationshipVisitor.Home
             state.labelStatesMap = map;
         }
     };
-    private Map<Long/*Node ID*/, NodeState.Mutable> nodeStatesMap;
+    private PrimitiveLongObjectMap<NodeState.Mutable> nodeStatesMap;
     private static final NodeState.Defaults NODE_STATE = new NodeState.Defaults()
     {
         @Override
-        Map<Long, NodeState.Mutable> getMap( TxState state )
+        PrimitiveLongObjectMap<NodeState.Mutable> getMap( TxState state )
         {
             return state.nodeStatesMap;
         }
 
         @Override
-        void setMap( TxState state, Map<Long, NodeState.Mutable> map )
+        void setMap( TxState state, PrimitiveLongObjectMap<NodeState.Mutable> map )
         {
             state.nodeStatesMap = map;
         }
     };
-    private Map<Long/*Relationship ID*/, RelationshipState.Mutable> relationshipStatesMap;
+    private PrimitiveLongObjectMap<RelationshipState.Mutable> relationshipStatesMap;
     private static final RelationshipState.Defaults RELATIONSHIP_STATE = new RelationshipState.Defaults()
     {
         @Override
-        Map<Long, RelationshipState.Mutable> getMap( TxState state )
+        PrimitiveLongObjectMap<RelationshipState.Mutable> getMap( TxState state )
         {
             return state.relationshipStatesMap;
         }
 
         @Override
-        void setMap( TxState state, Map<Long, RelationshipState.Mutable> map )
+        void setMap( TxState state, PrimitiveLongObjectMap<RelationshipState.Mutable> map )
         {
             state.relationshipStatesMap = map;
         }
@@ -47,6 +47,7 @@ import org.neo4j.kernel.impl.core.DelegatingPropertyKeyTokenHolder;
 import org.neo4j.kernel.impl.core.DelegatingRelationshipTypeTokenHolder;
 import org.neo4j.kernel.impl.core.ReadOnlyTokenCreator;
 import org.neo4j.kernel.impl.core.TokenCreator;
+import org.neo4j.kernel.impl.locking.LockTracer;
 import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.kernel.impl.locking.ResourceTypes;
 import org.neo4j.kernel.impl.locking.community.CommunityLockManger;
@@ -83,7 +84,8 @@ public class CommunityEditionModule
 
         GraphDatabaseFacade graphDatabaseFacade = platformModule.graphDatabaseFacade;
 
-        lockManager = dependencies.satisfyDependency( createLockManager( config, logging ) );
+        lockManager = dependencies.satisfyDependency(
+                createLockManager( config, logging, platformModule.tracers.lockTracer ) );
 
         idGeneratorFactory = dependencies.satisfyDependency( createIdGeneratorFactory( fileSystem ) );
 
@@ -213,7 +215,7 @@ public class CommunityEditionModule
         return new DefaultIdGeneratorFactory( fs );
     }
 
-    public static Locks createLockManager( Config config, LogService logging )
+    public static Locks createLockManager( Config config, LogService logging, LockTracer lockTracer )
     {
         String key = config.get( GraphDatabaseFacadeFactory.Configuration.lock_manager );
         for ( Locks.Factory candidate : Service.load( Locks.Factory.class ) )
@@ -221,13 +223,13 @@ public class CommunityEditionModule
             String candidateId = candidate.getKeys().iterator().next();
             if ( candidateId.equals( key ) )
             {
-                return candidate.newInstance( ResourceTypes.values() );
+                return candidate.newInstance( ResourceTypes.values(), lockTracer );
             }
             else if ( key.equals( "" ) )
             {
                 logging.getInternalLog( CommunityFacadeFactory.class )
                         .info( "No locking implementation specified, defaulting to '" + candidateId + "'" );
-                return candidate.newInstance( ResourceTypes.values() );
+                return candidate.newInstance( ResourceTypes.values(), lockTracer );
             }
         }
 
@@ -152,6 +152,7 @@ public class PlatformModule
         dependencies.satisfyDependency( tracers.pageCacheTracer );
         dependencies.satisfyDependency( tracers.transactionTracer );
         dependencies.satisfyDependency( tracers.checkPointTracer );
+        dependencies.satisfyDependency( tracers.lockTracer );
 
         pageCache = dependencies.satisfyDependency( createPageCache( fileSystem, config, logging, tracers ) );
         life.add( new PageCacheLifecycle( pageCache ) );
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.neo4j.helpers.Clock;
+
+/**
+ * Keeps, per resource type, the number of lock waits, the accumulated wait time and a histogram of wait times with
+ * power-of-two microsecond buckets. Recording a wait is a handful of atomic increments, and only happens for
+ * contended locks.
+ */
+public class DefaultLockTracer implements LockTracer, LockWaitMonitor
+{
+    /** Resource types with higher type ids than this are not recorded. */
+    static final int MAX_RESOURCE_TYPES = 32;
+    /** Bucket {@code i} holds waits shorter than {@code 2^i} microseconds, the last bucket holds all longer waits. */
+    static final int BUCKETS = 32;
+
+    private final Clock clock;
+    private final AtomicLongArray waits = new AtomicLongArray( MAX_RESOURCE_TYPES );
+    private final AtomicLongArray waitTimeNanos = new AtomicLongArray( MAX_RESOURCE_TYPES );
+    private final AtomicLongArray histograms = new AtomicLongArray( MAX_RESOURCE_TYPES * BUCKETS );
+
+    public DefaultLockTracer()
+    {
+        this( Clock.SYSTEM_CLOCK );
+    }
+
+    DefaultLockTracer( Clock clock )
+    {
+        this.clock = clock;
+    }
+
+    @Override
+    public LockWaitEvent waitForLock( boolean exclusive, Locks.ResourceType resourceType, long resourceId )
+    {
+        int typeId = resourceType.typeId();
+        if ( typeId < 0 || typeId >= MAX_RESOURCE_TYPES )
+        {
+            return LockWaitEvent.NULL;
+        }
+        return new WaitEvent( typeId, clock.nanoTime() );
+    }
+
+    @Override
+    public long numberOfLockWaits( Locks.ResourceType resourceType )
+    {
+        int typeId = resourceType.typeId();
+        return typeId >= 0 && typeId < MAX_RESOURCE_TYPES ? waits.get( typeId ) : 0;
+    }
+
+    @Override
+    public long lockWaitAccumulatedTotalTimeMillis( Locks.ResourceType resourceType )
+    {
+        int typeId = resourceType.typeId();
+        return typeId >= 0 && typeId < MAX_RESOURCE_TYPES
+               ? TimeUnit.NANOSECONDS.toMillis( waitTimeNanos.get( typeId ) ) : 0;
+    }
+
+    @Override
+    public long lockWaitTimePercentileMicros( Locks.ResourceType resourceType, double percentile )
+    {
+        int typeId = resourceType.typeId();
+        if ( typeId < 0 || typeId >= MAX_RESOURCE_TYPES )
+        {
+            return 0;
+        }
+
+        // Take a snapshot of the buckets, since they may be concurrently updated
+        long[] buckets = new long[BUCKETS];
+        long total = 0;
+        for ( int i = 0; i < BUCKETS; i++ )
+        {
+            buckets[i] = histograms.get( typeId * BUCKETS + i );
+            total += buckets[i];
+        }
+        if ( total == 0 )
+        {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil( total * Math.min( Math.max( percentile, 0d ), 100d ) / 100d );
+        long seen = 0;
+        for ( int i = 0; i < BUCKETS; i++ )
+        {
+            seen += buckets[i];
+            if ( seen >= rank && buckets[i] > 0 )
+            {
+                return 1L << i;
+            }
+        }
+        return 1L << (BUCKETS - 1);
+    }
+
+    private void waited( int typeId, long nanos )
+    {
+        waits.incrementAndGet( typeId );
+        waitTimeNanos.addAndGet( typeId, nanos );
+        histograms.incrementAndGet( typeId * BUCKETS + bucket( TimeUnit.NANOSECONDS.toMicros( nanos ) ) );
+    }
+
+    static int bucket( long micros )
+    {
+        int bucket = 64 - Long.numberOfLeadingZeros( micros );
+        return Math.min( bucket, BUCKETS - 1 );
+    }
+
+    private class WaitEvent implements LockWaitEvent
+    {
+        private final int typeId;
+        private final long startNanos;
+
+        WaitEvent( int typeId, long startNanos )
+        {
+            this.typeId = typeId;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void close()
+        {
+            waited( typeId, clock.nanoTime() - startNanos );
+        }
+    }
+}
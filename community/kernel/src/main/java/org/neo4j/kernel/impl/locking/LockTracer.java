@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking;
+
+/**
+ * Tracer of lock waits. A lock wait event is only begun when a client cannot immediately be granted the lock it is
+ * asking for, so acquiring uncontended locks incurs no tracing overhead.
+ *
+ * @see org.neo4j.kernel.monitoring.tracing.Tracers
+ */
+public interface LockTracer
+{
+    LockTracer NULL = new LockTracer()
+    {
+        @Override
+        public LockWaitEvent waitForLock( boolean exclusive, Locks.ResourceType resourceType, long resourceId )
+        {
+            return LockWaitEvent.NULL;
+        }
+    };
+
+    /**
+     * Begin waiting for a lock that is held, in a conflicting mode, by other clients.
+     *
+     * @param exclusive {@code true} if the lock being waited for is an exclusive lock.
+     * @param resourceType the type of resource the lock is for.
+     * @param resourceId the id of the resource the lock is for.
+     * @return an event that is closed when the wait ends, either because the lock was acquired or because the
+     * attempt to acquire it failed.
+     */
+    LockWaitEvent waitForLock( boolean exclusive, Locks.ResourceType resourceType, long resourceId );
+}
@@ -51,6 +51,15 @@ public interface Locks
         }
 
         public abstract Locks newInstance( ResourceType[] resourceTypes );
+
+        /**
+         * Create a lock manager that reports lock waits to the given {@link LockTracer}. Implementations that
+         * do not support tracing are created through {@link #newInstance(ResourceType[])}.
+         */
+        public Locks newInstance( ResourceType[] resourceTypes, LockTracer lockTracer )
+        {
+            return newInstance( resourceTypes );
+        }
     }
 
     /** For introspection and debugging. */
@@ -61,6 +70,21 @@ public interface Locks
                 long lockIdentityHashCode );
     }
 
+    /** For introspection of lock waits, as they happen. */
+    interface WaitVisitor
+    {
+        /**
+         * Visit a client that is currently waiting for a lock.
+         *
+         * @param lockSessionId the {@link Client#getLockSessionId() lock session id} of the waiting client.
+         * @param exclusive {@code true} if the client is waiting for an exclusive lock.
+         * @param waitTimeMillis for how long the client has been waiting.
+         * @param blockedBy description of the clients that hold the lock, and what they in turn wait for.
+         */
+        void visit( int lockSessionId, boolean exclusive, ResourceType resourceType, long resourceId,
+                long waitTimeMillis, String blockedBy );
+    }
+
     /** Locks are split by resource types. It is up to the implementation to define the contract for these. */
     interface ResourceType
     {
@@ -98,6 +122,15 @@ public interface Locks
         /** Release a set of exclusive locks */
         void releaseExclusive( ResourceType resourceType, long resourceId );
 
+        /**
+         * Called when the locks acquired so far must actually be held from here on, e.g. before committing.
+         * A client which defers acquiring some of its locks must acquire them here, and acquire any further
+         * locks right away. Clients acquiring their locks right away have nothing to do here.
+         */
+        default void prepare() throws AcquireLockTimeoutException
+        {
+        }
+
         /** Release all locks. */
         void releaseAll();
 
@@ -126,5 +159,8 @@ public interface Locks
     /** Visit all held locks. */
     void accept(Visitor visitor);
 
+    /** Visit all clients currently waiting for a lock. Lock managers that do not track waits visit nothing. */
+    void acceptWaits( WaitVisitor visitor );
+
     void close();
 }
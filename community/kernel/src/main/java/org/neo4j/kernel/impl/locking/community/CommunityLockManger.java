@@ -59,6 +59,12 @@ public class CommunityLockManger implements Locks
         } );
     }
 
+    @Override
+    public void acceptWaits( WaitVisitor visitor )
+    {
+        // Waits are not tracked by the community lock manager, see accept() for an estimate of wait times
+    }
+
     @Override
     public void close()
     {
@@ -23,6 +23,9 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -62,6 +65,12 @@ import static org.neo4j.io.fs.FileUtils.truncateFile;
  * "sticky" and unusable next time you try to initialize a generator using the
  * same file. There can only be one id generator instance per id generator file.
  * <p>
+ * Handing out new high ids and freeing ids doesn't take the monitor of this
+ * generator; the high id is claimed with a compare-and-set and freed ids are
+ * collected in a concurrent queue, which is flushed to the file in batches of
+ * <CODE>grabSize</CODE> ids. Only reading defragged ids from, and writing them
+ * to, the file is done while holding the monitor.
+ * <p>
  * In case of disk/file I/O failure an <CODE>IOException</CODE> is thrown.
  */
 public class IdGeneratorImpl implements IdGenerator
@@ -84,15 +93,20 @@ public class IdGeneratorImpl implements IdGenerator
     // marks how much this session is allowed to read from previously released id batches.
     private long maxReadPosition = HEADER_SIZE;
     // used to calculate number of ids actually in use
-    private long defraggedIdCount = -1;
+    private final AtomicLong defraggedIdCount = new AtomicLong( -1 );
 
     private final File file;
     private final FileSystemAbstraction fs;
-    private StoreChannel fileChannel = null;
+    private volatile StoreChannel fileChannel = null;
     // defragged ids read from file (freed in a previous session).
     private final LinkedList<Long> idsReadFromFile = new LinkedList<>();
+    // whether or not there may be defragged ids to get from idsReadFromFile or the file itself,
+    // lets nextId() skip taking the monitor when there are none.
+    private volatile boolean defraggedIdsAvailable;
     // ids freed in this session that haven't been flushed to disk yet
-    private final LinkedList<Long> releasedIdList = new LinkedList<>();
+    private final Queue<Long> releasedIdList = new ConcurrentLinkedQueue<>();
+    // size of releasedIdList, which is expensive to calculate for a ConcurrentLinkedQueue
+    private final AtomicInteger releasedIdCount = new AtomicInteger();
 
     private final long max;
     private final boolean aggressiveReuse;
@@ -151,7 +165,7 @@ public class IdGeneratorImpl implements IdGenerator
      * @throws IllegalStateException if this id generator has been closed
      */
     @Override
-    public synchronized long nextId()
+    public long nextId()
     {
         assertStillOpen();
         long nextDefragId = nextIdFromDefragList();
@@ -160,16 +174,22 @@ public class IdGeneratorImpl implements IdGenerator
             return nextDefragId;
         }
 
-        long id = highId.get();
-        if ( id == INTEGER_MINUS_ONE )
+        while ( true )
         {
-            // Skip the integer -1 (0xFFFFFFFF) because it represents
-            // special values, f.ex. the end of a relationships/property chain.
-            id = highId.incrementAndGet();
+            long currentHighId = highId.get();
+            long id = currentHighId;
+            if ( id == INTEGER_MINUS_ONE )
+            {
+                // Skip the integer -1 (0xFFFFFFFF) because it represents
+                // special values, f.ex. the end of a relationships/property chain.
+                id++;
+            }
+            assertIdWithinCapacity( id );
+            if ( highId.compareAndSet( currentHighId, id + 1 ) )
+            {
+                return id;
+            }
         }
-        assertIdWithinCapacity( id );
-        highId.incrementAndGet();
-        return id;
     }
 
     private void assertIdWithinCapacity( long id )
@@ -193,24 +213,37 @@ public class IdGeneratorImpl implements IdGenerator
             Long id = releasedIdList.poll();
             if ( id != null )
             {
-                defraggedIdCount--;
+                releasedIdCount.decrementAndGet();
+                defraggedIdCount.decrementAndGet();
                 return id;
             }
         }
 
-        if ( !idsReadFromFile.isEmpty() || canReadMoreIdBatches() )
+        if ( defraggedIdsAvailable )
         {
-            if ( idsReadFromFile.isEmpty() )
+            synchronized ( this )
             {
-                readIdBatch();
+                if ( idsReadFromFile.isEmpty() )
+                {
+                    readIdBatch();
+                }
+                Long id = idsReadFromFile.poll();
+                updateDefraggedIdsAvailable();
+                if ( id != null )
+                {
+                    defraggedIdCount.decrementAndGet();
+                    return id;
+                }
             }
-            long id = idsReadFromFile.removeFirst();
-            defraggedIdCount--;
-            return id;
         }
         return -1;
     }
 
+    private void updateDefraggedIdsAvailable()
+    {
+        defraggedIdsAvailable = !idsReadFromFile.isEmpty() || canReadMoreIdBatches();
+    }
+
     private void assertStillOpen()
     {
         if ( fileChannel == null )
@@ -220,7 +253,7 @@ public class IdGeneratorImpl implements IdGenerator
     }
 
     @Override
-    public synchronized IdRange nextIdBatch( int size )
+    public IdRange nextIdBatch( int size )
     {
         assertStillOpen();
 
@@ -243,8 +276,13 @@ public class IdGeneratorImpl implements IdGenerator
         System.arraycopy( tmpArray, 0, defragIds, 0, count );
 
         int sizeLeftForRange = size - count;
-        long start = highId.get();
-        setHighId( start + sizeLeftForRange );
+        long start;
+        do
+        {
+            start = highId.get();
+            assertIdWithinCapacity( start + sizeLeftForRange );
+        }
+        while ( !highId.compareAndSet( start, start + sizeLeftForRange ) );
         return new IdRange( defragIds, start, sizeLeftForRange );
     }
 
@@ -293,7 +331,7 @@ public class IdGeneratorImpl implements IdGenerator
      *            The id to be made available again
      */
     @Override
-    public synchronized void freeId( long id )
+    public void freeId( long id )
     {
         if ( id == INTEGER_MINUS_ONE )
         {
@@ -309,10 +347,17 @@ public class IdGeneratorImpl implements IdGenerator
             throw new IllegalArgumentException( "Illegal id[" + id + "], highId is " + highId.get() );
         }
         releasedIdList.add( id );
-        defraggedIdCount++;
-        if ( releasedIdList.size() >= grabSize )
+        defraggedIdCount.incrementAndGet();
+        if ( releasedIdCount.incrementAndGet() >= grabSize )
         {
-            writeIdBatch( ByteBuffer.allocate( grabSize*8 ) );
+            synchronized ( this )
+            {
+                // Another thread may have flushed the batch while we waited for the monitor
+                if ( releasedIdCount.get() >= grabSize && !isClosed() )
+                {
+                    writeIdBatch( ByteBuffer.allocate( grabSize*8 ) );
+                }
+            }
         }
     }
 
@@ -344,6 +389,7 @@ public class IdGeneratorImpl implements IdGenerator
             while ( !idsReadFromFile.isEmpty() )
             {
                 releasedIdList.add( idsReadFromFile.removeFirst() );
+                releasedIdCount.incrementAndGet();
             }
             writeIdBatch( writeBuffer );
         }
@@ -475,8 +521,9 @@ public class IdGeneratorImpl implements IdGenerator
 
             fileChannel.position( HEADER_SIZE );
             maxReadPosition = fileChannel.size();
-            defraggedIdCount = (int) (maxReadPosition - HEADER_SIZE) / 8;
+            defraggedIdCount.set( (int) (maxReadPosition - HEADER_SIZE) / 8 );
             readIdBatch();
+            updateDefraggedIdsAvailable();
         }
         catch ( IOException e )
         {
@@ -584,9 +631,11 @@ public class IdGeneratorImpl implements IdGenerator
         {
             fileChannel.position( fileChannel.size() );
             writeBuffer.clear();
-            while ( !releasedIdList.isEmpty() )
+            Long releasedId;
+            while ( (releasedId = releasedIdList.poll()) != null )
             {
-                long id = releasedIdList.removeFirst();
+                releasedIdCount.decrementAndGet();
+                long id = releasedId;
                 if ( id == INTEGER_MINUS_ONE )
                 {
                     continue;
@@ -612,6 +661,7 @@ public class IdGeneratorImpl implements IdGenerator
             if ( aggressiveReuse )
             {
                 maxReadPosition = fileChannel.size();
+                updateDefraggedIdsAvailable();
             }
         }
         catch ( IOException e )
@@ -643,25 +693,28 @@ public class IdGeneratorImpl implements IdGenerator
     }
 
     @Override
-    public synchronized long getNumberOfIdsInUse()
+    public long getNumberOfIdsInUse()
     {
-        return highId.get() - defraggedIdCount;
+        return highId.get() - defraggedIdCount.get();
     }
 
     @Override
     public long getDefragCount()
     {
-        return defraggedIdCount;
+        return defraggedIdCount.get();
     }
 
-    public void clearFreeIds()
+    public synchronized void clearFreeIds()
     {
         releasedIdList.clear();
+        releasedIdCount.set( 0 );
         idsReadFromFile.clear();
-        defraggedIdCount = -1;
+        defraggedIdCount.set( -1 );
         try
         {
             truncateFile( fileChannel, HEADER_SIZE );
+            readPosition = maxReadPosition = HEADER_SIZE;
+            updateDefraggedIdsAvailable();
         }
         catch ( IOException e )
         {
@@ -113,4 +113,11 @@ public abstract class ActiveState<Key> extends ProgressiveState<Key>
     protected abstract Factory factory();
 
     protected abstract long applied();
+
+    /**
+     * Waits until {@link #applied()} reaches {@code expected}, or the timeout expires.
+     *
+     * @return {@code true} if the expected number of changes have been applied.
+     */
+    protected abstract boolean awaitApplied( long expected, long timeoutMillis ) throws InterruptedException;
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.kvstore;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the number of applied changes (transactions), and allows a rotation to wait until a certain number of
+ * changes have been applied, being woken up by the change that completes the set instead of polling for it.
+ * Applying a change only takes the monitor of this object when there is someone waiting.
+ */
+class AppliedChanges
+{
+    private final AtomicLong applied = new AtomicLong();
+    private volatile int waiters;
+
+    void increment()
+    {
+        applied.incrementAndGet();
+        if ( waiters > 0 )
+        {
+            synchronized ( this )
+            {
+                notifyAll();
+            }
+        }
+    }
+
+    long get()
+    {
+        return applied.get();
+    }
+
+    /**
+     * @return {@code true} if at least {@code expected} changes have been applied, or {@code false} if that didn't
+     * happen within the given timeout.
+     */
+    synchronized boolean await( long expected, long timeoutMillis ) throws InterruptedException
+    {
+        waiters++;
+        try
+        {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos( timeoutMillis );
+            for ( long remaining = timeoutMillis; applied.get() < expected; )
+            {
+                if ( remaining <= 0 )
+                {
+                    return false;
+                }
+                wait( remaining );
+                remaining = TimeUnit.NANOSECONDS.toMillis( deadline - System.nanoTime() );
+            }
+            return true;
+        }
+        finally
+        {
+            waiters--;
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.valueOf( applied.get() );
+    }
+}
@@ -35,7 +35,7 @@ class ConcurrentMapState<Key> extends ActiveState<Key>
     private final ConcurrentMap<Key, byte[]> changes;
     private final File file;
     private final AtomicLong highestAppliedVersion;
-    private final AtomicLong appliedChanges;
+    private final AppliedChanges appliedChanges;
     private final AtomicBoolean hasTrackedChanges;
     private final long previousVersion;
 
@@ -46,7 +46,7 @@ class ConcurrentMapState<Key> extends ActiveState<Key>
         this.file = file;
         this.highestAppliedVersion = new AtomicLong( previousVersion );
         this.changes = new ConcurrentHashMap<>();
-        this.appliedChanges = new AtomicLong();
+        this.appliedChanges = new AppliedChanges();
         hasTrackedChanges = new AtomicBoolean();
     }
 
@@ -88,11 +88,11 @@ class ConcurrentMapState<Key> extends ActiveState<Key>
 
     private static class Updater<Key> extends EntryUpdater<Key>
     {
-        private AtomicLong changeCounter;
+        private AppliedChanges changeCounter;
         private final ReadableState<Key> store;
         private final ConcurrentMap<Key, byte[]> changes;
 
-        Updater( Lock lock, ReadableState<Key> store, ConcurrentMap<Key, byte[]> changes, AtomicLong changeCounter )
+        Updater( Lock lock, ReadableState<Key> store, ConcurrentMap<Key, byte[]> changes, AppliedChanges changeCounter )
         {
             super( lock );
             this.changeCounter = changeCounter;
@@ -112,7 +112,7 @@ class ConcurrentMapState<Key> extends ActiveState<Key>
         {
             if ( changeCounter != null )
             {
-                changeCounter.incrementAndGet();
+                changeCounter.increment();
                 changeCounter = null;
             }
             super.close();
@@ -219,7 +219,8 @@ class ConcurrentMapState<Key> extends ActiveState<Key>
     private static class Prototype<Key> extends PrototypeState<Key>
     {
         final ConcurrentMap<Key, byte[]> changes = new ConcurrentHashMap<>();
-        final AtomicLong highestAppliedVersion, appliedChanges = new AtomicLong();
+        final AtomicLong highestAppliedVersion;
+        final AppliedChanges appliedChanges = new AppliedChanges();
         final AtomicBoolean hasTrackedChanges;
         private final long threshold;
 
@@ -312,6 +313,12 @@ class ConcurrentMapState<Key> extends ActiveState<Key>
         return appliedChanges.get();
     }
 
+    @Override
+    protected boolean awaitApplied( long expected, long timeoutMillis ) throws InterruptedException
+    {
+        return appliedChanges.await( expected, timeoutMillis );
+    }
+
     @Override
     protected boolean hasChanges()
     {
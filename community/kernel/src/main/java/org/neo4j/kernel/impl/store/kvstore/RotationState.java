@@ -65,23 +65,23 @@ abstract class RotationState<Key> extends ProgressiveState<Key>
             if ( !force )
             {
                 RotationTimerFactory.RotationTimer rotationTimer = timerFactory.createTimer();
-                for ( long expected = threshold - preState.store.version(), sleep = 10;
-                      preState.applied() < expected; sleep = Math.min( sleep * 2, 100 ) )
+                long expected = threshold - preState.store.version();
+                try
                 {
-                    if ( rotationTimer.isTimedOut() )
+                    // wait for the remaining changes to be applied, waking up now and then to check for timeout
+                    while ( !preState.awaitApplied( expected, 100 ) )
                     {
-                        throw new RotationTimeoutException( threshold, preState.store.version(),
-                                rotationTimer.getElapsedTimeMillis());
-                    }
-                    try
-                    {
-                        Thread.sleep( sleep );
-                    }
-                    catch ( InterruptedException e )
-                    {
-                        throw Exceptions.withCause( new InterruptedIOException( "Rotation was interrupted." ), e );
+                        if ( rotationTimer.isTimedOut() )
+                        {
+                            throw new RotationTimeoutException( threshold, preState.store.version(),
+                                    rotationTimer.getElapsedTimeMillis() );
+                        }
                     }
                 }
+                catch ( InterruptedException e )
+                {
+                    throw Exceptions.withCause( new InterruptedIOException( "Rotation was interrupted." ), e );
+                }
             }
             Pair<File, KeyValueStoreFile> next = strategy
                     .next( file(), updateHeaders( headersUpdater ), keyFormat().filter( preState.dataProvider() ) );
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.info;
+
+import java.beans.ConstructorProperties;
+
+public final class LockWaitInfo
+{
+    private final int lockSessionId;
+    private final String lockType;
+    private final String resourceType;
+    private final String resourceId;
+    private final long waitTimeMillis;
+    private final String blockedBy;
+
+    @ConstructorProperties( { "lockSessionId", "lockType", "resourceType", "resourceId", "waitTimeMillis",
+            "blockedBy" } )
+    public LockWaitInfo( int lockSessionId, String lockType, String resourceType, String resourceId,
+            long waitTimeMillis, String blockedBy )
+    {
+        this.lockSessionId = lockSessionId;
+        this.lockType = lockType;
+        this.resourceType = resourceType;
+        this.resourceId = resourceId;
+        this.waitTimeMillis = waitTimeMillis;
+        this.blockedBy = blockedBy;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format( "Client[%d] waiting %dms for %s lock on %s(%s), blocked by %s",
+                lockSessionId, waitTimeMillis, lockType, resourceType, resourceId, blockedBy );
+    }
+
+    public int getLockSessionId()
+    {
+        return lockSessionId;
+    }
+
+    public String getLockType()
+    {
+        return lockType;
+    }
+
+    public String getResourceType()
+    {
+        return resourceType;
+    }
+
+    public String getResourceId()
+    {
+        return resourceId;
+    }
+
+    public long getWaitTimeMillis()
+    {
+        return waitTimeMillis;
+    }
+
+    public String getBlockedBy()
+    {
+        return blockedBy;
+    }
+}
@@ -22,6 +22,8 @@ package org.neo4j.kernel.monitoring.tracing;
 import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.impl.api.DefaultTransactionTracer;
+import org.neo4j.kernel.impl.locking.DefaultLockTracer;
+import org.neo4j.kernel.impl.locking.LockTracer;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.DefaultCheckPointerTracer;
 import org.neo4j.kernel.impl.transaction.tracing.CheckPointTracer;
 import org.neo4j.kernel.impl.transaction.tracing.TransactionTracer;
@@ -54,4 +56,10 @@ public class DefaultTracerFactory implements TracerFactory
     {
         return new DefaultCheckPointerTracer();
     }
+
+    @Override
+    public LockTracer createLockTracer()
+    {
+        return new DefaultLockTracer();
+    }
 }
@@ -20,6 +20,7 @@
 package org.neo4j.kernel.monitoring.tracing;
 
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.locking.LockTracer;
 import org.neo4j.kernel.impl.transaction.tracing.CheckPointTracer;
 import org.neo4j.kernel.impl.transaction.tracing.TransactionTracer;
 
@@ -53,4 +54,13 @@ public interface TracerFactory
      * @return The created instance.
      */
     CheckPointTracer createCheckPointTracer();
+
+    /**
+     * Create a new LockTracer instance. Lock waits are not traced unless an implementation overrides this.
+     * @return The created instance.
+     */
+    default LockTracer createLockTracer()
+    {
+        return LockTracer.NULL;
+    }
 }
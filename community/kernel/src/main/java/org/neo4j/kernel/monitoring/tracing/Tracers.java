@@ -21,6 +21,7 @@ package org.neo4j.kernel.monitoring.tracing;
 
 import org.neo4j.helpers.Service;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.locking.LockTracer;
 import org.neo4j.kernel.impl.transaction.tracing.CheckPointTracer;
 import org.neo4j.kernel.impl.transaction.tracing.TransactionTracer;
 import org.neo4j.logging.Log;
@@ -97,6 +98,7 @@ public class Tracers
     public final PageCacheTracer pageCacheTracer;
     public final TransactionTracer transactionTracer;
     public final CheckPointTracer checkPointTracer;
+    public final LockTracer lockTracer;
 
     /**
      * Create a Tracers subsystem with the desired implementation, if it can be found and created.
@@ -113,6 +115,7 @@ public class Tracers
             pageCacheTracer = PageCacheTracer.NULL;
             transactionTracer = TransactionTracer.NULL;
             checkPointTracer = CheckPointTracer.NULL;
+            lockTracer = LockTracer.NULL;
         }
         else
         {
@@ -144,6 +147,7 @@ public class Tracers
             pageCacheTracer = foundFactory.createPageCacheTracer();
             transactionTracer = foundFactory.createTransactionTracer();
             checkPointTracer = foundFactory.createCheckPointTracer();
+            lockTracer = foundFactory.createLockTracer();
         }
     }
 }
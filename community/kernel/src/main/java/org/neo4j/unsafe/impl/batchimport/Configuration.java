@@ -58,6 +58,15 @@ public interface Configuration extends org.neo4j.unsafe.impl.batchimport.staging
      */
     int maxNumberOfProcessors();
 
+    /**
+     * Whether or not to order the relationships of each batch by start and end node id before they get
+     * their ids assigned. Relationships of the same node coming in close to each other in the input
+     * will then end up next to each other in the relationship store, which improves locality when
+     * linking and later traversing relationship chains. This comes at the cost of sorting each batch.
+     * Doesn't change anything if the input specifies relationship ids.
+     */
+    boolean sortRelationshipsByNode();
+
     class Default
             extends org.neo4j.unsafe.impl.batchimport.staging.Configuration.Default
             implements Configuration
@@ -113,6 +122,12 @@ public interface Configuration extends org.neo4j.unsafe.impl.batchimport.staging
         {
             return 100;
         }
+
+        @Override
+        public boolean sortRelationshipsByNode()
+        {
+            return false;
+        }
     }
 
     Configuration DEFAULT = new Default();
@@ -159,5 +174,11 @@ public interface Configuration extends org.neo4j.unsafe.impl.batchimport.staging
         {
             return defaults.movingAverageSize();
         }
+
+        @Override
+        public boolean sortRelationshipsByNode()
+        {
+            return defaults.sortRelationshipsByNode();
+        }
     }
 }
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport;
+
+import org.neo4j.helpers.progress.ProgressListener;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.unsafe.impl.batchimport.cache.GatheringMemoryStatsVisitor;
+import org.neo4j.unsafe.impl.batchimport.cache.MemoryStatsVisitor;
+import org.neo4j.unsafe.impl.batchimport.cache.NodeLabelsCache;
+import org.neo4j.unsafe.impl.batchimport.cache.NodeRelationshipCache;
+import org.neo4j.unsafe.impl.batchimport.cache.idmapping.string.EncodingIdMapper;
+import org.neo4j.unsafe.impl.batchimport.cache.idmapping.string.LongEncoder;
+import org.neo4j.unsafe.impl.batchimport.cache.idmapping.string.ParallelSort;
+import org.neo4j.unsafe.impl.batchimport.cache.idmapping.string.Radix;
+import org.neo4j.unsafe.impl.batchimport.input.Collectors;
+import org.neo4j.unsafe.impl.batchimport.input.Group;
+
+import static java.lang.Math.max;
+
+import static org.neo4j.unsafe.impl.batchimport.cache.NumberArrayFactory.HEAP;
+
+/**
+ * Estimates how much memory the caches of {@link ParallelBatchImporter} will need and how big the resulting
+ * store files will be, given the number of entities in the input. Meant to be used before an import is started,
+ * so that an import which will not fit can be detected up front instead of running out of memory halfway.
+ *
+ * Memory per node of each cache is measured by filling a small instance of it and
+ * {@link MemoryStatsVisitor visiting} it for its memory usage, the same figures the importer reports while running.
+ *
+ * The estimates are lower bounds: they don't include spill-over in {@link NodeLabelsCache} for nodes with
+ * many labels, relationship groups for dense nodes, or dynamic records for long strings and arrays.
+ */
+public class ImportMemoryEstimate
+{
+    /**
+     * Number of nodes the caches are filled with when measuring their memory usage per node. Also the chunk size
+     * of their arrays, so that exactly one chunk gets allocated.
+     */
+    private static final int MEASURED_NODES = 1_000;
+    /**
+     * A {@link PropertyStore} record holds four property blocks and a simple property value fits in one block.
+     * Property records aren't shared between entities, so an entity with five properties needs two records.
+     */
+    static final int PROPERTIES_PER_PROPERTY_RECORD = 4;
+
+    private final long nodeCount;
+    private final long relationshipCount;
+    private final long propertyRecordCount;
+    private final boolean idMapping;
+    private final double idMapperBytesPerNode;
+    private final double nodeRelationshipCacheBytesPerNode;
+    private final double nodeLabelsCacheBytesPerNode;
+
+    /**
+     * @param nodeCount number of nodes in the input.
+     * @param relationshipCount number of relationships in the input.
+     * @param propertyRecordCount number of property records needed for the properties in the input,
+     * node and relationship properties combined, see {@link #propertyRecordsFor(int)}.
+     * @param idMapping whether or not input ids need to be mapped to actual node ids, i.e. whether or not
+     * the importer will use an {@link EncodingIdMapper}.
+     */
+    public ImportMemoryEstimate( long nodeCount, long relationshipCount, long propertyRecordCount, boolean idMapping )
+    {
+        this.nodeCount = nodeCount;
+        this.relationshipCount = relationshipCount;
+        this.propertyRecordCount = propertyRecordCount;
+        this.idMapping = idMapping;
+        this.idMapperBytesPerNode = idMapping ? idMapperBytesPerNode() : 0;
+        this.nodeRelationshipCacheBytesPerNode = nodeRelationshipCacheBytesPerNode();
+        this.nodeLabelsCacheBytesPerNode = nodeLabelsCacheBytesPerNode();
+    }
+
+    private static double idMapperBytesPerNode()
+    {
+        EncodingIdMapper idMapper = new EncodingIdMapper( HEAP, new LongEncoder(), Radix.LONG,
+                EncodingIdMapper.NO_MONITOR, MEASURED_NODES, 1, ParallelSort.DEFAULT );
+        for ( long nodeId = 0; nodeId < MEASURED_NODES; nodeId++ )
+        {
+            idMapper.put( nodeId, nodeId, Group.GLOBAL );
+        }
+        // Distinct long ids never collide, so the ids aren't needed for collision resolution
+        idMapper.prepare( null, Collectors.silentBadCollector( 0 ), ProgressListener.NONE );
+        return bytesPerNode( idMapper );
+    }
+
+    private static double nodeRelationshipCacheBytesPerNode()
+    {
+        NodeRelationshipCache cache = new NodeRelationshipCache( HEAP,
+                Configuration.DEFAULT.denseNodeThreshold(), MEASURED_NODES );
+        for ( long nodeId = 0; nodeId < MEASURED_NODES; nodeId++ )
+        {
+            cache.incrementCount( nodeId );
+        }
+        return bytesPerNode( cache );
+    }
+
+    private static double nodeLabelsCacheBytesPerNode()
+    {
+        NodeLabelsCache cache = new NodeLabelsCache( HEAP, 0, MEASURED_NODES );
+        for ( long nodeId = 0; nodeId < MEASURED_NODES; nodeId++ )
+        {
+            cache.put( nodeId, new long[0] );
+        }
+        return bytesPerNode( cache );
+    }
+
+    private static double bytesPerNode( MemoryStatsVisitor.Home cache )
+    {
+        GatheringMemoryStatsVisitor memory = new GatheringMemoryStatsVisitor();
+        cache.acceptMemoryStatsVisitor( memory );
+        return (double) (memory.getHeapUsage() + memory.getOffHeapUsage()) / MEASURED_NODES;
+    }
+
+    public long idMapperMemory()
+    {
+        return (long) (nodeCount * idMapperBytesPerNode);
+    }
+
+    public long nodeRelationshipCacheMemory()
+    {
+        return (long) (nodeCount * nodeRelationshipCacheBytesPerNode);
+    }
+
+    public long nodeLabelsCacheMemory()
+    {
+        return (long) (nodeCount * nodeLabelsCacheBytesPerNode);
+    }
+
+    /**
+     * @return memory needed by the stages importing nodes and relationships and linking relationship chains,
+     * i.e. every stage up to and including the relationship link back stage.
+     */
+    public long importStagesMemory()
+    {
+        return idMapperMemory() + nodeRelationshipCacheMemory();
+    }
+
+    /**
+     * @return memory needed by the stages calculating counts. The {@link NodeRelationshipCache} has been
+     * released at that point and the {@link NodeLabelsCache} takes its place.
+     */
+    public long countsStagesMemory()
+    {
+        return idMapperMemory() + nodeLabelsCacheMemory();
+    }
+
+    public long peakMemory()
+    {
+        return max( importStagesMemory(), countsStagesMemory() );
+    }
+
+    public long nodeStoreSize()
+    {
+        return nodeCount * NodeStore.RECORD_SIZE;
+    }
+
+    public long relationshipStoreSize()
+    {
+        return relationshipCount * RelationshipStore.RECORD_SIZE;
+    }
+
+    /**
+     * @param propertyCount number of properties of a single entity.
+     * @return number of property records needed to hold those properties.
+     */
+    public static long propertyRecordsFor( int propertyCount )
+    {
+        return (propertyCount + PROPERTIES_PER_PROPERTY_RECORD - 1) / PROPERTIES_PER_PROPERTY_RECORD;
+    }
+
+    public long propertyStoreSize()
+    {
+        return propertyRecordCount * PropertyStore.RECORD_SIZE;
+    }
+
+    public long storeSize()
+    {
+        return nodeStoreSize() + relationshipStoreSize() + propertyStoreSize();
+    }
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName() + "[nodes:" + nodeCount + ", relationships:" + relationshipCount +
+                ", propertyRecords:" + propertyRecordCount + ", idMapping:" + idMapping + "]";
+    }
+}
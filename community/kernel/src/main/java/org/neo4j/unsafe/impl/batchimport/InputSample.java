@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport;
+
+import org.neo4j.csv.reader.SourceTraceability;
+import org.neo4j.unsafe.impl.batchimport.input.InputEntity;
+
+import static java.lang.Math.max;
+
+/**
+ * Number of entities, properties and property records in an input, estimated by reading only the first
+ * entities of it and extrapolating from how far into the input the sample reached, as reported by
+ * {@link SourceTraceability#storedPosition()}. If the whole input fits in the sample the numbers are exact.
+ */
+public class InputSample
+{
+    private final long entities;
+    private final long properties;
+    private final long propertyRecords;
+    private final boolean exact;
+
+    InputSample( long entities, long properties, long propertyRecords, boolean exact )
+    {
+        this.entities = entities;
+        this.properties = properties;
+        this.propertyRecords = propertyRecords;
+        this.exact = exact;
+    }
+
+    /**
+     * @param input entities to sample.
+     * @param inputSize total size of the input as stored, e.g. compressed, in the same unit as
+     * {@link SourceTraceability#storedPosition()}.
+     * @param sampleSize max number of entities to read.
+     * @return {@link InputSample} of the given input.
+     */
+    public static InputSample sample( InputIterable<? extends InputEntity> input, long inputSize, int sampleSize )
+    {
+        long entities = 0;
+        long properties = 0;
+        long propertyRecords = 0;
+        try ( InputIterator<? extends InputEntity> iterator = input.iterator() )
+        {
+            while ( entities < sampleSize && iterator.hasNext() )
+            {
+                int entityProperties = iterator.next().properties().length / 2;
+                entities++;
+                properties += entityProperties;
+                propertyRecords += ImportMemoryEstimate.propertyRecordsFor( entityProperties );
+            }
+
+            if ( !iterator.hasNext() )
+            {
+                return new InputSample( entities, properties, propertyRecords, true );
+            }
+
+            // The stored position is estimated from read-ahead, so never extrapolate to less than was sampled
+            long position = iterator.storedPosition();
+            double factor = position > 0 ? max( (double) inputSize / position, 1 ) : 1;
+            return new InputSample( (long) (entities * factor), (long) (properties * factor),
+                    (long) (propertyRecords * factor), false );
+        }
+    }
+
+    public long entities()
+    {
+        return entities;
+    }
+
+    public long properties()
+    {
+        return properties;
+    }
+
+    public long propertyRecords()
+    {
+        return propertyRecords;
+    }
+
+    /**
+     * @return whether or not the whole input was read, i.e. the numbers are counted rather than estimated.
+     */
+    public boolean isExact()
+    {
+        return exact;
+    }
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName() + "[entities:" + entities + ", properties:" + properties +
+                ", propertyRecords:" + propertyRecords + ", exact:" + exact + "]";
+    }
+}
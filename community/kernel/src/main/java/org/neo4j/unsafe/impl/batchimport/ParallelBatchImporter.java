@@ -26,11 +26,13 @@ import org.neo4j.helpers.Exceptions;
 import org.neo4j.helpers.Format;
 import org.neo4j.io.fs.DefaultFileSystemAbstraction;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.FileUtils;
 import org.neo4j.kernel.impl.api.CountsAccessor;
 import org.neo4j.kernel.impl.logging.LogService;
 import org.neo4j.logging.Log;
 import org.neo4j.unsafe.impl.batchimport.cache.NodeLabelsCache;
 import org.neo4j.unsafe.impl.batchimport.cache.NodeRelationshipCache;
+import org.neo4j.unsafe.impl.batchimport.cache.NumberArrayFactory;
 import org.neo4j.unsafe.impl.batchimport.cache.idmapping.IdGenerator;
 import org.neo4j.unsafe.impl.batchimport.cache.idmapping.IdMapper;
 import org.neo4j.unsafe.impl.batchimport.input.Collector;
@@ -48,7 +50,7 @@ import org.neo4j.unsafe.impl.batchimport.store.io.IoMonitor;
 import static java.lang.System.currentTimeMillis;
 
 import static org.neo4j.unsafe.impl.batchimport.AdditionalInitialIds.EMPTY;
-import static org.neo4j.unsafe.impl.batchimport.cache.NumberArrayFactory.AUTO;
+import static org.neo4j.unsafe.impl.batchimport.cache.NumberArrayFactory.autoWithMemoryMappedFallback;
 import static org.neo4j.unsafe.impl.batchimport.staging.ExecutionSupervisors.superviseExecution;
 import static org.neo4j.unsafe.impl.batchimport.staging.ExecutionSupervisors.withDynamicProcessorAssignment;
 
@@ -64,6 +66,8 @@ import static org.neo4j.unsafe.impl.batchimport.staging.ExecutionSupervisors.wit
  */
 public class ParallelBatchImporter implements BatchImporter
 {
+    public static final String CACHE_DIRECTORY_NAME = "import-caches";
+
     private final File storeDir;
     private final FileSystemAbstraction fileSystem;
     private final Configuration config;
@@ -114,6 +118,12 @@ public class ParallelBatchImporter implements BatchImporter
         boolean hasBadEntries = false;
         File badFile = new File( storeDir, Configuration.BAD_FILE_NAME );
         CountingStoreUpdateMonitor storeUpdateMonitor = new CountingStoreUpdateMonitor();
+        // Caches which don't fit in memory are placed in memory mapped files. They go next to the store,
+        // rather than in the default temporary directory, because that is often small or even lives in memory.
+        // Also clears files left over from an import that was killed.
+        File cacheDirectory = new File( storeDir, CACHE_DIRECTORY_NAME );
+        FileUtils.deleteRecursively( cacheDirectory );
+        NumberArrayFactory numberArrayFactory = autoWithMemoryMappedFallback( cacheDirectory );
         try ( BatchingNeoStores neoStore =
                       new BatchingNeoStores( fileSystem, storeDir, config, logService, additionalInitialIds );
               CountsAccessor.Updater countsUpdater = neoStore.getCountsStore().reset(
@@ -125,7 +135,7 @@ public class ParallelBatchImporter implements BatchImporter
             IoMonitor writeMonitor = new IoMonitor( neoStore.getIoTracer() );
             IdMapper idMapper = input.idMapper();
             IdGenerator idGenerator = input.idGenerator();
-            nodeRelationshipCache = new NodeRelationshipCache( AUTO, config.denseNodeThreshold() );
+            nodeRelationshipCache = new NodeRelationshipCache( numberArrayFactory, config.denseNodeThreshold() );
             StatsProvider memoryUsageStats = new MemoryUsageStatsProvider( nodeRelationshipCache, idMapper );
             InputIterable<InputNode> nodes = input.nodes();
             InputIterable<InputRelationship> relationships = input.relationships();
@@ -177,14 +187,14 @@ public class ParallelBatchImporter implements BatchImporter
             nodeRelationshipCache = null;
 
             // Stage 6 -- count nodes per label and labels per node
-            nodeLabelsCache = new NodeLabelsCache( AUTO, neoStore.getLabelRepository().getHighId() );
+            nodeLabelsCache = new NodeLabelsCache( numberArrayFactory, neoStore.getLabelRepository().getHighId() );
             memoryUsageStats = new MemoryUsageStatsProvider( nodeLabelsCache );
             executeStages( new NodeCountsStage( config, nodeLabelsCache, neoStore.getNodeStore(),
                     neoStore.getLabelRepository().getHighId(), countsUpdater, memoryUsageStats ) );
             // Stage 7 -- count label-[type]->label
             executeStages( new RelationshipCountsStage( config, nodeLabelsCache, neoStore.getRelationshipStore(),
                     neoStore.getLabelRepository().getHighId(),
-                    neoStore.getRelationshipTypeRepository().getHighId(), countsUpdater, AUTO ) );
+                    neoStore.getRelationshipTypeRepository().getHighId(), countsUpdater, numberArrayFactory ) );
 
             // We're done, do some final logging about it
             long totalTimeMillis = currentTimeMillis() - startTime;
@@ -216,6 +226,7 @@ public class ParallelBatchImporter implements BatchImporter
             {
                 fileSystem.deleteFile( badFile );
             }
+            FileUtils.deleteRecursively( cacheDirectory );
         }
     }
 
@@ -80,21 +80,31 @@ public class ProcessRelationshipCountsDataStep extends ProcessorStep<long[]>
     protected void done()
     {
         super.done();
-        RelationshipCountsProcessor all = null;
-        for ( RelationshipCountsProcessor processor : processors.values() )
+        try
         {
-            if ( all == null )
+            RelationshipCountsProcessor all = null;
+            for ( RelationshipCountsProcessor processor : processors.values() )
             {
-                all = processor;
+                if ( all == null )
+                {
+                    all = processor;
+                }
+                else
+                {
+                    all.addCountsFrom( processor );
+                }
             }
-            else
+            if ( all != null )
             {
-                all.addCountsFrom( processor );
+                all.done();
             }
         }
-        if ( all != null )
+        finally
         {
-            all.done();
+            for ( RelationshipCountsProcessor processor : processors.values() )
+            {
+                processor.close();
+            }
         }
     }
 }
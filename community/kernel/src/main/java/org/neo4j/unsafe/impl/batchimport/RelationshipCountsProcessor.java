@@ -128,6 +128,15 @@ public class RelationshipCountsProcessor implements RecordProcessor<Relationship
         }
     }
 
+    /**
+     * Frees the count arrays. Call once the counts have been written by {@link #done()} or added to another processor.
+     */
+    public void close()
+    {
+        labelsCounts.close();
+        wildcardCounts.close();
+    }
+
     public void addCountsFrom( RelationshipCountsProcessor from )
     {
         mergeCounts( labelsCounts, from.labelsCounts );
@@ -20,6 +20,7 @@
 package org.neo4j.unsafe.impl.batchimport;
 
 import java.util.Arrays;
+import java.util.Comparator;
 
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.unsafe.impl.batchimport.cache.idmapping.IdMapper;
@@ -32,15 +33,20 @@ import org.neo4j.unsafe.impl.batchimport.staging.StageControl;
  * Prepares {@link InputRelationship}, or at least potential slow parts of it, namely {@link IdMapper} lookup.
  * This step is also parallelizable so if it becomes a bottleneck then more processors will automatically
  * be assigned to it.
+ *
+ * If {@link Configuration#sortRelationshipsByNode()} is enabled the relationships in each batch are also
+ * reordered by start and end node id, so that relationship ids are later assigned in that order.
  */
 public class RelationshipPreparationStep extends ProcessorStep<Batch<InputRelationship,RelationshipRecord>>
 {
     private final IdMapper idMapper;
+    private final boolean sortByNode;
 
     public RelationshipPreparationStep( StageControl control, Configuration config, IdMapper idMapper )
     {
         super( control, "PREPARE", config, 0 );
         this.idMapper = idMapper;
+        this.sortByNode = config.sortRelationshipsByNode();
     }
 
     @Override
@@ -54,8 +60,43 @@ public class RelationshipPreparationStep extends ProcessorStep<Batch<InputRelati
             ids[i*2] = idMapper.get( batchRelationship.startNode(), batchRelationship.startNodeGroup() );
             ids[i*2+1] = idMapper.get( batchRelationship.endNode(), batchRelationship.endNodeGroup() );
         }
+        if ( sortByNode )
+        {
+            sortByNode( input, ids );
+        }
         batch.sortedIds = ids.clone();
         Arrays.sort( batch.sortedIds );
         sender.send( batch );
     }
+
+    /**
+     * Reorders {@code input}, and the node ids in {@code ids} along with it, by start node id and then end node id.
+     */
+    static void sortByNode( InputRelationship[] input, final long[] ids )
+    {
+        Integer[] order = new Integer[input.length];
+        for ( int i = 0; i < order.length; i++ )
+        {
+            order[i] = i;
+        }
+        Arrays.sort( order, new Comparator<Integer>()
+        {
+            @Override
+            public int compare( Integer o1, Integer o2 )
+            {
+                int startComparison = Long.compare( ids[o1*2], ids[o2*2] );
+                return startComparison != 0 ? startComparison : Long.compare( ids[o1*2+1], ids[o2*2+1] );
+            }
+        } );
+
+        InputRelationship[] unsortedInput = input.clone();
+        long[] unsortedIds = ids.clone();
+        for ( int i = 0; i < order.length; i++ )
+        {
+            int from = order[i];
+            input[i] = unsortedInput[from];
+            ids[i*2] = unsortedIds[from*2];
+            ids[i*2+1] = unsortedIds[from*2+1];
+        }
+    }
 }
@@ -50,7 +50,18 @@ abstract class DynamicNumberArray<N extends NumberArray> extends ChunkedNumberAr
                     NumberArray[] newChunks = Arrays.copyOf( chunks, chunkIndex( index )+1 );
                     for ( int i = chunks.length; i < newChunks.length; i++ )
                     {
-                        newChunks[i] = addChunk( chunkSize );
+                        try
+                        {
+                            newChunks[i] = addChunk( chunkSize );
+                        }
+                        catch ( Throwable t )
+                        {   // Free the chunks added so far, otherwise they would leak the memory that a fallback needs
+                            for ( int j = chunks.length; j < i; j++ )
+                            {
+                                newChunks[j].close();
+                            }
+                            throw t;
+                        }
                     }
                     chunks = newChunks;
                 }
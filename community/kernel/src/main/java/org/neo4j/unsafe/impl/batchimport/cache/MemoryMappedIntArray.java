@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.cache;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+
+/**
+ * Memory mapped version of {@link IntArray}, see {@link MemoryMappedNumberArray}.
+ */
+public class MemoryMappedIntArray extends MemoryMappedNumberArray implements IntArray
+{
+    private final int defaultValue;
+
+    public MemoryMappedIntArray( File directory, long length, int defaultValue )
+    {
+        this( directory, length, defaultValue, CHUNK_SHIFT );
+    }
+
+    MemoryMappedIntArray( File directory, long length, int defaultValue, int chunkShift )
+    {
+        super( directory, length, 2, chunkShift );
+        this.defaultValue = defaultValue;
+        if ( defaultValue != 0 )
+        {   // A newly created file is zeroed already
+            clear();
+        }
+    }
+
+    @Override
+    public int get( long index )
+    {
+        return chunkOf( index ).getInt( offsetOf( index ) );
+    }
+
+    @Override
+    public void set( long index, int value )
+    {
+        chunkOf( index ).putInt( offsetOf( index ), value );
+    }
+
+    @Override
+    public void clear()
+    {
+        for ( long i = 0; i < length; i++ )
+        {
+            set( i, defaultValue );
+        }
+    }
+
+    @Override
+    public void swap( long fromIndex, long toIndex, int numberOfEntries )
+    {
+        for ( int i = 0; i < numberOfEntries; i++ )
+        {
+            ByteBuffer fromChunk = chunkOf( fromIndex + i ), toChunk = chunkOf( toIndex + i );
+            int fromOffset = offsetOf( fromIndex + i ), toOffset = offsetOf( toIndex + i );
+            int fromValue = fromChunk.getInt( fromOffset );
+            fromChunk.putInt( fromOffset, toChunk.getInt( toOffset ) );
+            toChunk.putInt( toOffset, fromValue );
+        }
+    }
+
+    @Override
+    public IntArray fixate()
+    {
+        return this;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.cache;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+
+/**
+ * Memory mapped version of {@link LongArray}, see {@link MemoryMappedNumberArray}.
+ */
+public class MemoryMappedLongArray extends MemoryMappedNumberArray implements LongArray
+{
+    private final long defaultValue;
+
+    public MemoryMappedLongArray( File directory, long length, long defaultValue )
+    {
+        this( directory, length, defaultValue, CHUNK_SHIFT );
+    }
+
+    MemoryMappedLongArray( File directory, long length, long defaultValue, int chunkShift )
+    {
+        super( directory, length, 3, chunkShift );
+        this.defaultValue = defaultValue;
+        if ( defaultValue != 0 )
+        {   // A newly created file is zeroed already
+            clear();
+        }
+    }
+
+    @Override
+    public long get( long index )
+    {
+        return chunkOf( index ).getLong( offsetOf( index ) );
+    }
+
+    @Override
+    public void set( long index, long value )
+    {
+        chunkOf( index ).putLong( offsetOf( index ), value );
+    }
+
+    @Override
+    public void clear()
+    {
+        for ( long i = 0; i < length; i++ )
+        {
+            set( i, defaultValue );
+        }
+    }
+
+    @Override
+    public void swap( long fromIndex, long toIndex, int numberOfEntries )
+    {
+        for ( int i = 0; i < numberOfEntries; i++ )
+        {
+            ByteBuffer fromChunk = chunkOf( fromIndex + i ), toChunk = chunkOf( toIndex + i );
+            int fromOffset = offsetOf( fromIndex + i ), toOffset = offsetOf( toIndex + i );
+            long fromValue = fromChunk.getLong( fromOffset );
+            fromChunk.putLong( fromOffset, toChunk.getLong( toOffset ) );
+            toChunk.putLong( toOffset, fromValue );
+        }
+    }
+
+    @Override
+    public LongArray fixate()
+    {
+        return this;
+    }
+}
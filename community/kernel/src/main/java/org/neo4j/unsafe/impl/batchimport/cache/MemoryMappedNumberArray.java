@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+import org.neo4j.kernel.impl.store.UnderlyingStorageException;
+
+/**
+ * Base class for common functionality for any {@link NumberArray} where the data lives in a memory mapped
+ * temporary file. Used when neither heap nor off-heap memory is large enough, leaving it up to the OS to
+ * keep the hot parts of the array in memory and page out the rest. Performs best with sequential access.
+ * <p>
+ * A mapping can be at most 2GiB, so the file is mapped in chunks of {@code 1 << CHUNK_SHIFT} bytes.
+ */
+abstract class MemoryMappedNumberArray implements NumberArray
+{
+    static final int CHUNK_SHIFT = 30;
+
+    protected final long length;
+    protected final int shift;
+    protected final int stride;
+    private final int itemsPerChunkShift;
+    private final long itemsPerChunkMask;
+    private final File file;
+    private ByteBuffer[] chunks;
+
+    protected MemoryMappedNumberArray( File directory, long length, int shift, int chunkShift )
+    {
+        this.length = length;
+        this.shift = shift;
+        this.stride = 1 << shift;
+        this.itemsPerChunkShift = chunkShift - shift;
+        this.itemsPerChunkMask = (1L << itemsPerChunkShift) - 1;
+        long bytes = length << shift;
+        int numberOfChunks = (int) ((bytes + (1L << chunkShift) - 1) >>> chunkShift);
+        try
+        {
+            directory.mkdirs();
+            this.file = File.createTempFile( "number-array", ".tmp", directory );
+            try ( RandomAccessFile raf = new RandomAccessFile( file, "rw" ) )
+            {
+                raf.setLength( bytes );
+                FileChannel channel = raf.getChannel();
+                // Mappings stay valid after the channel has been closed
+                this.chunks = new ByteBuffer[numberOfChunks];
+                for ( int i = 0; i < numberOfChunks; i++ )
+                {
+                    long position = (long) i << chunkShift;
+                    long size = Math.min( 1L << chunkShift, bytes - position );
+                    chunks[i] = channel.map( FileChannel.MapMode.READ_WRITE, position, size )
+                            .order( ByteOrder.nativeOrder() );
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( "Unable to memory map a " + length + " items long array in " +
+                    directory, e );
+        }
+    }
+
+    @Override
+    public long length()
+    {
+        return length;
+    }
+
+    protected ByteBuffer chunkOf( long index )
+    {
+        if ( index < 0 || index >= length )
+        {
+            throw new ArrayIndexOutOfBoundsException( "Requested index " + index + ", but length is " + length );
+        }
+        return chunks[(int) (index >>> itemsPerChunkShift)];
+    }
+
+    protected int offsetOf( long index )
+    {
+        return (int) ((index & itemsPerChunkMask) << shift);
+    }
+
+    @Override
+    public void acceptMemoryStatsVisitor( MemoryStatsVisitor visitor )
+    {   // Lives in the OS page cache, which isn't accounted for as either heap or off-heap usage
+    }
+
+    @Override
+    public void close()
+    {
+        if ( chunks != null )
+        {
+            // There's no way of explicitly unmapping, the mappings will be released when garbage collected.
+            // Deleting the file is fine anyway, the OS keeps its contents around until it's unmapped.
+            chunks = null;
+            file.delete();
+        }
+    }
+}
@@ -37,7 +37,11 @@ public class NodeRelationshipCache implements MemoryStatsVisitor.Home
 
     public NodeRelationshipCache( NumberArrayFactory arrayFactory, int denseNodeThreshold )
     {
-        int chunkSize = 1_000_000;
+        this( arrayFactory, denseNodeThreshold, 1_000_000 );
+    }
+
+    public NodeRelationshipCache( NumberArrayFactory arrayFactory, int denseNodeThreshold, int chunkSize )
+    {
         this.array = arrayFactory.newDynamicLongArray( chunkSize, IdFieldManipulator.emptyField() );
         this.denseNodeThreshold = denseNodeThreshold;
         this.relGroupCache = new RelGroupCache( arrayFactory, chunkSize );
@@ -19,6 +19,7 @@
  */
 package org.neo4j.unsafe.impl.batchimport.cache;
 
+import java.io.File;
 import java.util.Arrays;
 
 import org.neo4j.helpers.Exceptions;
@@ -31,7 +32,8 @@ import static org.neo4j.unsafe.impl.batchimport.Utils.safeCastLongToInt;
 /**
  * Factory of {@link LongArray} and {@link IntArray} instances. Users can select in which type of memory
  * the arrays will be placed, either in {@link #HEAP} or {@link #OFF_HEAP}, or even {@link #AUTO} which
- * will have each instance placed where it fits best, favoring off-heap.
+ * will have each instance placed where it fits best, favoring off-heap. Arrays which don't fit in memory at all
+ * can be placed in {@link MemoryMapped memory mapped files}, see {@link #autoWithMemoryMappedFallback(File)}.
  */
 public interface NumberArrayFactory
 {
@@ -129,6 +131,49 @@ public interface NumberArrayFactory
         }
     };
 
+    /**
+     * Puts arrays in memory mapped temporary files in a directory, leaving it up to the OS to decide which parts
+     * of them to keep in memory. Slower than the other alternatives, especially for random access, but arrays
+     * can be bigger than the available memory. The files are created directly in the file system,
+     * not through a {@link org.neo4j.io.fs.FileSystemAbstraction}, and are deleted when the arrays are closed.
+     * Files of arrays that were never closed, e.g. after a crash, are left behind, so the directory should be one
+     * that the user of this factory cleans up.
+     */
+    class MemoryMapped extends Adapter
+    {
+        private final File directory;
+        private final int chunkShift;
+
+        public MemoryMapped( File directory )
+        {
+            this( directory, MemoryMappedNumberArray.CHUNK_SHIFT );
+        }
+
+        MemoryMapped( File directory, int chunkShift )
+        {
+            this.directory = directory;
+            this.chunkShift = chunkShift;
+        }
+
+        @Override
+        public IntArray newIntArray( long length, int defaultValue )
+        {
+            return new MemoryMappedIntArray( directory, length, defaultValue, chunkShift );
+        }
+
+        @Override
+        public LongArray newLongArray( long length, long defaultValue )
+        {
+            return new MemoryMappedLongArray( directory, length, defaultValue, chunkShift );
+        }
+
+        @Override
+        public String toString()
+        {
+            return "MEMORY_MAPPED";
+        }
+    }
+
     /**
      * Looks at available memory and decides where the requested array fits best. Tries to allocate the whole
      * array off-heap, then inside heap. If all else fails a dynamic array is returned with a smaller chunk size
@@ -245,4 +290,25 @@ public interface NumberArrayFactory
      * {@link Auto} factory which uses JVM stats for gathering information about available memory.
      */
     NumberArrayFactory AUTO = new Auto( OFF_HEAP, HEAP, CHUNKED_FIXED_SIZE );
+
+    /**
+     * @param directory where to place memory mapped files for arrays that don't fit in memory.
+     * @return {@link Auto} factory which tries the same alternatives as {@link #AUTO}, but instead of failing
+     * when there isn't enough memory available places the array in a {@link MemoryMapped memory mapped file}.
+     */
+    static NumberArrayFactory autoWithMemoryMappedFallback( File directory )
+    {
+        return withMemoryMappedFallback( AUTO, directory );
+    }
+
+    /**
+     * @param factory factory to try first.
+     * @param directory where to place memory mapped files for arrays that {@code factory} can't allocate.
+     * @return {@link Auto} factory placing arrays in a {@link MemoryMapped memory mapped file} when {@code factory}
+     * runs out of memory.
+     */
+    static NumberArrayFactory withMemoryMappedFallback( NumberArrayFactory factory, File directory )
+    {
+        return new Auto( factory, new MemoryMapped( directory ) );
+    }
 }
@@ -353,77 +353,152 @@ public class EncodingIdMapper implements IdMapper
      *   in the same id space
      *     ==> original input values needs to be kept
      */
-    private int detectAndMarkCollisions( ProgressListener progress )
+    private int detectAndMarkCollisions( ProgressListener progress ) throws InterruptedException
     {
         progress.started( "DETECT" );
         long max = highestSetIndex; // excluding the last one because we compare i w/ i+1
+        long[] ranges = collisionDetectionRanges( max );
+        Workers<CollisionDetector> detectors = new Workers<>( "CollisionDetector" );
+        for ( int i = 0; i < ranges.length-1; i++ )
+        {
+            if ( ranges[i] < ranges[i+1] )
+            {
+                detectors.start( new CollisionDetector( ranges[i], ranges[i+1], progress ) );
+            }
+        }
+        detectors.awaitAndThrowOnError( RuntimeException.class );
         long numberOfCollisions = 0;
-        SameGroupDetector sameGroupDetector = new SameGroupDetector();
-        for ( int i = 0; i < max; )
+        for ( CollisionDetector detector : detectors )
         {
-            int batch = (int) min( max-i, 10_000 );
-            for ( int j = 0; j < batch; j++, i++ )
+            numberOfCollisions += detector.numberOfCollisions;
+        }
+        progress.done();
+
+        if ( numberOfCollisions > Integer.MAX_VALUE )
+        {
+            throw new InputException( "Too many collisions: " + numberOfCollisions );
+        }
+
+        monitor.numberOfCollisions( (int) numberOfCollisions );
+        return (int) numberOfCollisions;
+    }
+
+    /**
+     * Splits the sorted tracker indexes into one range per processor. Each range boundary is moved forward
+     * past any stretch of equal encoded values so that a stretch is always handled by one detector in its
+     * entirety, which means that detectors never touch the same tracker or data indexes.
+     *
+     * @return range boundaries, where range {@code i} goes from {@code ranges[i]} (inclusive)
+     * to {@code ranges[i+1]} (exclusive).
+     */
+    private long[] collisionDetectionRanges( long max )
+    {
+        long[] ranges = new long[processorsForSorting+1];
+        long rangeSize = max / processorsForSorting;
+        for ( int i = 1; i < processorsForSorting; i++ )
+        {
+            long boundary = max( ranges[i-1], i * rangeSize );
+            while ( boundary > 0 && boundary < max && sameEncodedValue( boundary-1, boundary ) )
             {
-                int dataIndexA = trackerCache.get( i );
-                int dataIndexB = trackerCache.get( i+1 );
-                if ( dataIndexA == -1 || dataIndexB == -1 )
-                {
-                    sameGroupDetector.reset();
-                    continue;
-                }
+                boundary++;
+            }
+            ranges[i] = boundary;
+        }
+        ranges[processorsForSorting] = max;
+        return ranges;
+    }
 
-                long eIdA = clearCollision( dataCache.get( dataIndexA ) );
-                long eIdB = clearCollision( dataCache.get( dataIndexB ) );
-                if ( eIdA == GAP_VALUE || eIdB == GAP_VALUE )
-                {
-                    sameGroupDetector.reset();
-                    continue;
-                }
+    private boolean sameEncodedValue( long trackerIndexA, long trackerIndexB )
+    {
+        int dataIndexA = trackerCache.get( trackerIndexA );
+        int dataIndexB = trackerCache.get( trackerIndexB );
+        if ( dataIndexA == -1 || dataIndexB == -1 )
+        {
+            return false;
+        }
+        long eIdA = clearCollision( dataCache.get( dataIndexA ) );
+        return eIdA != GAP_VALUE && eIdA == clearCollision( dataCache.get( dataIndexB ) );
+    }
+
+    /**
+     * Detects and marks collisions, see {@link #detectAndMarkCollisions(ProgressListener)},
+     * within a range of tracker indexes.
+     */
+    private class CollisionDetector implements Runnable
+    {
+        private final long from;
+        private final long to;
+        private final ProgressListener progress;
+        private long numberOfCollisions;
+
+        CollisionDetector( long from, long to, ProgressListener progress )
+        {
+            this.from = from;
+            this.to = to;
+            this.progress = progress;
+        }
 
-                switch ( unsignedDifference( eIdA, eIdB ) )
+        @Override
+        public void run()
+        {
+            SameGroupDetector sameGroupDetector = new SameGroupDetector();
+            for ( long i = from; i < to; )
+            {
+                int batch = (int) min( to-i, 10_000 );
+                for ( int j = 0; j < batch; j++, i++ )
                 {
-                case GT: throw new IllegalStateException( "Unsorted data, a > b Failure:[" + i + "] " +
-                            Long.toHexString( eIdA ) + " > " + Long.toHexString( eIdB ) + " | " +
-                            radixOf( eIdA ) + ":" + radixOf( eIdB ) );
-                case EQ:
-                    // Here we have two equal encoded values. First let's check if they are in the same id space.
-                    int collision = sameGroupDetector.collisionWithinSameGroup(
-                            dataIndexA, groupOf( dataIndexA ).id(),
-                            dataIndexB, groupOf( dataIndexB ).id() );
-
-                    if ( dataIndexA > dataIndexB )
+                    int dataIndexA = trackerCache.get( i );
+                    int dataIndexB = trackerCache.get( i+1 );
+                    if ( dataIndexA == -1 || dataIndexB == -1 )
                     {
-                        // Swap so that lower tracker index means lower data index. TODO Why do we do this?
-                        trackerCache.swap( i, i+1, 1 );
+                        sameGroupDetector.reset();
+                        continue;
                     }
 
-                    if ( collision != -1 )
+                    long eIdA = clearCollision( dataCache.get( dataIndexA ) );
+                    long eIdB = clearCollision( dataCache.get( dataIndexB ) );
+                    if ( eIdA == GAP_VALUE || eIdB == GAP_VALUE )
                     {
-                        if ( markAsCollision( collision ) )
+                        sameGroupDetector.reset();
+                        continue;
+                    }
+
+                    switch ( unsignedDifference( eIdA, eIdB ) )
+                    {
+                    case GT: throw new IllegalStateException( "Unsorted data, a > b Failure:[" + i + "] " +
+                                Long.toHexString( eIdA ) + " > " + Long.toHexString( eIdB ) + " | " +
+                                radixOf( eIdA ) + ":" + radixOf( eIdB ) );
+                    case EQ:
+                        // Here we have two equal encoded values. First let's check if they are in the same id space.
+                        int collision = sameGroupDetector.collisionWithinSameGroup(
+                                dataIndexA, groupOf( dataIndexA ).id(),
+                                dataIndexB, groupOf( dataIndexB ).id() );
+
+                        if ( dataIndexA > dataIndexB )
                         {
-                            numberOfCollisions++;
+                            // Swap so that lower tracker index means lower data index. TODO Why do we do this?
+                            trackerCache.swap( i, i+1, 1 );
                         }
-                        if ( markAsCollision( dataIndexB ) )
+
+                        if ( collision != -1 )
                         {
-                            numberOfCollisions++;
+                            if ( markAsCollision( collision ) )
+                            {
+                                numberOfCollisions++;
+                            }
+                            if ( markAsCollision( dataIndexB ) )
+                            {
+                                numberOfCollisions++;
+                            }
                         }
+                        break;
+                    default:
+                        sameGroupDetector.reset();
                     }
-                    break;
-                default:
-                    sameGroupDetector.reset();
                 }
+                progress.add( batch );
             }
-            progress.add( batch );
-        }
-        progress.done();
-
-        if ( numberOfCollisions > Integer.MAX_VALUE )
-        {
-            throw new InputException( "Too many collisions: " + numberOfCollisions );
         }
-
-        monitor.numberOfCollisions( (int) numberOfCollisions );
-        return (int) numberOfCollisions;
     }
 
     /**
@@ -60,6 +60,12 @@ public abstract class SourceInputIterator<T,U>
         return source.position();
     }
 
+    @Override
+    public long storedPosition()
+    {
+        return source.storedPosition();
+    }
+
     @Override
     public void remove()
     {
@@ -201,6 +201,12 @@ public class InputEntityDeserializer<ENTITY extends InputEntity>
         return data.position();
     }
 
+    @Override
+    public long storedPosition()
+    {
+        return data.storedPosition();
+    }
+
     @Override
     public String sourceDescription()
     {
@@ -41,6 +41,7 @@ abstract class InputGroupsDeserializer<ENTITY extends InputEntity>
     private final IdType idType;
     private InputIterator<ENTITY> currentInput = new InputIterator.Adapter<>();
     private long previousInputsCollectivePositions;
+    private long previousInputsCollectiveStoredPositions;
     private boolean currentInputOpen;
 
     InputGroupsDeserializer( Iterator<DataFactory<ENTITY>> dataFactory, Header.Factory headerFactory,
@@ -80,6 +81,7 @@ abstract class InputGroupsDeserializer<ENTITY extends InputEntity>
         if ( currentInputOpen )
         {
             previousInputsCollectivePositions += currentInput.position();
+            previousInputsCollectiveStoredPositions += currentInput.storedPosition();
             currentInput.close();
             currentInputOpen = false;
         }
@@ -100,6 +102,12 @@ abstract class InputGroupsDeserializer<ENTITY extends InputEntity>
         return previousInputsCollectivePositions + currentInput.position();
     }
 
+    @Override
+    public long storedPosition()
+    {
+        return previousInputsCollectiveStoredPositions + currentInput.storedPosition();
+    }
+
     @Override
     public String sourceDescription()
     {
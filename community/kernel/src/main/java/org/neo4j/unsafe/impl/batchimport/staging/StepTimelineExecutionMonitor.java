@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.staging;
+
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.helpers.Clock;
+import org.neo4j.unsafe.impl.batchimport.stats.Key;
+import org.neo4j.unsafe.impl.batchimport.stats.Keys;
+import org.neo4j.unsafe.impl.batchimport.stats.Stat;
+import org.neo4j.unsafe.impl.batchimport.stats.StepStats;
+
+import static java.lang.String.format;
+
+/**
+ * An {@link ExecutionMonitor} which records how each {@link Step} spent its time between two checks:
+ * busy processing batches, idle waiting for upstream or blocked waiting for downstream to catch up.
+ * One CSV line per step and check is written, which makes up a timeline of the import where it's
+ * visible which step is the bottle neck at which point in time and how many processors it had.
+ * Each line also carries the rate of rows going through the step, as well as I/O throughput and memory usage
+ * for the steps providing such {@link Keys#io_throughput} and {@link Keys#memory_usage} stats.
+ *
+ * Busy time is derived from the number of batches done since the previous check times the average
+ * processing time per batch, so it's an approximation which gets better the more batches each check covers.
+ * Rows per second is derived from done batches and the configured batch size. All times are in milliseconds.
+ */
+public class StepTimelineExecutionMonitor extends ExecutionMonitor.Adapter
+{
+    public static final String HEADER =
+            "time,stage,step,processors,batches,rows_per_second,busy,idle,blocked,io_bytes_per_second,memory_bytes";
+
+    private final PrintStream out;
+    private final Clock clock;
+    private final Map<Step<?>,long[]/*done batches, upstream idle, downstream idle*/> previous = new HashMap<>();
+    private boolean started;
+    private long startTime;
+    private long lastCheckTime;
+
+    public StepTimelineExecutionMonitor( PrintStream out, long interval, TimeUnit unit )
+    {
+        this( out, Clock.SYSTEM_CLOCK, interval, unit );
+    }
+
+    public StepTimelineExecutionMonitor( PrintStream out, Clock clock, long interval, TimeUnit unit )
+    {
+        super( clock, interval, unit );
+        this.out = out;
+        this.clock = clock;
+    }
+
+    @Override
+    public void start( StageExecution[] executions )
+    {
+        if ( !started )
+        {
+            started = true;
+            startTime = clock.currentTimeMillis();
+            out.println( HEADER );
+        }
+        previous.clear();
+        lastCheckTime = clock.currentTimeMillis();
+    }
+
+    @Override
+    public void end( StageExecution[] executions, long totalTimeMillis )
+    {   // Record whatever happened since the last check
+        check( executions );
+        out.flush();
+    }
+
+    @Override
+    public void check( StageExecution[] executions )
+    {
+        long now = clock.currentTimeMillis();
+        long time = now - startTime;
+        long millisSinceLastCheck = now - lastCheckTime;
+        lastCheckTime = now;
+        for ( StageExecution execution : executions )
+        {
+            for ( Step<?> step : execution.steps() )
+            {
+                StepStats stats = step.stats();
+                long[] current = new long[] {
+                        stat( stats, Keys.done_batches ),
+                        stat( stats, Keys.upstream_idle_time ),
+                        stat( stats, Keys.downstream_idle_time )};
+                long[] last = previous.get( step );
+                if ( last == null )
+                {
+                    last = new long[current.length];
+                }
+                previous.put( step, current );
+
+                long batches = current[0] - last[0];
+                long rowsPerSecond = millisSinceLastCheck > 0
+                        ? batches * execution.getConfig().batchSize() * 1000 / millisSinceLastCheck : 0;
+                long busy = batches * stat( stats, Keys.avg_processing_time );
+                out.println( format( "%d,%s,%s,%d,%d,%d,%d,%d,%d,%s,%s", time, execution.getStageName(), step.name(),
+                        step.numberOfProcessors(), batches, rowsPerSecond, busy, current[1] - last[1],
+                        current[2] - last[2], optionalStat( stats, Keys.io_throughput ),
+                        optionalStat( stats, Keys.memory_usage ) ) );
+            }
+        }
+    }
+
+    private static String optionalStat( StepStats stats, Key key )
+    {
+        Stat stat = stats.stat( key );
+        return stat != null && stat.asLong() >= 0 ? String.valueOf( stat.asLong() ) : "";
+    }
+
+    private static long stat( StepStats stats, Key key )
+    {
+        Stat stat = stats.stat( key );
+        return stat != null ? stat.asLong() : 0;
+    }
+}
@@ -157,6 +157,30 @@ public class TxStateTest
         assertEquals( asSet( 0L, 2L ), asSet( nodes ) );
     }
 
+    @Test
+    public void shouldListEachModifiedNodeOnce() throws Exception
+    {
+        // GIVEN
+        Set<Long> expected = new HashSet<>();
+        for ( long nodeId = 0; nodeId < 1_000; nodeId += 3 )
+        {
+            state.nodeDoAddLabel( labelId1, nodeId );
+            state.nodeDoAddLabel( labelId2, nodeId );
+            expected.add( nodeId );
+        }
+
+        // WHEN
+        Set<Long> modified = new HashSet<>();
+        for ( NodeState node : state.modifiedNodes() )
+        {
+            assertTrue( "Node " + node.getId() + " listed twice", modified.add( node.getId() ) );
+            assertEquals( asSet( labelId1, labelId2 ), state.nodeStateLabelDiffSets( node.getId() ).getAdded() );
+        }
+
+        // THEN
+        assertEquals( expected, modified );
+    }
+
     //endregion
 
     //region index rule tests
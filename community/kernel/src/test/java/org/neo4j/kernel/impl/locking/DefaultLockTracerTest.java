@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.helpers.FakeClock;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+
+public class DefaultLockTracerTest
+{
+    private final FakeClock clock = new FakeClock();
+    private final DefaultLockTracer tracer = new DefaultLockTracer( clock );
+
+    @Test
+    public void shouldCountWaitsAndWaitTimePerResourceType() throws Exception
+    {
+        // when
+        waitFor( ResourceTypes.NODE, 5, MILLISECONDS );
+        waitFor( ResourceTypes.NODE, 7, MILLISECONDS );
+        waitFor( ResourceTypes.SCHEMA, 3, MILLISECONDS );
+
+        // then
+        assertEquals( 2, tracer.numberOfLockWaits( ResourceTypes.NODE ) );
+        assertEquals( 12, tracer.lockWaitAccumulatedTotalTimeMillis( ResourceTypes.NODE ) );
+        assertEquals( 1, tracer.numberOfLockWaits( ResourceTypes.SCHEMA ) );
+        assertEquals( 3, tracer.lockWaitAccumulatedTotalTimeMillis( ResourceTypes.SCHEMA ) );
+        assertEquals( 0, tracer.numberOfLockWaits( ResourceTypes.RELATIONSHIP ) );
+        assertEquals( 0, tracer.lockWaitAccumulatedTotalTimeMillis( ResourceTypes.RELATIONSHIP ) );
+    }
+
+    @Test
+    public void shouldReportPercentilesAsUpperBoundOfHistogramBucket() throws Exception
+    {
+        // given
+        for ( int i = 0; i < 99; i++ )
+        {
+            waitFor( ResourceTypes.NODE, 100, MICROSECONDS );
+        }
+        waitFor( ResourceTypes.NODE, 5000, MICROSECONDS );
+
+        // then
+        assertEquals( 128, tracer.lockWaitTimePercentileMicros( ResourceTypes.NODE, 50 ) );
+        assertEquals( 128, tracer.lockWaitTimePercentileMicros( ResourceTypes.NODE, 99 ) );
+        assertEquals( 8192, tracer.lockWaitTimePercentileMicros( ResourceTypes.NODE, 100 ) );
+    }
+
+    @Test
+    public void shouldReportZeroPercentileWhenThereHaveBeenNoWaits() throws Exception
+    {
+        assertEquals( 0, tracer.lockWaitTimePercentileMicros( ResourceTypes.NODE, 99 ) );
+    }
+
+    private void waitFor( ResourceTypes resourceType, long time, TimeUnit unit )
+    {
+        try ( LockWaitEvent event = tracer.waitForLock( true, resourceType, 42 ) )
+        {
+            clock.forward( time, unit );
+        }
+    }
+}
@@ -23,6 +23,14 @@ import org.junit.Rule;
 import org.junit.Test;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.neo4j.io.fs.DefaultFileSystemAbstraction;
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -34,6 +42,7 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
@@ -188,6 +197,66 @@ public class IdGeneratorImplTest
         assertEquals( 30, idGenerator.nextId() );
     }
 
+    @Test
+    public void shouldHandOutUniqueIdsToConcurrentThreads() throws Exception
+    {
+        // GIVEN
+        IdGeneratorImpl.createGenerator( fsr.get(), file, 0, false );
+        final IdGeneratorImpl idGenerator = new IdGeneratorImpl( fsr.get(), file, 16, Long.MAX_VALUE, true, 0 );
+        final Set<Long> idsInUse = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        final int idsPerThread = 10_000;
+
+        // WHEN
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            List<Future<Void>> futures = new ArrayList<>();
+            for ( int i = 0; i < threads; i++ )
+            {
+                futures.add( executor.submit( new Callable<Void>()
+                {
+                    @Override
+                    public Void call() throws Exception
+                    {
+                        for ( int j = 0; j < idsPerThread; j++ )
+                        {
+                            long id = idGenerator.nextId();
+                            assertTrue( "Id " + id + " handed out twice", idsInUse.add( id ) );
+                            if ( j % 3 == 0 )
+                            {
+                                idsInUse.remove( id );
+                                idGenerator.freeId( id );
+                            }
+                        }
+                        IdRange range = idGenerator.nextIdBatch( 100 );
+                        for ( long id : range.getDefragIds() )
+                        {
+                            assertTrue( "Id " + id + " handed out twice", idsInUse.add( id ) );
+                        }
+                        for ( long id = range.getRangeStart(); id < range.getRangeStart() + range.getRangeLength(); id++ )
+                        {
+                            assertTrue( "Id " + id + " handed out twice", idsInUse.add( id ) );
+                        }
+                        return null;
+                    }
+                } ) );
+            }
+            for ( Future<Void> future : futures )
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        // THEN
+        assertEquals( idsInUse.size(), idGenerator.getNumberOfIdsInUse() );
+        idGenerator.close();
+    }
+
     public static void main( String[] args )
     {
         // Leave it opened
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.kvstore;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AppliedChangesTest
+{
+    @Test
+    public void shouldNotWaitWhenExpectedChangesHaveAlreadyBeenApplied() throws Exception
+    {
+        // given
+        AppliedChanges changes = new AppliedChanges();
+        changes.increment();
+        changes.increment();
+
+        // then
+        assertEquals( 2, changes.get() );
+        assertTrue( changes.await( 2, 0 ) );
+    }
+
+    @Test
+    public void shouldTimeOutWhenExpectedChangesAreNotApplied() throws Exception
+    {
+        // given
+        AppliedChanges changes = new AppliedChanges();
+        changes.increment();
+
+        // then
+        assertFalse( changes.await( 2, 10 ) );
+    }
+
+    @Test( timeout = 60_000 )
+    public void shouldWakeUpWaiterWhenLastExpectedChangeIsApplied() throws Exception
+    {
+        // given
+        final AppliedChanges changes = new AppliedChanges();
+        final CountDownLatch waiting = new CountDownLatch( 1 );
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            Future<Boolean> await = executor.submit( () -> {
+                waiting.countDown();
+                return changes.await( 3, MINUTES.toMillis( 10 ) );
+            } );
+            waiting.await();
+
+            // when
+            changes.increment();
+            changes.increment();
+            changes.increment();
+
+            // then
+            assertTrue( await.get() );
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+}
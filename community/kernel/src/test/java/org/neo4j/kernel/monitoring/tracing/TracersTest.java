@@ -25,6 +25,8 @@ import org.junit.Test;
 import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.impl.api.DefaultTransactionTracer;
+import org.neo4j.kernel.impl.locking.DefaultLockTracer;
+import org.neo4j.kernel.impl.locking.LockTracer;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.DefaultCheckPointerTracer;
 import org.neo4j.logging.AssertableLogProvider;
 import org.neo4j.kernel.impl.transaction.tracing.TransactionTracer;
@@ -53,6 +55,7 @@ public class TracersTest
         Tracers tracers = new Tracers( "null", log );
         assertThat( tracers.pageCacheTracer, is( PageCacheTracer.NULL ) );
         assertThat( tracers.transactionTracer, is( TransactionTracer.NULL ) );
+        assertThat( tracers.lockTracer, is( LockTracer.NULL ) );
         assertNoWarning();
     }
 
@@ -102,6 +105,7 @@ public class TracersTest
         assertThat( tracers.pageCacheTracer, instanceOf( DefaultPageCacheTracer.class ) );
         assertThat( tracers.transactionTracer, instanceOf( DefaultTransactionTracer.class ) );
         assertThat( tracers.checkPointTracer, instanceOf( DefaultCheckPointerTracer.class ) );
+        assertThat( tracers.lockTracer, instanceOf( DefaultLockTracer.class ) );
     }
 
     private void assertNoWarning()
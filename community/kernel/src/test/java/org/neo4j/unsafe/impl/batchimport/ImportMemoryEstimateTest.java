@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.unsafe.impl.batchimport.input.InputNode;
+import org.neo4j.unsafe.impl.batchimport.input.SimpleInputIteratorWrapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import static org.neo4j.unsafe.impl.batchimport.input.SimpleInputIteratorWrapper.wrap;
+
+public class ImportMemoryEstimateTest
+{
+    @Test
+    public void shouldCountPropertyRecordsPerEntity() throws Exception
+    {
+        assertEquals( 0, ImportMemoryEstimate.propertyRecordsFor( 0 ) );
+        assertEquals( 1, ImportMemoryEstimate.propertyRecordsFor( 1 ) );
+        assertEquals( 1, ImportMemoryEstimate.propertyRecordsFor( 4 ) );
+        assertEquals( 2, ImportMemoryEstimate.propertyRecordsFor( 5 ) );
+        assertEquals( 3, ImportMemoryEstimate.propertyRecordsFor( 9 ) );
+    }
+
+    @Test
+    public void shouldEstimateCacheMemoryAndStoreSizes() throws Exception
+    {
+        // GIVEN
+        ImportMemoryEstimate estimate = new ImportMemoryEstimate( 1_000, 3_000, 500, true );
+
+        // THEN
+        assertEquals( 1_000 * 12, estimate.idMapperMemory() );
+        assertEquals( 1_000 * 8, estimate.nodeRelationshipCacheMemory() );
+        assertEquals( 1_000 * 8, estimate.nodeLabelsCacheMemory() );
+        assertEquals( 1_000 * (12 + 8), estimate.importStagesMemory() );
+        assertEquals( 1_000 * (12 + 8), estimate.peakMemory() );
+        assertEquals( 1_000 * NodeStore.RECORD_SIZE, estimate.nodeStoreSize() );
+        assertEquals( 3_000 * RelationshipStore.RECORD_SIZE, estimate.relationshipStoreSize() );
+        assertEquals( 500 * PropertyStore.RECORD_SIZE, estimate.propertyStoreSize() );
+    }
+
+    @Test
+    public void shouldNotNeedIdMapperMemoryForActualIds() throws Exception
+    {
+        // GIVEN
+        ImportMemoryEstimate estimate = new ImportMemoryEstimate( 1_000, 0, 0, false );
+
+        // THEN
+        assertEquals( 0, estimate.idMapperMemory() );
+        assertEquals( 1_000 * 8, estimate.peakMemory() );
+    }
+
+    @Test
+    public void shouldCountWholeInputFittingInSample() throws Exception
+    {
+        // GIVEN
+        InputIterable<InputNode> input = wrap( "test", nodes( 10, 5 ) );
+
+        // WHEN
+        InputSample sample = InputSample.sample( input, 10, 100 );
+
+        // THEN
+        assertTrue( sample.isExact() );
+        assertEquals( 10, sample.entities() );
+        assertEquals( 50, sample.properties() );
+        assertEquals( 20, sample.propertyRecords() );
+    }
+
+    @Test
+    public void shouldExtrapolateFromSampleToWholeInput() throws Exception
+    {
+        // GIVEN nodes with five properties each, where position is the number of read nodes
+        InputIterable<InputNode> input = wrap( "test", nodes( 1_000, 5 ) );
+
+        // WHEN
+        InputSample sample = InputSample.sample( input, 1_000, 10 );
+
+        // THEN
+        assertFalse( sample.isExact() );
+        assertEquals( 1_000, sample.entities() );
+        assertEquals( 5_000, sample.properties() );
+        assertEquals( 2_000, sample.propertyRecords() );
+    }
+
+    @Test
+    public void shouldExtrapolateFromStoredPositionOfCompressedInput() throws Exception
+    {
+        // GIVEN nodes where the input is compressed to a fourth of the read size
+        final List<InputNode> nodes = nodes( 1_000, 5 );
+        InputIterable<InputNode> input = new InputIterable<InputNode>()
+        {
+            @Override
+            public InputIterator<InputNode> iterator()
+            {
+                return new SimpleInputIteratorWrapper<InputNode>( "test", nodes.iterator() )
+                {
+                    @Override
+                    public long storedPosition()
+                    {
+                        return position() / 4;
+                    }
+                };
+            }
+
+            @Override
+            public boolean supportsMultiplePasses()
+            {
+                return true;
+            }
+        };
+
+        // WHEN
+        InputSample sample = InputSample.sample( input, 250, 20 );
+
+        // THEN
+        assertFalse( sample.isExact() );
+        assertEquals( 1_000, sample.entities() );
+        assertEquals( 5_000, sample.properties() );
+    }
+
+    @Test
+    public void shouldNotConsiderSampleExactUnlessWholeInputWasRead() throws Exception
+    {
+        // GIVEN an input size which the sample has already passed
+        InputIterable<InputNode> input = wrap( "test", nodes( 1_000, 5 ) );
+
+        // WHEN
+        InputSample sample = InputSample.sample( input, 10, 100 );
+
+        // THEN
+        assertFalse( sample.isExact() );
+        assertEquals( 100, sample.entities() );
+    }
+
+    private static List<InputNode> nodes( int count, int propertiesPerNode )
+    {
+        List<InputNode> nodes = new ArrayList<>();
+        for ( int i = 0; i < count; i++ )
+        {
+            Object[] properties = new Object[propertiesPerNode * 2];
+            for ( int p = 0; p < propertiesPerNode; p++ )
+            {
+                properties[p * 2] = "key" + p;
+                properties[p * 2 + 1] = p;
+            }
+            nodes.add( new InputNode( "test", i, i, i, properties, null, new String[0], null ) );
+        }
+        return nodes;
+    }
+}
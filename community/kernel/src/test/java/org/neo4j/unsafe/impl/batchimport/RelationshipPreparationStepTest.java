@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport;
+
+import org.junit.Test;
+
+import org.neo4j.unsafe.impl.batchimport.input.InputRelationship;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertSame;
+
+public class RelationshipPreparationStepTest
+{
+    @Test
+    public void shouldSortRelationshipsByStartAndEndNodeTogetherWithTheirIds() throws Exception
+    {
+        // GIVEN
+        InputRelationship[] input = new InputRelationship[] {
+                relationship( "c", "a" ),
+                relationship( "a", "c" ),
+                relationship( "b", "a" ),
+                relationship( "a", "b" )};
+        InputRelationship[] original = input.clone();
+        long[] ids = new long[] {
+                2, 0,
+                0, 2,
+                1, 0,
+                0, 1};
+
+        // WHEN
+        RelationshipPreparationStep.sortByNode( input, ids );
+
+        // THEN
+        assertArrayEquals( new long[] {
+                0, 1,
+                0, 2,
+                1, 0,
+                2, 0}, ids );
+        assertSame( original[3], input[0] );
+        assertSame( original[1], input[1] );
+        assertSame( original[2], input[2] );
+        assertSame( original[0], input[3] );
+    }
+
+    private static InputRelationship relationship( Object startNode, Object endNode )
+    {
+        return new InputRelationship( "source", 1, 0, new Object[0], null, startNode, endNode, "TYPE", null );
+    }
+}
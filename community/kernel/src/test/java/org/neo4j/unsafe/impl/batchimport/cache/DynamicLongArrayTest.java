@@ -23,6 +23,10 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class DynamicLongArrayTest
 {
@@ -81,4 +85,30 @@ public class DynamicLongArrayTest
             // THEN good
         }
     }
+
+    @Test
+    public void shouldFreeAddedChunksWhenRunningOutOfMemoryWhileGrowing() throws Exception
+    {
+        // GIVEN
+        LongArray first = mock( LongArray.class );
+        LongArray second = mock( LongArray.class );
+        NumberArrayFactory factory = mock( NumberArrayFactory.class );
+        when( factory.newLongArray( anyLong(), anyLong() ) )
+                .thenReturn( first, second ).thenThrow( new OutOfMemoryError() );
+        LongArray array = new DynamicLongArray( factory, 10, 0 );
+
+        // WHEN
+        try
+        {
+            array.set( 25, 1 );
+            fail( "Should have run out of memory" );
+        }
+        catch ( OutOfMemoryError e )
+        {
+            // THEN
+            verify( first ).close();
+            verify( second ).close();
+        }
+        assertEquals( 0, array.length() );
+    }
 }
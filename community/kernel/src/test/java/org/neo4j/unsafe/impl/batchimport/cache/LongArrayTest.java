@@ -19,16 +19,22 @@
  */
 package org.neo4j.unsafe.impl.batchimport.cache;
 
+import java.io.File;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Random;
+import java.util.function.Function;
 
 import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.junit.runners.Parameterized.Parameters;
 
+import org.neo4j.test.TargetDirectory;
+
 import static java.lang.System.currentTimeMillis;
 
 import static org.junit.Assert.assertEquals;
@@ -95,18 +101,21 @@ public class LongArrayTest
         }
     }
 
-    @Parameters
+    @Parameters( name = "{0}" )
     public static Collection<Object[]> data()
     {
-        return Arrays.asList(
-                new Object[] {NumberArrayFactory.HEAP},
-                new Object[] {NumberArrayFactory.OFF_HEAP}
-                );
+        return TestNumberArrayFactories.factories();
+    }
+
+    public LongArrayTest( String name, Function<File,NumberArrayFactory> factory )
+    {
+        this.factoryFunction = factory;
     }
 
-    public LongArrayTest( NumberArrayFactory factory )
+    @Before
+    public void before()
     {
-        this.factory = factory;
+        factory = factoryFunction.apply( directory.directory() );
     }
 
     private LongArray newArray( int length, long defaultValue )
@@ -114,7 +123,10 @@ public class LongArrayTest
         return array = factory.newLongArray( length, defaultValue );
     }
 
-    private final NumberArrayFactory factory;
+    @Rule
+    public final TargetDirectory.TestDirectory directory = TargetDirectory.testDirForTest( getClass() );
+    private final Function<File,NumberArrayFactory> factoryFunction;
+    private NumberArrayFactory factory;
     private final long seed = currentTimeMillis();
     private final Random random = new Random( seed );
     private LongArray array;
@@ -19,8 +19,14 @@
  */
 package org.neo4j.unsafe.impl.batchimport.cache;
 
+import java.io.File;
+
+import org.junit.Rule;
 import org.junit.Test;
 
+import org.neo4j.test.TargetDirectory;
+
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -36,6 +42,9 @@ public class NumberArrayFactoryTest
     private static final long KILO = 1024;
     private static final long MEGA = KILO*KILO;
 
+    @Rule
+    public final TargetDirectory.TestDirectory directory = TargetDirectory.testDirForTest( getClass() );
+
     @Test
     public void shouldPickFirstAvailableCandidateLongArray() throws Exception
     {
@@ -121,4 +130,30 @@ public class NumberArrayFactoryTest
         assertTrue( array instanceof HeapIntArray );
         assertEquals( 12345, array.get( 1*KILO-10 ) );
     }
+
+    @Test
+    public void shouldFallBackToMemoryMappedFileWhenOutOfMemory() throws Exception
+    {
+        // GIVEN
+        NumberArrayFactory lowMemoryFactory = mock( NumberArrayFactory.class );
+        doThrow( OutOfMemoryError.class ).when( lowMemoryFactory ).newLongArray( anyLong(), anyLong() );
+        NumberArrayFactory factory =
+                NumberArrayFactory.withMemoryMappedFallback( lowMemoryFactory, directory.directory() );
+
+        // WHEN
+        LongArray array = factory.newLongArray( 1*KILO, -1 );
+        array.set( 1*KILO-10, 12345 );
+
+        // THEN
+        assertTrue( array instanceof MemoryMappedLongArray );
+        assertEquals( 12345, array.get( 1*KILO-10 ) );
+        assertEquals( -1, array.get( 1*KILO-9 ) );
+        assertEquals( 1, directory.directory().listFiles().length );
+
+        // WHEN
+        array.close();
+
+        // THEN
+        assertArrayEquals( new File[0], directory.directory().listFiles() );
+    }
 }
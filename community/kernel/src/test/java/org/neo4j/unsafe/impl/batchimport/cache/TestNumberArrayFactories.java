@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.cache;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * {@link NumberArrayFactory} instances for parameterized number array tests. Memory mapped factories need
+ * a directory, which is only known once the test runs, therefore each factory is created from one.
+ */
+class TestNumberArrayFactories
+{
+    private TestNumberArrayFactories()
+    {
+    }
+
+    static Collection<Object[]> factories()
+    {
+        return Arrays.asList(
+                factory( "HEAP", directory -> NumberArrayFactory.HEAP ),
+                factory( "OFF_HEAP", directory -> NumberArrayFactory.OFF_HEAP ),
+                factory( "MEMORY_MAPPED", NumberArrayFactory.MemoryMapped::new ),
+                // Makes arrays span multiple mapped chunks
+                factory( "MEMORY_MAPPED with small chunks",
+                        directory -> new NumberArrayFactory.MemoryMapped( directory, 12 ) )
+                );
+    }
+
+    private static Object[] factory( String name, Function<File,NumberArrayFactory> factory )
+    {
+        return new Object[] {name, factory};
+    }
+}
@@ -366,6 +366,43 @@ public class EncodingIdMapperTest
         assertEquals( 5L, mapper.get( f, groupB ) );
     }
 
+    @Test
+    public void shouldDetectCollisionsInStretchOfEqualValuesCrossingDetectionRangeBoundaries() throws Exception
+    {
+        // GIVEN ids where all but the first and last ten encode into the same value, a stretch which
+        // contains the initial range boundaries of the parallel collision detection
+        Monitor monitor = mock( Monitor.class );
+        int count = 100;
+        Encoder encoder = value ->
+        {
+            int id = Integer.parseInt( (String) value );
+            return id < 10 || id >= count - 10 ? 1_000 + id : 500;
+        };
+        IdMapper mapper = mapper( encoder, Radix.STRING, monitor );
+        List<Object> values = new ArrayList<>();
+        for ( int i = 0; i < count; i++ )
+        {
+            values.add( String.valueOf( i ) );
+        }
+        InputIterable<Object> ids = wrap( "source", values );
+        for ( int i = 0; i < count; i++ )
+        {
+            mapper.put( values.get( i ), i, GLOBAL );
+        }
+
+        // WHEN
+        Collector collector = mock( Collector.class );
+        mapper.prepare( ids, collector, NONE );
+
+        // THEN
+        verifyNoMoreInteractions( collector );
+        verify( monitor ).numberOfCollisions( count - 20 );
+        for ( int i = 0; i < count; i++ )
+        {
+            assertEquals( i, mapper.get( String.valueOf( i ), GLOBAL ) );
+        }
+    }
+
     @Test
     public void shouldBeAbleToHaveDuplicateInputIdButInDifferentGroups() throws Exception
     {
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.staging;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+import org.neo4j.helpers.FakeClock;
+import org.neo4j.unsafe.impl.batchimport.Configuration;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertArrayEquals;
+
+import static org.neo4j.unsafe.impl.batchimport.staging.ControlledStep.stepWithStats;
+import static org.neo4j.unsafe.impl.batchimport.staging.Step.ORDER_SEND_DOWNSTREAM;
+import static org.neo4j.unsafe.impl.batchimport.stats.Keys.avg_processing_time;
+import static org.neo4j.unsafe.impl.batchimport.stats.Keys.done_batches;
+import static org.neo4j.unsafe.impl.batchimport.stats.Keys.downstream_idle_time;
+import static org.neo4j.unsafe.impl.batchimport.stats.Keys.upstream_idle_time;
+
+public class StepTimelineExecutionMonitorTest
+{
+    @Test
+    public void shouldRecordRowsBusyIdleAndBlockedTimeSincePreviousCheck() throws Exception
+    {
+        // GIVEN
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        FakeClock clock = new FakeClock( 1_000, MILLISECONDS );
+        StepTimelineExecutionMonitor monitor =
+                new StepTimelineExecutionMonitor( new PrintStream( bytes ), clock, 1, SECONDS );
+        ControlledStep<?> step = stepWithStats( "step", 0, done_batches, 10L, avg_processing_time, 5L,
+                upstream_idle_time, 20L, downstream_idle_time, 30L );
+        StageExecution[] executions = executionOf( step );
+        monitor.start( executions );
+
+        // WHEN
+        clock.forward( 1, SECONDS );
+        monitor.check( executions );
+        step.setStat( done_batches, 30L );
+        step.setStat( upstream_idle_time, 25L );
+        step.setStat( downstream_idle_time, 130L );
+        step.setNumberOfProcessors( 2 );
+        clock.forward( 1, SECONDS );
+        monitor.end( executions, 2_000 );
+
+        // THEN
+        assertArrayEquals( new String[] {
+                StepTimelineExecutionMonitor.HEADER,
+                "1000,Test,step,1,10,100000,50,20,30,,",
+                "2000,Test,step,2,20,200000,100,5,100,,"}, bytes.toString().split( System.lineSeparator() ) );
+    }
+
+    private StageExecution[] executionOf( Step<?>... steps )
+    {
+        StageExecution execution = new StageExecution( "Test", new Configuration.Default(),
+                Arrays.asList( steps ), ORDER_SEND_DOWNSTREAM );
+        return new StageExecution[] {execution};
+    }
+}
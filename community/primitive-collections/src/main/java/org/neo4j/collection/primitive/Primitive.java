@@ -35,6 +35,7 @@ import org.neo4j.collection.primitive.hopscotch.PrimitiveLongHashSet;
 import org.neo4j.collection.primitive.hopscotch.PrimitiveLongIntHashMap;
 import org.neo4j.collection.primitive.hopscotch.PrimitiveLongLongHashMap;
 import org.neo4j.collection.primitive.hopscotch.PrimitiveLongObjectHashMap;
+import org.neo4j.collection.primitive.hopscotch.StripedPrimitiveLongObjectHashMap;
 
 import static org.neo4j.collection.primitive.hopscotch.HopScotchHashingAlgorithm.NO_MONITOR;
 
@@ -108,6 +109,11 @@ public class Primitive
         return new PrimitiveLongObjectHashMap<>( new LongKeyObjectValueTable<VALUE>( initialCapacity ), NO_MONITOR );
     }
 
+    public static <VALUE> StripedPrimitiveLongObjectHashMap<VALUE> concurrentLongObjectMap( int stripes )
+    {
+        return new StripedPrimitiveLongObjectHashMap<>( stripes, DEFAULT_HEAP_CAPACITY );
+    }
+
     public static PrimitiveIntSet intSet()
     {
         return intSet( DEFAULT_HEAP_CAPACITY );
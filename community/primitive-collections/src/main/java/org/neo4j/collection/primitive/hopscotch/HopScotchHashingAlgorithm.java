@@ -280,7 +280,9 @@ public class HopScotchHashingAlgorithm
             HashFunction hashFunction, ResizeMonitor<VALUE> resizeMonitor )
     {
         assert monitor.tableGrowing( oldTable.capacity(), oldTable.size() );
-        Table<VALUE> newTable = oldTable.grow();
+        // placing entries in the new table may cause it to grow in turn, in which case the tracker
+        // follows along, so that remaining entries end up in the newest table
+        ResizeTracker<VALUE> tracker = new ResizeTracker<>( oldTable.grow() );
         long nullKey = oldTable.nullKey();
 
         // place all entries in the new table
@@ -290,19 +292,36 @@ public class HopScotchHashingAlgorithm
             long key = oldTable.key( i );
             if ( key != nullKey )
             {
-                VALUE putResult = put( newTable, monitor, hashFunction, key, oldTable.value( i ), resizeMonitor );
+                VALUE putResult = put( tracker.table, monitor, hashFunction, key, oldTable.value( i ), tracker );
                 if ( putResult != null )
                 {
                     throw new IllegalStateException( "Couldn't add " + key + " when growing table" );
                 }
             }
         }
+        Table<VALUE> newTable = tracker.table;
         assert monitor.tableGrew( oldTable.capacity(), newTable.capacity(), newTable.size() );
         resizeMonitor.tableGrew( newTable );
         oldTable.close();
         return newTable;
     }
 
+    private static class ResizeTracker<VALUE> implements ResizeMonitor<VALUE>
+    {
+        private Table<VALUE> table;
+
+        ResizeTracker( Table<VALUE> table )
+        {
+            this.table = table;
+        }
+
+        @Override
+        public void tableGrew( Table<VALUE> newTable )
+        {
+            this.table = newTable;
+        }
+    }
+
     /**
      * Monitor for what how a {@link HopScotchHashingAlgorithm} changes the items in a {@link Table}.
      */
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.collection.primitive.hopscotch;
+
+import org.neo4j.collection.primitive.PrimitiveLongObjectVisitor;
+
+import static org.neo4j.collection.primitive.hopscotch.HopScotchHashingAlgorithm.DEFAULT_HASHING;
+import static org.neo4j.collection.primitive.hopscotch.HopScotchHashingAlgorithm.NO_MONITOR;
+
+/**
+ * A concurrent long->object map, made up of a number of lock-striped {@link PrimitiveLongObjectHashMap hop-scotch
+ * maps}. Keys are assigned to stripes by the high bits of their hash, such that the low bits used by each stripe to
+ * find its table index remain evenly distributed.
+ *
+ * <p>
+ * Contrary to a {@link java.util.concurrent.ConcurrentHashMap ConcurrentHashMap<Long,VALUE>}, neither keys nor map
+ * entries are boxed or allocated on insertion, which makes this map suitable for very hot paths, like lock maps.
+ * </p>
+ *
+ * <p>
+ * Each stripe deals with the {@code -1} key, which is otherwise reserved by the hop-scotch tables, in a separate slot,
+ * so all long keys are supported.
+ * </p>
+ */
+public class StripedPrimitiveLongObjectHashMap<VALUE>
+{
+    private final Stripe<VALUE>[] stripes;
+    private final int stripeShift;
+
+    @SuppressWarnings( "unchecked" )
+    public StripedPrimitiveLongObjectHashMap( int stripeCount, int initialStripeCapacity )
+    {
+        if ( stripeCount < 1 || stripeCount > (1 << 16) || Integer.bitCount( stripeCount ) != 1 )
+        {
+            throw new IllegalArgumentException( "Stripe count must be a power of two between 1 and 2^16, was " +
+                                                stripeCount );
+        }
+        this.stripes = new Stripe[stripeCount];
+        this.stripeShift = 32 - Integer.numberOfTrailingZeros( stripeCount );
+        for ( int i = 0; i < stripeCount; i++ )
+        {
+            stripes[i] = new Stripe<>( initialStripeCapacity );
+        }
+    }
+
+    public VALUE get( long key )
+    {
+        return stripe( key ).get( key );
+    }
+
+    public boolean containsKey( long key )
+    {
+        return stripe( key ).get( key ) != null;
+    }
+
+    public VALUE put( long key, VALUE value )
+    {
+        return stripe( key ).put( key, value );
+    }
+
+    /**
+     * Associate the given value with the given key, unless there already is a value associated with it.
+     *
+     * @return the value previously associated with the key, or {@code null} if the given value was inserted.
+     */
+    public VALUE putIfAbsent( long key, VALUE value )
+    {
+        return stripe( key ).putIfAbsent( key, value );
+    }
+
+    public VALUE remove( long key )
+    {
+        return stripe( key ).remove( key );
+    }
+
+    /**
+     * Remove the entry for the given key, only if it is currently associated with the given value.
+     *
+     * @return {@code true} if the entry was removed.
+     */
+    public boolean remove( long key, VALUE value )
+    {
+        return stripe( key ).remove( key, value );
+    }
+
+    /**
+     * Sum of the sizes of all stripes. Since stripes are inspected one at a time, this is only a snapshot
+     * if the map is not concurrently modified.
+     */
+    public int size()
+    {
+        int size = 0;
+        for ( Stripe<VALUE> stripe : stripes )
+        {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    public boolean isEmpty()
+    {
+        for ( Stripe<VALUE> stripe : stripes )
+        {
+            if ( stripe.size() > 0 )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void clear()
+    {
+        for ( Stripe<VALUE> stripe : stripes )
+        {
+            stripe.clear();
+        }
+    }
+
+    /**
+     * Visit the entries of this map, one stripe at a time, until all have been visited or the visitor returns
+     * 'true'. The stripe being visited is locked for the duration of its visit, so the visitor must not modify
+     * this map.
+     */
+    public <E extends Exception> void visitEntries( PrimitiveLongObjectVisitor<VALUE,E> visitor ) throws E
+    {
+        for ( Stripe<VALUE> stripe : stripes )
+        {
+            if ( stripe.visitEntries( visitor ) )
+            {
+                return;
+            }
+        }
+    }
+
+    private Stripe<VALUE> stripe( long key )
+    {
+        // stripeShift is 32 for a single stripe, and int shifts only use the lower five bits
+        return stripes.length == 1 ? stripes[0] : stripes[DEFAULT_HASHING.hash( key ) >>> stripeShift];
+    }
+
+    private static class Stripe<VALUE>
+    {
+        private static final long NULL_KEY = -1L;
+
+        private final PrimitiveLongObjectHashMap<VALUE> map;
+        private VALUE nullKeyValue;
+
+        Stripe( int initialCapacity )
+        {
+            this.map = new PrimitiveLongObjectHashMap<>( new LongKeyObjectValueTable<VALUE>( initialCapacity ),
+                    NO_MONITOR );
+        }
+
+        synchronized VALUE get( long key )
+        {
+            return key == NULL_KEY ? nullKeyValue : map.get( key );
+        }
+
+        synchronized VALUE put( long key, VALUE value )
+        {
+            if ( key == NULL_KEY )
+            {
+                VALUE previous = nullKeyValue;
+                nullKeyValue = value;
+                return previous;
+            }
+            return map.put( key, value );
+        }
+
+        synchronized VALUE putIfAbsent( long key, VALUE value )
+        {
+            VALUE existing = get( key );
+            if ( existing == null )
+            {
+                put( key, value );
+            }
+            return existing;
+        }
+
+        synchronized VALUE remove( long key )
+        {
+            if ( key == NULL_KEY )
+            {
+                VALUE previous = nullKeyValue;
+                nullKeyValue = null;
+                return previous;
+            }
+            return map.remove( key );
+        }
+
+        synchronized boolean remove( long key, VALUE value )
+        {
+            VALUE existing = get( key );
+            if ( existing != null && existing.equals( value ) )
+            {
+                remove( key );
+                return true;
+            }
+            return false;
+        }
+
+        synchronized int size()
+        {
+            return map.size() + (nullKeyValue != null ? 1 : 0);
+        }
+
+        synchronized void clear()
+        {
+            map.clear();
+            nullKeyValue = null;
+        }
+
+        synchronized <E extends Exception> boolean visitEntries( PrimitiveLongObjectVisitor<VALUE,E> visitor )
+                throws E
+        {
+            if ( nullKeyValue != null && visitor.visited( NULL_KEY, nullKeyValue ) )
+            {
+                return true;
+            }
+            StopTrackingVisitor<VALUE,E> tracker = new StopTrackingVisitor<>( visitor );
+            map.visitEntries( tracker );
+            return tracker.stopped;
+        }
+    }
+
+    private static class StopTrackingVisitor<VALUE, E extends Exception> implements PrimitiveLongObjectVisitor<VALUE,E>
+    {
+        private final PrimitiveLongObjectVisitor<VALUE,E> delegate;
+        private boolean stopped;
+
+        StopTrackingVisitor( PrimitiveLongObjectVisitor<VALUE,E> delegate )
+        {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean visited( long key, VALUE value ) throws E
+        {
+            stopped = delegate.visited( key, value );
+            return stopped;
+        }
+    }
+}
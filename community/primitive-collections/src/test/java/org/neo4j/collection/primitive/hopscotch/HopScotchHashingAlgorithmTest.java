@@ -25,7 +25,9 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.Test;
 
+import org.neo4j.collection.primitive.Primitive;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.collection.primitive.PrimitiveLongObjectMap;
 import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.collection.primitive.hopscotch.HopScotchHashingAlgorithm.Monitor;
 
@@ -35,6 +37,7 @@ import static org.junit.Assert.assertTrue;
 
 import static org.neo4j.collection.primitive.Primitive.VALUE_MARKER;
 import static org.neo4j.collection.primitive.hopscotch.HopScotchHashingAlgorithm.DEFAULT_H;
+import static org.neo4j.collection.primitive.hopscotch.HopScotchHashingAlgorithm.DEFAULT_HASHING;
 
 public class HopScotchHashingAlgorithmTest
 {
@@ -96,6 +99,29 @@ public class HopScotchHashingAlgorithmTest
         }
     }
 
+    @Test
+    public void shouldNotLoseEntriesWhenGrowingTableHasToGrowAgain() throws Exception
+    {
+        // GIVEN keys with clustered hashes, which make a freshly grown table run out of neighborhood space
+        PrimitiveLongObjectMap<Long> map = Primitive.longObjectMap();
+        Set<Long> added = new HashSet<>();
+        for ( long key = 0; key < 100_000; key++ )
+        {
+            if ( (DEFAULT_HASHING.hash( key ) >>> 29) == 7 )
+            {
+                map.put( key, key );
+                added.add( key );
+            }
+        }
+
+        // THEN
+        assertEquals( added.size(), map.size() );
+        for ( Long key : added )
+        {
+            assertEquals( key, map.get( key ) );
+        }
+    }
+
     private int figureOutGrowthThreshold()
     {
         final AtomicBoolean grew = new AtomicBoolean();
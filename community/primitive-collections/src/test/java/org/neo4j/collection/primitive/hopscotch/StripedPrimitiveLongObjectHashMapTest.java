@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.collection.primitive.hopscotch;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongObjectVisitor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class StripedPrimitiveLongObjectHashMapTest
+{
+    @Test
+    public void shouldPutGetAndRemoveAcrossStripes() throws Exception
+    {
+        // GIVEN
+        StripedPrimitiveLongObjectHashMap<Integer> map = Primitive.concurrentLongObjectMap( 8 );
+
+        // WHEN
+        for ( int i = 0; i < 1_000; i++ )
+        {
+            assertNull( map.put( i, i ) );
+        }
+
+        // THEN
+        assertEquals( 1_000, map.size() );
+        for ( int i = 0; i < 1_000; i++ )
+        {
+            assertEquals( (Integer) i, map.get( i ) );
+        }
+        for ( int i = 0; i < 1_000; i += 2 )
+        {
+            assertEquals( (Integer) i, map.remove( i ) );
+        }
+        assertEquals( 500, map.size() );
+        assertFalse( map.containsKey( 10 ) );
+        assertTrue( map.containsKey( 11 ) );
+    }
+
+    @Test
+    public void shouldOnlyPutIfAbsent() throws Exception
+    {
+        // GIVEN
+        StripedPrimitiveLongObjectHashMap<String> map = Primitive.concurrentLongObjectMap( 4 );
+
+        // WHEN
+        String first = map.putIfAbsent( 42, "a" );
+        String second = map.putIfAbsent( 42, "b" );
+
+        // THEN
+        assertNull( first );
+        assertEquals( "a", second );
+        assertEquals( "a", map.get( 42 ) );
+    }
+
+    @Test
+    public void shouldOnlyRemoveMatchingValue() throws Exception
+    {
+        // GIVEN
+        StripedPrimitiveLongObjectHashMap<String> map = Primitive.concurrentLongObjectMap( 4 );
+        map.put( 7, "a" );
+
+        // WHEN/THEN
+        assertFalse( map.remove( 7, "b" ) );
+        assertEquals( "a", map.get( 7 ) );
+        assertTrue( map.remove( 7, "a" ) );
+        assertNull( map.get( 7 ) );
+        assertTrue( map.isEmpty() );
+    }
+
+    @Test
+    public void shouldSupportTheReservedNullKey() throws Exception
+    {
+        // GIVEN
+        StripedPrimitiveLongObjectHashMap<String> map = Primitive.concurrentLongObjectMap( 1 );
+
+        // WHEN
+        map.put( -1, "minus one" );
+        map.put( 1, "one" );
+
+        // THEN
+        assertEquals( "minus one", map.get( -1 ) );
+        assertEquals( 2, map.size() );
+        final Map<Long,String> visited = new HashMap<>();
+        map.visitEntries( new PrimitiveLongObjectVisitor<String,RuntimeException>()
+        {
+            @Override
+            public boolean visited( long key, String value )
+            {
+                visited.put( key, value );
+                return false;
+            }
+        } );
+        assertEquals( "minus one", visited.get( -1L ) );
+        assertEquals( "one", visited.get( 1L ) );
+        assertEquals( "minus one", map.remove( -1 ) );
+        assertEquals( 1, map.size() );
+    }
+
+    @Test
+    public void shouldStopVisitingWhenVisitorSaysSo() throws Exception
+    {
+        // GIVEN
+        StripedPrimitiveLongObjectHashMap<Integer> map = Primitive.concurrentLongObjectMap( 16 );
+        for ( int i = 0; i < 100; i++ )
+        {
+            map.put( i, i );
+        }
+
+        // WHEN
+        final AtomicInteger visits = new AtomicInteger();
+        map.visitEntries( new PrimitiveLongObjectVisitor<Integer,RuntimeException>()
+        {
+            @Override
+            public boolean visited( long key, Integer value )
+            {
+                return visits.incrementAndGet() == 10;
+            }
+        } );
+
+        // THEN
+        assertEquals( 10, visits.get() );
+    }
+
+    @Test
+    public void shouldHandleConcurrentPutIfAbsentAndRemove() throws Exception
+    {
+        // GIVEN
+        final StripedPrimitiveLongObjectHashMap<Object> map = Primitive.concurrentLongObjectMap( 16 );
+        final int threads = 8;
+        final int keys = 10_000;
+        final CountDownLatch start = new CountDownLatch( 1 );
+        final AtomicInteger inserted = new AtomicInteger();
+        Thread[] workers = new Thread[threads];
+        for ( int t = 0; t < threads; t++ )
+        {
+            workers[t] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        start.await();
+                    }
+                    catch ( InterruptedException e )
+                    {
+                        throw new RuntimeException( e );
+                    }
+                    Object mine = new Object();
+                    for ( int key = 0; key < keys; key++ )
+                    {
+                        if ( map.putIfAbsent( key, mine ) == null )
+                        {
+                            inserted.incrementAndGet();
+                        }
+                    }
+                }
+            };
+            workers[t].start();
+        }
+
+        // WHEN
+        start.countDown();
+        for ( Thread worker : workers )
+        {
+            worker.join();
+        }
+
+        // THEN each key was inserted by exactly one thread
+        assertEquals( keys, inserted.get() );
+        assertEquals( keys, map.size() );
+    }
+}
@@ -19,11 +19,9 @@
  */
 package org.neo4j.backup;
 
-import org.jboss.netty.buffer.ChannelBuffer;
 import org.jboss.netty.channel.Channel;
 
 import org.neo4j.backup.BackupClient.BackupRequestType;
-import org.neo4j.com.ChunkingChannelBuffer;
 import org.neo4j.com.Client;
 import org.neo4j.com.Protocol;
 import org.neo4j.com.ProtocolVersion;
@@ -57,14 +55,6 @@ class BackupServer extends Server<TheBackupInterface,Object>
                 TxChecksumVerifier.ALWAYS_MATCH, SYSTEM_CLOCK, byteCounterMonitor, requestMonitor );
     }
 
-    @Override
-    protected ChunkingChannelBuffer newChunkingBuffer( ChannelBuffer bufferToWriteTo, Channel channel, int capacity,
-            byte internalProtocolVersion, byte applicationProtocolVersion )
-    {
-        return new BufferReusingChunkingChannelBuffer( bufferToWriteTo, channel, capacity, internalProtocolVersion,
-                applicationProtocolVersion );
-    }
-
     private static Configuration newBackupConfig( final int chunkSize, final HostnamePort server )
     {
         return new Configuration()
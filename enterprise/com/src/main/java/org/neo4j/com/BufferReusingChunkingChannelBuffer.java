@@ -17,7 +17,7 @@
  * You should have received a copy of the GNU Affero General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-package org.neo4j.backup;
+package org.neo4j.com;
 
 import org.jboss.netty.buffer.ChannelBuffer;
 import org.jboss.netty.buffer.ChannelBuffers;
@@ -28,7 +28,6 @@ import org.jboss.netty.channel.ChannelFutureListener;
 import java.util.Queue;
 import java.util.concurrent.LinkedBlockingQueue;
 
-import org.neo4j.com.ChunkingChannelBuffer;
 import org.neo4j.function.Factory;
 
 /**
@@ -42,29 +41,23 @@ import org.neo4j.function.Factory;
  * <p>
  * Allocation of buffers is traded for allocation of {@link ChannelFutureListener}s that returned buffers to the
  * queue of free buffers.
+ * <p>
+ * New buffers are allocated with room for a whole chunk, so that filling them up doesn't grow, i.e. copy, them
+ * over and over again.
  */
-class BufferReusingChunkingChannelBuffer extends ChunkingChannelBuffer
+public class BufferReusingChunkingChannelBuffer extends ChunkingChannelBuffer
 {
-    private static final Factory<ChannelBuffer> DEFAULT_CHANNEL_BUFFER_FACTORY = new Factory<ChannelBuffer>()
-    {
-        @Override
-        public ChannelBuffer newInstance()
-        {
-            return ChannelBuffers.dynamicBuffer();
-        }
-    };
-
     private final Factory<ChannelBuffer> bufferFactory;
     private final Queue<ChannelBuffer> freeBuffers = new LinkedBlockingQueue<>( MAX_WRITE_AHEAD_CHUNKS );
 
-    BufferReusingChunkingChannelBuffer( ChannelBuffer initialBuffer, Channel channel, int capacity,
+    public BufferReusingChunkingChannelBuffer( ChannelBuffer initialBuffer, Channel channel, final int capacity,
             byte internalProtocolVersion, byte applicationProtocolVersion )
     {
-        this( initialBuffer, DEFAULT_CHANNEL_BUFFER_FACTORY, channel, capacity, internalProtocolVersion,
-                applicationProtocolVersion );
+        this( initialBuffer, () -> ChannelBuffers.dynamicBuffer( capacity ), channel, capacity,
+                internalProtocolVersion, applicationProtocolVersion );
     }
 
-    BufferReusingChunkingChannelBuffer( ChannelBuffer initialBuffer, Factory<ChannelBuffer> bufferFactory,
+    public BufferReusingChunkingChannelBuffer( ChannelBuffer initialBuffer, Factory<ChannelBuffer> bufferFactory,
             Channel channel, int capacity, byte internalProtocolVersion, byte applicationProtocolVersion )
     {
         super( initialBuffer, channel, capacity, internalProtocolVersion, applicationProtocolVersion );
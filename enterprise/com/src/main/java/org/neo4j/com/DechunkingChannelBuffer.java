@@ -44,6 +44,7 @@ public class DechunkingChannelBuffer implements ChannelBuffer
     private ChannelBuffer buffer;
     private boolean more;
     private boolean hasMarkedReaderIndex;
+    private int markedReaderIndex;
     private final long timeoutMillis;
     private boolean failure;
     private final byte applicationProtocolVersion;
@@ -103,17 +104,24 @@ public class DechunkingChannelBuffer implements ChannelBuffer
         failure = (header[0] & 0x2) != 0;
         assertSameProtocolVersion( header, internalProtocolVersion, applicationProtocolVersion );
 
-        if ( !more && buffer == null )
+        if ( buffer == null || (!buffer.readable() && !hasMarkedReaderIndex) )
         {
-            // Optimization: this is the first chunk and it'll be the only chunk
-            // in this message.
+            // Optimization: nothing of the previous chunk, if any, is left to read, which is always the case since
+            // values are never split over chunks. So read from this chunk as it is, rather than copying it over.
             buffer = readBuffer;
         }
         else
         {
-            buffer = buffer == null ? ChannelBuffers.dynamicBuffer() : buffer;
-            discardReadBytes();
-            buffer.writeBytes( readBuffer );
+            // Keep what's left to read, or could be read again, of the previous chunk
+            int keepFrom = hasMarkedReaderIndex ? markedReaderIndex : buffer.readerIndex();
+            int readerIndex = buffer.readerIndex();
+            ChannelBuffer combined = ChannelBuffers.dynamicBuffer(
+                    buffer.writerIndex() - keepFrom + readBuffer.readableBytes() );
+            combined.writeBytes( buffer, keepFrom, buffer.writerIndex() - keepFrom );
+            combined.writeBytes( readBuffer );
+            combined.readerIndex( readerIndex - keepFrom );
+            markedReaderIndex = 0;
+            buffer = combined;
         }
 
         if ( failure )
@@ -257,13 +265,13 @@ public class DechunkingChannelBuffer implements ChannelBuffer
 
     public void markReaderIndex()
     {
-        buffer.markReaderIndex();
+        markedReaderIndex = buffer.readerIndex();
         hasMarkedReaderIndex = true;
     }
 
     public void resetReaderIndex()
     {
-        buffer.resetReaderIndex();
+        buffer.readerIndex( markedReaderIndex );
         hasMarkedReaderIndex = false;
     }
 
@@ -282,13 +290,14 @@ public class DechunkingChannelBuffer implements ChannelBuffer
         int oldReaderIndex = buffer.readerIndex();
         if ( hasMarkedReaderIndex )
         {
-            buffer.resetReaderIndex();
+            buffer.readerIndex( markedReaderIndex );
         }
         int bytesToDiscard = buffer.readerIndex();
         buffer.discardReadBytes();
         if ( hasMarkedReaderIndex )
         {
             buffer.readerIndex( oldReaderIndex-bytesToDiscard );
+            markedReaderIndex = 0;
         }
     }
 
@@ -218,7 +218,7 @@ public abstract class Protocol
                                   Serializer payload ) throws IOException
     {
         buffer.clear();
-        ChunkingChannelBuffer chunkingBuffer = new ChunkingChannelBuffer( buffer,
+        ChunkingChannelBuffer chunkingBuffer = new BufferReusingChunkingChannelBuffer( buffer,
                 channel, chunkSize, internalProtocolVersion, applicationProtocolVersion );
         chunkingBuffer.writeByte( type.id() );
         writeContext( ctx, chunkingBuffer );
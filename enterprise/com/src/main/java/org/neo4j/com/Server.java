@@ -553,7 +553,7 @@ public abstract class Server<T, R> extends SimpleChannelHandler implements Chann
     protected ChunkingChannelBuffer newChunkingBuffer( ChannelBuffer bufferToWriteTo, Channel channel, int capacity,
             byte internalProtocolVersion, byte applicationProtocolVersion )
     {
-        return new ChunkingChannelBuffer( bufferToWriteTo, channel, capacity, internalProtocolVersion,
+        return new BufferReusingChunkingChannelBuffer( bufferToWriteTo, channel, capacity, internalProtocolVersion,
                 applicationProtocolVersion );
     }
 
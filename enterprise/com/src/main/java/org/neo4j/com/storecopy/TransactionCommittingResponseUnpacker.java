@@ -24,6 +24,7 @@ import org.neo4j.com.TransactionStream;
 import org.neo4j.graphdb.DependencyResolver;
 import org.neo4j.kernel.impl.api.TransactionCommitProcess;
 import org.neo4j.kernel.impl.api.TransactionRepresentationCommitProcess;
+import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.api.index.IndexUpdatesValidator;
 import org.neo4j.kernel.impl.storageengine.StorageEngine;
 import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
@@ -99,6 +100,23 @@ public class TransactionCommittingResponseUnpacker extends LifecycleAdapter impl
         }
     }
 
+    /**
+     * Notified about every batch of transactions applied from a transaction stream response.
+     */
+    public interface Monitor
+    {
+        /**
+         * @param lastTransactionId id of the last transaction in the batch.
+         * @param lastTransactionTimeCommitted the time the last transaction in the batch was committed at its
+         * origin, e.g. the master, as opposed to when it got applied here.
+         * @param batchSize number of transactions in the batch.
+         */
+        void appliedBatch( long lastTransactionId, long lastTransactionTimeCommitted, int batchSize );
+    }
+
+    public static final Monitor NO_MONITOR = ( lastTransactionId, lastTransactionTimeCommitted, batchSize ) -> {
+    };
+
     public static final int DEFAULT_BATCH_SIZE = 100;
 
     static final String msg = "Kernel panic detected: pulled transactions cannot be applied to a non-healthy database. "
@@ -107,6 +125,7 @@ public class TransactionCommittingResponseUnpacker extends LifecycleAdapter impl
     // Assigned in constructor
     private final Dependencies dependencies;
     private final int maxBatchSize;
+    private final Monitor monitor;
 
     // Assigned in start()
     private TransactionCommitProcess commitProcess;
@@ -117,13 +136,25 @@ public class TransactionCommittingResponseUnpacker extends LifecycleAdapter impl
 
     public TransactionCommittingResponseUnpacker( DependencyResolver dependencies, int maxBatchSize )
     {
-        this( new ResolvableDependencies( dependencies ), maxBatchSize );
+        this( dependencies, maxBatchSize, NO_MONITOR );
+    }
+
+    public TransactionCommittingResponseUnpacker( DependencyResolver dependencies, int maxBatchSize,
+            Monitor monitor )
+    {
+        this( new ResolvableDependencies( dependencies ), maxBatchSize, monitor );
     }
 
     public TransactionCommittingResponseUnpacker( Dependencies dependencies, int maxBatchSize )
+    {
+        this( dependencies, maxBatchSize, NO_MONITOR );
+    }
+
+    public TransactionCommittingResponseUnpacker( Dependencies dependencies, int maxBatchSize, Monitor monitor )
     {
         this.dependencies = dependencies;
         this.maxBatchSize = maxBatchSize;
+        this.monitor = monitor;
     }
 
     @Override
@@ -135,9 +166,7 @@ public class TransactionCommittingResponseUnpacker extends LifecycleAdapter impl
         }
 
         BatchingResponseHandler responseHandler = new BatchingResponseHandler( maxBatchSize,
-                (batch) -> {
-                    commitProcess.commit( batch, CommitEvent.NULL, EXTERNAL );
-                }, obligationFulfiller, txHandler );
+                this::applyBatch, obligationFulfiller, txHandler );
         try
         {
             response.accept( responseHandler );
@@ -148,6 +177,24 @@ public class TransactionCommittingResponseUnpacker extends LifecycleAdapter impl
         }
     }
 
+    /**
+     * The whole batch is appended to the log and forced once, and then applied to the store, indexes and counts
+     * together, see {@link TransactionRepresentationCommitProcess}.
+     */
+    private void applyBatch( TransactionToApply batch ) throws Exception
+    {
+        commitProcess.commit( batch, CommitEvent.NULL, EXTERNAL );
+
+        int batchSize = 1;
+        TransactionToApply last = batch;
+        while ( last.next() != null )
+        {
+            last = last.next();
+            batchSize++;
+        }
+        monitor.appliedBatch( last.transactionId(), last.transactionRepresentation().getTimeCommitted(), batchSize );
+    }
+
     @Override
     public void start()
     {
@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.com;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.handler.queue.BlockingReadHandler;
+
+import static java.lang.System.nanoTime;
+
+/**
+ * Measures throughput and allocation rate of writing a response, like a transaction stream, through the com
+ * chunking buffer, comparing allocating a new buffer for every chunk with reusing chunk buffers. Also measures
+ * reading such a response back, comparing the dechunking buffer reading chunks in place with copying every
+ * chunk into an accumulating buffer, as it used to.
+ * Run with:
+ *
+ * <pre>
+ * [-DchunkSize=2097152] [-DresponseSize=67108864] [-Diterations=10]
+ * </pre>
+ *
+ * Allocation is only reported on JVMs which can measure the bytes allocated by a thread.
+ */
+public class ChunkingChannelBufferMicroBenchmark
+{
+    private static final byte INTERNAL_PROTOCOL_VERSION = 1;
+    private static final byte APPLICATION_PROTOCOL_VERSION = 1;
+    private static final byte[] COMMAND = new byte[100];
+    private static final int ENTRY_SIZE = 1 + 8 + 4 + COMMAND.length;
+
+    public static void main( String... args )
+    {
+        int chunkSize = Integer.getInteger( "chunkSize", 2 * Protocol.MEGA );
+        long responseSize = Long.getLong( "responseSize", 64L * Protocol.MEGA );
+        int iterations = Integer.getInteger( "iterations", 10 );
+        long entries = responseSize / ENTRY_SIZE;
+
+        // The chunks to read back, as received. Chunks written by the allocating chunking buffer are never
+        // reused, so they can be kept as they are.
+        RecordingChannel recording = new RecordingChannel();
+        write( Chunking.ALLOCATING.newChunkingBuffer( recording, chunkSize ), entries );
+        BlockingReadHandler<ChannelBuffer> received = recording.asBlockingReadHandler();
+        List<ChannelBuffer> chunks = new ArrayList<>();
+        for ( ChannelBuffer chunk; (chunk = read( received )) != null; )
+        {
+            chunks.add( chunk );
+        }
+
+        for ( int i = 0; i < iterations; i++ )
+        {
+            for ( Chunking chunking : Chunking.values() )
+            {
+                executeChunking( chunking, chunkSize, entries );
+            }
+            for ( Dechunking dechunking : Dechunking.values() )
+            {
+                executeDechunking( dechunking, chunks, entries );
+            }
+        }
+    }
+
+    enum Chunking
+    {
+        /** Allocates a new buffer for every chunk. */
+        ALLOCATING
+                {
+                    @Override
+                    ChunkingChannelBuffer newChunkingBuffer( RecordingChannel channel, int chunkSize )
+                    {
+                        return new ChunkingChannelBuffer( ChannelBuffers.dynamicBuffer(), channel, chunkSize,
+                                INTERNAL_PROTOCOL_VERSION, APPLICATION_PROTOCOL_VERSION );
+                    }
+                },
+        /** Reuses the buffers of chunks which have been written, what com servers and clients do. */
+        REUSING
+                {
+                    @Override
+                    ChunkingChannelBuffer newChunkingBuffer( RecordingChannel channel, int chunkSize )
+                    {
+                        return new BufferReusingChunkingChannelBuffer( ChannelBuffers.dynamicBuffer(), channel,
+                                chunkSize, INTERNAL_PROTOCOL_VERSION, APPLICATION_PROTOCOL_VERSION );
+                    }
+                };
+
+        abstract ChunkingChannelBuffer newChunkingBuffer( RecordingChannel channel, int chunkSize );
+    }
+
+    enum Dechunking
+    {
+        /** Copies every chunk of a message with more than one chunk into an accumulating buffer. */
+        COPYING
+                {
+                    @Override
+                    EntryReader newDechunkingBuffer( BlockingReadHandler<ChannelBuffer> chunks )
+                    {
+                        return new CopyingDechunker( chunks );
+                    }
+                },
+        /** Reads chunks in place, what com servers and clients do. */
+        IN_PLACE
+                {
+                    @Override
+                    EntryReader newDechunkingBuffer( BlockingReadHandler<ChannelBuffer> chunks )
+                    {
+                        final DechunkingChannelBuffer buffer = new DechunkingChannelBuffer( chunks, 0,
+                                INTERNAL_PROTOCOL_VERSION, APPLICATION_PROTOCOL_VERSION );
+                        return new EntryReader()
+                        {
+                            @Override
+                            public byte readByte()
+                            {
+                                return buffer.readByte();
+                            }
+
+                            @Override
+                            public long readLong()
+                            {
+                                return buffer.readLong();
+                            }
+
+                            @Override
+                            public int readInt()
+                            {
+                                return buffer.readInt();
+                            }
+
+                            @Override
+                            public void readBytes( byte[] dst, int dstIndex, int length )
+                            {
+                                buffer.readBytes( dst, dstIndex, length );
+                            }
+                        };
+                    }
+                };
+
+        abstract EntryReader newDechunkingBuffer( BlockingReadHandler<ChannelBuffer> chunks );
+    }
+
+    private static void executeChunking( Chunking chunking, int chunkSize, long entries )
+    {
+        // Writes complete right away, like on a socket which has taken the bytes, so chunk buffers are free to
+        // be reused. The chunks are not read back here.
+        RecordingChannel channel = new RecordingChannel();
+
+        long allocatedBefore = allocatedBytes();
+        long time = nanoTime();
+        write( chunking.newChunkingBuffer( channel, chunkSize ), entries );
+        time = nanoTime() - time;
+        report( "write", chunking, entries, time, allocatedBytes() - allocatedBefore, 0 );
+    }
+
+    private static void executeDechunking( Dechunking dechunking, List<ChannelBuffer> chunks, long entries )
+    {
+        BlockingReadHandler<ChannelBuffer> received = replay( chunks );
+
+        long allocatedBefore = allocatedBytes();
+        long time = nanoTime();
+        EntryReader dechunked = dechunking.newDechunkingBuffer( received );
+        byte[] command = new byte[COMMAND.length];
+        long checksum = 0;
+        for ( long entry = 0; entry < entries; entry++ )
+        {
+            checksum += dechunked.readByte();
+            checksum += dechunked.readLong();
+            dechunked.readBytes( command, 0, dechunked.readInt() );
+        }
+        time = nanoTime() - time;
+        report( "read", dechunking, entries, time, allocatedBytes() - allocatedBefore, checksum );
+    }
+
+    private static void write( ChunkingChannelBuffer chunks, long entries )
+    {
+        for ( long entry = 0; entry < entries; entry++ )
+        {
+            chunks.writeByte( 1 );
+            chunks.writeLong( entry );
+            chunks.writeInt( COMMAND.length );
+            chunks.writeBytes( COMMAND );
+        }
+        chunks.done();
+    }
+
+    private static void report( String operation, Enum<?> variant, long entries, long time, long allocated,
+            long checksum )
+    {
+        double megabytes = entries * ENTRY_SIZE / (double) Protocol.MEGA;
+        System.out.printf( "%-5s %-10s %8.1f MB/s", operation, variant, megabytes / (time / 1_000_000_000.0) );
+        if ( allocated >= 0 )
+        {
+            System.out.printf( " %8.2f bytes allocated per byte streamed", allocated / (megabytes * Protocol.MEGA) );
+        }
+        System.out.printf( " (%d)%n", checksum );
+    }
+
+    /**
+     * Hands out the given chunks as they were received, without copying them.
+     */
+    private static BlockingReadHandler<ChannelBuffer> replay( List<ChannelBuffer> chunks )
+    {
+        final Iterator<ChannelBuffer> iterator = chunks.iterator();
+        return new BlockingReadHandler<ChannelBuffer>()
+        {
+            @Override
+            public ChannelBuffer read()
+            {
+                return iterator.hasNext() ? iterator.next().duplicate() : null;
+            }
+
+            @Override
+            public ChannelBuffer read( long timeout, TimeUnit unit )
+            {
+                return read();
+            }
+        };
+    }
+
+    private static ChannelBuffer read( BlockingReadHandler<ChannelBuffer> chunks )
+    {
+        try
+        {
+            return chunks.read();
+        }
+        catch ( Exception e )
+        {
+            throw new ComException( e );
+        }
+    }
+
+    private static long allocatedBytes()
+    {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if ( threads instanceof com.sun.management.ThreadMXBean )
+        {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(
+                    Thread.currentThread().getId() );
+        }
+        return -1;
+    }
+
+    /**
+     * The part of a dechunking buffer this benchmark reads entries through.
+     */
+    interface EntryReader
+    {
+        byte readByte();
+
+        long readLong();
+
+        int readInt();
+
+        void readBytes( byte[] dst, int dstIndex, int length );
+    }
+
+    /**
+     * How {@link DechunkingChannelBuffer} used to dechunk: every chunk of a message with more than one chunk is
+     * copied into an accumulating buffer, after discarding the bytes read from it.
+     */
+    private static class CopyingDechunker implements EntryReader
+    {
+        private final BlockingReadHandler<ChannelBuffer> chunks;
+        private ChannelBuffer buffer;
+        private boolean more;
+
+        CopyingDechunker( BlockingReadHandler<ChannelBuffer> chunks )
+        {
+            this.chunks = chunks;
+            readNextChunk();
+        }
+
+        private void readNextChunkIfNeeded( int bytesPlus )
+        {
+            if ( buffer.readableBytes() < bytesPlus && more )
+            {
+                readNextChunk();
+            }
+        }
+
+        private void readNextChunk()
+        {
+            ChannelBuffer readBuffer = read( chunks );
+            byte[] header = new byte[2];
+            readBuffer.readBytes( header );
+            more = (header[0] & 0x1) != 0;
+
+            if ( !more && buffer == null )
+            {
+                buffer = readBuffer;
+            }
+            else
+            {
+                buffer = buffer == null ? ChannelBuffers.dynamicBuffer() : buffer;
+                buffer.discardReadBytes();
+                buffer.writeBytes( readBuffer );
+            }
+        }
+
+        @Override
+        public byte readByte()
+        {
+            readNextChunkIfNeeded( 1 );
+            return buffer.readByte();
+        }
+
+        @Override
+        public long readLong()
+        {
+            readNextChunkIfNeeded( 8 );
+            return buffer.readLong();
+        }
+
+        @Override
+        public int readInt()
+        {
+            readNextChunkIfNeeded( 4 );
+            return buffer.readInt();
+        }
+
+        @Override
+        public void readBytes( byte[] dst, int dstIndex, int length )
+        {
+            readNextChunkIfNeeded( length );
+            buffer.readBytes( dst, dstIndex, length );
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.com;
+
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class DechunkingChannelBufferTest
+{
+    private final RecordingChannel channel = new RecordingChannel();
+
+    @Test
+    public void shouldReadValuesWrittenOverManyChunks() throws Exception
+    {
+        // given
+        ChunkingChannelBuffer chunks = newChunkingBuffer();
+        for ( long i = 0; i < 100; i++ )
+        {
+            chunks.writeLong( i );
+        }
+        chunks.done();
+
+        // when
+        DechunkingChannelBuffer dechunked = newDechunkingBuffer();
+
+        // then
+        for ( long i = 0; i < 100; i++ )
+        {
+            assertEquals( i, dechunked.readLong() );
+        }
+    }
+
+    @Test
+    public void shouldKeepMarkedBytesWhenReadingNextChunk() throws Exception
+    {
+        // given
+        ChunkingChannelBuffer chunks = newChunkingBuffer();
+        chunks.writeLong( 1 );
+        chunks.writeLong( 2 );
+        chunks.writeLong( 3 );
+        chunks.done();
+        DechunkingChannelBuffer dechunked = newDechunkingBuffer();
+
+        // when
+        assertEquals( 1, dechunked.readLong() );
+        dechunked.markReaderIndex();
+        assertEquals( 2, dechunked.readLong() );
+        assertEquals( 3, dechunked.readLong() );
+        dechunked.resetReaderIndex();
+
+        // then
+        assertEquals( 2, dechunked.readLong() );
+        assertEquals( 3, dechunked.readLong() );
+    }
+
+    private ChunkingChannelBuffer newChunkingBuffer()
+    {
+        // Room for two longs per chunk
+        return new ChunkingChannelBuffer( ChannelBuffers.dynamicBuffer(), channel, 2 + 8 + 8 + 1, (byte) 1,
+                (byte) 1 );
+    }
+
+    private DechunkingChannelBuffer newDechunkingBuffer()
+    {
+        return new DechunkingChannelBuffer( channel.asBlockingReadHandler(), 0, (byte) 1, (byte) 1 );
+    }
+}
@@ -45,9 +45,12 @@ import org.neo4j.kernel.lifecycle.LifeRule;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import static org.neo4j.com.storecopy.ResponseUnpacker.NO_OP_TX_HANDLER;
@@ -94,6 +97,26 @@ public class TransactionCommittingResponseUnpackerTest
         commitProcess.assertNoMoreBatches();
     }
 
+    @Test
+    public void shouldNotifyMonitorAboutEachAppliedBatch() throws Exception
+    {
+        // GIVEN
+        Dependencies dependencies = mock( Dependencies.class );
+        when( dependencies.commitProcess() ).thenReturn( new TransactionCountingTransactionCommitProcess() );
+        TransactionCommittingResponseUnpacker.Monitor monitor =
+                mock( TransactionCommittingResponseUnpacker.Monitor.class );
+        TransactionCommittingResponseUnpacker unpacker =
+                life.add( new TransactionCommittingResponseUnpacker( dependencies, 5, monitor ) );
+
+        // WHEN
+        unpacker.unpackResponse( new DummyTransactionResponse( BASE_TX_ID + 1, 7 ), NO_OP_TX_HANDLER );
+
+        // THEN
+        verify( monitor ).appliedBatch( eq( BASE_TX_ID + 5 ), anyLong(), eq( 5 ) );
+        verify( monitor ).appliedBatch( eq( BASE_TX_ID + 7 ), anyLong(), eq( 2 ) );
+        verifyNoMoreInteractions( monitor );
+    }
+
     private static class DummyObligationResponse extends TransactionObligationResponse<Object>
     {
         public DummyObligationResponse( long obligationTxId )
@@ -37,6 +37,7 @@ import org.neo4j.coreedge.catchup.storecopy.core.GetStoreRequestHandler;
 import org.neo4j.coreedge.catchup.storecopy.core.StoreCopyFinishedResponseEncoder;
 import org.neo4j.coreedge.catchup.tx.core.TxPullRequestDecoder;
 import org.neo4j.coreedge.catchup.tx.core.TxPullRequestHandler;
+import org.neo4j.coreedge.catchup.tx.core.TxSubscriptions;
 import org.neo4j.coreedge.catchup.tx.core.TxPullResponseEncoder;
 import org.neo4j.coreedge.server.ListenSocketAddress;
 import org.neo4j.coreedge.catchup.storecopy.edge.GetStoreRequestDecoder;
@@ -64,6 +65,7 @@ public class CatchupServer extends LifecycleAdapter
     private final Supplier<TransactionIdStore> transactionIdStoreSupplier;
     private final Supplier<LogicalTransactionStore> logicalTransactionStoreSupplier;
     private final Supplier<NeoStoreDataSource> dataSourceSupplier;
+    private final TxSubscriptions txSubscriptions;
 
     private final NamedThreadFactory threadFactory = new NamedThreadFactory( "catchup-server" );
     private final ListenSocketAddress listenAddress;
@@ -79,6 +81,7 @@ public class CatchupServer extends LifecycleAdapter
                           Supplier<LogicalTransactionStore> logicalTransactionStoreSupplier,
                           Supplier<NeoStoreDataSource> dataSourceSupplier,
                           Supplier<CheckPointer> checkPointerSupplier,
+                          TxSubscriptions txSubscriptions,
                           ListenSocketAddress listenAddress )
     {
         this.listenAddress = listenAddress;
@@ -89,6 +92,7 @@ public class CatchupServer extends LifecycleAdapter
         this.log = logProvider.getLog( getClass() );
         this.dataSourceSupplier = dataSourceSupplier;
         this.checkPointerSupplier = checkPointerSupplier;
+        this.txSubscriptions = txSubscriptions;
     }
 
     @Override
@@ -128,7 +132,7 @@ public class CatchupServer extends LifecycleAdapter
 
                         pipeline.addLast( new TxPullRequestDecoder( protocol ) );
                         pipeline.addLast( new TxPullRequestHandler( protocol, storeIdSupplier,
-                                transactionIdStoreSupplier, logicalTransactionStoreSupplier ) );
+                                transactionIdStoreSupplier, logicalTransactionStoreSupplier, txSubscriptions ) );
 
                         pipeline.addLast( new ChunkedWriteHandler() );
                         pipeline.addLast( new GetStoreRequestDecoder( protocol ) );
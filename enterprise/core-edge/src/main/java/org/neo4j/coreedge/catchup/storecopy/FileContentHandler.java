@@ -19,7 +19,9 @@
  */
 package org.neo4j.coreedge.catchup.storecopy;
 
+import java.io.IOException;
 import java.io.OutputStream;
+import java.util.zip.CRC32;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
@@ -27,27 +29,34 @@ import io.netty.channel.SimpleChannelInboundHandler;
 
 import org.neo4j.coreedge.catchup.storecopy.edge.StoreFileReceiver;
 import org.neo4j.coreedge.catchup.CatchupClientProtocol;
+import org.neo4j.coreedge.catchup.storecopy.edge.StoreFileStreamingCompleteListener;
 
 import static org.neo4j.coreedge.catchup.CatchupClientProtocol.NextMessage;
 
 public class FileContentHandler extends SimpleChannelInboundHandler<ByteBuf>
 {
     private final CatchupClientProtocol protocol;
+    private final CRC32 checksum = new CRC32();
     private long expectedBytes = 0;
-
     private StoreFileReceiver location;
+    private StoreFileStreamingCompleteListener listener;
     private String destination;
 
-    public FileContentHandler( CatchupClientProtocol protocol, StoreFileReceiver location )
+    public FileContentHandler( CatchupClientProtocol protocol, StoreFileReceiver location,
+                               StoreFileStreamingCompleteListener listener )
     {
         this.protocol = protocol;
         this.location = location;
+        this.listener = listener;
     }
 
-    public void setExpectedFile( FileHeader fileHeader )
+    public void setExpectedFile( FileHeader fileHeader ) throws IOException
     {
-        this.expectedBytes = fileHeader.fileLength();
+        this.expectedBytes = fileHeader.fileLength() - fileHeader.offset();
         this.destination = fileHeader.fileName();
+        checksum.reset();
+        // Anything we hold beyond what the sender agreed to keep is streamed again
+        location.getStoreFileStreams().truncate( destination, fileHeader.offset() );
     }
 
     @Override
@@ -55,18 +64,33 @@ public class FileContentHandler extends SimpleChannelInboundHandler<ByteBuf>
     {
         if ( protocol.isExpecting( NextMessage.FILE_CONTENTS ) )
         {
-            int bytesInMessage = msg.readableBytes();
-            try ( OutputStream outputStream = location.getStoreFileStreams().createStream( destination ) )
+            if ( expectedBytes > 0 )
             {
-                msg.readBytes( outputStream, bytesInMessage );
+                int bytesInMessage = msg.readableBytes();
+                checksum.update( msg.nioBuffer() );
+                try ( OutputStream outputStream = location.getStoreFileStreams().createStream( destination ) )
+                {
+                    msg.readBytes( outputStream, bytesInMessage );
+                }
+                expectedBytes -= bytesInMessage;
             }
-
-            expectedBytes -= bytesInMessage;
-
-            if ( expectedBytes <= 0 )
+            else
             {
+                verifyChecksum( msg.readLong() );
                 protocol.expect( NextMessage.MESSAGE_TYPE );
             }
         }
     }
+
+    private void verifyChecksum( long expectedChecksum ) throws IOException
+    {
+        if ( checksum.getValue() != expectedChecksum )
+        {
+            // Don't let a later store copy resume from what we received
+            location.getStoreFileStreams().truncate( destination, 0 );
+            listener.onFileStreamingFailed( new IOException( String.format(
+                    "Checksum mismatch for store file %s, expected %d but got %d",
+                    destination, expectedChecksum, checksum.getValue() ) ) );
+        }
+    }
 }
@@ -19,15 +19,27 @@
  */
 package org.neo4j.coreedge.catchup.storecopy;
 
+/**
+ * Announces a store file about to be streamed. The content which follows covers the bytes from {@link #offset()}
+ * up to {@link #fileLength()}, where a non-zero offset means that the receiver already holds the leading bytes
+ * of the file, and is followed by the CRC32 checksum of the streamed bytes.
+ */
 public class FileHeader
 {
     private final String fileName;
     private final long fileLength;
+    private final long offset;
 
     public FileHeader( String fileName, long fileLength )
+    {
+        this( fileName, fileLength, 0 );
+    }
+
+    public FileHeader( String fileName, long fileLength, long offset )
     {
         this.fileName = fileName;
         this.fileLength = fileLength;
+        this.offset = offset;
     }
 
     public long fileLength()
@@ -40,9 +52,14 @@ public class FileHeader
         return fileName;
     }
 
+    public long offset()
+    {
+        return offset;
+    }
+
     @Override
     public String toString()
     {
-        return String.format( "FileHeader{fileName='%s', fileLength=%d}", fileName, fileLength );
+        return String.format( "FileHeader{fileName='%s', fileLength=%d, offset=%d}", fileName, fileLength, offset );
     }
 }
@@ -49,8 +49,9 @@ public class FileHeaderDecoder extends MessageToMessageDecoder<ByteBuf>
             msg.readBytes( name );
 
             long fileLength = msg.readLong();
+            long offset = msg.readLong();
 
-            out.add( new FileHeader( new String( name ), fileLength ) );
+            out.add( new FileHeader( new String( name ), fileLength, offset ) );
         }
         else
         {
@@ -38,6 +38,7 @@ public class FileHeaderEncoder extends MessageToMessageEncoder<FileHeader>
         buffer.writeInt( name.length() );
         buffer.writeBytes( name.getBytes() );
         buffer.writeLong( msg.fileLength() );
+        buffer.writeLong( msg.offset() );
 
         out.add( buffer );
     }
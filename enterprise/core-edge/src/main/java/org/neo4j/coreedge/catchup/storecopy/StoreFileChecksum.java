@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.coreedge.catchup.storecopy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * The CRC32 checksum of the first {@link #length()} bytes of a store file. An edge server sends these for the
+ * store files it already holds from an interrupted store copy, and the core server only streams the remainder of
+ * a file whose leading bytes it finds to be the same.
+ */
+public class StoreFileChecksum
+{
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final String fileName;
+    private final long length;
+    private final long checksum;
+
+    public StoreFileChecksum( String fileName, long length, long checksum )
+    {
+        this.fileName = fileName;
+        this.length = length;
+        this.checksum = checksum;
+    }
+
+    public String fileName()
+    {
+        return fileName;
+    }
+
+    public long length()
+    {
+        return length;
+    }
+
+    public long checksum()
+    {
+        return checksum;
+    }
+
+    /**
+     * Calculates the checksum of the next {@code length} bytes of the given channel.
+     *
+     * @return the checksum, or -1 if the channel ended before {@code length} bytes could be read.
+     */
+    public static long checksum( ReadableByteChannel channel, long length ) throws IOException
+    {
+        CRC32 checksum = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocate( READ_BUFFER_SIZE );
+        long remaining = length;
+        while ( remaining > 0 )
+        {
+            buffer.clear();
+            buffer.limit( (int) Math.min( buffer.capacity(), remaining ) );
+            int read = channel.read( buffer );
+            if ( read == -1 )
+            {
+                return -1;
+            }
+            buffer.flip();
+            checksum.update( buffer );
+            remaining -= read;
+        }
+        return checksum.getValue();
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        StoreFileChecksum that = (StoreFileChecksum) o;
+        return length == that.length && checksum == that.checksum && Objects.equals( fileName, that.fileName );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash( fileName, length, checksum );
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format( "StoreFileChecksum{fileName='%s', length=%d, checksum=%d}", fileName, length, checksum );
+    }
+}
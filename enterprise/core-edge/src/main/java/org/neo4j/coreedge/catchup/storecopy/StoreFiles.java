@@ -39,7 +39,8 @@ public class StoreFiles
                             name.startsWith( "raft-messages." ) ||
                             name.startsWith( "messages." ) ||
                             name.startsWith( "raft-logs" ) ||
-                            name.startsWith( "store_lock" )
+                            name.startsWith( "store_lock" ) ||
+                            name.equals( TemporaryStoreDirectory.TEMP_COPY_DIRECTORY_NAME )
             );
         }
     };
@@ -22,27 +22,17 @@ package org.neo4j.coreedge.catchup.storecopy;
 import java.io.File;
 import java.io.IOException;
 
-import org.neo4j.io.fs.FileUtils;
-
 public class TemporaryStoreDirectory
 {
-    private static final String TEMP_COPY_DIRECTORY_NAME = "temp-copy";
+    static final String TEMP_COPY_DIRECTORY_NAME = "temp-copy";
 
     private final File storeDir;
 
     TemporaryStoreDirectory( File parent ) throws IOException
     {
         this.storeDir = new File( parent, TEMP_COPY_DIRECTORY_NAME );
-        cleanDirectory();
-    }
-
-    private void cleanDirectory() throws IOException
-    {
-        if ( !storeDir.mkdir() )
-        {
-            FileUtils.deleteRecursively( storeDir );
-            storeDir.mkdir();
-        }
+        // Whatever an interrupted store copy left behind is kept, for the next one to resume from
+        storeDir.mkdir();
     }
 
     public File storeDir()
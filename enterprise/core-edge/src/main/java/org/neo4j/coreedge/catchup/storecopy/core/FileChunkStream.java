@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.coreedge.catchup.storecopy.core;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.stream.ChunkedInput;
+
+/**
+ * Streams the bytes of a store file between two positions in page aligned chunks, followed by a last chunk
+ * holding the CRC32 checksum of all the streamed bytes. Exactly the announced bytes are streamed even if the
+ * file grows meanwhile, so that the receiver always knows where the content ends and the checksum begins.
+ */
+public class FileChunkStream implements ChunkedInput<ByteBuf>
+{
+    public static final int CHUNK_SIZE = 8 * 8192;
+
+    private final FileChannel channel;
+    private final long end;
+    private final CRC32 checksum = new CRC32();
+    private long position;
+    private boolean checksumSent;
+
+    public FileChunkStream( FileChannel channel, long offset, long end ) throws IOException
+    {
+        this.channel = channel;
+        this.position = offset;
+        this.end = end;
+        channel.position( offset );
+    }
+
+    @Override
+    public boolean isEndOfInput() throws Exception
+    {
+        return checksumSent;
+    }
+
+    @Override
+    public void close() throws Exception
+    {
+        channel.close();
+    }
+
+    @Override
+    public ByteBuf readChunk( ChannelHandlerContext ctx ) throws Exception
+    {
+        if ( checksumSent )
+        {
+            return null;
+        }
+        if ( position == end )
+        {
+            checksumSent = true;
+            return ctx.alloc().buffer( 8 ).writeLong( checksum.getValue() );
+        }
+
+        // Chunks end on chunk boundaries of the file, which keeps them page aligned even when resuming
+        int length = (int) Math.min( CHUNK_SIZE - position % CHUNK_SIZE, end - position );
+        ByteBuf buffer = ctx.alloc().buffer( length );
+        boolean release = true;
+        try
+        {
+            while ( buffer.writerIndex() < length )
+            {
+                if ( buffer.writeBytes( channel, length - buffer.writerIndex() ) == -1 )
+                {
+                    throw new IOException( "File ended at " + (position + buffer.writerIndex()) +
+                                           " while streaming it up to " + end );
+                }
+            }
+            checksum.update( buffer.nioBuffer( 0, length ) );
+            position += length;
+            release = false;
+            return buffer;
+        }
+        finally
+        {
+            if ( release )
+            {
+                buffer.release();
+            }
+        }
+    }
+}
@@ -21,18 +21,20 @@ package org.neo4j.coreedge.catchup.storecopy.core;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
 
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
-import io.netty.handler.stream.ChunkedNioStream;
 
 import org.neo4j.coreedge.catchup.ResponseMessageType;
 import org.neo4j.coreedge.catchup.CatchupServerProtocol;
 import org.neo4j.coreedge.catchup.storecopy.edge.GetStoreRequest;
 import org.neo4j.coreedge.catchup.storecopy.FileHeader;
 import org.neo4j.coreedge.catchup.storecopy.StoreCopyFinishedResponse;
+import org.neo4j.coreedge.catchup.storecopy.StoreFileChecksum;
 import org.neo4j.function.Supplier;
 import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.kernel.NeoStoreDataSource;
@@ -61,25 +63,68 @@ public class GetStoreRequestHandler extends SimpleChannelInboundHandler<GetStore
     protected void channelRead0( ChannelHandlerContext ctx, GetStoreRequest msg ) throws Exception
     {
         long lastCheckPointedTx = checkPointerSupplier.get().tryCheckPoint(new SimpleTriggerInfo("Store copy"));
-        sendFiles( ctx );
+        sendFiles( ctx, msg );
         endStoreCopy( ctx, lastCheckPointedTx );
         protocol.expect( NextMessage.MESSAGE_TYPE );
     }
 
-    private void sendFiles( ChannelHandlerContext ctx ) throws IOException
+    private void sendFiles( ChannelHandlerContext ctx, GetStoreRequest request ) throws IOException
     {
+        Map<String,StoreFileChecksum> resumableFiles = new HashMap<>();
+        for ( StoreFileChecksum resumableFile : request.resumableFiles() )
+        {
+            resumableFiles.put( resumableFile.fileName(), resumableFile );
+        }
+
         ResourceIterator<File> files = dataSource.get().listStoreFiles( false );
         while ( files.hasNext() )
         {
-            sendFile( ctx, files.next() );
+            File file = files.next();
+            if ( request.includes( file.getName() ) )
+            {
+                sendFile( ctx, file, resumableFiles );
+            }
         }
     }
 
-    private void sendFile( ChannelHandlerContext ctx, File file ) throws FileNotFoundException
+    private void sendFile( ChannelHandlerContext ctx, File file, Map<String,StoreFileChecksum> resumableFiles )
+            throws IOException
     {
+        FileChannel channel = new FileInputStream( file ).getChannel();
+        long fileLength;
+        long offset;
+        FileChunkStream chunks;
+        try
+        {
+            fileLength = channel.size();
+            offset = resumeOffset( channel, fileLength, resumableFiles.get( file.getName() ) );
+            chunks = new FileChunkStream( channel, offset, fileLength );
+        }
+        catch ( IOException e )
+        {
+            channel.close();
+            throw e;
+        }
+
         ctx.writeAndFlush( ResponseMessageType.FILE );
-        ctx.writeAndFlush( new FileHeader( file.getName(), file.length() ) );
-        ctx.writeAndFlush( new ChunkedNioStream( new FileInputStream( file ).getChannel() ) );
+        ctx.writeAndFlush( new FileHeader( file.getName(), fileLength, offset ) );
+        ctx.writeAndFlush( chunks );
+    }
+
+    /**
+     * The receiver may keep the leading bytes it already holds of a file only if they are the same as ours,
+     * otherwise the whole file is streamed again.
+     */
+    private static long resumeOffset( FileChannel channel, long fileLength, StoreFileChecksum resumableFile )
+            throws IOException
+    {
+        if ( resumableFile == null || resumableFile.length() > fileLength )
+        {
+            return 0;
+        }
+        channel.position( 0 );
+        long checksum = StoreFileChecksum.checksum( channel, resumableFile.length() );
+        return checksum == resumableFile.checksum() ? resumableFile.length() : 0;
     }
 
     private void endStoreCopy( ChannelHandlerContext ctx, long lastCommittedTxBeforeStoreCopy )
@@ -21,11 +21,13 @@ package org.neo4j.coreedge.catchup.storecopy.edge;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.Collection;
 
 import io.netty.channel.ChannelInitializer;
 
 import org.neo4j.coreedge.server.AdvertisedSocketAddress;
 import org.neo4j.coreedge.catchup.RequestMessageType;
+import org.neo4j.coreedge.catchup.storecopy.StoreFileChecksum;
 import org.neo4j.coreedge.catchup.tx.edge.TxPullResponseListener;
 import org.neo4j.coreedge.catchup.tx.edge.TxStreamCompleteListener;
 import org.neo4j.coreedge.server.Expiration;
@@ -54,9 +56,10 @@ public abstract class CoreClient extends LifecycleAdapter implements StoreFileRe
         this.senderService = new SenderService( expiryScheduler, expiration, channelInitializer, logProvider );
     }
 
-    public void requestStore( AdvertisedSocketAddress from )
+    public void requestStore( AdvertisedSocketAddress from, Collection<StoreFileChecksum> resumableFiles,
+                              int partition, int partitions )
     {
-        GetStoreRequest getStoreRequest = new GetStoreRequest();
+        GetStoreRequest getStoreRequest = new GetStoreRequest( resumableFiles, partition, partitions );
         send( from, RequestMessageType.STORE, getStoreRequest );
     }
 
@@ -66,6 +69,21 @@ public abstract class CoreClient extends LifecycleAdapter implements StoreFileRe
         send( from, RequestMessageType.TX_PULL_REQUEST, txPullRequest );
     }
 
+    public void subscribeToTransactions( AdvertisedSocketAddress from, long lastTransactionId )
+    {
+        TxPullRequest txPullRequest = new TxPullRequest( lastTransactionId, true );
+        send( from, RequestMessageType.TX_PULL_REQUEST, txPullRequest );
+    }
+
+    /**
+     * Ends the subscription to transactions from the given core server by closing the connection to it, which is
+     * what the core server drops subscriptions on.
+     */
+    public void unsubscribeFromTransactions( AdvertisedSocketAddress from )
+    {
+        senderService.disconnect( from );
+    }
+
     protected void send( AdvertisedSocketAddress to, RequestMessageType messageType, Serializable contentMessage )
     {
         senderService.send( to, messageType, contentMessage );
@@ -121,6 +139,13 @@ public abstract class CoreClient extends LifecycleAdapter implements StoreFileRe
                 listener -> listener.onFileStreamingComplete( lastCommittedTxBeforeStoreCopy ) );
     }
 
+    @Override
+    public void onFileStreamingFailed( final Throwable cause )
+    {
+        Listeners.notifyListeners( storeFileStreamingCompleteListeners,
+                listener -> listener.onFileStreamingFailed( cause ) );
+    }
+
     @Override
     public void onTxStreamingComplete( final long lastTransactionId )
     {
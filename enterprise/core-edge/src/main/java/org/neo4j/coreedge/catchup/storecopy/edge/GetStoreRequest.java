@@ -20,10 +20,96 @@
 package org.neo4j.coreedge.catchup.storecopy.edge;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 import org.neo4j.coreedge.catchup.RequestMessageType;
+import org.neo4j.coreedge.catchup.storecopy.StoreFileChecksum;
 
 public class GetStoreRequest implements Serializable
 {
     public static final RequestMessageType MESSAGE_TYPE = RequestMessageType.STORE;
+
+    private final List<StoreFileChecksum> resumableFiles;
+    private final int partition;
+    private final int partitions;
+
+    public GetStoreRequest()
+    {
+        this( Collections.<StoreFileChecksum>emptyList() );
+    }
+
+    public GetStoreRequest( Collection<StoreFileChecksum> resumableFiles )
+    {
+        this( resumableFiles, 0, 1 );
+    }
+
+    /**
+     * @param resumableFiles the store files, or leading parts of them, that the requester already holds from an
+     * earlier attempt and would like to not have streamed again.
+     * @param partition the partition of the store files to stream, see {@link #includes(String)}.
+     * @param partitions the number of partitions the store files are divided into.
+     */
+    public GetStoreRequest( Collection<StoreFileChecksum> resumableFiles, int partition, int partitions )
+    {
+        this.resumableFiles = Collections.unmodifiableList( new ArrayList<>( resumableFiles ) );
+        this.partition = partition;
+        this.partitions = partitions;
+    }
+
+    public List<StoreFileChecksum> resumableFiles()
+    {
+        return resumableFiles;
+    }
+
+    public int partition()
+    {
+        return partition;
+    }
+
+    public int partitions()
+    {
+        return partitions;
+    }
+
+    /**
+     * Whether the store file of the given name is in the partition of the store files requested. The files are
+     * partitioned by name, so that requests for all partitions together cover every file exactly once without
+     * the requester having to know the files up front.
+     */
+    public boolean includes( String fileName )
+    {
+        return Math.floorMod( fileName.hashCode(), partitions ) == partition;
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        GetStoreRequest that = (GetStoreRequest) o;
+        return partition == that.partition && partitions == that.partitions &&
+               resumableFiles.equals( that.resumableFiles );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * (31 * resumableFiles.hashCode() + partition) + partitions;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format( "GetStoreRequest{resumableFiles=%s, partition=%d, partitions=%d}",
+                resumableFiles, partition, partitions );
+    }
 }
@@ -19,6 +19,8 @@
  */
 package org.neo4j.coreedge.catchup.storecopy.edge;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 
 import io.netty.buffer.ByteBuf;
@@ -27,6 +29,7 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageDecoder;
 
 import org.neo4j.coreedge.catchup.CatchupServerProtocol;
+import org.neo4j.coreedge.catchup.storecopy.StoreFileChecksum;
 
 public class GetStoreRequestDecoder extends MessageToMessageDecoder<ByteBuf>
 {
@@ -42,7 +45,19 @@ public class GetStoreRequestDecoder extends MessageToMessageDecoder<ByteBuf>
     {
         if ( protocol.isExpecting( CatchupServerProtocol.NextMessage.GET_STORE ) )
         {
-            out.add( new GetStoreRequest() );
+            int partition = msg.readInt();
+            int partitions = msg.readInt();
+            int numberOfFiles = msg.readInt();
+            List<StoreFileChecksum> resumableFiles = new ArrayList<>( numberOfFiles );
+            for ( int i = 0; i < numberOfFiles; i++ )
+            {
+                byte[] name = new byte[msg.readInt()];
+                msg.readBytes( name );
+                long length = msg.readLong();
+                long checksum = msg.readLong();
+                resumableFiles.add( new StoreFileChecksum( new String( name, StandardCharsets.UTF_8 ), length, checksum ) );
+            }
+            out.add( new GetStoreRequest( resumableFiles, partition, partitions ) );
         }
         else
         {
@@ -19,19 +19,32 @@
  */
 package org.neo4j.coreedge.catchup.storecopy.edge;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageEncoder;
 
+import org.neo4j.coreedge.catchup.storecopy.StoreFileChecksum;
+
 public class GetStoreRequestEncoder extends MessageToMessageEncoder<GetStoreRequest>
 {
     @Override
     protected void encode( ChannelHandlerContext ctx, GetStoreRequest msg, List<Object> out ) throws Exception
     {
         ByteBuf buffer = ctx.alloc().buffer();
-        buffer.writeByte( 0 );
+        buffer.writeInt( msg.partition() );
+        buffer.writeInt( msg.partitions() );
+        buffer.writeInt( msg.resumableFiles().size() );
+        for ( StoreFileChecksum file : msg.resumableFiles() )
+        {
+            byte[] name = file.fileName().getBytes( StandardCharsets.UTF_8 );
+            buffer.writeInt( name.length );
+            buffer.writeBytes( name );
+            buffer.writeLong( file.length() );
+            buffer.writeLong( file.checksum() );
+        }
         out.add( buffer );
     }
 }
@@ -19,41 +19,88 @@
  */
 package org.neo4j.coreedge.catchup.storecopy.edge;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 
 import org.neo4j.concurrent.CompletableFuture;
+import org.neo4j.coreedge.catchup.storecopy.StoreFileChecksum;
 import org.neo4j.coreedge.server.AdvertisedSocketAddress;
 
+import static java.util.Arrays.asList;
+
+/**
+ * Copies the store files over the connections of all of its clients concurrently, each of them streaming
+ * the files of a partition of its own.
+ */
 public class StoreCopyClient
 {
-    private final CoreClient coreClient;
+    private final List<CoreClient> coreClients;
 
-    public StoreCopyClient( CoreClient coreClient )
+    public StoreCopyClient( CoreClient... coreClients )
     {
-        this.coreClient = coreClient;
+        this.coreClients = asList( coreClients );
     }
 
+    /**
+     * @return the transaction to pull transactions after to catch up the copied store. Each partition of the
+     * files is streamed after a checkpoint of its own, so this is the earliest of those checkpoints.
+     */
     public long copyStoreFiles( AdvertisedSocketAddress from, StoreFileStreams storeFileStreams ) throws StoreCopyFailedException
     {
-        coreClient.setStoreFileStreams( storeFileStreams );
+        List<CompletableFuture<Long>> txIds = new ArrayList<>();
+        List<StoreFileStreamingCompleteListener> listeners = new ArrayList<>();
+        try
+        {
+            Collection<StoreFileChecksum> resumableFiles = storeFileStreams.resumableFiles();
+            for ( int partition = 0; partition < coreClients.size(); partition++ )
+            {
+                CoreClient coreClient = coreClients.get( partition );
+                coreClient.setStoreFileStreams( storeFileStreams );
 
-        final CompletableFuture<Long> txId = new CompletableFuture<>();
-        StoreFileStreamingCompleteListener fileStreamingCompleteListener = txId::complete;
+                final CompletableFuture<Long> txId = new CompletableFuture<>();
+                StoreFileStreamingCompleteListener fileStreamingCompleteListener =
+                        new StoreFileStreamingCompleteListener()
+                {
+                    @Override
+                    public void onFileStreamingComplete( long lastCommittedTxBeforeStoreCopy )
+                    {
+                        txId.complete( lastCommittedTxBeforeStoreCopy );
+                    }
 
-        coreClient.addStoreFileStreamingCompleteListener( fileStreamingCompleteListener );
+                    @Override
+                    public void onFileStreamingFailed( Throwable cause )
+                    {
+                        txId.completeExceptionally( cause );
+                    }
+                };
 
-        try
-        {
-            coreClient.requestStore( from );
-            return txId.get();
+                coreClient.addStoreFileStreamingCompleteListener( fileStreamingCompleteListener );
+                txIds.add( txId );
+                listeners.add( fileStreamingCompleteListener );
+
+                coreClient.requestStore( from, resumableFiles, partition, coreClients.size() );
+            }
+
+            long earliestTxId = Long.MAX_VALUE;
+            for ( CompletableFuture<Long> txId : txIds )
+            {
+                earliestTxId = Math.min( earliestTxId, txId.get() );
+            }
+            return earliestTxId;
         }
-        catch ( InterruptedException | ExecutionException e )
+        catch ( IOException | InterruptedException | ExecutionException e )
         {
             throw new StoreCopyFailedException( e );
         }
         finally
         {
-            coreClient.removeStoreFileStreamingCompleteListener( fileStreamingCompleteListener );
+            for ( int i = 0; i < listeners.size(); i++ )
+            {
+                coreClients.get( i ).removeStoreFileStreamingCompleteListener( listeners.get( i ) );
+            }
         }
     }
 }
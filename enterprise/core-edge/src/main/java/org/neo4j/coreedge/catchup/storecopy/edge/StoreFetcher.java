@@ -58,8 +58,10 @@ public class StoreFetcher
         try
         {
             log.info( "Copying store from %s", from );
-            long lastFlushedTxId = storeCopyClient.copyStoreFiles( from, new StreamToDisk( storeDir, fs ) );
+            StreamToDisk storeFileStreams = new StreamToDisk( storeDir, fs );
+            long lastFlushedTxId = storeCopyClient.copyStoreFiles( from, storeFileStreams );
             log.info( "Store files streamed up to %d", lastFlushedTxId );
+            storeFileStreams.deleteFilesNotStreamed();
 
             try ( TransactionLogCatchUpWriter writer = transactionLogFactory.create( storeDir, fs, pageCache ) )
             {
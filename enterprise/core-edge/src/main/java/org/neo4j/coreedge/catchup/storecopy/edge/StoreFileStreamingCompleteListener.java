@@ -22,4 +22,6 @@ package org.neo4j.coreedge.catchup.storecopy.edge;
 public interface StoreFileStreamingCompleteListener
 {
     void onFileStreamingComplete( long lastCommittedTxBeforeStoreCopy );
+
+    void onFileStreamingFailed( Throwable cause );
 }
@@ -21,8 +21,19 @@ package org.neo4j.coreedge.catchup.storecopy.edge;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Collection;
+
+import org.neo4j.coreedge.catchup.storecopy.StoreFileChecksum;
 
 public interface StoreFileStreams
 {
     OutputStream createStream( String destination ) throws IOException;
+
+    void truncate( String destination, long size ) throws IOException;
+
+    /**
+     * @return the store files, or leading parts of them, held from an earlier store copy which don't need
+     * to be streamed again if the sender still has the same bytes.
+     */
+    Collection<StoreFileChecksum> resumableFiles() throws IOException;
 }
@@ -22,14 +22,26 @@ package org.neo4j.coreedge.catchup.storecopy.edge;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
-import org.neo4j.coreedge.catchup.storecopy.edge.StoreFileStreams;
+import org.neo4j.coreedge.catchup.storecopy.StoreFileChecksum;
+import org.neo4j.coreedge.catchup.storecopy.core.FileChunkStream;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
 
+/**
+ * Writes streamed store files to a directory. Files may be streamed concurrently, as long as each file is
+ * streamed by one stream only.
+ */
 public class StreamToDisk implements StoreFileStreams
 {
     private final File storeDir;
     private final FileSystemAbstraction fs;
+    private final Set<String> streamedFiles = ConcurrentHashMap.newKeySet();
 
     public StreamToDisk( File storeDir, FileSystemAbstraction fs ) throws IOException
     {
@@ -43,4 +55,67 @@ public class StreamToDisk implements StoreFileStreams
     {
         return fs.openAsOutputStream( new File( storeDir, destination ), true );
     }
+
+    @Override
+    public void truncate( String destination, long size ) throws IOException
+    {
+        streamedFiles.add( destination );
+        File file = new File( storeDir, destination );
+        if ( fs.fileExists( file ) )
+        {
+            fs.truncate( file, size );
+        }
+    }
+
+    @Override
+    public Collection<StoreFileChecksum> resumableFiles() throws IOException
+    {
+        List<StoreFileChecksum> resumableFiles = new ArrayList<>();
+        for ( File file : files() )
+        {
+            // Only offer whole chunks, so that the sender keeps reading page aligned chunks
+            long length = fs.getFileSize( file ) / FileChunkStream.CHUNK_SIZE * FileChunkStream.CHUNK_SIZE;
+            if ( length > 0 )
+            {
+                try ( StoreChannel channel = fs.open( file, "r" ) )
+                {
+                    resumableFiles.add( new StoreFileChecksum( file.getName(), length,
+                            StoreFileChecksum.checksum( channel, length ) ) );
+                }
+            }
+        }
+        return resumableFiles;
+    }
+
+    /**
+     * Removes files left behind by an earlier store copy which weren't part of this one, like transaction logs
+     * or files the sender no longer has.
+     */
+    public void deleteFilesNotStreamed() throws IOException
+    {
+        for ( File file : files() )
+        {
+            if ( !streamedFiles.contains( file.getName() ) )
+            {
+                fs.deleteFile( file );
+            }
+        }
+    }
+
+    private List<File> files()
+    {
+        List<File> files = new ArrayList<>();
+        File[] candidates = fs.listFiles( storeDir );
+        if ( candidates != null )
+        {
+            for ( File candidate : candidates )
+            {
+                if ( !fs.isDirectory( candidate ) )
+                {
+                    files.add( candidate );
+                }
+            }
+        }
+        return files;
+    }
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.coreedge.catchup.tx.core;
+
+import org.neo4j.kernel.api.exceptions.TransactionFailureException;
+import org.neo4j.kernel.impl.api.TransactionApplicationMode;
+import org.neo4j.kernel.impl.api.TransactionCommitProcess;
+import org.neo4j.kernel.impl.api.TransactionToApply;
+import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
+
+/**
+ * Lets {@link TxSubscriptions subscribers} know about every transaction committed through it.
+ */
+public class SubscriptionNotifyingCommitProcess implements TransactionCommitProcess
+{
+    private final TransactionCommitProcess delegate;
+    private final TxSubscriptions subscriptions;
+
+    public SubscriptionNotifyingCommitProcess( TransactionCommitProcess delegate, TxSubscriptions subscriptions )
+    {
+        this.delegate = delegate;
+        this.subscriptions = subscriptions;
+    }
+
+    @Override
+    public long commit( TransactionToApply batch, CommitEvent commitEvent, TransactionApplicationMode mode )
+            throws TransactionFailureException
+    {
+        long txId = delegate.commit( batch, commitEvent, mode );
+        subscriptions.transactionsCommitted();
+        return txId;
+    }
+}
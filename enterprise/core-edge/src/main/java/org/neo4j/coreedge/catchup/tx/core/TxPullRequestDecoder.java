@@ -46,7 +46,8 @@ public class TxPullRequestDecoder extends MessageToMessageDecoder<ByteBuf>
         if ( protocol.isExpecting( TX_PULL ) )
         {
             long txId = msg.readLong();
-            out.add( new TxPullRequest( txId ) );
+            boolean subscribe = msg.readBoolean();
+            out.add( new TxPullRequest( txId, subscribe ) );
         }
         else
         {
@@ -41,21 +41,31 @@ public class TxPullRequestHandler extends SimpleChannelInboundHandler<TxPullRequ
     private final StoreId storeId;
     private final TransactionIdStore transactionIdStore;
     private final LogicalTransactionStore logicalTransactionStore;
+    private final TxSubscriptions subscriptions;
 
     public TxPullRequestHandler( CatchupServerProtocol protocol,
                                  Supplier<StoreId> storeIdSupplier,
                                  Supplier<TransactionIdStore> transactionIdStoreSupplier,
-                                 Supplier<LogicalTransactionStore> logicalTransactionStoreSupplier )
+                                 Supplier<LogicalTransactionStore> logicalTransactionStoreSupplier,
+                                 TxSubscriptions subscriptions )
     {
         this.protocol = protocol;
         this.storeId = storeIdSupplier.get();
         this.transactionIdStore = transactionIdStoreSupplier.get();
         this.logicalTransactionStore = logicalTransactionStoreSupplier.get();
+        this.subscriptions = subscriptions;
     }
 
     @Override
     protected void channelRead0( ChannelHandlerContext ctx, final TxPullRequest msg ) throws Exception
     {
+        if ( msg.subscribe() )
+        {
+            subscriptions.subscribe( ctx, msg.txId() );
+            protocol.expect( NextMessage.MESSAGE_TYPE );
+            return;
+        }
+
         long startTxId = msg.txId();
         long endTxId = startTxId;
 
@@ -81,6 +91,13 @@ public class TxPullRequestHandler extends SimpleChannelInboundHandler<TxPullRequ
         protocol.expect( NextMessage.MESSAGE_TYPE );
     }
 
+    @Override
+    public void channelWritabilityChanged( ChannelHandlerContext ctx ) throws Exception
+    {
+        subscriptions.writabilityChanged( ctx.channel() );
+        ctx.fireChannelWritabilityChanged();
+    }
+
     @Override
     public void exceptionCaught( ChannelHandlerContext ctx, Throwable cause )
     {
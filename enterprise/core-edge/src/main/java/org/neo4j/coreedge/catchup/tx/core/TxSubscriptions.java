@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.coreedge.catchup.tx.core;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+
+import org.neo4j.coreedge.catchup.ResponseMessageType;
+import org.neo4j.coreedge.catchup.tx.edge.TxPullResponse;
+import org.neo4j.function.Supplier;
+import org.neo4j.kernel.impl.store.StoreId;
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.IOCursor;
+import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
+import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
+import org.neo4j.logging.Log;
+import org.neo4j.logging.LogProvider;
+
+/**
+ * Pushes transactions to the channels which have subscribed to them, as they get committed, instead of having
+ * the subscribers poll for them.
+ * <p/>
+ * Each push sends the transactions committed since the previous push, read from the transaction log, followed by
+ * the end of that stream. A push stops when the channel isn't writable anymore, which is the flow control keeping
+ * a slow subscriber from buffering up transactions here, and continues when the channel becomes writable again.
+ * Pushes to a subscriber always run on the event loop of its channel.
+ */
+public class TxSubscriptions
+{
+    static final int MAX_TRANSACTIONS_PER_PUSH = 1000;
+
+    private final Supplier<StoreId> storeIdSupplier;
+    private final Supplier<TransactionIdStore> transactionIdStoreSupplier;
+    private final Supplier<LogicalTransactionStore> logicalTransactionStoreSupplier;
+    private final Map<Channel,Subscription> subscriptions = new ConcurrentHashMap<>();
+    private final Log log;
+
+    public TxSubscriptions( LogProvider logProvider,
+                            Supplier<StoreId> storeIdSupplier,
+                            Supplier<TransactionIdStore> transactionIdStoreSupplier,
+                            Supplier<LogicalTransactionStore> logicalTransactionStoreSupplier )
+    {
+        this.storeIdSupplier = storeIdSupplier;
+        this.transactionIdStoreSupplier = transactionIdStoreSupplier;
+        this.logicalTransactionStoreSupplier = logicalTransactionStoreSupplier;
+        this.log = logProvider.getLog( getClass() );
+    }
+
+    /**
+     * Subscribes the channel of the given context to transactions after {@code lastTransactionId}. A channel which
+     * is already subscribed keeps its subscription, so subscribers can repeat this request to make sure they are
+     * still subscribed, e.g. after having reconnected.
+     */
+    public void subscribe( ChannelHandlerContext ctx, long lastTransactionId )
+    {
+        final Channel channel = ctx.channel();
+        Subscription subscription = new Subscription( ctx, lastTransactionId );
+        if ( subscriptions.putIfAbsent( channel, subscription ) == null )
+        {
+            channel.closeFuture().addListener( future -> subscriptions.remove( channel ) );
+            subscription.schedulePush();
+        }
+    }
+
+    public void transactionsCommitted()
+    {
+        for ( Subscription subscription : subscriptions.values() )
+        {
+            subscription.schedulePush();
+        }
+    }
+
+    public void writabilityChanged( Channel channel )
+    {
+        Subscription subscription = subscriptions.get( channel );
+        if ( subscription != null && channel.isWritable() )
+        {
+            subscription.schedulePush();
+        }
+    }
+
+    private class Subscription
+    {
+        private final ChannelHandlerContext ctx;
+        private final AtomicBoolean pushScheduled = new AtomicBoolean();
+        private long lastTransactionIdSent;
+
+        Subscription( ChannelHandlerContext ctx, long lastTransactionId )
+        {
+            this.ctx = ctx;
+            this.lastTransactionIdSent = lastTransactionId;
+        }
+
+        void schedulePush()
+        {
+            if ( pushScheduled.compareAndSet( false, true ) )
+            {
+                ctx.executor().execute( this::push );
+            }
+        }
+
+        private void push()
+        {
+            pushScheduled.set( false );
+            if ( !ctx.channel().isActive() || !ctx.channel().isWritable() ||
+                 lastTransactionIdSent >= transactionIdStoreSupplier.get().getLastCommittedTransactionId() )
+            {
+                return;
+            }
+
+            StoreId storeId = storeIdSupplier.get();
+            int transactionsSent = 0;
+            try ( IOCursor<CommittedTransactionRepresentation> cursor =
+                          logicalTransactionStoreSupplier.get().getTransactions( lastTransactionIdSent + 1 ) )
+            {
+                while ( transactionsSent < MAX_TRANSACTIONS_PER_PUSH && ctx.channel().isWritable() && cursor.next() )
+                {
+                    CommittedTransactionRepresentation tx = cursor.get();
+                    ctx.write( ResponseMessageType.TX );
+                    ctx.write( new TxPullResponse( storeId, tx ) );
+                    lastTransactionIdSent = tx.getCommitEntry().getTxId();
+                    transactionsSent++;
+                }
+            }
+            catch ( IOException e )
+            {
+                log.error( "Failed to push transactions after " + lastTransactionIdSent + " to " +
+                           ctx.channel().remoteAddress() + ", closing the subscription", e );
+                ctx.close();
+                return;
+            }
+
+            ctx.write( ResponseMessageType.TX_STREAM_FINISHED );
+            ctx.writeAndFlush( new TxStreamFinishedResponse( lastTransactionIdSent ) );
+
+            if ( transactionsSent == MAX_TRANSACTIONS_PER_PUSH )
+            {
+                // There may be more, but let other channels on this event loop have their turn first
+                schedulePush();
+            }
+        }
+    }
+}
@@ -21,30 +21,114 @@ package org.neo4j.coreedge.catchup.tx.edge;
 
 import org.neo4j.function.Supplier;
 import org.neo4j.kernel.api.exceptions.TransactionFailureException;
+import org.neo4j.kernel.impl.api.TransactionQueue;
+import org.neo4j.kernel.impl.api.TransactionToApply;
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.LogProvider;
 
-public class ApplyPulledTransactions implements TxPullResponseListener
+/**
+ * Applies the transactions of each stream received from a core server in batches, when the stream ends or
+ * the batch is full, rather than one at a time. Transactions which have been received before, or which are
+ * already committed to the store, as can happen when resubscribing after a reconnect, are ignored.
+ * <p/>
+ * When applying a batch fails, the queued transactions are dropped and received transactions are expected to
+ * follow on from the last transaction committed to the store again. Transactions which do not follow on from
+ * the last one queued are ignored. In both cases the subscription has to be renewed to get the missing
+ * transactions, which {@link #needsResubscribe()} tells.
+ */
+public class ApplyPulledTransactions implements TxPullResponseListener, TxStreamCompleteListener
 {
+    static final int MAX_BATCH_SIZE = 1000;
+    private static final long UNKNOWN = -1;
+
     private final Supplier<TransactionApplier> transactionApplierSupplier;
+    private final Supplier<TransactionIdStore> transactionIdStoreSupplier;
     private final Log log;
+    private TransactionQueue queue = newQueue();
+    private long lastQueuedTxId = UNKNOWN;
+    private boolean needsResubscribe;
 
-    public ApplyPulledTransactions( LogProvider logProvider, Supplier<TransactionApplier> transactionApplierSupplier )
+    public ApplyPulledTransactions( LogProvider logProvider, Supplier<TransactionApplier> transactionApplierSupplier,
+                                    Supplier<TransactionIdStore> transactionIdStoreSupplier )
     {
         this.transactionApplierSupplier = transactionApplierSupplier;
+        this.transactionIdStoreSupplier = transactionIdStoreSupplier;
         this.log = logProvider.getLog( getClass() );
     }
 
     @Override
-    public void onTxReceived( TxPullResponse tx )
+    public synchronized void onTxReceived( TxPullResponse response )
+    {
+        CommittedTransactionRepresentation tx = response.tx();
+        long txId = tx.getCommitEntry().getTxId();
+        if ( lastQueuedTxId == UNKNOWN )
+        {
+            // The store isn't necessarily available when this is created, so look it up once the first arrives
+            lastQueuedTxId = transactionIdStoreSupplier.get().getLastCommittedTransactionId();
+        }
+        if ( txId <= lastQueuedTxId )
+        {
+            return;
+        }
+        if ( txId != lastQueuedTxId + 1 )
+        {
+            needsResubscribe = true;
+            return;
+        }
+
+        try
+        {
+            queue.queue( new TransactionToApply( tx.getTransactionRepresentation(), txId ) );
+            lastQueuedTxId = txId;
+        }
+        catch ( Exception e )
+        {
+            failed( e );
+        }
+    }
+
+    @Override
+    public synchronized void onTxStreamingComplete( long lastTransactionId )
     {
         try
         {
-            transactionApplierSupplier.get().appendToLogAndApplyToStore( tx.tx() );
+            queue.empty();
         }
-        catch ( TransactionFailureException e )
+        catch ( Exception e )
         {
-            log.error( "Failed to apply transaction.", e );
+            failed( e );
         }
     }
+
+    /**
+     * Whether transactions went missing since the last time this was asked, because applying failed or the
+     * stream skipped some. The subscription should then be closed and renewed from the last transaction
+     * committed to the store.
+     */
+    public synchronized boolean needsResubscribe()
+    {
+        boolean result = needsResubscribe;
+        needsResubscribe = false;
+        return result;
+    }
+
+    private void failed( Exception e )
+    {
+        queue = newQueue();
+        lastQueuedTxId = transactionIdStoreSupplier.get().getLastCommittedTransactionId();
+        needsResubscribe = true;
+        log.error( "Failed to apply transactions, dropping all received after " + lastQueuedTxId, e );
+    }
+
+    private TransactionQueue newQueue()
+    {
+        return new TransactionQueue( MAX_BATCH_SIZE, this::apply );
+    }
+
+    private void apply( TransactionToApply batch ) throws TransactionFailureException
+    {
+        transactionApplierSupplier.get().appendToLogAndApplyToStore( batch );
+    }
 }
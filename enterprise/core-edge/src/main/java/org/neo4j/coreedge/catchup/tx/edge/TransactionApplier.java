@@ -30,7 +30,6 @@ import org.neo4j.kernel.impl.api.TransactionRepresentationCommitProcess;
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.api.index.IndexUpdatesValidator;
 import org.neo4j.kernel.impl.storageengine.StorageEngine;
-import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
 
 import static org.neo4j.kernel.impl.api.TransactionApplicationMode.EXTERNAL;
@@ -57,9 +56,8 @@ public class TransactionApplier
                 resolver.resolveDependency( IndexUpdatesValidator.class ) );
     }
 
-    public void appendToLogAndApplyToStore( CommittedTransactionRepresentation tx ) throws TransactionFailureException
+    public void appendToLogAndApplyToStore( TransactionToApply batch ) throws TransactionFailureException
     {
-        commitProcess.commit( new TransactionToApply( tx.getTransactionRepresentation(),
-                tx.getCommitEntry().getTxId() ), NULL, EXTERNAL );
+        commitProcess.commit( batch, NULL, EXTERNAL );
     }
 }
@@ -21,6 +21,7 @@ package org.neo4j.coreedge.catchup.tx.edge;
 
 import org.neo4j.coreedge.catchup.storecopy.edge.CoreClient;
 import org.neo4j.coreedge.discovery.EdgeDiscoveryService;
+import org.neo4j.coreedge.server.AdvertisedSocketAddress;
 import org.neo4j.function.Supplier;
 import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
 import org.neo4j.kernel.impl.util.JobScheduler;
@@ -31,6 +32,13 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.neo4j.helpers.collection.IteratorUtil.first;
 import static org.neo4j.kernel.impl.util.JobScheduler.Groups.pullUpdates;
 
+/**
+ * Subscribes to transactions from a core server, which then pushes them as they get committed. The subscription
+ * is repeated every polling interval, from the last transaction committed here. The core server ignores this for
+ * as long as the subscription is in place, but it renews the subscription if the connection was lost, so that
+ * the stream resumes where it left off. When transactions went missing on the edge, the subscription is closed
+ * before being renewed, so that the stream starts over from the last transaction committed here.
+ */
 public class TxPollingClient extends LifecycleAdapter
 {
     private final JobScheduler jobScheduler;
@@ -38,15 +46,15 @@ public class TxPollingClient extends LifecycleAdapter
     private final EdgeDiscoveryService edgeDiscoveryService;
     private final long pollingInterval;
     private final CoreClient coreClient;
-    private final TxPullResponseListener txPullResponseListener;
+    private final ApplyPulledTransactions applyPulledTransactions;
 
     public TxPollingClient( JobScheduler jobScheduler, long pollingInterval,
                             Supplier<TransactionIdStore> transactionIdStoreSupplier,
-                            CoreClient coreClient, TxPullResponseListener txPullResponseListener,
+                            CoreClient coreClient, ApplyPulledTransactions applyPulledTransactions,
                             EdgeDiscoveryService edgeDiscoveryService )
     {
         this.coreClient = coreClient;
-        this.txPullResponseListener = txPullResponseListener;
+        this.applyPulledTransactions = applyPulledTransactions;
 
         this.jobScheduler = jobScheduler;
         this.pollingInterval = pollingInterval;
@@ -57,15 +65,21 @@ public class TxPollingClient extends LifecycleAdapter
 
     public void startPolling()
     {
-        coreClient.addTxPullResponseListener( txPullResponseListener );
+        coreClient.addTxPullResponseListener( applyPulledTransactions );
+        coreClient.addTxStreamCompleteListener( applyPulledTransactions );
         final TransactionIdStore transactionIdStore = transactionIdStoreSupplier.get();
         jobScheduler.scheduleRecurring( pullUpdates, new Runnable()
         {
             @Override
             public void run()
             {
-                coreClient.pollForTransactions( first( edgeDiscoveryService.currentTopology().getMembers() )
-                        .getCoreAddress(), transactionIdStore.getLastCommittedTransactionId() );
+                AdvertisedSocketAddress core =
+                        first( edgeDiscoveryService.currentTopology().getMembers() ).getCoreAddress();
+                if ( applyPulledTransactions.needsResubscribe() )
+                {
+                    coreClient.unsubscribeFromTransactions( core );
+                }
+                coreClient.subscribeToTransactions( core, transactionIdStore.getLastCommittedTransactionId() );
             }
         }, pollingInterval, MILLISECONDS );
     }
@@ -73,7 +87,8 @@ public class TxPollingClient extends LifecycleAdapter
     @Override
     public void stop() throws Throwable
     {
-        coreClient.removeTxPullResponseListener( txPullResponseListener );
+        coreClient.removeTxPullResponseListener( applyPulledTransactions );
+        coreClient.removeTxStreamCompleteListener( applyPulledTransactions );
         jobScheduler.shutdown();
     }
 }
@@ -30,10 +30,22 @@ public class TxPullRequest implements Serializable
     public static final RequestMessageType MESSAGE_TYPE = RequestMessageType.TX_PULL_REQUEST;
 
     private final long txId;
+    private final boolean subscribe;
 
     public TxPullRequest( long txId )
+    {
+        this( txId, false );
+    }
+
+    /**
+     * @param txId the last transaction the requester has, transactions after it are sent.
+     * @param subscribe whether or not to keep sending transactions as they get committed, rather than only those
+     * committed so far.
+     */
+    public TxPullRequest( long txId, boolean subscribe )
     {
         this.txId = txId;
+        this.subscribe = subscribe;
     }
 
     public long txId()
@@ -41,6 +53,11 @@ public class TxPullRequest implements Serializable
         return txId;
     }
 
+    public boolean subscribe()
+    {
+        return subscribe;
+    }
+
     @Override
     public boolean equals( Object o )
     {
@@ -55,20 +72,20 @@ public class TxPullRequest implements Serializable
 
         TxPullRequest that = (TxPullRequest) o;
 
-        return txId == that.txId;
+        return txId == that.txId && subscribe == that.subscribe;
     }
 
     @Override
     public int hashCode()
     {
         int result = (int) (txId ^ (txId >>> 32));
-        result = 31 * result;
+        result = 31 * result + (subscribe ? 1 : 0);
         return result;
     }
 
     @Override
     public String toString()
     {
-        return format( "TxPullRequest{txId=%d}", txId );
+        return format( "TxPullRequest{txId=%d, subscribe=%s}", txId, subscribe );
     }
 }
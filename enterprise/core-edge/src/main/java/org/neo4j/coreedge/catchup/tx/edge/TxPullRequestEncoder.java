@@ -32,6 +32,7 @@ public class TxPullRequestEncoder extends MessageToMessageEncoder<TxPullRequest>
     {
         ByteBuf encoded = ctx.alloc().buffer();
         encoded.writeLong( request.txId() );
+        encoded.writeBoolean( request.subscribe() );
         out.add( encoded );
     }
 }
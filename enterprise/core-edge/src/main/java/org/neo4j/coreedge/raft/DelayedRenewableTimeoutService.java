@@ -135,13 +135,12 @@ public class DelayedRenewableTimeoutService extends LifecycleAdapter implements
                     timeouts.add( renew );
                 }
 
-                // Trigger timeouts
+                // Collect timeouts to trigger
                 for ( ScheduledRenewableTimeout timeout : timeouts )
                 {
                     if ( timeout.shouldTrigger( now ) )
                     {
                         triggered.add( timeout );
-                        timeout.trigger();
                     }
                     else
                     {
@@ -153,6 +152,12 @@ public class DelayedRenewableTimeoutService extends LifecycleAdapter implements
 
                 timeouts.removeAll( triggered );
             }
+
+            // Trigger outside of the iteration, since handlers may create or cancel timeouts
+            for ( ScheduledRenewableTimeout timeout : triggered )
+            {
+                timeout.trigger();
+            }
         }
         catch ( Throwable e )
         {
@@ -20,10 +20,17 @@
 package org.neo4j.coreedge.raft;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.LockSupport;
 
+import org.neo4j.concurrent.CompletableFuture;
+
 import org.neo4j.coreedge.raft.log.RaftLog;
 import org.neo4j.coreedge.raft.log.RaftLogEntry;
 import org.neo4j.coreedge.raft.log.RaftStorageException;
@@ -38,6 +45,7 @@ import org.neo4j.coreedge.raft.state.RaftState;
 import org.neo4j.coreedge.raft.state.ReadableRaftState;
 import org.neo4j.coreedge.raft.state.TermStore;
 import org.neo4j.coreedge.raft.state.VoteStore;
+import org.neo4j.helpers.Clock;
 import org.neo4j.kernel.impl.util.Dependencies;
 import org.neo4j.kernel.impl.util.Listener;
 import org.neo4j.kernel.internal.DatabaseHealth;
@@ -89,6 +97,7 @@ public class RaftInstance<MEMBER> implements LeaderLocator<MEMBER>, Inbound.Mess
     private final long leaderWaitTimeout;
 
     private final Dependencies dependencies;
+    private final Clock clock;
 
     private final Outbound<MEMBER> outbound;
     private final Log log;
@@ -96,13 +105,14 @@ public class RaftInstance<MEMBER> implements LeaderLocator<MEMBER>, Inbound.Mess
     private Role currentRole = Role.FOLLOWER;
 
     private RaftLogShippingManager<MEMBER> logShipping;
+    private final ReadIndexTracker<MEMBER> readIndexes;
     private Set<Listener<LeadershipChange<MEMBER>>> leadershipChangeListeners = new HashSet<>();
 
     public RaftInstance( MEMBER myself, TermStore termStore, VoteStore<MEMBER> voteStore, RaftLog entryLog,
                          long electionTimeout, long heartbeatInterval, RenewableTimeoutService renewableTimeoutService,
                          final Inbound inbound, final Outbound<MEMBER> outbound, long leaderWaitTimeout,
                          LogProvider logProvider, RaftMembershipManager<MEMBER> membershipManager,
-                         RaftLogShippingManager<MEMBER> logShipping, Dependencies dependencies )
+                         RaftLogShippingManager<MEMBER> logShipping, Dependencies dependencies, Clock clock )
 
     {
         this.myself = myself;
@@ -116,11 +126,13 @@ public class RaftInstance<MEMBER> implements LeaderLocator<MEMBER>, Inbound.Mess
         this.outbound = outbound;
         this.logShipping = logShipping;
         this.dependencies = dependencies;
+        this.clock = clock;
         this.log = logProvider.getLog( getClass() );
 
         this.membershipManager = membershipManager;
 
         this.state = new RaftState<>( myself, termStore, membershipManager, entryLog, voteStore );
+        this.readIndexes = new ReadIndexTracker<>( myself );
 
         initTimers();
 
@@ -195,6 +207,70 @@ public class RaftInstance<MEMBER> implements LeaderLocator<MEMBER>, Inbound.Mess
         return state.leader();
     }
 
+    /**
+     * Asks the leader for a read index, which allows reading from the local state machines of this member with
+     * linearizable semantics without appending anything to the log. The returned future completes with the read
+     * index once this member has applied its log up to it, from which point local reads see every write
+     * acknowledged before this call. It completes with -1 if the leader could not serve the read right now,
+     * e.g. because leadership is changing, in which case the read can be retried.
+     *
+     * @see ReadIndexTracker
+     */
+    public Future<Long> requestReadIndex() throws NoLeaderTimeoutException
+    {
+        MEMBER leader = getLeader();
+        CompletableFuture<Long> readIndex = new CompletableFuture<>();
+        RaftMessages.ReadIndex.Request<MEMBER> request = readIndexes.newRequest( readIndex );
+        if ( leader.equals( myself ) )
+        {
+            handle( request );
+        }
+        else
+        {
+            outbound.send( leader, request );
+        }
+        return readIndex;
+    }
+
+    /**
+     * Waits for a {@link #requestReadIndex() read index} to be handed out and applied on this member,
+     * retrying refused reads until the timeout expires.
+     *
+     * @return the read index, which this member has applied when this method returns.
+     */
+    public long awaitReadIndex( long timeoutMillis )
+            throws NoLeaderTimeoutException, TimeoutException, InterruptedException
+    {
+        long endTime = clock.currentTimeMillis() + timeoutMillis;
+        while ( true )
+        {
+            Future<Long> future = requestReadIndex();
+            long readIndex;
+            try
+            {
+                readIndex = future.get( Math.max( endTime - clock.currentTimeMillis(), 0 ), MILLISECONDS );
+            }
+            catch ( ExecutionException e )
+            {
+                throw new IllegalStateException( "Read index futures are never completed exceptionally", e );
+            }
+            finally
+            {
+                future.cancel( false ); // no-op unless we timed out, lets the tracker forget about the read
+            }
+
+            if ( readIndex != -1 )
+            {
+                return readIndex;
+            }
+            if ( clock.currentTimeMillis() >= endTime )
+            {
+                throw new TimeoutException( "Read index refused by the leader" );
+            }
+            LockSupport.parkNanos( MILLISECONDS.toNanos( heartbeatInterval ) );
+        }
+    }
+
     public ReadableRaftState<MEMBER> state()
     {
         return state;
@@ -259,15 +335,23 @@ public class RaftInstance<MEMBER> implements LeaderLocator<MEMBER>, Inbound.Mess
         try
         {
             handlingMessage = true;
-            Outcome<MEMBER> outcome = currentRole.role.handle( (RaftMessages.Message<MEMBER>) incomingMessage, state, log );
+            RaftMessages.Message<MEMBER> message = (RaftMessages.Message<MEMBER>) incomingMessage;
+            List<RaftMessages.Directed<MEMBER>> readIndexMessages = new ArrayList<>();
+
+            if ( ReadIndexTracker.isReadIndexMessage( message ) )
+            {
+                // Read index messages never change the raft state, so they are kept out of the roles
+                readIndexes.handle( message, state, currentRole == LEADER, readIndexMessages );
+                send( readIndexMessages );
+                return;
+            }
+
+            Outcome<MEMBER> outcome = currentRole.role.handle( message, state, log );
 
             handleOutcome( outcome );
             currentRole = outcome.getNewRole();
 
-            for ( RaftMessages.Directed<MEMBER> outgoingMessage : outcome.getOutgoingMessages() )
-            {
-                outbound.send( outgoingMessage.to(), outgoingMessage.message() );
-            }
+            send( outcome.getOutgoingMessages() );
             if ( outcome.electionTimeoutRenewed() )
             {
                 electionTimer.renew();
@@ -279,6 +363,17 @@ public class RaftInstance<MEMBER> implements LeaderLocator<MEMBER>, Inbound.Mess
             {
                 membershipManager.onFollowerStateChange( state.followerStates() );
             }
+
+            if ( currentRole != LEADER )
+            {
+                readIndexes.stopLeading( state, readIndexMessages );
+            }
+            else if ( message.type() == RaftMessages.Type.HEARTBEAT_TIMEOUT )
+            {
+                readIndexes.onHeartbeatTimeout( state, readIndexMessages );
+            }
+            readIndexes.onCommitIndex( entryLog.commitIndex() );
+            send( readIndexMessages );
         }
         catch ( RaftStorageException e )
         {
@@ -291,6 +386,14 @@ public class RaftInstance<MEMBER> implements LeaderLocator<MEMBER>, Inbound.Mess
         }
     }
 
+    private void send( Iterable<RaftMessages.Directed<MEMBER>> messages )
+    {
+        for ( RaftMessages.Directed<MEMBER> outgoingMessage : messages )
+        {
+            outbound.send( outgoingMessage.to(), outgoingMessage.message() );
+        }
+    }
+
     private void panic( RaftStorageException e )
     {
             dependencies.provideDependency( DatabaseHealth.class ).get().panic( e );
@@ -26,6 +26,7 @@ import org.neo4j.coreedge.raft.membership.RaftMembershipManager;
 import org.neo4j.coreedge.raft.net.Inbound;
 import org.neo4j.coreedge.raft.net.Outbound;
 import org.neo4j.coreedge.raft.replication.LocalReplicator;
+import org.neo4j.coreedge.raft.replication.shipping.LogShippingMonitor;
 import org.neo4j.coreedge.raft.replication.shipping.RaftLogShippingManager;
 import org.neo4j.coreedge.raft.state.InMemoryTermStore;
 import org.neo4j.coreedge.raft.state.InMemoryVoteStore;
@@ -33,6 +34,7 @@ import org.neo4j.coreedge.raft.state.TermStore;
 import org.neo4j.coreedge.raft.state.VoteStore;
 import org.neo4j.helpers.Clock;
 import org.neo4j.kernel.impl.util.Dependencies;
+import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.logging.NullLogProvider;
 
@@ -61,6 +63,8 @@ public class RaftInstanceBuilder<MEMBER>
     private long catchupTimeout = 30000;
     private long retryTimeMillis = electionTimeout/2;
     private int catchupBatchSize = 64;
+    private long catchupBatchBytes = 1024 * 1024;
+    private int maxInFlightBatches = 4;
     private int maxAllowedShippingLag = 256;
     private Dependencies dependencies;
 
@@ -77,11 +81,12 @@ public class RaftInstanceBuilder<MEMBER>
         RaftMembershipManager<MEMBER> membershipManager = new RaftMembershipManager<>( localReplicator,
                 memberSetBuilder, raftLog, logProvider, expectedClusterSize, electionTimeout, clock, catchupTimeout );
         RaftLogShippingManager<MEMBER> logShipping = new RaftLogShippingManager<>( outbound, logProvider, raftLog,
-                clock, member, membershipManager, retryTimeMillis, catchupBatchSize, maxAllowedShippingLag );
+                clock, renewableTimeoutService, member, membershipManager, retryTimeMillis, catchupBatchSize, catchupBatchBytes,
+                maxInFlightBatches, maxAllowedShippingLag, new Monitors().newMonitor( LogShippingMonitor.class ) );
 
         return new RaftInstance<>( member, termStore, voteStore, raftLog, electionTimeout, heartbeatInterval,
                 renewableTimeoutService, inbound, outbound, leaderWaitTimeout, logProvider, membershipManager, logShipping,
-                dependencies );
+                dependencies, clock );
     }
 
     public RaftInstanceBuilder<MEMBER> timeoutService( RenewableTimeoutService renewableTimeoutService )
@@ -90,6 +95,12 @@ public class RaftInstanceBuilder<MEMBER>
         return this;
     }
 
+    public RaftInstanceBuilder<MEMBER> clock( Clock clock )
+    {
+        this.clock = clock;
+        return this;
+    }
+
     public RaftInstanceBuilder<MEMBER> outbound( Outbound<MEMBER> outbound )
     {
         this.outbound = outbound;
@@ -49,6 +49,12 @@ public interface RaftMessages
         NEW_ENTRY_REQUEST,
 
         NEW_MEMBERSHIP_TARGET,
+
+        // Read index
+        READ_INDEX_REQUEST,
+        READ_INDEX_RESPONSE,
+        LEADERSHIP_CHECK_REQUEST,
+        LEADERSHIP_CHECK_RESPONSE,
     }
 
     interface Message<MEMBER> extends Serializable
@@ -513,6 +519,210 @@ public interface RaftMessages
         }
     }
 
+    interface ReadIndex
+    {
+        class Request<MEMBER> extends BaseMessage<MEMBER>
+        {
+            private final long requestId;
+
+            public Request( MEMBER from, long requestId )
+            {
+                super( from, Type.READ_INDEX_REQUEST );
+                this.requestId = requestId;
+            }
+
+            public long requestId()
+            {
+                return requestId;
+            }
+
+            @Override
+            public boolean equals( Object o )
+            {
+                if ( this == o )
+                {
+                    return true;
+                }
+                if ( o == null || getClass() != o.getClass() )
+                {
+                    return false;
+                }
+                Request<?> request = (Request<?>) o;
+                return super.equals( o ) && requestId == request.requestId;
+            }
+
+            @Override
+            public int hashCode()
+            {
+                return Objects.hash( super.hashCode(), requestId );
+            }
+
+            @Override
+            public String toString()
+            {
+                return format( "ReadIndex.Request from %s {requestId=%d}", from(), requestId );
+            }
+        }
+
+        class Response<MEMBER> extends BaseMessage<MEMBER>
+        {
+            private final long requestId;
+            private final long readIndex;
+
+            /**
+             * @param readIndex the commit index of the leader when the read was requested,
+             * or -1 if the read could not be served by the receiver of the request.
+             */
+            public Response( MEMBER from, long requestId, long readIndex )
+            {
+                super( from, Type.READ_INDEX_RESPONSE );
+                this.requestId = requestId;
+                this.readIndex = readIndex;
+            }
+
+            public long requestId()
+            {
+                return requestId;
+            }
+
+            public long readIndex()
+            {
+                return readIndex;
+            }
+
+            @Override
+            public boolean equals( Object o )
+            {
+                if ( this == o )
+                {
+                    return true;
+                }
+                if ( o == null || getClass() != o.getClass() )
+                {
+                    return false;
+                }
+                Response<?> response = (Response<?>) o;
+                return super.equals( o ) && requestId == response.requestId && readIndex == response.readIndex;
+            }
+
+            @Override
+            public int hashCode()
+            {
+                return Objects.hash( super.hashCode(), requestId, readIndex );
+            }
+
+            @Override
+            public String toString()
+            {
+                return format( "ReadIndex.Response from %s {requestId=%d, readIndex=%d}", from(), requestId,
+                        readIndex );
+            }
+        }
+    }
+
+    interface LeadershipCheck
+    {
+        class Request<MEMBER> extends BaseMessage<MEMBER>
+        {
+            private final long term;
+            private final long round;
+
+            public Request( MEMBER from, long term, long round )
+            {
+                super( from, Type.LEADERSHIP_CHECK_REQUEST );
+                this.term = term;
+                this.round = round;
+            }
+
+            public long term()
+            {
+                return term;
+            }
+
+            public long round()
+            {
+                return round;
+            }
+
+            @Override
+            public boolean equals( Object o )
+            {
+                if ( this == o )
+                {
+                    return true;
+                }
+                if ( o == null || getClass() != o.getClass() )
+                {
+                    return false;
+                }
+                Request<?> request = (Request<?>) o;
+                return super.equals( o ) && term == request.term && round == request.round;
+            }
+
+            @Override
+            public int hashCode()
+            {
+                return Objects.hash( super.hashCode(), term, round );
+            }
+
+            @Override
+            public String toString()
+            {
+                return format( "LeadershipCheck.Request from %s {term=%d, round=%d}", from(), term, round );
+            }
+        }
+
+        class Response<MEMBER> extends BaseMessage<MEMBER>
+        {
+            private final long term;
+            private final long round;
+
+            public Response( MEMBER from, long term, long round )
+            {
+                super( from, Type.LEADERSHIP_CHECK_RESPONSE );
+                this.term = term;
+                this.round = round;
+            }
+
+            public long term()
+            {
+                return term;
+            }
+
+            public long round()
+            {
+                return round;
+            }
+
+            @Override
+            public boolean equals( Object o )
+            {
+                if ( this == o )
+                {
+                    return true;
+                }
+                if ( o == null || getClass() != o.getClass() )
+                {
+                    return false;
+                }
+                Response<?> response = (Response<?>) o;
+                return super.equals( o ) && term == response.term && round == response.round;
+            }
+
+            @Override
+            public int hashCode()
+            {
+                return Objects.hash( super.hashCode(), term, round );
+            }
+
+            @Override
+            public String toString()
+            {
+                return format( "LeadershipCheck.Response from %s {term=%d, round=%d}", from(), term, round );
+            }
+        }
+    }
+
     abstract class BaseMessage<MEMBER> implements Message<MEMBER>
     {
         private MEMBER from;
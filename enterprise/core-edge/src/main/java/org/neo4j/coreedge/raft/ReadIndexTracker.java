@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.coreedge.raft;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.neo4j.concurrent.CompletableFuture;
+import org.neo4j.coreedge.raft.log.RaftStorageException;
+import org.neo4j.coreedge.raft.state.ReadableRaftState;
+
+import static org.neo4j.coreedge.raft.MajorityIncludingSelfQuorum.isQuorum;
+
+/**
+ * Serves linearizable reads on any member without appending anything to the raft log, using the read index
+ * protocol from section 6.4 of the raft thesis.
+ * <p/>
+ * A member wanting to read asks the leader for a read index. The leader notes its commit index, confirms that it
+ * is still the leader by a round of leadership checks answered by a majority of the voting members, and then
+ * hands out the noted index. The read completes once the requesting member has applied its own log up to that
+ * index, at which point local state is at least as recent as every write acknowledged before the read started.
+ * Reads arriving while a round of checks is in flight are all confirmed by the next round.
+ * <p/>
+ * A leader which has not yet committed an entry in its own term does not know the latest commit index, and
+ * neither does a member which isn't the leader, so those refuse the read with a read index of -1.
+ */
+class ReadIndexTracker<MEMBER>
+{
+    private final MEMBER myself;
+
+    // Reads requested by this member, by request id
+    private final Map<Long,LocalRead> localReads = new HashMap<>();
+    private long nextRequestId;
+
+    // Reads this member confirms as the leader
+    private List<PendingRead<MEMBER>> waiting = new ArrayList<>();
+    private List<PendingRead<MEMBER>> confirming = new ArrayList<>();
+    private final Set<MEMBER> confirmedBy = new HashSet<>();
+    private long round;
+    private long roundTerm;
+
+    ReadIndexTracker( MEMBER myself )
+    {
+        this.myself = myself;
+    }
+
+    static boolean isReadIndexMessage( RaftMessages.Message<?> message )
+    {
+        switch ( message.type() )
+        {
+            case READ_INDEX_REQUEST:
+            case READ_INDEX_RESPONSE:
+            case LEADERSHIP_CHECK_REQUEST:
+            case LEADERSHIP_CHECK_RESPONSE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Registers a read by this member. The future completes with the read index once this member has applied
+     * its log up to it, or with -1 if the read was refused.
+     */
+    synchronized RaftMessages.ReadIndex.Request<MEMBER> newRequest( CompletableFuture<Long> readIndex )
+    {
+        long requestId = nextRequestId++;
+        localReads.put( requestId, new LocalRead( readIndex ) );
+        return new RaftMessages.ReadIndex.Request<>( myself, requestId );
+    }
+
+    synchronized void handle( RaftMessages.Message<MEMBER> message, ReadableRaftState<MEMBER> ctx, boolean leader,
+            List<RaftMessages.Directed<MEMBER>> outgoing ) throws RaftStorageException
+    {
+        switch ( message.type() )
+        {
+            case READ_INDEX_REQUEST:
+            {
+                RaftMessages.ReadIndex.Request<MEMBER> req = (RaftMessages.ReadIndex.Request<MEMBER>) message;
+                long commitIndex = ctx.entryLog().commitIndex();
+                if ( !leader || ctx.entryLog().readEntryTerm( commitIndex ) != ctx.term() )
+                {
+                    respond( new PendingRead<>( req.from(), req.requestId(), -1 ), ctx, outgoing );
+                    break;
+                }
+                waiting.add( new PendingRead<>( req.from(), req.requestId(), commitIndex ) );
+                if ( confirming.isEmpty() )
+                {
+                    startRound( ctx, outgoing );
+                }
+                break;
+            }
+
+            case READ_INDEX_RESPONSE:
+            {
+                RaftMessages.ReadIndex.Response<MEMBER> res = (RaftMessages.ReadIndex.Response<MEMBER>) message;
+                onReadIndex( res.requestId(), res.readIndex(), ctx.entryLog().commitIndex() );
+                break;
+            }
+
+            case LEADERSHIP_CHECK_REQUEST:
+            {
+                RaftMessages.LeadershipCheck.Request<MEMBER> req =
+                        (RaftMessages.LeadershipCheck.Request<MEMBER>) message;
+                outgoing.add( new RaftMessages.Directed<>( req.from(),
+                        new RaftMessages.LeadershipCheck.Response<>( myself, ctx.term(), req.round() ) ) );
+                break;
+            }
+
+            case LEADERSHIP_CHECK_RESPONSE:
+            {
+                RaftMessages.LeadershipCheck.Response<MEMBER> res =
+                        (RaftMessages.LeadershipCheck.Response<MEMBER>) message;
+                if ( !leader || confirming.isEmpty() || res.round() != round )
+                {
+                    break;
+                }
+                if ( res.term() > roundTerm )
+                {
+                    // Someone has moved on to a later term, so we may no longer be the leader
+                    refuseAll( ctx, outgoing );
+                    break;
+                }
+                /*
+                 * A member which is at most in our term when answering has not helped electing a later leader
+                 * so far, so a majority of such answers means no later leader can have committed anything yet.
+                 */
+                confirmedBy.add( res.from() );
+                if ( isQuorum( ctx.votingMembers().size(), confirmedBy.size() ) )
+                {
+                    for ( PendingRead<MEMBER> read : confirming )
+                    {
+                        respond( read, ctx, outgoing );
+                    }
+                    confirming = new ArrayList<>();
+                    if ( !waiting.isEmpty() )
+                    {
+                        startRound( ctx, outgoing );
+                    }
+                }
+                break;
+            }
+        }
+    }
+
+    /**
+     * Leadership checks may get lost, so they are repeated on each heartbeat until the round is confirmed.
+     */
+    synchronized void onHeartbeatTimeout( ReadableRaftState<MEMBER> ctx, List<RaftMessages.Directed<MEMBER>> outgoing )
+    {
+        if ( !confirming.isEmpty() )
+        {
+            sendLeadershipChecks( ctx, outgoing );
+        }
+    }
+
+    /**
+     * Refuses all reads still waiting for confirmation, for when this member is no longer the leader.
+     */
+    synchronized void stopLeading( ReadableRaftState<MEMBER> ctx, List<RaftMessages.Directed<MEMBER>> outgoing )
+    {
+        if ( !waiting.isEmpty() || !confirming.isEmpty() )
+        {
+            refuseAll( ctx, outgoing );
+        }
+    }
+
+    /**
+     * Completes the reads of this member which have their read index applied, and forgets those which
+     * have been given up on by cancelling their future.
+     */
+    synchronized void onCommitIndex( long commitIndex )
+    {
+        Iterator<LocalRead> reads = localReads.values().iterator();
+        while ( reads.hasNext() )
+        {
+            LocalRead read = reads.next();
+            if ( read.future.isCancelled() )
+            {
+                reads.remove();
+            }
+            else if ( read.readIndex != -1 && read.readIndex <= commitIndex )
+            {
+                read.future.complete( read.readIndex );
+                reads.remove();
+            }
+        }
+    }
+
+    private void startRound( ReadableRaftState<MEMBER> ctx, List<RaftMessages.Directed<MEMBER>> outgoing )
+    {
+        round++;
+        roundTerm = ctx.term();
+        confirming = waiting;
+        waiting = new ArrayList<>();
+        confirmedBy.clear();
+        sendLeadershipChecks( ctx, outgoing );
+    }
+
+    private void sendLeadershipChecks( ReadableRaftState<MEMBER> ctx, List<RaftMessages.Directed<MEMBER>> outgoing )
+    {
+        for ( MEMBER member : ctx.votingMembers() )
+        {
+            if ( !member.equals( myself ) )
+            {
+                outgoing.add( new RaftMessages.Directed<>( member,
+                        new RaftMessages.LeadershipCheck.Request<>( myself, roundTerm, round ) ) );
+            }
+        }
+    }
+
+    private void refuseAll( ReadableRaftState<MEMBER> ctx, List<RaftMessages.Directed<MEMBER>> outgoing )
+    {
+        for ( PendingRead<MEMBER> read : confirming )
+        {
+            respond( new PendingRead<>( read.from, read.requestId, -1 ), ctx, outgoing );
+        }
+        for ( PendingRead<MEMBER> read : waiting )
+        {
+            respond( new PendingRead<>( read.from, read.requestId, -1 ), ctx, outgoing );
+        }
+        confirming = new ArrayList<>();
+        waiting = new ArrayList<>();
+    }
+
+    private void respond( PendingRead<MEMBER> read, ReadableRaftState<MEMBER> ctx,
+            List<RaftMessages.Directed<MEMBER>> outgoing )
+    {
+        if ( read.from.equals( myself ) )
+        {
+            onReadIndex( read.requestId, read.readIndex, ctx.entryLog().commitIndex() );
+        }
+        else
+        {
+            outgoing.add( new RaftMessages.Directed<>( read.from,
+                    new RaftMessages.ReadIndex.Response<>( myself, read.requestId, read.readIndex ) ) );
+        }
+    }
+
+    private void onReadIndex( long requestId, long readIndex, long commitIndex )
+    {
+        LocalRead read = localReads.get( requestId );
+        if ( read == null )
+        {
+            return; // cancelled
+        }
+        if ( readIndex == -1 || readIndex <= commitIndex )
+        {
+            read.future.complete( readIndex );
+            localReads.remove( requestId );
+        }
+        else
+        {
+            read.readIndex = readIndex;
+        }
+    }
+
+    private static class PendingRead<MEMBER>
+    {
+        private final MEMBER from;
+        private final long requestId;
+        private final long readIndex;
+
+        PendingRead( MEMBER from, long requestId, long readIndex )
+        {
+            this.from = from;
+            this.requestId = requestId;
+            this.readIndex = readIndex;
+        }
+    }
+
+    private static class LocalRead
+    {
+        private final CompletableFuture<Long> future;
+        private long readIndex = -1;
+
+        LocalRead( CompletableFuture<Long> future )
+        {
+            this.future = future;
+        }
+    }
+}
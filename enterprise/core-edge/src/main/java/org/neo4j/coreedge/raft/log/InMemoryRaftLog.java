@@ -87,6 +87,16 @@ public class InMemoryRaftLog implements RaftLog
         return appendIndex;
     }
 
+    @Override
+    public long append( RaftLogEntry... logEntries ) throws RaftStorageException
+    {
+        for ( RaftLogEntry logEntry : logEntries )
+        {
+            append( logEntry );
+        }
+        return appendIndex;
+    }
+
     @Override
     public void commit( long commitIndex )
     {
@@ -203,6 +203,16 @@ public class NaiveDurableRaftLog extends LifecycleAdapter implements RaftLog
 
     }
 
+    @Override
+    public long append( RaftLogEntry... logEntries ) throws RaftStorageException
+    {
+        for ( RaftLogEntry logEntry : logEntries )
+        {
+            append( logEntry );
+        }
+        return appendIndex;
+    }
+
     @Override
     public void truncate( long fromIndex ) throws RaftStorageException
     {
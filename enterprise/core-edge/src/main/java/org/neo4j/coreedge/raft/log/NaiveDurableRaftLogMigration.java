@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.coreedge.raft.log;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.neo4j.coreedge.raft.replication.Serializer;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.logging.Log;
+
+import static java.lang.Math.min;
+
+/**
+ * Copies a raft log written by {@link NaiveDurableRaftLog} into a {@link SegmentedRaftLog} in the same directory.
+ * Core members rebuild their store from the raft log on startup, so the entries can't just be left behind.
+ * <p/>
+ * Both logs keep the commit index in commit.log, in the same format, so that file is kept as it is.
+ * The old entries.log is deleted last, which means that a migration interrupted by a crash is started over,
+ * discarding any segments written by the interrupted attempt.
+ */
+public class NaiveDurableRaftLogMigration
+{
+    public static final String ENTRIES_FILE_NAME = "entries.log";
+    public static final String CONTENT_FILE_NAME = "content.log";
+
+    private static final int ENTRIES_PER_APPEND = 1024;
+
+    private final FileSystemAbstraction fileSystem;
+    private final File directory;
+    private final Serializer serializer;
+    private final Monitors monitors;
+    private final int entriesPerSegment;
+    private final Log log;
+
+    public NaiveDurableRaftLogMigration( FileSystemAbstraction fileSystem, File directory, Serializer serializer,
+                                         Monitors monitors, int entriesPerSegment, Log log )
+    {
+        this.fileSystem = fileSystem;
+        this.directory = directory;
+        this.serializer = serializer;
+        this.monitors = monitors;
+        this.entriesPerSegment = entriesPerSegment;
+        this.log = log;
+    }
+
+    public boolean isNeeded()
+    {
+        return fileSystem.fileExists( new File( directory, ENTRIES_FILE_NAME ) );
+    }
+
+    public void migrate() throws IOException, RaftStorageException
+    {
+        for ( File segmentFile : fileSystem.listFiles( directory,
+                ( dir, name ) -> name.startsWith( SegmentedRaftLog.SEGMENT_FILE_PREFIX ) ) )
+        {
+            if ( !fileSystem.deleteFile( segmentFile ) )
+            {
+                throw new IOException( "Failed to delete segment " + segmentFile + " of an interrupted migration" );
+            }
+        }
+
+        NaiveDurableRaftLog oldLog = new NaiveDurableRaftLog( fileSystem, directory, serializer, monitors );
+        SegmentedRaftLog newLog = new SegmentedRaftLog( fileSystem, directory, serializer, monitors,
+                entriesPerSegment, 0 );
+        long appendIndex = oldLog.appendIndex();
+        long commitIndex = oldLog.commitIndex();
+        log.info( "Migrating raft log in %s with %d entries, committed up to %d", directory, appendIndex + 1,
+                commitIndex );
+
+        for ( long from = 0; from <= appendIndex; from += ENTRIES_PER_APPEND )
+        {
+            long to = min( appendIndex, from + ENTRIES_PER_APPEND - 1 );
+            RaftLogEntry[] entries = new RaftLogEntry[(int) (to - from + 1)];
+            for ( int i = 0; i < entries.length; i++ )
+            {
+                entries[i] = oldLog.readLogEntry( from + i );
+            }
+            newLog.append( entries );
+        }
+        newLog.commit( commitIndex );
+
+        shutdown( oldLog );
+        shutdown( newLog );
+
+        deleteFile( CONTENT_FILE_NAME );
+        deleteFile( ENTRIES_FILE_NAME );
+        log.info( "Migrated raft log in %s", directory );
+    }
+
+    private void shutdown( LifecycleAdapter raftLog ) throws IOException
+    {
+        try
+        {
+            raftLog.shutdown();
+        }
+        catch ( Throwable e )
+        {
+            throw new IOException( "Failed to close raft log", e );
+        }
+    }
+
+    private void deleteFile( String name ) throws IOException
+    {
+        File file = new File( directory, name );
+        if ( !fileSystem.deleteFile( file ) )
+        {
+            throw new IOException( "Failed to delete " + file );
+        }
+    }
+}
@@ -64,6 +64,15 @@ public interface RaftLog extends ReadableRaftLog
      */
     long append( RaftLogEntry entry ) throws RaftStorageException;
 
+    /**
+     * Appends entries to the end of the log, in order, as one batch. Durable
+     * implementations make the entries durable together rather than one by one.
+     *
+     * @param entries The log entries.
+     * @return Returns the index at which the last entry was appended.
+     */
+    long append( RaftLogEntry... entries ) throws RaftStorageException;
+
     /**
      * Truncates the log starting from the supplied index. Committed
      * entries can never be truncated.
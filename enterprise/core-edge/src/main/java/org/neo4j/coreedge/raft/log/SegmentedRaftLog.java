@@ -0,0 +1,717 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.coreedge.raft.log;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.zip.CRC32;
+
+import org.neo4j.coreedge.raft.log.monitoring.RaftLogAppendIndexMonitor;
+import org.neo4j.coreedge.raft.log.monitoring.RaftLogCommitIndexMonitor;
+import org.neo4j.coreedge.raft.replication.MarshallingException;
+import org.neo4j.coreedge.raft.replication.ReplicatedContent;
+import org.neo4j.coreedge.raft.replication.Serializer;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.kernel.monitoring.Monitors;
+
+import static java.lang.Math.min;
+
+/**
+ * Writes a raft log to disk in segments of at most a configured number of entries each.
+ * <p/>
+ * 1. raft.log.N, one per segment, where N is the segment number
+ * ┌─────────────────────────────┐
+ * │prevIndex             8 bytes│
+ * │prevTerm              8 bytes│
+ * │checksum              4 bytes│
+ * ├─────────────────────────────┤
+ * │header length        20 bytes│
+ * └─────────────────────────────┘
+ * followed by one record per entry
+ * ┌─────────────────────────────┐
+ * │term                  8 bytes│
+ * │contentLength         4 bytes│
+ * │checksum              4 bytes│
+ * │content              variable│
+ * ├─────────────────────────────┤
+ * │record length        variable│
+ * └─────────────────────────────┘
+ * where the checksums are CRC32 of the other fields of the header and of the whole record, respectively.
+ * <p/>
+ * 2. commit.log
+ * ┌─────────────────────────────┐
+ * │committedIndex        8 bytes│
+ * ├─────────────────────────────┤
+ * │record length         8 bytes│
+ * └─────────────────────────────┘
+ * <p/>
+ * All entries given to one call to {@link #append(RaftLogEntry...)} are forced to disk together, once.
+ * The commit index isn't forced on its own, but together with the next append and on shutdown. A commit index
+ * lost in a crash is learned again from the leader, which is how it would be learned in the first place.
+ * A crash can leave the last segment without a complete header, or with a torn or never written record at its
+ * end. Neither was acknowledged, so on startup such a segment is deleted and such records are cut off.
+ * <p/>
+ * Term and position of every retained entry is kept in memory, together with a cache of the most recently
+ * appended entries so that log shipping and commit listeners seldom have to read and deserialize from disk.
+ */
+public class SegmentedRaftLog extends LifecycleAdapter implements RaftLog
+{
+    public static final String SEGMENT_FILE_PREFIX = "raft.log.";
+    public static final String COMMIT_FILE_NAME = "commit.log";
+    public static final int SEGMENT_HEADER_LENGTH = 20;
+    public static final int ENTRY_HEADER_LENGTH = 16;
+    public static final int COMMIT_INDEX_BYTES = 8;
+
+    private final Set<Listener> listeners = new CopyOnWriteArraySet<>();
+
+    private final FileSystemAbstraction fileSystem;
+    private final File directory;
+    private final Serializer serializer;
+    private final int entriesPerSegment;
+    private final List<Segment> segments = new ArrayList<>();
+    private final StoreChannel commitChannel;
+
+    private final RaftLogEntry[] cachedEntries;
+    private final long[] cachedIndexes;
+
+    private long appendIndex;
+    private long commitIndex;
+    private long term;
+
+    private final RaftLogAppendIndexMonitor appendIndexMonitor;
+    private final RaftLogCommitIndexMonitor commitIndexMonitor;
+
+    public SegmentedRaftLog( FileSystemAbstraction fileSystem, File directory, Serializer serializer,
+                             Monitors monitors, int entriesPerSegment, int entryCacheSize )
+    {
+        this.fileSystem = fileSystem;
+        this.directory = directory;
+        this.serializer = serializer;
+        this.entriesPerSegment = entriesPerSegment;
+        this.cachedEntries = new RaftLogEntry[entryCacheSize];
+        this.cachedIndexes = new long[entryCacheSize];
+        Arrays.fill( cachedIndexes, -1 );
+        this.appendIndexMonitor = monitors.newMonitor( RaftLogAppendIndexMonitor.class, getClass(), RaftLog.APPEND_INDEX_TAG );
+        this.commitIndexMonitor = monitors.newMonitor( RaftLogCommitIndexMonitor.class, getClass(), RaftLog.COMMIT_INDEX_TAG );
+
+        try
+        {
+            long[] segmentNumbers = existingSegmentNumbers();
+            for ( int i = 0; i < segmentNumbers.length; i++ )
+            {
+                Segment segment = recoverSegment( segmentNumbers[i], i == segmentNumbers.length - 1 );
+                if ( segment != null )
+                {
+                    segments.add( segment );
+                }
+            }
+            if ( segments.isEmpty() )
+            {
+                segments.add( createSegment( 0, -1, -1 ) );
+            }
+            Segment last = lastSegment();
+            appendIndex = last.lastIndex();
+            term = last.count > 0 ? last.terms[last.count - 1] : last.prevTerm;
+
+            commitChannel = fileSystem.open( new File( directory, COMMIT_FILE_NAME ), "rw" );
+            commitIndex = min( readCommitIndex(), appendIndex );
+        }
+        catch ( IOException e )
+        {
+            throw new RuntimeException( e );
+        }
+    }
+
+    @Override
+    public synchronized void shutdown() throws Throwable
+    {
+        Exception container = new Exception("Exception happened during shutdown of RaftLog. See suppressed exceptions for details");
+        boolean shouldThrow = false;
+        for ( Segment segment : segments )
+        {
+            shouldThrow = forceAndCloseChannel( segment.channel, container ) || shouldThrow;
+        }
+        shouldThrow = forceAndCloseChannel( commitChannel, container ) || shouldThrow;
+        if ( shouldThrow )
+        {
+            throw container;
+        }
+    }
+
+    private boolean forceAndCloseChannel( StoreChannel channel, Exception container )
+    {
+        boolean exceptionHappened = false;
+        try
+        {
+            channel.force( false );
+            channel.close();
+        }
+        catch( Exception e )
+        {
+            exceptionHappened = true;
+            container.addSuppressed( e );
+        }
+        return exceptionHappened;
+    }
+
+    @Override
+    public synchronized void replay() throws Throwable
+    {
+        long i = segments.get( 0 ).prevIndex + 1;
+        for ( ; i <= commitIndex; i++ )
+        {
+            ReplicatedContent content = readEntryContent( i );
+            for ( Listener listener : listeners )
+            {
+                listener.onAppended( content );
+                listener.onCommitted( content );
+            }
+        }
+        for ( ; i <= appendIndex; i++ )
+        {
+            ReplicatedContent content = readEntryContent( i );
+            for ( Listener listener : listeners )
+            {
+                listener.onAppended( content );
+            }
+        }
+    }
+
+    @Override
+    public void registerListener( Listener listener )
+    {
+        listeners.add( listener );
+    }
+
+    @Override
+    public long append( RaftLogEntry logEntry ) throws RaftStorageException
+    {
+        return append( new RaftLogEntry[] {logEntry} );
+    }
+
+    @Override
+    public synchronized long append( RaftLogEntry... logEntries ) throws RaftStorageException
+    {
+        if ( logEntries.length == 0 )
+        {
+            return appendIndex;
+        }
+
+        long highestTerm = term;
+        for ( RaftLogEntry logEntry : logEntries )
+        {
+            Objects.requireNonNull( logEntry );
+            if ( logEntry.term() < highestTerm )
+            {
+                throw new RaftStorageException( String.format( "Non-monotonic term %d for in entry %s in term %d",
+                        logEntry.term(), logEntry.toString(), highestTerm ) );
+            }
+            highestTerm = logEntry.term();
+        }
+
+        try
+        {
+            for ( RaftLogEntry logEntry : logEntries )
+            {
+                Segment segment = lastSegment();
+                if ( segment.count >= entriesPerSegment )
+                {
+                    segment = rotate();
+                }
+                writeEntry( segment, logEntry );
+                cache( ++appendIndex, logEntry );
+            }
+            term = highestTerm;
+            lastSegment().channel.force( false );
+            commitChannel.force( false );
+        }
+        catch ( MarshallingException | IOException e )
+        {
+            throw new RaftStorageException( "Failed to append log entry", e );
+        }
+
+        for ( RaftLogEntry logEntry : logEntries )
+        {
+            for ( Listener listener : listeners )
+            {
+                listener.onAppended( logEntry.content() );
+            }
+        }
+        return appendIndex;
+    }
+
+    @Override
+    public synchronized void truncate( long fromIndex ) throws RaftStorageException
+    {
+        try
+        {
+            if ( fromIndex <= commitIndex )
+            {
+                throw new IllegalArgumentException( "cannot truncate before the commit index" );
+            }
+
+            if ( appendIndex >= fromIndex )
+            {
+                while ( segments.size() > 1 && lastSegment().prevIndex >= fromIndex )
+                {
+                    deleteSegment( segments.remove( segments.size() - 1 ) );
+                }
+                Segment segment = lastSegment();
+                int keep = (int) (fromIndex - segment.prevIndex - 1);
+                if ( keep < segment.count )
+                {
+                    segment.size = segment.offsets[keep];
+                    segment.count = keep;
+                    segment.channel.truncate( segment.size );
+                    segment.channel.force( false );
+                }
+
+                for ( long index = fromIndex; index <= min( appendIndex, fromIndex + cachedEntries.length ); index++ )
+                {
+                    uncache( index );
+                }
+                appendIndex = fromIndex - 1;
+
+                for ( Listener listener : listeners )
+                {
+                    listener.onTruncated( fromIndex );
+                }
+            }
+            term = readEntryTerm( appendIndex );
+        }
+        catch ( IOException e )
+        {
+            throw new RaftStorageException( "Failed to truncate", e );
+        }
+    }
+
+    @Override
+    public synchronized void commit( final long newCommitIndex ) throws RaftStorageException
+    {
+        long actualNewCommitIndex = min( newCommitIndex, appendIndex );
+        if ( actualNewCommitIndex <= commitIndex )
+        {
+            return;
+        }
+
+        for ( long index = this.commitIndex + 1; index <= actualNewCommitIndex; index++ )
+        {
+            ReplicatedContent content = readEntryContent( index );
+            for ( Listener listener : listeners )
+            {
+                listener.onCommitted( content );
+            }
+            this.commitIndex = index;
+        }
+        try
+        {
+            storeCommitIndex( actualNewCommitIndex );
+        }
+        catch ( IOException e )
+        {
+            throw new RaftStorageException( "Failed to commit", e );
+        }
+    }
+
+    @Override
+    public synchronized long appendIndex()
+    {
+        appendIndexMonitor.appendIndex( appendIndex );
+        return appendIndex;
+    }
+
+    @Override
+    public synchronized long commitIndex()
+    {
+        commitIndexMonitor.commitIndex( commitIndex );
+        return commitIndex;
+    }
+
+    @Override
+    public synchronized RaftLogEntry readLogEntry( long logIndex ) throws RaftStorageException
+    {
+        RaftLogEntry cached = cachedEntry( logIndex );
+        if ( cached != null )
+        {
+            return cached;
+        }
+
+        Segment segment = segmentContaining( logIndex );
+        if ( segment == null )
+        {
+            throw new RaftStorageException( String.format( "No entry at index %d, log has entries %d-%d",
+                    logIndex, segments.get( 0 ).prevIndex + 1, appendIndex ) );
+        }
+
+        try
+        {
+            int position = (int) (logIndex - segment.prevIndex - 1);
+            long offset = segment.offsets[position] + ENTRY_HEADER_LENGTH;
+            long end = position + 1 < segment.count ? segment.offsets[position + 1] : segment.size;
+            ByteBuffer contentBuffer = ByteBuffer.allocate( (int) (end - offset) );
+            readFully( segment.channel, contentBuffer, offset );
+            return new RaftLogEntry( segment.terms[position], serializer.deserialize( contentBuffer ) );
+        }
+        catch ( IOException | MarshallingException e )
+        {
+            throw new RaftStorageException( "Failed to read log entry", e );
+        }
+    }
+
+    @Override
+    public ReplicatedContent readEntryContent( long logIndex ) throws RaftStorageException
+    {
+        return readLogEntry( logIndex ).content();
+    }
+
+    @Override
+    public synchronized long readEntryTerm( long logIndex )
+    {
+        Segment segment = segmentContaining( logIndex );
+        if ( segment != null )
+        {
+            return segment.terms[(int) (logIndex - segment.prevIndex - 1)];
+        }
+        Segment first = segments.get( 0 );
+        return logIndex == first.prevIndex ? first.prevTerm : -1;
+    }
+
+    @Override
+    public synchronized boolean entryExists( long logIndex )
+    {
+        return appendIndex >= logIndex;
+    }
+
+    private Segment lastSegment()
+    {
+        return segments.get( segments.size() - 1 );
+    }
+
+    private Segment segmentContaining( long logIndex )
+    {
+        if ( logIndex > appendIndex )
+        {
+            return null;
+        }
+        // Most reads are of recent entries, so search from the end
+        for ( int i = segments.size() - 1; i >= 0; i-- )
+        {
+            Segment segment = segments.get( i );
+            if ( logIndex > segment.prevIndex )
+            {
+                return logIndex <= segment.lastIndex() ? segment : null;
+            }
+        }
+        return null;
+    }
+
+    private Segment rotate() throws IOException
+    {
+        Segment previous = lastSegment();
+        previous.channel.force( false );
+        Segment segment = createSegment( previous.number + 1, previous.lastIndex(),
+                previous.count > 0 ? previous.terms[previous.count - 1] : previous.prevTerm );
+        segments.add( segment );
+        return segment;
+    }
+
+    private void writeEntry( Segment segment, RaftLogEntry logEntry ) throws MarshallingException, IOException
+    {
+        ByteBuffer contentBuffer = serializer.serialize( logEntry.content() );
+        int contentLength = contentBuffer.remaining();
+        ByteBuffer buffer = ByteBuffer.allocate( ENTRY_HEADER_LENGTH + contentLength );
+        buffer.putLong( logEntry.term() );
+        buffer.putInt( contentLength );
+        buffer.putInt( entryChecksum( logEntry.term(), contentLength, contentBuffer ) );
+        buffer.put( contentBuffer );
+        buffer.flip();
+
+        long offset = segment.size;
+        segment.channel.writeAll( buffer, offset );
+        segment.add( logEntry.term(), offset, ENTRY_HEADER_LENGTH + contentLength );
+    }
+
+    private Segment createSegment( long number, long prevIndex, long prevTerm ) throws IOException
+    {
+        File file = segmentFile( number );
+        StoreChannel channel = fileSystem.open( file, "rw" );
+        ByteBuffer header = ByteBuffer.allocate( SEGMENT_HEADER_LENGTH );
+        header.putLong( prevIndex );
+        header.putLong( prevTerm );
+        header.putInt( segmentHeaderChecksum( prevIndex, prevTerm ) );
+        header.flip();
+        channel.writeAll( header, 0 );
+        channel.truncate( SEGMENT_HEADER_LENGTH );
+        channel.force( false );
+        return new Segment( number, file, channel, prevIndex, prevTerm, entriesPerSegment );
+    }
+
+    /**
+     * Opens an existing segment and reads term and position of each entry in it. An incomplete or corrupt record
+     * at the end of the last segment, from a crash in the middle of an append, is cut off since it was never
+     * acknowledged. The last segment is deleted if its header is incomplete or corrupt, from a crash in the middle
+     * of {@link #createSegment(long, long, long)}, since no entries were appended to it.
+     *
+     * @return the recovered segment, or {@code null} if it was deleted.
+     */
+    private Segment recoverSegment( long number, boolean last ) throws IOException
+    {
+        File file = segmentFile( number );
+        StoreChannel channel = fileSystem.open( file, "rw" );
+        long fileSize = channel.size();
+        ByteBuffer header = ByteBuffer.allocate( SEGMENT_HEADER_LENGTH );
+        if ( fileSize >= SEGMENT_HEADER_LENGTH )
+        {
+            readFully( channel, header, 0 );
+        }
+        long prevIndex = header.getLong();
+        long prevTerm = header.getLong();
+        if ( fileSize < SEGMENT_HEADER_LENGTH || header.getInt() != segmentHeaderChecksum( prevIndex, prevTerm ) )
+        {
+            if ( !last || fileSize > SEGMENT_HEADER_LENGTH )
+            {
+                channel.close();
+                throw new IOException( "Corrupt header in raft log segment " + file );
+            }
+            deleteSegment( file, channel );
+            return null;
+        }
+        if ( !segments.isEmpty() && lastSegment().lastIndex() != prevIndex )
+        {
+            channel.close();
+            throw new IOException( String.format( "Raft log segment %s starts after index %d, but the previous " +
+                    "segment ends at index %d", file, prevIndex, lastSegment().lastIndex() ) );
+        }
+        Segment segment = new Segment( number, file, channel, prevIndex, prevTerm, entriesPerSegment );
+
+        long offset = SEGMENT_HEADER_LENGTH;
+        ByteBuffer entryHeader = ByteBuffer.allocate( ENTRY_HEADER_LENGTH );
+        while ( offset + ENTRY_HEADER_LENGTH <= fileSize )
+        {
+            entryHeader.clear();
+            readFully( channel, entryHeader, offset );
+            long entryTerm = entryHeader.getLong();
+            int contentLength = entryHeader.getInt();
+            int checksum = entryHeader.getInt();
+            if ( contentLength < 0 || offset + ENTRY_HEADER_LENGTH + contentLength > fileSize )
+            {
+                break;
+            }
+            ByteBuffer content = ByteBuffer.allocate( contentLength );
+            readFully( channel, content, offset + ENTRY_HEADER_LENGTH );
+            if ( checksum != entryChecksum( entryTerm, contentLength, content ) )
+            {
+                break;
+            }
+            segment.add( entryTerm, offset, ENTRY_HEADER_LENGTH + contentLength );
+            offset += ENTRY_HEADER_LENGTH + contentLength;
+        }
+        if ( offset < fileSize )
+        {
+            if ( !last )
+            {
+                channel.close();
+                throw new IOException( "Corrupt record at position " + offset + " in raft log segment " + file );
+            }
+            channel.truncate( offset );
+            channel.force( false );
+        }
+        return segment;
+    }
+
+    private static int segmentHeaderChecksum( long prevIndex, long prevTerm )
+    {
+        CRC32 checksum = new CRC32();
+        ByteBuffer fields = ByteBuffer.allocate( 16 );
+        fields.putLong( prevIndex );
+        fields.putLong( prevTerm );
+        checksum.update( fields.array() );
+        return (int) checksum.getValue();
+    }
+
+    private static int entryChecksum( long term, int contentLength, ByteBuffer content )
+    {
+        CRC32 checksum = new CRC32();
+        ByteBuffer fields = ByteBuffer.allocate( 12 );
+        fields.putLong( term );
+        fields.putInt( contentLength );
+        checksum.update( fields.array() );
+        checksum.update( content.duplicate() );
+        return (int) checksum.getValue();
+    }
+
+    private void deleteSegment( Segment segment ) throws IOException
+    {
+        deleteSegment( segment.file, segment.channel );
+    }
+
+    private void deleteSegment( File file, StoreChannel channel ) throws IOException
+    {
+        channel.close();
+        fileSystem.deleteFile( file );
+    }
+
+    private long[] existingSegmentNumbers()
+    {
+        File[] files = fileSystem.listFiles( directory, new FilenameFilter()
+        {
+            @Override
+            public boolean accept( File dir, String name )
+            {
+                return name.startsWith( SEGMENT_FILE_PREFIX );
+            }
+        } );
+        if ( files == null )
+        {
+            return new long[0];
+        }
+        long[] numbers = new long[files.length];
+        for ( int i = 0; i < files.length; i++ )
+        {
+            numbers[i] = Long.parseLong( files[i].getName().substring( SEGMENT_FILE_PREFIX.length() ) );
+        }
+        Arrays.sort( numbers );
+        return numbers;
+    }
+
+    private File segmentFile( long number )
+    {
+        return new File( directory, SEGMENT_FILE_PREFIX + number );
+    }
+
+    private RaftLogEntry cachedEntry( long logIndex )
+    {
+        if ( cachedEntries.length == 0 || logIndex < 0 )
+        {
+            return null;
+        }
+        int slot = (int) (logIndex % cachedEntries.length);
+        return cachedIndexes[slot] == logIndex ? cachedEntries[slot] : null;
+    }
+
+    private void cache( long logIndex, RaftLogEntry logEntry )
+    {
+        if ( cachedEntries.length > 0 )
+        {
+            int slot = (int) (logIndex % cachedEntries.length);
+            cachedIndexes[slot] = logIndex;
+            cachedEntries[slot] = logEntry;
+        }
+    }
+
+    private void uncache( long logIndex )
+    {
+        if ( cachedEntries.length > 0 )
+        {
+            int slot = (int) (logIndex % cachedEntries.length);
+            if ( cachedIndexes[slot] == logIndex )
+            {
+                cachedIndexes[slot] = -1;
+                cachedEntries[slot] = null;
+            }
+        }
+    }
+
+    private long readCommitIndex() throws IOException
+    {
+        if ( commitChannel.size() < COMMIT_INDEX_BYTES )
+        {
+            return -1;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate( COMMIT_INDEX_BYTES );
+        readFully( commitChannel, buffer, 0 );
+        return buffer.getLong();
+    }
+
+    private void storeCommitIndex( long commitIndex ) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate( COMMIT_INDEX_BYTES );
+        buffer.putLong( commitIndex );
+        buffer.flip();
+        commitChannel.writeAll( buffer, 0 );
+    }
+
+    private static void readFully( StoreChannel channel, ByteBuffer buffer, long position ) throws IOException
+    {
+        while ( buffer.hasRemaining() )
+        {
+            int read = channel.read( buffer, position );
+            if ( read == -1 )
+            {
+                throw new IOException( "Unexpected end of file at position " + position );
+            }
+            position += read;
+        }
+        buffer.flip();
+    }
+
+    private static class Segment
+    {
+        private final long number;
+        private final File file;
+        private final StoreChannel channel;
+        private final long prevIndex;
+        private final long prevTerm;
+        private long[] terms;
+        private long[] offsets;
+        private int count;
+        private long size = SEGMENT_HEADER_LENGTH;
+
+        Segment( long number, File file, StoreChannel channel, long prevIndex, long prevTerm, int capacity )
+        {
+            this.number = number;
+            this.file = file;
+            this.channel = channel;
+            this.prevIndex = prevIndex;
+            this.prevTerm = prevTerm;
+            this.terms = new long[capacity];
+            this.offsets = new long[capacity];
+        }
+
+        long lastIndex()
+        {
+            return prevIndex + count;
+        }
+
+        void add( long term, long offset, int recordLength )
+        {
+            if ( count == terms.length )
+            {   // segments written with a larger segment size configured
+                int capacity = Math.max( count * 2, 16 );
+                terms = Arrays.copyOf( terms, capacity );
+                offsets = Arrays.copyOf( offsets, capacity );
+            }
+            terms[count] = term;
+            offsets[count] = offset;
+            count++;
+            size = offset + recordLength;
+        }
+    }
+}
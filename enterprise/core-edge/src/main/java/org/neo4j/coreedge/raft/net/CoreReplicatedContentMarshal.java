@@ -35,6 +35,8 @@ import org.neo4j.coreedge.raft.replication.storeid.SeedStoreIdSerializer;
 import org.neo4j.coreedge.raft.replication.token.ReplicatedTokenRequest;
 import org.neo4j.coreedge.raft.replication.token.ReplicatedTokenRequestSerializer;
 import org.neo4j.coreedge.raft.replication.tx.ReplicatedTransaction;
+import org.neo4j.coreedge.raft.replication.tx.ReplicatedTransactionBatch;
+import org.neo4j.coreedge.raft.replication.tx.ReplicatedTransactionBatchSerializer;
 import org.neo4j.coreedge.raft.replication.tx.ReplicatedTransactionSerializer;
 
 public class CoreReplicatedContentMarshal implements ReplicatedContentMarshal<ByteBuf>
@@ -45,6 +47,7 @@ public class CoreReplicatedContentMarshal implements ReplicatedContentMarshal<By
     private static final byte SEED_STORE_ID_TYPE = 3;
     private static final byte TOKEN_REQUEST_TYPE = 4;
     private static final byte SERVICE_ASSIGNMENT_TYPE = 5;
+    private static final byte TX_BATCH_CONTENT_TYPE = 6;
 
     @Override
     public void serialize( ReplicatedContent content, ByteBuf buffer ) throws MarshallingException
@@ -79,6 +82,11 @@ public class CoreReplicatedContentMarshal implements ReplicatedContentMarshal<By
             buffer.writeByte( SERVICE_ASSIGNMENT_TYPE );
             CoreServiceAssignmentSerializer.serialize( (CoreServiceAssignment) content, buffer );
         }
+        else if ( content instanceof ReplicatedTransactionBatch )
+        {
+            buffer.writeByte( TX_BATCH_CONTENT_TYPE );
+            ReplicatedTransactionBatchSerializer.serialize( (ReplicatedTransactionBatch) content, buffer );
+        }
         else
         {
             throw new IllegalArgumentException( "Unknown content type " + content.getClass() );
@@ -115,6 +123,9 @@ public class CoreReplicatedContentMarshal implements ReplicatedContentMarshal<By
             case SERVICE_ASSIGNMENT_TYPE:
                 content = (CoreServiceAssignment) CoreServiceAssignmentSerializer.deserialize( buffer );
                 break;
+            case TX_BATCH_CONTENT_TYPE:
+                content = ReplicatedTransactionBatchSerializer.deserialize( buffer );
+                break;
             default:
                 throw new MarshallingException( String.format( "Unknown content type 0x%x", type ) );
         }
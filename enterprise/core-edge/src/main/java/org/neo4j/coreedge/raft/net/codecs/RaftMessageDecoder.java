@@ -37,7 +37,11 @@ import org.neo4j.coreedge.raft.replication.ReplicatedContentMarshal;
 import static org.neo4j.coreedge.raft.RaftMessages.Type.APPEND_ENTRIES_REQUEST;
 import static org.neo4j.coreedge.raft.RaftMessages.Type.APPEND_ENTRIES_RESPONSE;
 import static org.neo4j.coreedge.raft.RaftMessages.Type.HEARTBEAT;
+import static org.neo4j.coreedge.raft.RaftMessages.Type.LEADERSHIP_CHECK_REQUEST;
+import static org.neo4j.coreedge.raft.RaftMessages.Type.LEADERSHIP_CHECK_RESPONSE;
 import static org.neo4j.coreedge.raft.RaftMessages.Type.NEW_ENTRY_REQUEST;
+import static org.neo4j.coreedge.raft.RaftMessages.Type.READ_INDEX_REQUEST;
+import static org.neo4j.coreedge.raft.RaftMessages.Type.READ_INDEX_RESPONSE;
 import static org.neo4j.coreedge.raft.RaftMessages.Type.VOTE_REQUEST;
 import static org.neo4j.coreedge.raft.RaftMessages.Type.VOTE_RESPONSE;
 
@@ -126,6 +130,33 @@ public class RaftMessageDecoder extends MessageToMessageDecoder<ByteBuf>
 
             list.add( new RaftMessages.Heartbeat<>( from, leaderTerm, commitIndex, commitIndexTerm ) );
         }
+        else if ( messageType.equals( READ_INDEX_REQUEST ) )
+        {
+            long requestId = buffer.readLong();
+
+            list.add( new RaftMessages.ReadIndex.Request<>( from, requestId ) );
+        }
+        else if ( messageType.equals( READ_INDEX_RESPONSE ) )
+        {
+            long requestId = buffer.readLong();
+            long readIndex = buffer.readLong();
+
+            list.add( new RaftMessages.ReadIndex.Response<>( from, requestId, readIndex ) );
+        }
+        else if ( messageType.equals( LEADERSHIP_CHECK_REQUEST ) )
+        {
+            long term = buffer.readLong();
+            long round = buffer.readLong();
+
+            list.add( new RaftMessages.LeadershipCheck.Request<>( from, term, round ) );
+        }
+        else if ( messageType.equals( LEADERSHIP_CHECK_RESPONSE ) )
+        {
+            long term = buffer.readLong();
+            long round = buffer.readLong();
+
+            list.add( new RaftMessages.LeadershipCheck.Response<>( from, term, round ) );
+        }
         else
         {
             throw new IllegalArgumentException( "Unknown message type" );
@@ -104,6 +104,33 @@ public class RaftMessageEncoder extends MessageToMessageEncoder<RaftMessages.Mes
             buf.writeLong( heartbeat.commitIndexTerm() );
             buf.writeLong( heartbeat.commitIndex() );
         }
+        else if ( message instanceof RaftMessages.ReadIndex.Request )
+        {
+            RaftMessages.ReadIndex.Request<CoreMember> readIndexRequest =
+                    (RaftMessages.ReadIndex.Request<CoreMember>) message;
+            buf.writeLong( readIndexRequest.requestId() );
+        }
+        else if ( message instanceof RaftMessages.ReadIndex.Response )
+        {
+            RaftMessages.ReadIndex.Response<CoreMember> readIndexResponse =
+                    (RaftMessages.ReadIndex.Response<CoreMember>) message;
+            buf.writeLong( readIndexResponse.requestId() );
+            buf.writeLong( readIndexResponse.readIndex() );
+        }
+        else if ( message instanceof RaftMessages.LeadershipCheck.Request )
+        {
+            RaftMessages.LeadershipCheck.Request<CoreMember> checkRequest =
+                    (RaftMessages.LeadershipCheck.Request<CoreMember>) message;
+            buf.writeLong( checkRequest.term() );
+            buf.writeLong( checkRequest.round() );
+        }
+        else if ( message instanceof RaftMessages.LeadershipCheck.Response )
+        {
+            RaftMessages.LeadershipCheck.Response<CoreMember> checkResponse =
+                    (RaftMessages.LeadershipCheck.Response<CoreMember>) message;
+            buf.writeLong( checkResponse.term() );
+            buf.writeLong( checkResponse.round() );
+        }
         else
         {
             throw new IllegalArgumentException( "Unknown message type" );
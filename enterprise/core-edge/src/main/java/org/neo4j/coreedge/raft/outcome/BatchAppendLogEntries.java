@@ -49,10 +49,7 @@ public class BatchAppendLogEntries implements LogCommand
             throw new IllegalStateException( "Attempted to append over an existing entry starting at index " + baseIndex + offset );
         }
 
-        for ( int i = offset; i < entries.length; i++ )
-        {
-            raftLog.append( entries[i] );
-        }
+        raftLog.append( Arrays.copyOfRange( entries, offset, entries.length ) );
     }
 
     @Override
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.coreedge.raft.replication.shipping;
+
+/**
+ * Monitors the shipping of raft log entries from the leader to each follower,
+ * see {@link org.neo4j.kernel.monitoring.Monitors}.
+ */
+public interface LogShippingMonitor
+{
+    /**
+     * A batch of entries was sent to the follower.
+     *
+     * @param follower the follower sent to.
+     * @param entries the number of entries sent.
+     * @param bytes the estimated size of the content sent, in bytes.
+     */
+    void shipped( Object follower, int entries, long bytes );
+
+    /**
+     * The follower reported that its log matches the leader log up to and including {@code matchIndex}.
+     *
+     * @param follower the follower which matched.
+     * @param matchIndex the index the follower matches up to.
+     * @param leaderAppendIndex the append index of the leader log at this point.
+     */
+    void matched( Object follower, long matchIndex, long leaderAppendIndex );
+}
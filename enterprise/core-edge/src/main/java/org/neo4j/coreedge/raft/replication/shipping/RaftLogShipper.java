@@ -19,13 +19,21 @@
  */
 package org.neo4j.coreedge.raft.replication.shipping;
 
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
 import org.neo4j.coreedge.raft.LeaderContext;
 import org.neo4j.coreedge.raft.RaftMessages;
 import org.neo4j.coreedge.raft.log.RaftLogEntry;
 import org.neo4j.coreedge.raft.log.RaftStorageException;
 import org.neo4j.coreedge.raft.log.ReadableRaftLog;
 import org.neo4j.coreedge.raft.net.Outbound;
-import org.neo4j.coreedge.raft.DelayedRenewableTimeoutService;
+import org.neo4j.coreedge.raft.replication.tx.ReplicatedTransaction;
+import org.neo4j.coreedge.raft.replication.tx.ReplicatedTransactionBatch;
+import org.neo4j.coreedge.server.AdvertisedSocketAddress;
+import org.neo4j.coreedge.server.CoreMember;
+import org.neo4j.coreedge.raft.RenewableTimeoutService;
 import org.neo4j.coreedge.raft.RenewableTimeoutService.TimeoutName;
 import org.neo4j.helpers.Clock;
 import org.neo4j.logging.Log;
@@ -37,17 +45,13 @@ import static java.lang.String.format;
 import static org.neo4j.coreedge.raft.RenewableTimeoutService.*;
 
 /// Optimizations
-// TODO: Have several outstanding batches in catchup mode, to bridge the latency gap.
 // TODO: Bisect search for mismatch.
-// TODO: Maximum bound on size of batch in bytes, not just entry count.
 
 // Production ready
 // TODO: Replace sender service with something more appropriate. No need for queue and multiplex capability, in fact is it bad to have?
 //  TODO Should we drop messages to unconnected channels instead? Use UDP? Because we are not allowed to go below a certain cluster size (safety)
 //  TODO then leader will keep trying to replicate to gone members, thus queuing things up is hurtful.
 
-// TODO: Replace the timeout service with something better. More efficient for the constantly rescheduling use case and also useful for deterministic unit tests.
-
 // Core functionality
 // TODO: Consider making even CommitUpdate a raft-message of its own.
 
@@ -62,6 +66,23 @@ import static org.neo4j.coreedge.raft.RenewableTimeoutService.*;
  */
 public class RaftLogShipper<MEMBER>
 {
+    /**
+     * Bytes every entry takes up in an append entries request besides its content: the entry term, written by
+     * {@code RaftMessageEncoder}, and the content type, written by {@code CoreReplicatedContentMarshal}.
+     */
+    private static final int ENTRY_HEADER_BYTES = Long.BYTES + 1;
+    /**
+     * Bytes every transaction takes up besides its transaction bytes and the addresses of its session owner,
+     * as written by {@code ReplicatedTransactionSerializer}: global session id, local operation id and the
+     * length of the transaction bytes.
+     */
+    private static final int TRANSACTION_HEADER_BYTES = 2 * Long.BYTES + 2 * Long.BYTES + Integer.BYTES;
+
+    public enum Timeouts implements TimeoutName
+    {
+        RESEND
+    }
+
     enum Mode
     {
         /**
@@ -72,8 +93,9 @@ public class RaftLogShipper<MEMBER>
         MISMATCH,
         /**
          * In the catchup mode we are trying to catch up the follower as quickly
-         * as possible. The follower receives batches of entries in series until
-         * it is fully caught up.
+         * as possible. The follower receives batches of entries until it is fully
+         * caught up, with up to a configured number of batches outstanding at any
+         * point in time to bridge the latency of the link to the follower.
          */
         CATCHUP,
         /**
@@ -92,31 +114,41 @@ public class RaftLogShipper<MEMBER>
     private final MEMBER follower;
     private final MEMBER leader;
 
-    private DelayedRenewableTimeoutService timeoutService;
-    private final TimeoutName timeoutName = () -> "RESEND";
+    private final RenewableTimeoutService timeoutService;
     private final long retryTimeMillis;
     private final int catchupBatchSize;
+    private final long catchupBatchBytes;
+    private final int maxInFlightBatches;
     private final int maxAllowedShippingLag;
+    private final LogShippingMonitor monitor;
     private RenewableTimeout timeout;
 
     private long timeoutAbsoluteMillis;
     private long lastSentIndex;
 
     private long matchIndex = -1;
+    /** The last index of each catchup batch sent and not yet matched, in order. */
+    private final Deque<Long> inFlightBatches = new ArrayDeque<>();
 
     private LeaderContext lastLeaderContext;
 
     private Mode mode = Mode.MISMATCH;
 
-    public RaftLogShipper( Outbound<MEMBER> outbound, LogProvider logProvider, ReadableRaftLog raftLog, Clock clock, MEMBER leader, MEMBER follower,
-                           long leaderTerm, long leaderCommit, long retryTimeMillis, int catchupBatchSize, int maxAllowedShippingLag )
+    public RaftLogShipper( Outbound<MEMBER> outbound, LogProvider logProvider, ReadableRaftLog raftLog, Clock clock,
+                           RenewableTimeoutService timeoutService, MEMBER leader, MEMBER follower, long leaderTerm,
+                           long leaderCommit, long retryTimeMillis, int catchupBatchSize, long catchupBatchBytes,
+                           int maxInFlightBatches, int maxAllowedShippingLag, LogShippingMonitor monitor )
     {
         this.outbound = outbound;
         this.catchupBatchSize = catchupBatchSize;
+        this.catchupBatchBytes = catchupBatchBytes;
+        this.maxInFlightBatches = maxInFlightBatches;
         this.maxAllowedShippingLag = maxAllowedShippingLag;
+        this.monitor = monitor;
         this.log = logProvider.getLog( getClass() );
         this.raftLog = raftLog;
         this.clock = clock;
+        this.timeoutService = timeoutService;
         this.follower = follower;
         this.leader = leader;
         this.retryTimeMillis = retryTimeMillis;
@@ -132,22 +164,6 @@ public class RaftLogShipper<MEMBER>
     {
         log.info( "Starting log shipper to: " + follower );
 
-        try
-        {
-            timeoutService = new DelayedRenewableTimeoutService();
-            timeoutService.init();
-            timeoutService.start();
-        }
-        catch ( Throwable e )
-        {
-            // TODO: Think about how to handle this. We cannot be allowed to throw when
-            // TODO: starting the log shippers from the main RAFT handling. The timeout
-            // TODO: service is a LifeCycle.
-            // TODO: Should we have and use one system level timeout service instead?
-
-            log.error( "Failed to start log shipper to: " + follower, e );
-        }
-
         try
         {
             sendSingle( raftLog.appendIndex(), lastLeaderContext );
@@ -161,16 +177,6 @@ public class RaftLogShipper<MEMBER>
     public synchronized void stop()
     {
         log.info( "Stopping log shipper to: " + follower );
-
-        try
-        {
-            timeoutService.stop();
-            timeoutService.shutdown();
-        }
-        catch ( Throwable e )
-        {
-            log.error( "Failed to start log shipper to: " + follower, e );
-        }
         abortTimeout();
     }
 
@@ -186,6 +192,7 @@ public class RaftLogShipper<MEMBER>
         case CATCHUP:
             log.info( format( "Mismatch in mode %s from follower %s", mode, follower ) );
             mode = Mode.MISMATCH;
+            inFlightBatches.clear();
             sendSingle( lastSentIndex, leaderContext );
             break;
         }
@@ -197,11 +204,14 @@ public class RaftLogShipper<MEMBER>
     {
         boolean progress = newMatchIndex > matchIndex;
         matchIndex = max ( newMatchIndex, matchIndex );
+        monitor.matched( follower, matchIndex, raftLog.appendIndex() );
 
         switch ( mode )
         {
         case MISMATCH:
-            if( sendNextBatchAfterMatch( leaderContext ) )
+            inFlightBatches.clear();
+            lastSentIndex = matchIndex;
+            if( sendCatchupBatches( leaderContext ) )
             {
                 log.info( format( "Caught up after mismatch: %s", follower ) );
                 mode = Mode.PIPELINE;
@@ -213,13 +223,14 @@ public class RaftLogShipper<MEMBER>
             }
             break;
         case CATCHUP:
-            if ( matchIndex >= lastSentIndex )
+            if ( sendCatchupBatches( leaderContext ) )
             {
-                if ( sendNextBatchAfterMatch( leaderContext ) )
-                {
-                    log.info( format( "Caught up: %s", follower ) );
-                    mode = Mode.PIPELINE;
-                }
+                log.info( format( "Caught up: %s", follower ) );
+                mode = Mode.PIPELINE;
+            }
+            else if ( progress )
+            {
+                scheduleTimeout( retryTimeMillis );
             }
             break;
         case PIPELINE:
@@ -314,6 +325,7 @@ public class RaftLogShipper<MEMBER>
             /* fallthrough */
         case CATCHUP:
         case MISMATCH:
+            inFlightBatches.clear();
             if ( lastLeaderContext != null )
             {
                 sendSingle( lastSentIndex, lastLeaderContext );
@@ -337,7 +349,7 @@ public class RaftLogShipper<MEMBER>
         {
             timeout.cancel();
         }
-        timeout = timeoutService.create( timeoutName, deltaMillis, 0, timeout -> onScheduledTimeoutExpiry() );
+        timeout = timeoutService.create( Timeouts.RESEND, deltaMillis, 0, timeout -> onScheduledTimeoutExpiry() );
     }
 
     private void abortTimeout()
@@ -349,23 +361,36 @@ public class RaftLogShipper<MEMBER>
         timeoutAbsoluteMillis = 0;
     }
 
-    /** Returns true if this sent the last batch. */
-    private boolean sendNextBatchAfterMatch( LeaderContext leaderContext ) throws RaftStorageException
+    /**
+     * Forgets about the batches the follower has matched and sends new batches, following the last one sent,
+     * until there are as many outstanding batches as allowed or the whole log has been sent.
+     *
+     * Returns true if the last entry in the log has been sent.
+     */
+    private boolean sendCatchupBatches( LeaderContext leaderContext ) throws RaftStorageException
     {
-        long lastIndex = raftLog.appendIndex();
-
-        if ( lastIndex > matchIndex )
+        while ( !inFlightBatches.isEmpty() && inFlightBatches.peekFirst() <= matchIndex )
         {
-            long endIndex = min( lastIndex, matchIndex + catchupBatchSize );
-
-            scheduleTimeout( retryTimeMillis );
-            sendRange( matchIndex + 1, endIndex, leaderContext );
-            return endIndex == lastIndex;
+            inFlightBatches.removeFirst();
         }
-        else
+
+        long lastIndex = raftLog.appendIndex();
+        long nextIndex = max( lastSentIndex, matchIndex ) + 1;
+        while ( inFlightBatches.size() < maxInFlightBatches && nextIndex <= lastIndex )
         {
-            return true;
+            if ( inFlightBatches.isEmpty() )
+            {
+                scheduleTimeout( retryTimeMillis );
+            }
+            long endIndex = sendRange( nextIndex, min( lastIndex, nextIndex + catchupBatchSize - 1 ), leaderContext );
+            if ( endIndex < nextIndex )
+            {
+                return false;
+            }
+            inFlightBatches.addLast( endIndex );
+            nextIndex = endIndex + 1;
         }
+        return nextIndex > lastIndex;
     }
 
     private void sendCommitUpdate( LeaderContext leaderContext ) throws RaftStorageException
@@ -406,7 +431,7 @@ public class RaftLogShipper<MEMBER>
                 leader, leaderContext.term, prevLogIndex, prevLogTerm, new RaftLogEntry[] { logEntry }, leaderContext.commitIndex );
 
         outbound.send( follower, appendRequest );
-
+        monitor.shipped( follower, 1, logEntry != null ? sizeOf( logEntry ) : 0 );
     }
 
     private void sendNewEntry( long prevLogIndex, long prevLogTerm, RaftLogEntry newEntry, LeaderContext leaderContext ) throws RaftStorageException
@@ -419,18 +444,20 @@ public class RaftLogShipper<MEMBER>
                 leader, leaderContext.term, prevLogIndex, prevLogTerm, new RaftLogEntry[] { newEntry }, leaderContext.commitIndex );
 
         outbound.send( follower, appendRequest );
-
+        monitor.shipped( follower, 1, sizeOf( newEntry ) );
     }
 
-    private void sendRange( long startIndex, long endIndex, LeaderContext leaderContext ) throws RaftStorageException
+    /**
+     * Sends entries from {@code startIndex} up to {@code endIndex}, or fewer if the next entry would make the
+     * batch exceed the configured number of bytes per batch. The first entry is always sent, even if it alone
+     * exceeds that number.
+     *
+     * Returns the index of the last entry sent, or -1 if nothing was sent.
+     */
+    private long sendRange( long startIndex, long endIndex, LeaderContext leaderContext ) throws RaftStorageException
     {
         if ( startIndex > endIndex )
-            return;
-
-        lastSentIndex = endIndex;
-
-        int batchSize = (int) (endIndex - startIndex + 1);
-        RaftLogEntry[] entries = new RaftLogEntry[batchSize];
+            return -1;
 
         long prevLogIndex = startIndex - 1;
         long prevLogTerm = raftLog.readEntryTerm( prevLogIndex );
@@ -438,26 +465,77 @@ public class RaftLogShipper<MEMBER>
         if ( prevLogTerm > leaderContext.term )
         {
             log.warn( format( "Aborting send. Not leader anymore? %s, prevLogTerm=%d", leaderContext, prevLogTerm ) );
-            return;
+            return -1;
         }
 
-        RaftMessages.AppendEntries.Request<MEMBER> appendRequest = new RaftMessages.AppendEntries.Request<>(
-                leader, leaderContext.term, prevLogIndex, prevLogTerm, entries, leaderContext.commitIndex );
-
-        int offset = 0;
-        while( offset < batchSize )
+        RaftLogEntry[] entries = new RaftLogEntry[(int) (endIndex - startIndex + 1)];
+        long bytes = 0;
+        int batchSize = 0;
+        while( batchSize < entries.length )
         {
-            entries[offset] = raftLog.readLogEntry( startIndex + offset );
+            RaftLogEntry entry = raftLog.readLogEntry( startIndex + batchSize );
+            long entryBytes = sizeOf( entry );
+            if ( batchSize > 0 && bytes + entryBytes > catchupBatchBytes )
+            {
+                break;
+            }
 
-            if( entries[offset].term() > leaderContext.term )
+            if( entry.term() > leaderContext.term )
             {
-                log.warn( format( "Aborting send. Not leader anymore? %s, entryTerm=%d", leaderContext, entries[offset].term() ) );
-                return;
+                log.warn( format( "Aborting send. Not leader anymore? %s, entryTerm=%d", leaderContext, entry.term() ) );
+                return -1;
             }
 
-            offset++;
+            entries[batchSize++] = entry;
+            bytes += entryBytes;
+        }
+        if ( batchSize < entries.length )
+        {
+            entries = Arrays.copyOf( entries, batchSize );
         }
 
+        RaftMessages.AppendEntries.Request<MEMBER> appendRequest = new RaftMessages.AppendEntries.Request<>(
+                leader, leaderContext.term, prevLogIndex, prevLogTerm, entries, leaderContext.commitIndex );
+
+        lastSentIndex = startIndex + batchSize - 1;
         outbound.send( follower, appendRequest );
+        monitor.shipped( follower, batchSize, bytes );
+        return lastSentIndex;
+    }
+
+    /**
+     * Calculates the number of bytes an entry takes up on the wire. Transactions make up the bulk of the log, so
+     * the size of all other content isn't calculated, but left out. Host names of session owners are counted as
+     * one byte per character, which is exact for host names in ASCII.
+     */
+    private static long sizeOf( RaftLogEntry entry )
+    {
+        long size = ENTRY_HEADER_BYTES;
+        if ( entry.content() instanceof ReplicatedTransaction )
+        {
+            size += sizeOf( (ReplicatedTransaction) entry.content() );
+        }
+        else if ( entry.content() instanceof ReplicatedTransactionBatch )
+        {
+            size += Integer.BYTES;
+            for ( ReplicatedTransaction transaction : ((ReplicatedTransactionBatch) entry.content()).transactions() )
+            {
+                size += sizeOf( transaction );
+            }
+        }
+        return size;
+    }
+
+    private static long sizeOf( ReplicatedTransaction transaction )
+    {
+        CoreMember owner = transaction.globalSession().owner();
+        return TRANSACTION_HEADER_BYTES + sizeOf( owner.getCoreAddress() ) + sizeOf( owner.getRaftAddress() ) +
+                transaction.getTxBytes().length;
+    }
+
+    private static long sizeOf( AdvertisedSocketAddress address )
+    {
+        // host name length, host name and port, as written by AdvertisedSocketAddressEncoder
+        return Integer.BYTES + address.socketAddress().getHostString().length() + Integer.BYTES;
     }
 }
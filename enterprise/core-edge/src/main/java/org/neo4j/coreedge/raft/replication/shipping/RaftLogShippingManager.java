@@ -24,6 +24,7 @@ import java.util.HashSet;
 import java.util.Map;
 
 import org.neo4j.coreedge.raft.LeaderContext;
+import org.neo4j.coreedge.raft.RenewableTimeoutService;
 import org.neo4j.coreedge.raft.log.RaftStorageException;
 import org.neo4j.coreedge.raft.log.ReadableRaftLog;
 import org.neo4j.coreedge.raft.membership.RaftMembership;
@@ -40,12 +41,16 @@ public class RaftLogShippingManager<MEMBER> implements RaftMembership.Listener
     private final LogProvider logProvider;
     private final ReadableRaftLog raftLog;
     private final Clock clock;
+    private final RenewableTimeoutService timeoutService;
     private final MEMBER myself;
 
     private final RaftMembership<MEMBER> membership;
     private final long retryTimeMillis;
     private final int catchupBatchSize;
+    private final long catchupBatchBytes;
+    private final int maxInFlightBatches;
     private final int maxAllowedShippingLag;
+    private final LogShippingMonitor monitor;
 
     private Map<MEMBER,RaftLogShipper> logShippers = new HashMap<>();
     private LeaderContext lastLeaderContext;
@@ -53,18 +58,23 @@ public class RaftLogShippingManager<MEMBER> implements RaftMembership.Listener
     private boolean running;
 
     public RaftLogShippingManager( Outbound<MEMBER> outbound, LogProvider logProvider, ReadableRaftLog raftLog,
-            Clock clock, MEMBER myself, RaftMembership<MEMBER> membership, long retryTimeMillis,
-            int catchupBatchSize, int maxAllowedShippingLag )
+            Clock clock, RenewableTimeoutService timeoutService, MEMBER myself, RaftMembership<MEMBER> membership, long retryTimeMillis,
+            int catchupBatchSize, long catchupBatchBytes, int maxInFlightBatches, int maxAllowedShippingLag,
+            LogShippingMonitor monitor )
     {
         this.outbound = outbound;
         this.logProvider = logProvider;
         this.raftLog = raftLog;
         this.clock = clock;
+        this.timeoutService = timeoutService;
         this.myself = myself;
         this.membership = membership;
         this.retryTimeMillis = retryTimeMillis;
         this.catchupBatchSize = catchupBatchSize;
+        this.catchupBatchBytes = catchupBatchBytes;
+        this.maxInFlightBatches = maxInFlightBatches;
         this.maxAllowedShippingLag = maxAllowedShippingLag;
+        this.monitor = monitor;
 
         membership.registerListener( this );
     }
@@ -94,8 +104,9 @@ public class RaftLogShippingManager<MEMBER> implements RaftMembership.Listener
         RaftLogShipper logShipper = logShippers.get( member );
         if ( logShipper == null && !member.equals( myself ) )
         {
-            logShipper = new RaftLogShipper<>( outbound, logProvider, raftLog, clock, myself, member,
-                    leaderContext.term, leaderContext.commitIndex, retryTimeMillis, catchupBatchSize, maxAllowedShippingLag );
+            logShipper = new RaftLogShipper<>( outbound, logProvider, raftLog, clock, timeoutService, myself, member,
+                    leaderContext.term, leaderContext.commitIndex, retryTimeMillis, catchupBatchSize, catchupBatchBytes,
+                    maxInFlightBatches, maxAllowedShippingLag, monitor );
 
             logShippers.put( member, logShipper );
 
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.coreedge.raft.replication.tx;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.neo4j.coreedge.raft.replication.ReplicatedContent;
+
+import static java.lang.String.format;
+
+/**
+ * A number of {@link ReplicatedTransaction transactions} replicated together as a single raft log entry.
+ * The transactions are applied in order, each one subject to the same session tracking as if it had been
+ * replicated on its own.
+ */
+public class ReplicatedTransactionBatch implements ReplicatedContent
+{
+    private final List<ReplicatedTransaction> transactions;
+
+    public ReplicatedTransactionBatch( List<ReplicatedTransaction> transactions )
+    {
+        this.transactions = Collections.unmodifiableList( new ArrayList<>( transactions ) );
+    }
+
+    public List<ReplicatedTransaction> transactions()
+    {
+        return transactions;
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        ReplicatedTransactionBatch that = (ReplicatedTransactionBatch) o;
+        return Objects.equals( transactions, that.transactions );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash( transactions );
+    }
+
+    @Override
+    public String toString()
+    {
+        return format( "ReplicatedTransactionBatch{transactions=%s}", transactions );
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.coreedge.raft.replication.tx;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+
+import org.neo4j.coreedge.raft.replication.MarshallingException;
+
+public class ReplicatedTransactionBatchSerializer
+{
+    public static void serialize( ReplicatedTransactionBatch batch, ByteBuf buffer ) throws MarshallingException
+    {
+        List<ReplicatedTransaction> transactions = batch.transactions();
+        buffer.writeInt( transactions.size() );
+        for ( ReplicatedTransaction transaction : transactions )
+        {
+            ReplicatedTransactionSerializer.serialize( transaction, buffer );
+        }
+    }
+
+    public static ReplicatedTransactionBatch deserialize( ByteBuf buffer ) throws MarshallingException
+    {
+        int count = buffer.readInt();
+        List<ReplicatedTransaction> transactions = new ArrayList<>( count );
+        for ( int i = 0; i < count; i++ )
+        {
+            transactions.add( ReplicatedTransactionSerializer.deserialize( buffer ) );
+        }
+        return new ReplicatedTransactionBatch( transactions );
+    }
+}
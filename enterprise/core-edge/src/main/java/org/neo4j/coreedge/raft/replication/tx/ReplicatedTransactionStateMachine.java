@@ -71,6 +71,13 @@ public class ReplicatedTransactionStateMachine implements Replicator.ReplicatedC
         {
             handleTransaction( (ReplicatedTransaction) content );
         }
+        else if ( content instanceof ReplicatedTransactionBatch )
+        {
+            for ( ReplicatedTransaction transaction : ((ReplicatedTransactionBatch) content).transactions() )
+            {
+                handleTransaction( transaction );
+            }
+        }
         else if ( content instanceof CoreServiceAssignment )
         {
             // This essentially signifies a leader switch. We should properly name the content class
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.coreedge.raft.replication.tx;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.coreedge.raft.replication.ReplicatedContent;
+import org.neo4j.coreedge.raft.replication.Replicator;
+import org.neo4j.helpers.Clock;
+
+/**
+ * A {@link Replicator} which coalesces transactions replicated concurrently into a single
+ * {@link ReplicatedTransactionBatch}, so that a number of small transactions share one raft round trip
+ * and log append instead of paying for one each.
+ *
+ * The first transaction to arrive opens a batch and waits for at most the configured delay for others to join.
+ * The batch is closed early once the combined size of its transactions reaches the configured number of bytes.
+ * Each caller returns once its batch has been handed to the underlying replicator, and sees the same failure
+ * as all other transactions in the batch if that fails. Any other kind of content is replicated directly.
+ */
+public class TransactionBatchingReplicator implements Replicator
+{
+    private final Replicator delegate;
+    private final Clock clock;
+    private final long maxBatchBytes;
+    private final long maxDelayMillis;
+
+    private Batch openBatch; // guarded by this
+
+    public TransactionBatchingReplicator( Replicator delegate, Clock clock, long maxBatchBytes, long maxDelayMillis )
+    {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.maxBatchBytes = maxBatchBytes;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    @Override
+    public void replicate( ReplicatedContent content ) throws ReplicationFailedException
+    {
+        if ( !(content instanceof ReplicatedTransaction) || maxDelayMillis <= 0 )
+        {
+            delegate.replicate( content );
+            return;
+        }
+
+        Batch batch;
+        boolean opened = false;
+        synchronized ( this )
+        {
+            if ( openBatch == null )
+            {
+                openBatch = new Batch();
+                opened = true;
+            }
+            batch = openBatch;
+            batch.add( (ReplicatedTransaction) content );
+            if ( batch.bytes >= maxBatchBytes )
+            {
+                openBatch = null;
+                notifyAll();
+            }
+        }
+
+        if ( opened )
+        {
+            awaitClosed( batch );
+            batch.replicate( delegate );
+        }
+        else
+        {
+            batch.awaitReplicated();
+        }
+    }
+
+    private synchronized void awaitClosed( Batch batch )
+    {
+        long deadline = clock.currentTimeMillis() + maxDelayMillis;
+        long remaining;
+        while ( openBatch == batch && (remaining = deadline - clock.currentTimeMillis()) > 0 )
+        {
+            try
+            {
+                wait( remaining );
+            }
+            catch ( InterruptedException e )
+            {
+                // Replicate what we have so far rather than leaving the other transactions of this batch hanging
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if ( openBatch == batch )
+        {
+            openBatch = null;
+        }
+    }
+
+    @Override
+    public void subscribe( ReplicatedContentListener listener )
+    {
+        delegate.subscribe( listener );
+    }
+
+    @Override
+    public void unsubscribe( ReplicatedContentListener listener )
+    {
+        delegate.unsubscribe( listener );
+    }
+
+    private static class Batch
+    {
+        private final List<ReplicatedTransaction> transactions = new ArrayList<>();
+        private long bytes;
+        private boolean replicated;
+        private ReplicationFailedException failure;
+
+        void add( ReplicatedTransaction transaction )
+        {
+            transactions.add( transaction );
+            bytes += transaction.getTxBytes().length;
+        }
+
+        void replicate( Replicator delegate ) throws ReplicationFailedException
+        {
+            ReplicationFailedException failure = null;
+            try
+            {
+                delegate.replicate( transactions.size() == 1 ? transactions.get( 0 )
+                                                             : new ReplicatedTransactionBatch( transactions ) );
+            }
+            catch ( ReplicationFailedException e )
+            {
+                failure = e;
+                throw e;
+            }
+            catch ( RuntimeException e )
+            {
+                failure = new ReplicationFailedException( e );
+                throw e;
+            }
+            finally
+            {
+                done( failure );
+            }
+        }
+
+        private synchronized void done( ReplicationFailedException failure )
+        {
+            this.failure = failure;
+            this.replicated = true;
+            notifyAll();
+        }
+
+        synchronized void awaitReplicated() throws ReplicationFailedException
+        {
+            while ( !replicated )
+            {
+                try
+                {
+                    wait();
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                    throw new ReplicationFailedException( e );
+                }
+            }
+            if ( failure != null )
+            {
+                throw new ReplicationFailedException( failure );
+            }
+        }
+    }
+}
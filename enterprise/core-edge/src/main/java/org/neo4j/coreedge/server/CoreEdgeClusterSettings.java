@@ -27,11 +27,13 @@ import org.neo4j.graphdb.factory.Description;
 import org.neo4j.helpers.Function;
 
 import static org.neo4j.helpers.Settings.BOOLEAN;
+import static org.neo4j.helpers.Settings.BYTES;
 import static org.neo4j.helpers.Settings.DURATION;
 import static org.neo4j.helpers.Settings.INTEGER;
 import static org.neo4j.helpers.Settings.MANDATORY;
 import static org.neo4j.helpers.Settings.TRUE;
 import static org.neo4j.helpers.Settings.list;
+import static org.neo4j.helpers.Settings.min;
 import static org.neo4j.helpers.Settings.setting;
 
 @Description( "Settings for Core-Edge Clusters" )
@@ -85,10 +87,26 @@ public class CoreEdgeClusterSettings
     public static final Setting<Integer> catchup_batch_size =
             setting( "core_edge.catchup_batch_size", INTEGER, "64" );
 
+    @Description( "The maximum batch size when catching up (in bytes). A batch always holds at least one entry." )
+    public static final Setting<Long> catchup_batch_bytes =
+            setting( "core_edge.catchup_batch_bytes", BYTES, "1M" );
+
+    @Description( "The maximum number of batches sent to a follower and not yet responded to when catching up" )
+    public static final Setting<Integer> catchup_max_in_flight_batches =
+            setting( "core_edge.catchup_max_in_flight_batches", INTEGER, "4", min( 1 ) );
+
     @Description( "The maximum lag allowed before log shipping pauses (in unit of entries)" )
     public static final Setting<Integer> log_shipping_max_lag  =
             setting( "core_edge.log_shipping_max_lag", INTEGER, "256" );
 
+    @Description( "The number of entries in each raft log segment file" )
+    public static final Setting<Integer> raft_log_segment_size =
+            setting( "core_edge.raft_log_segment_size", INTEGER, "65536", min( 1 ) );
+
+    @Description( "The number of most recently appended raft log entries to keep cached in memory" )
+    public static final Setting<Integer> raft_log_entry_cache_size =
+            setting( "core_edge.raft_log_entry_cache_size", INTEGER, "1024", min( 0 ) );
+
     @Description( "The time between successive retries of replicating a transaction" )
     public static final Setting<Long> tx_replication_retry_interval  =
             setting( "core_edge.tx_replication_retry_interval", DURATION, "1s" );
@@ -98,6 +116,21 @@ public class CoreEdgeClusterSettings
     public static final Setting<Long> tx_replication_timeout  =
             setting( "core_edge.tx_replication_timeout", DURATION, "30s" );
 
+    @Description( "The maximum time a transaction waits for concurrently committing transactions to be replicated " +
+                  "together with it in a single raft log entry. Zero replicates every transaction on its own." )
+    public static final Setting<Long> tx_replication_batch_max_delay =
+            setting( "core_edge.tx_replication_batch_max_delay", DURATION, "1ms" );
+
+    @Description( "The combined size of transactions at which a replication batch is sent without waiting any longer " +
+                  "for more transactions to join it" )
+    public static final Setting<Long> tx_replication_batch_max_bytes =
+            setting( "core_edge.tx_replication_batch_max_bytes", BYTES, "256k" );
+
+    @Description( "The number of connections an edge server copies the store over concurrently, each streaming " +
+                  "a share of the store files" )
+    public static final Setting<Integer> store_copy_streams =
+            setting( "core_edge.store_copy_streams", INTEGER, "4", min( 1 ) );
+
     @Description( "Expected size of core cluster" )
     public static final Setting<Integer> expected_core_cluster_size =
             setting( "core_edge.expected_core_cluster_size", INTEGER, "3" );
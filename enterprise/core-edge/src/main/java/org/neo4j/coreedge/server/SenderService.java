@@ -94,6 +94,27 @@ public class SenderService extends LifecycleAdapter implements Outbound<Advertis
         }
     }
 
+    /**
+     * Closes the channel to the given address, if there is one. Messages sent to that address afterwards go over
+     * a new channel.
+     */
+    public void disconnect( AdvertisedSocketAddress to )
+    {
+        serviceLock.writeLock().lock();
+        try
+        {
+            Timestamped<NonBlockingChannel> timestampedChannel = lazyChannelMap.remove( to );
+            if ( timestampedChannel != null )
+            {
+                timestampedChannel.get().dispose();
+            }
+        }
+        finally
+        {
+            serviceLock.writeLock().unlock();
+        }
+    }
+
     public int activeChannelCount()
     {
         return lazyChannelMap.size();
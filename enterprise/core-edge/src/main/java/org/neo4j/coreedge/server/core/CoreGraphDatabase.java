@@ -21,11 +21,16 @@ package org.neo4j.coreedge.server.core;
 
 import java.io.File;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.neo4j.coreedge.server.EnterpriseCoreFacadeFactory;
 import org.neo4j.coreedge.discovery.DiscoveryServiceFactory;
 import org.neo4j.coreedge.discovery.HazelcastDiscoveryServiceFactory;
+import org.neo4j.coreedge.raft.NoLeaderTimeoutException;
 import org.neo4j.coreedge.raft.roles.Role;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.TransactionFailureException;
 import org.neo4j.kernel.impl.factory.DataSourceModule;
 import org.neo4j.kernel.impl.factory.EditionModule;
 import org.neo4j.kernel.impl.factory.GraphDatabaseFacade;
@@ -60,4 +65,27 @@ public class CoreGraphDatabase extends GraphDatabaseFacade
     {
         return coreEditionModule.raft().currentRole();
     }
+
+    /**
+     * Begins a transaction which sees every write committed in the cluster before this call, even when this
+     * server isn't the leader. The leader confirms its commit index as a read index and this server waits for
+     * having applied its log up to it, without anything being appended to the raft log.
+     */
+    public Transaction beginLinearizableTx( long timeout, TimeUnit unit )
+    {
+        try
+        {
+            coreEditionModule.raft().awaitReadIndex( unit.toMillis( timeout ) );
+        }
+        catch ( NoLeaderTimeoutException | TimeoutException e )
+        {
+            throw new TransactionFailureException( "Could not get a read index from the leader", e );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new TransactionFailureException( "Interrupted while waiting for a read index", e );
+        }
+        return beginTx();
+    }
 }
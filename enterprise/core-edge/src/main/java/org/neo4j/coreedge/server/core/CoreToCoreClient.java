@@ -142,7 +142,7 @@ public class CoreToCoreClient extends CoreClient implements LockResultListener
             // keep these after type-specific handlers since they process ByteBufs
             pipeline.addLast( new FileHeaderDecoder( protocol ) );
             pipeline.addLast( new FileHeaderHandler( protocol ) );
-            pipeline.addLast( new FileContentHandler( protocol, owner ) );
+            pipeline.addLast( new FileContentHandler( protocol, owner, owner ) );
 
             pipeline.addLast( new ExceptionLoggingHandler( logProvider.getLog( getClass() ) ) );
         }
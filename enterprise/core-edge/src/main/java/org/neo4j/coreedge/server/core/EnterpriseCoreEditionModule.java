@@ -50,13 +50,17 @@ import org.neo4j.coreedge.raft.replication.token.ReplicatedPropertyKeyTokenHolde
 import org.neo4j.coreedge.raft.replication.token.ReplicatedRelationshipTypeTokenHolder;
 import org.neo4j.coreedge.raft.replication.tx.ReplicatedTransactionCommitProcess;
 import org.neo4j.coreedge.raft.replication.tx.ReplicatedTransactionStateMachine;
+import org.neo4j.coreedge.raft.replication.tx.TransactionBatchingReplicator;
 import org.neo4j.coreedge.server.Expiration;
 import org.neo4j.coreedge.server.SenderService;
 import org.neo4j.coreedge.raft.RaftInstance;
 import org.neo4j.coreedge.raft.replication.RaftReplicator;
 import org.neo4j.coreedge.raft.membership.CoreMemberSetBuilder;
-import org.neo4j.coreedge.raft.log.NaiveDurableRaftLog;
+import org.neo4j.coreedge.raft.log.NaiveDurableRaftLogMigration;
 import org.neo4j.coreedge.raft.log.RaftLog;
+import org.neo4j.coreedge.raft.log.RaftStorageException;
+import org.neo4j.coreedge.raft.log.SegmentedRaftLog;
+import org.neo4j.coreedge.raft.replication.shipping.LogShippingMonitor;
 import org.neo4j.coreedge.raft.replication.shipping.RaftLogShippingManager;
 import org.neo4j.coreedge.raft.membership.RaftMembershipManager;
 import org.neo4j.coreedge.server.ExpiryScheduler;
@@ -74,6 +78,8 @@ import org.neo4j.coreedge.raft.replication.Replicator;
 import org.neo4j.coreedge.catchup.storecopy.edge.CopiedStoreRecovery;
 import org.neo4j.coreedge.catchup.storecopy.LocalDatabase;
 import org.neo4j.coreedge.catchup.storecopy.StoreFiles;
+import org.neo4j.coreedge.catchup.tx.core.SubscriptionNotifyingCommitProcess;
+import org.neo4j.coreedge.catchup.tx.core.TxSubscriptions;
 import org.neo4j.coreedge.server.AdvertisedSocketAddress;
 import org.neo4j.coreedge.server.CoreMember;
 import org.neo4j.coreedge.server.ListenSocketAddress;
@@ -102,6 +108,7 @@ import org.neo4j.kernel.impl.factory.EditionModule;
 import org.neo4j.kernel.impl.factory.GraphDatabaseFacade;
 import org.neo4j.kernel.impl.factory.GraphDatabaseFacadeFactory;
 import org.neo4j.kernel.impl.factory.PlatformModule;
+import org.neo4j.kernel.impl.locking.LockTracer;
 import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.kernel.impl.logging.LogService;
 import org.neo4j.kernel.impl.storemigration.ConfigMapUpgradeConfiguration;
@@ -112,6 +119,7 @@ import org.neo4j.kernel.impl.util.Dependencies;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.kernel.lifecycle.Lifecycle;
 import org.neo4j.kernel.lifecycle.LifecycleStatus;
+import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.udc.UsageData;
 import org.neo4j.udc.UsageDataKeys;
@@ -171,8 +179,11 @@ public class EnterpriseCoreEditionModule
         final DelayedRenewableTimeoutService raftTimeoutService = new DelayedRenewableTimeoutService();
 
         File raftLogsDirectory = createRaftLogsDirectory( platformModule.storeDir, fileSystem );
-        NaiveDurableRaftLog raftLog = new NaiveDurableRaftLog( fileSystem, raftLogsDirectory, new RaftContentSerializer(),
-                platformModule.monitors );
+        migrateNaiveDurableRaftLog( raftLogsDirectory, fileSystem, platformModule.monitors,
+                config.get( CoreEdgeClusterSettings.raft_log_segment_size ), logProvider );
+        SegmentedRaftLog raftLog = new SegmentedRaftLog( fileSystem, raftLogsDirectory, new RaftContentSerializer(),
+                platformModule.monitors, config.get( CoreEdgeClusterSettings.raft_log_segment_size ),
+                config.get( CoreEdgeClusterSettings.raft_log_entry_cache_size ) );
 
         DurableTermStore termStore = new DurableTermStore( fileSystem, raftLogsDirectory );
         DurableVoteStore voteStore = new DurableVoteStore( fileSystem, raftLogsDirectory );
@@ -182,7 +193,8 @@ public class EnterpriseCoreEditionModule
         life.add( voteStore );
 
         raft = createRaft( life, loggingOutbound, discoveryService, config, messageLogger, raftLog,
-                termStore, voteStore, myself, logProvider, raftServer, raftTimeoutService, dependencies );
+                termStore, voteStore, myself, logProvider, raftServer, raftTimeoutService, dependencies,
+                platformModule.monitors );
 
         RaftReplicator<CoreMember> replicator = new RaftReplicator<>( raft, myself,
                 new RaftOutbound( loggingOutbound ) );
@@ -190,7 +202,12 @@ public class EnterpriseCoreEditionModule
         LocalSessionPool localSessionPool = new LocalSessionPool( myself );
         GlobalSessionTracker sessionTracker = new GlobalSessionTracker();
 
-        commitProcessFactory = createCommitProcessFactory( replicator, localSessionPool, sessionTracker, dependencies, SYSTEM_CLOCK );
+        TxSubscriptions txSubscriptions = new TxSubscriptions( logProvider, new StoreIdSupplier( platformModule ),
+                platformModule.dependencies.provideDependency( TransactionIdStore.class ),
+                platformModule.dependencies.provideDependency( LogicalTransactionStore.class ) );
+
+        commitProcessFactory = createCommitProcessFactory( replicator, localSessionPool, sessionTracker, dependencies,
+                txSubscriptions, SYSTEM_CLOCK );
 
         ReplicatedIdAllocationStateMachine idAllocationStateMachine = new ReplicatedIdAllocationStateMachine( myself );
         replicator.subscribe( idAllocationStateMachine );
@@ -247,7 +264,8 @@ public class EnterpriseCoreEditionModule
                 channelInitializer ) );
         channelInitializer.setOwner( coreToCoreClient );
 
-        lockManager = dependencies.satisfyDependency( createLockManager( config, logging ) );
+        lockManager = dependencies.satisfyDependency(
+                createLockManager( config, logging, platformModule.tracers.lockTracer ) );
 
         LocalDatabase localDatabase =
                 new LocalDatabase( platformModule.storeDir,
@@ -263,6 +281,7 @@ public class EnterpriseCoreEditionModule
                 platformModule.dependencies.provideDependency( LogicalTransactionStore.class ),
                 new DataSourceSupplier( platformModule ),
                 new CheckpointerSupplier( platformModule.dependencies ),
+                txSubscriptions,
                 config.get( CoreEdgeClusterSettings.transaction_listen_address ) );
 
         life.add( CoreServerStartupProcess.createLifeSupport(
@@ -294,10 +313,29 @@ public class EnterpriseCoreEditionModule
 
     }
 
+    private void migrateNaiveDurableRaftLog( File raftLogsDirectory, FileSystemAbstraction fileSystem,
+                                             Monitors monitors, int entriesPerSegment, LogProvider logProvider )
+    {
+        NaiveDurableRaftLogMigration migration = new NaiveDurableRaftLogMigration( fileSystem, raftLogsDirectory,
+                new RaftContentSerializer(), monitors, entriesPerSegment, logProvider.getLog( getClass() ) );
+        if ( migration.isNeeded() )
+        {
+            try
+            {
+                migration.migrate();
+            }
+            catch ( IOException | RaftStorageException e )
+            {
+                throw new RuntimeException( "Failed to migrate the raft log in " + raftLogsDirectory, e );
+            }
+        }
+    }
+
     public static CommitProcessFactory createCommitProcessFactory( final Replicator replicator,
                                                                    final LocalSessionPool localSessionPool,
                                                                    final GlobalSessionTracker sessionTracker,
                                                                    final Dependencies dependencies,
+                                                                   final TxSubscriptions txSubscriptions,
                                                                    final Clock clock )
     {
         return ( appender, applier, indexUpdatesValidator, config ) -> {
@@ -306,9 +344,14 @@ public class EnterpriseCoreEditionModule
             dependencies.satisfyDependencies( localCommit );
 
             ReplicatedTransactionStateMachine replicatedTxListener = new ReplicatedTransactionStateMachine(
-                    localCommit, sessionTracker, localSessionPool.getGlobalSession() );
+                    new SubscriptionNotifyingCommitProcess( localCommit, txSubscriptions ), sessionTracker,
+                    localSessionPool.getGlobalSession() );
+
+            Replicator batchingReplicator = new TransactionBatchingReplicator( replicator, clock,
+                    config.get( CoreEdgeClusterSettings.tx_replication_batch_max_bytes ),
+                    config.get( CoreEdgeClusterSettings.tx_replication_batch_max_delay ) );
 
-            return new ReplicatedTransactionCommitProcess( replicator, localSessionPool, replicatedTxListener, clock,
+            return new ReplicatedTransactionCommitProcess( batchingReplicator, localSessionPool, replicatedTxListener, clock,
                     config.get( CoreEdgeClusterSettings.tx_replication_retry_interval ),
                     config.get( CoreEdgeClusterSettings.tx_replication_timeout ) );
         };
@@ -326,7 +369,8 @@ public class EnterpriseCoreEditionModule
                                                         LogProvider logProvider,
                                                         RaftServer<CoreMember> raftServer,
                                                         DelayedRenewableTimeoutService raftTimeoutService,
-                                                        Dependencies dependencies)
+                                                        Dependencies dependencies,
+                                                        Monitors monitors )
     {
         LoggingInbound loggingRaftInbound = new LoggingInbound( raftServer, messageLogger, myself.getRaftAddress() );
 
@@ -346,14 +390,18 @@ public class EnterpriseCoreEditionModule
                 logProvider, expectedClusterSize, electionTimeout, SYSTEM_CLOCK, config.get( CoreEdgeClusterSettings.join_catch_up_timeout ) );
 
         RaftLogShippingManager<CoreMember> logShipping = new RaftLogShippingManager<>( new RaftOutbound( outbound ), logProvider, raftLog,
-                SYSTEM_CLOCK, myself, raftMembershipManager, electionTimeout, config.get( CoreEdgeClusterSettings.catchup_batch_size ),
-                config.get( CoreEdgeClusterSettings.log_shipping_max_lag ) );
+                SYSTEM_CLOCK, raftTimeoutService, myself, raftMembershipManager, electionTimeout,
+                config.get( CoreEdgeClusterSettings.catchup_batch_size ),
+                config.get( CoreEdgeClusterSettings.catchup_batch_bytes ),
+                config.get( CoreEdgeClusterSettings.catchup_max_in_flight_batches ),
+                config.get( CoreEdgeClusterSettings.log_shipping_max_lag ),
+                monitors.newMonitor( LogShippingMonitor.class ) );
 
         RaftInstance<CoreMember> raftInstance = new RaftInstance<>(
                 myself, termStore, voteStore, raftLog, electionTimeout, heartbeatInterval,
                 raftTimeoutService, loggingRaftInbound,
                 new RaftOutbound( outbound ), leaderWaitTimeout, logProvider,
-                raftMembershipManager, logShipping, dependencies );
+                raftMembershipManager, logShipping, dependencies, SYSTEM_CLOCK );
 
         life.add( new RaftDiscoveryServiceConnector( discoveryService, raftInstance ) );
 
@@ -398,9 +446,9 @@ public class EnterpriseCoreEditionModule
         return new ReplicatedIdGeneratorFactory( fileSystem, idRangeAcquirer, logProvider );
     }
 
-    protected Locks createLockManager( final Config config, final LogService logging )
+    protected Locks createLockManager( final Config config, final LogService logging, final LockTracer lockTracer )
     {
-        Locks local = CommunityEditionModule.createLockManager( config, logging );
+        Locks local = CommunityEditionModule.createLockManager( config, logging, lockTracer );
 
         return local;
     }
@@ -34,6 +34,7 @@ import org.neo4j.coreedge.catchup.tx.edge.TxPollingClient;
 import org.neo4j.coreedge.catchup.tx.edge.TxPullClient;
 import org.neo4j.coreedge.discovery.DiscoveryServiceFactory;
 import org.neo4j.coreedge.discovery.EdgeDiscoveryService;
+import org.neo4j.coreedge.server.CoreEdgeClusterSettings;
 import org.neo4j.coreedge.server.Expiration;
 import org.neo4j.coreedge.server.ExpiryScheduler;
 import org.neo4j.function.Supplier;
@@ -101,7 +102,8 @@ public class EnterpriseEdgeEditionModule extends EditionModule
 
         GraphDatabaseFacade graphDatabaseFacade = platformModule.graphDatabaseFacade;
 
-        lockManager = dependencies.satisfyDependency( createLockManager( config, logging ) );
+        lockManager = dependencies.satisfyDependency(
+                createLockManager( config, logging, platformModule.tracers.lockTracer ) );
 
         idGeneratorFactory = dependencies.satisfyDependency( new DefaultIdGeneratorFactory( fileSystem ) );
 
@@ -147,13 +149,21 @@ public class EnterpriseEdgeEditionModule extends EditionModule
         ExpiryScheduler expiryScheduler = new ExpiryScheduler( platformModule.jobScheduler );
         Expiration expiration = new Expiration( SYSTEM_CLOCK );
 
-        EdgeToCoreClient.ChannelInitializer channelInitializer = new EdgeToCoreClient.ChannelInitializer( logProvider );
-        EdgeToCoreClient edgeToCoreClient = life.add( new EdgeToCoreClient( logProvider, expiryScheduler, expiration,
-                channelInitializer ) );
-        channelInitializer.setOwner( edgeToCoreClient );
+        // The store is copied over several connections concurrently, the first of which also pulls transactions
+        EdgeToCoreClient[] edgeToCoreClients =
+                new EdgeToCoreClient[config.get( CoreEdgeClusterSettings.store_copy_streams )];
+        for ( int i = 0; i < edgeToCoreClients.length; i++ )
+        {
+            EdgeToCoreClient.ChannelInitializer channelInitializer =
+                    new EdgeToCoreClient.ChannelInitializer( logProvider );
+            edgeToCoreClients[i] = life.add( new EdgeToCoreClient( logProvider, expiryScheduler, expiration,
+                    channelInitializer ) );
+            channelInitializer.setOwner( edgeToCoreClients[i] );
+        }
+        EdgeToCoreClient edgeToCoreClient = edgeToCoreClients[0];
 
-        ApplyPulledTransactions applyPulledTransactions =
-                new ApplyPulledTransactions( logProvider, transactionApplierSupplier );
+        ApplyPulledTransactions applyPulledTransactions = new ApplyPulledTransactions( logProvider,
+                transactionApplierSupplier, platformModule.dependencies.provideDependency( TransactionIdStore.class ) );
 
         TxPollingClient txPollingClient = life.add(
                 new TxPollingClient( platformModule.jobScheduler, config.get( HaSettings.pull_interval ),
@@ -162,7 +172,7 @@ public class EnterpriseEdgeEditionModule extends EditionModule
 
         StoreFetcher storeFetcher = new StoreFetcher( platformModule.logging.getInternalLogProvider(),
                 new DefaultFileSystemAbstraction(), platformModule.pageCache,
-                new StoreCopyClient( edgeToCoreClient ), new TxPullClient( edgeToCoreClient ),
+                new StoreCopyClient( edgeToCoreClients ), new TxPullClient( edgeToCoreClient ),
                 new TransactionLogCatchUpFactory() );
 
         life.add( new EdgeServerStartupProcess( storeFetcher,
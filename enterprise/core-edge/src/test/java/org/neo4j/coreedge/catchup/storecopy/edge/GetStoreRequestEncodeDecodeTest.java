@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.coreedge.catchup.storecopy.edge;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Test;
+
+import org.neo4j.coreedge.catchup.CatchupServerProtocol;
+import org.neo4j.coreedge.catchup.storecopy.StoreFileChecksum;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import static org.neo4j.coreedge.catchup.CatchupServerProtocol.NextMessage;
+
+public class GetStoreRequestEncodeDecodeTest
+{
+    @Test
+    public void shouldEncodeAndDecodeResumableFiles()
+    {
+        CatchupServerProtocol protocol = new CatchupServerProtocol();
+        protocol.expect( NextMessage.GET_STORE );
+
+        EmbeddedChannel channel = new EmbeddedChannel( new GetStoreRequestEncoder(),
+                new GetStoreRequestDecoder( protocol ) );
+
+        // given
+        GetStoreRequest sent = new GetStoreRequest( asList(
+                new StoreFileChecksum( "neostore.nodestore.db", 65536, 1234 ),
+                new StoreFileChecksum( "neostore.relationshipstore.db", 131072, 5678 ) ) );
+
+        // when
+        channel.writeOutbound( sent );
+        channel.writeInbound( channel.readOutbound() );
+
+        // then
+        GetStoreRequest received = (GetStoreRequest) channel.readInbound();
+        assertNotSame( sent, received );
+        assertEquals( sent, received );
+    }
+
+    @Test
+    public void shouldEncodeAndDecodePartition()
+    {
+        CatchupServerProtocol protocol = new CatchupServerProtocol();
+        protocol.expect( NextMessage.GET_STORE );
+
+        EmbeddedChannel channel = new EmbeddedChannel( new GetStoreRequestEncoder(),
+                new GetStoreRequestDecoder( protocol ) );
+
+        // given
+        GetStoreRequest sent = new GetStoreRequest( asList(
+                new StoreFileChecksum( "neostore.nodestore.db", 65536, 1234 ) ), 2, 3 );
+
+        // when
+        channel.writeOutbound( sent );
+        channel.writeInbound( channel.readOutbound() );
+
+        // then
+        GetStoreRequest received = (GetStoreRequest) channel.readInbound();
+        assertEquals( sent, received );
+        assertEquals( 2, received.partition() );
+        assertEquals( 3, received.partitions() );
+    }
+}
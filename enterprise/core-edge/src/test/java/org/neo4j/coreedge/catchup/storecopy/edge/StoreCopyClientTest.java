@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.coreedge.catchup.storecopy.edge;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.neo4j.coreedge.catchup.storecopy.StoreFileChecksum;
+import org.neo4j.coreedge.server.AdvertisedSocketAddress;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import static org.neo4j.coreedge.server.AdvertisedSocketAddress.address;
+
+public class StoreCopyClientTest
+{
+    @Test
+    public void shouldRequestOnePartitionOfTheFilesOverEachClient() throws Exception
+    {
+        // given
+        AdvertisedSocketAddress localhost = address( "localhost:1980" );
+        Collection<StoreFileChecksum> resumableFiles = asList(
+                new StoreFileChecksum( "neostore.nodestore.db", 65536, 1234 ) );
+        StoreFileStreams storeFileStreams = mock( StoreFileStreams.class );
+        when( storeFileStreams.resumableFiles() ).thenReturn( resumableFiles );
+
+        CoreClient first = coreClient( 12 );
+        CoreClient second = coreClient( 12 );
+        StoreCopyClient storeCopyClient = new StoreCopyClient( first, second );
+
+        // when
+        storeCopyClient.copyStoreFiles( localhost, storeFileStreams );
+
+        // then
+        verify( first ).requestStore( localhost, resumableFiles, 0, 2 );
+        verify( second ).requestStore( localhost, resumableFiles, 1, 2 );
+    }
+
+    @Test
+    public void shouldPullTransactionsFromTheEarliestCheckpointOfAllPartitions() throws Exception
+    {
+        // given
+        StoreCopyClient storeCopyClient = new StoreCopyClient( coreClient( 12 ), coreClient( 10 ), coreClient( 11 ) );
+
+        // when
+        long lastFlushedTxId = storeCopyClient.copyStoreFiles( address( "localhost:1980" ),
+                mock( StoreFileStreams.class ) );
+
+        // then
+        assertEquals( 10, lastFlushedTxId );
+    }
+
+    @Test( expected = StoreCopyFailedException.class )
+    public void shouldFailIfAnyPartitionFails() throws Exception
+    {
+        // given
+        CoreClient failing = mock( CoreClient.class );
+        List<StoreFileStreamingCompleteListener> listeners = listeners( failing );
+        doAnswer( invocation -> {
+            listeners.forEach( listener -> listener.onFileStreamingFailed( new Exception() ) );
+            return null;
+        } ).when( failing ).requestStore( any( AdvertisedSocketAddress.class ),
+                anyCollectionOf( StoreFileChecksum.class ), anyInt(), anyInt() );
+
+        StoreCopyClient storeCopyClient = new StoreCopyClient( coreClient( 12 ), failing );
+
+        // when
+        storeCopyClient.copyStoreFiles( address( "localhost:1980" ), mock( StoreFileStreams.class ) );
+    }
+
+    /**
+     * @return a client which completes streaming its partition as soon as it is requested.
+     */
+    private static CoreClient coreClient( long lastCommittedTxBeforeStoreCopy )
+    {
+        CoreClient coreClient = mock( CoreClient.class );
+        List<StoreFileStreamingCompleteListener> listeners = listeners( coreClient );
+        doAnswer( invocation -> {
+            listeners.forEach( listener -> listener.onFileStreamingComplete( lastCommittedTxBeforeStoreCopy ) );
+            return null;
+        } ).when( coreClient ).requestStore( any( AdvertisedSocketAddress.class ),
+                anyCollectionOf( StoreFileChecksum.class ), anyInt(), anyInt() );
+        return coreClient;
+    }
+
+    private static List<StoreFileStreamingCompleteListener> listeners( CoreClient coreClient )
+    {
+        List<StoreFileStreamingCompleteListener> listeners = new ArrayList<>();
+        doAnswer( invocation -> listeners.add( (StoreFileStreamingCompleteListener) invocation.getArguments()[0] ) )
+                .when( coreClient ).addStoreFileStreamingCompleteListener(
+                        any( StoreFileStreamingCompleteListener.class ) );
+        return listeners;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.coreedge.catchup.storecopy.edge;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.zip.CRC32;
+
+import org.junit.Test;
+
+import org.neo4j.coreedge.catchup.storecopy.StoreFileChecksum;
+import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import static org.neo4j.coreedge.catchup.storecopy.core.FileChunkStream.CHUNK_SIZE;
+
+public class StreamToDiskTest
+{
+    private final File storeDir = new File( "temp-copy" );
+
+    @Test
+    public void shouldOfferWholeChunksOfFilesFromEarlierCopyForResuming() throws Exception
+    {
+        // given
+        EphemeralFileSystemAbstraction fs = new EphemeralFileSystemAbstraction();
+        StreamToDisk streams = new StreamToDisk( storeDir, fs );
+        byte[] content = new byte[CHUNK_SIZE * 2 + 10];
+        for ( int i = 0; i < content.length; i++ )
+        {
+            content[i] = (byte) i;
+        }
+        write( fs, "neostore.nodestore.db", content );
+        write( fs, "neostore", new byte[10] );
+
+        // when
+        Collection<StoreFileChecksum> resumableFiles = streams.resumableFiles();
+
+        // then
+        CRC32 checksum = new CRC32();
+        checksum.update( content, 0, CHUNK_SIZE * 2 );
+        assertEquals( 1, resumableFiles.size() );
+        assertEquals( new StoreFileChecksum( "neostore.nodestore.db", CHUNK_SIZE * 2, checksum.getValue() ),
+                resumableFiles.iterator().next() );
+    }
+
+    @Test
+    public void shouldDeleteFilesFromEarlierCopyWhichWereNotStreamedAgain() throws Exception
+    {
+        // given
+        EphemeralFileSystemAbstraction fs = new EphemeralFileSystemAbstraction();
+        fs.mkdirs( storeDir );
+        write( fs, "neostore", new byte[10] );
+        write( fs, "neostore.transaction.db.0", new byte[10] );
+
+        // when
+        StreamToDisk streams = new StreamToDisk( storeDir, fs );
+        streams.truncate( "neostore", 4 );
+        streams.deleteFilesNotStreamed();
+
+        // then
+        assertEquals( 4, fs.getFileSize( new File( storeDir, "neostore" ) ) );
+        assertFalse( fs.fileExists( new File( storeDir, "neostore.transaction.db.0" ) ) );
+        assertTrue( fs.fileExists( storeDir ) );
+    }
+
+    private void write( FileSystemAbstraction fs, String fileName, byte[] content ) throws Exception
+    {
+        try ( StoreChannel channel = fs.open( new File( storeDir, fileName ), "rw" ) )
+        {
+            channel.writeAll( ByteBuffer.wrap( content ) );
+        }
+    }
+}
@@ -57,4 +57,25 @@ public class TxPullRequestEncodeDecodeTest
         assertEquals( sent, received );
     }
 
+    @Test
+    public void shouldEncodeAndDecodeSubscriptionRequestMessage()
+    {
+        CatchupServerProtocol protocol = new CatchupServerProtocol();
+        protocol.expect( NextMessage.TX_PULL );
+
+        EmbeddedChannel channel = new EmbeddedChannel( new TxPullRequestEncoder(),
+                new TxPullRequestDecoder( protocol ) );
+
+        // given
+        TxPullRequest sent = new TxPullRequest( 23, true );
+
+        // when
+        channel.writeOutbound( sent );
+        channel.writeInbound( channel.readOutbound() );
+
+        // then
+        TxPullRequest received = (TxPullRequest) channel.readInbound();
+        assertNotSame( sent, received );
+        assertEquals( sent, received );
+    }
 }
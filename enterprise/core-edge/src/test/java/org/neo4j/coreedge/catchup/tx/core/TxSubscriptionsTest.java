@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.coreedge.catchup.tx.core;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Test;
+
+import org.neo4j.coreedge.catchup.CatchupServerProtocol;
+import org.neo4j.coreedge.catchup.ResponseMessageType;
+import org.neo4j.coreedge.catchup.tx.edge.TxPullRequest;
+import org.neo4j.coreedge.catchup.tx.edge.TxPullResponse;
+import org.neo4j.kernel.impl.store.StoreId;
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.IOCursor;
+import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
+import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
+import org.neo4j.kernel.impl.transaction.log.entry.OnePhaseCommit;
+import org.neo4j.logging.NullLogProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import static org.neo4j.function.Suppliers.singleton;
+
+public class TxSubscriptionsTest
+{
+    private final TransactionIdStore transactionIdStore = mock( TransactionIdStore.class );
+    private final LogicalTransactionStore logicalTransactionStore = mock( LogicalTransactionStore.class );
+    private final TxSubscriptions subscriptions = new TxSubscriptions( NullLogProvider.getInstance(),
+            singleton( new StoreId( 1, 2, 3, 4 ) ), singleton( transactionIdStore ),
+            singleton( logicalTransactionStore ) );
+
+    @Test
+    public void shouldPushTransactionsAsTheyGetCommitted() throws Exception
+    {
+        // given
+        EmbeddedChannel channel = channel();
+        committed( 11, 12 );
+
+        // when
+        channel.writeInbound( new TxPullRequest( 10, true ) );
+        channel.runPendingTasks();
+
+        // then
+        assertPushed( channel, 11, 12 );
+
+        // when
+        committed( 13 );
+        subscriptions.transactionsCommitted();
+        channel.runPendingTasks();
+
+        // then
+        assertPushed( channel, 13 );
+    }
+
+    @Test
+    public void shouldKeepSubscriptionWhenSubscribingAgainOnSameChannel() throws Exception
+    {
+        // given
+        EmbeddedChannel channel = channel();
+        committed( 11 );
+        channel.writeInbound( new TxPullRequest( 10, true ) );
+        channel.runPendingTasks();
+        assertPushed( channel, 11 );
+
+        // when
+        channel.writeInbound( new TxPullRequest( 10, true ) );
+        channel.runPendingTasks();
+
+        // then
+        assertNull( channel.readOutbound() );
+    }
+
+    @Test
+    public void shouldNotPushToClosedChannels() throws Exception
+    {
+        // given
+        EmbeddedChannel channel = channel();
+        committed( 11 );
+        channel.writeInbound( new TxPullRequest( 10, true ) );
+        channel.runPendingTasks();
+        assertPushed( channel, 11 );
+
+        // when
+        channel.close();
+        committed( 12 );
+        subscriptions.transactionsCommitted();
+        channel.runPendingTasks();
+
+        // then
+        assertNull( channel.readOutbound() );
+    }
+
+    @Test
+    public void shouldStopPushingWhileChannelIsNotWritableAndResumeWhenItIs() throws Exception
+    {
+        // given
+        EmbeddedChannel channel = channel();
+        committed( 11 );
+        channel.writeInbound( new TxPullRequest( 10, true ) );
+        channel.runPendingTasks();
+        assertPushed( channel, 11 );
+
+        // when
+        setWritable( channel, false );
+        committed( 12 );
+        subscriptions.transactionsCommitted();
+        channel.runPendingTasks();
+
+        // then
+        assertNull( channel.readOutbound() );
+
+        // when
+        setWritable( channel, true );
+        channel.runPendingTasks();
+
+        // then
+        assertPushed( channel, 12 );
+    }
+
+    private EmbeddedChannel channel()
+    {
+        CatchupServerProtocol protocol = new CatchupServerProtocol();
+        return new EmbeddedChannel( new TxPullRequestHandler( protocol, singleton( new StoreId( 1, 2, 3, 4 ) ),
+                singleton( transactionIdStore ), singleton( logicalTransactionStore ), subscriptions ) );
+    }
+
+    private static void setWritable( EmbeddedChannel channel, boolean writable )
+    {
+        // Goes through the writability changed event of the pipeline, as when the outbound buffer fills up and drains
+        channel.unsafe().outboundBuffer().setUserDefinedWritability( 1, writable );
+    }
+
+    private void committed( long... txIds ) throws Exception
+    {
+        CommittedTransactionRepresentation[] transactions = new CommittedTransactionRepresentation[txIds.length];
+        for ( int i = 0; i < txIds.length; i++ )
+        {
+            transactions[i] = mock( CommittedTransactionRepresentation.class );
+            when( transactions[i].getCommitEntry() ).thenReturn( new OnePhaseCommit( txIds[i], 0 ) );
+        }
+        when( transactionIdStore.getLastCommittedTransactionId() ).thenReturn( txIds[txIds.length - 1] );
+        when( logicalTransactionStore.getTransactions( txIds[0] ) ).thenReturn( cursor( transactions ) );
+    }
+
+    private static void assertPushed( EmbeddedChannel channel, long... txIds )
+    {
+        for ( long txId : txIds )
+        {
+            assertEquals( ResponseMessageType.TX, channel.readOutbound() );
+            assertEquals( txId, ((TxPullResponse) channel.readOutbound()).tx().getCommitEntry().getTxId() );
+        }
+        assertEquals( ResponseMessageType.TX_STREAM_FINISHED, channel.readOutbound() );
+        assertEquals( txIds[txIds.length - 1],
+                ((TxStreamFinishedResponse) channel.readOutbound()).lastTransactionIdSent() );
+    }
+
+    private static IOCursor<CommittedTransactionRepresentation> cursor(
+            CommittedTransactionRepresentation... transactions )
+    {
+        final Iterator<CommittedTransactionRepresentation> iterator = Arrays.asList( transactions ).iterator();
+        return new IOCursor<CommittedTransactionRepresentation>()
+        {
+            private CommittedTransactionRepresentation current;
+
+            @Override
+            public boolean next()
+            {
+                current = iterator.hasNext() ? iterator.next() : null;
+                return current != null;
+            }
+
+            @Override
+            public CommittedTransactionRepresentation get()
+            {
+                return current;
+            }
+
+            @Override
+            public void close()
+            {
+            }
+        };
+    }
+}
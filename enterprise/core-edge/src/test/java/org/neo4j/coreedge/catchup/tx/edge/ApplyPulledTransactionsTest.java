@@ -19,20 +19,29 @@
  */
 package org.neo4j.coreedge.catchup.tx.edge;
 
-import io.netty.channel.ChannelHandlerContext;
-import io.netty.channel.ChannelPipeline;
+import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 import org.neo4j.kernel.api.exceptions.TransactionFailureException;
+import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.store.StoreId;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
+import org.neo4j.kernel.impl.transaction.log.entry.OnePhaseCommit;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.LogProvider;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -40,47 +49,167 @@ import static org.neo4j.function.Suppliers.singleton;
 
 public class ApplyPulledTransactionsTest
 {
+    private final StoreId storeId = new StoreId( 1, 1, 1, 1 );
+    private final TransactionIdStore transactionIdStore = mock( TransactionIdStore.class );
+
+    @Before
+    public void setUp()
+    {
+        when( transactionIdStore.getLastCommittedTransactionId() ).thenReturn( 10L );
+    }
+
     @Test
-    public void shouldApplyTransaction() throws Exception
+    public void shouldApplyTransactionsInOneBatchWhenStreamCompletes() throws Exception
     {
         // given
-        StoreId storeId = new StoreId( 1, 1, 1, 1 );
+        TransactionApplier transactionApplier = mock( TransactionApplier.class );
+        ApplyPulledTransactions handler = new ApplyPulledTransactions( mock( LogProvider.class ),
+                singleton( transactionApplier ), singleton( transactionIdStore ) );
+
+        // when
+        handler.onTxReceived( response( 11 ) );
+        handler.onTxReceived( response( 12 ) );
 
+        // then
+        verify( transactionApplier, never() ).appendToLogAndApplyToStore( any( TransactionToApply.class ) );
+
+        // when
+        handler.onTxStreamingComplete( 12 );
+
+        // then
+        assertBatch( transactionApplier, 11, 12 );
+    }
+
+    @Test
+    public void shouldIgnoreTransactionsAlreadyReceived() throws Exception
+    {
+        // given
         TransactionApplier transactionApplier = mock( TransactionApplier.class );
         ApplyPulledTransactions handler = new ApplyPulledTransactions( mock( LogProvider.class ),
-                singleton( transactionApplier ) );
+                singleton( transactionApplier ), singleton( transactionIdStore ) );
 
         // when
-        ChannelHandlerContext channelHandlerContext = mock( ChannelHandlerContext.class );
-        when( channelHandlerContext.pipeline() ).thenReturn( mock( ChannelPipeline.class ) );
+        handler.onTxReceived( response( 11 ) );
+        handler.onTxReceived( response( 11 ) );
+        handler.onTxReceived( response( 12 ) );
+        handler.onTxStreamingComplete( 12 );
 
-        handler.onTxReceived( new TxPullResponse( storeId, mock( CommittedTransactionRepresentation.class ) ) );
+        // then
+        assertBatch( transactionApplier, 11, 12 );
+    }
+
+    @Test
+    public void shouldIgnoreTransactionsAlreadyCommittedToTheStore() throws Exception
+    {
+        // given
+        TransactionApplier transactionApplier = mock( TransactionApplier.class );
+        ApplyPulledTransactions handler = new ApplyPulledTransactions( mock( LogProvider.class ),
+                singleton( transactionApplier ), singleton( transactionIdStore ) );
+
+        // when
+        handler.onTxReceived( response( 9 ) );
+        handler.onTxReceived( response( 10 ) );
+        handler.onTxReceived( response( 11 ) );
+        handler.onTxStreamingComplete( 11 );
 
         // then
-        verify( transactionApplier ).appendToLogAndApplyToStore( any( CommittedTransactionRepresentation.class ) );
+        assertBatch( transactionApplier, 11 );
+        assertFalse( handler.needsResubscribe() );
     }
 
     @Test
     public void shouldLogIfTransactionCannotBeApplied() throws Exception
     {
         // given
-        StoreId storeId = new StoreId( 1, 1, 1, 1 );
-
         TransactionApplier transactionApplier = mock( TransactionApplier.class );
         doThrow( TransactionFailureException.class ).when( transactionApplier ).appendToLogAndApplyToStore( any(
-                CommittedTransactionRepresentation.class ) );
-
+                TransactionToApply.class ) );
 
         LogProvider logProvider = mock( LogProvider.class );
         Log log = mock( Log.class );
         when( logProvider.getLog( ApplyPulledTransactions.class ) ).thenReturn( log );
 
-        ApplyPulledTransactions handler = new ApplyPulledTransactions( logProvider, singleton( transactionApplier ) );
+        ApplyPulledTransactions handler = new ApplyPulledTransactions( logProvider, singleton( transactionApplier ),
+                singleton( transactionIdStore ) );
+
+        // when
+        handler.onTxReceived( response( 11 ) );
+
+        // then
+        verify( log, never() ).error( anyString(), any( Throwable.class ) );
 
         // when
-        handler.onTxReceived( new TxPullResponse( storeId, mock( CommittedTransactionRepresentation.class ) ) );
+        handler.onTxStreamingComplete( 11 );
 
         // then
         verify( log ).error( anyString(), any( Throwable.class ) );
     }
+
+    @Test
+    public void shouldDropQueuedTransactionsAndStartOverFromStoreWhenApplyingFails() throws Exception
+    {
+        // given
+        TransactionApplier transactionApplier = mock( TransactionApplier.class );
+        doThrow( TransactionFailureException.class ).when( transactionApplier ).appendToLogAndApplyToStore( any(
+                TransactionToApply.class ) );
+        ApplyPulledTransactions handler = new ApplyPulledTransactions( mock( LogProvider.class ),
+                singleton( transactionApplier ), singleton( transactionIdStore ) );
+        handler.onTxReceived( response( 11 ) );
+        handler.onTxReceived( response( 12 ) );
+        assertFalse( handler.needsResubscribe() );
+
+        // when
+        handler.onTxStreamingComplete( 12 );
+
+        // then
+        assertTrue( handler.needsResubscribe() );
+        assertFalse( handler.needsResubscribe() );
+
+        // when
+        reset( transactionApplier );
+        handler.onTxReceived( response( 11 ) );
+        handler.onTxReceived( response( 12 ) );
+        handler.onTxStreamingComplete( 12 );
+
+        // then
+        assertBatch( transactionApplier, 11, 12 );
+    }
+
+    @Test
+    public void shouldIgnoreTransactionsNotFollowingOnFromTheLastQueuedAndResubscribe() throws Exception
+    {
+        // given
+        TransactionApplier transactionApplier = mock( TransactionApplier.class );
+        ApplyPulledTransactions handler = new ApplyPulledTransactions( mock( LogProvider.class ),
+                singleton( transactionApplier ), singleton( transactionIdStore ) );
+
+        // when
+        handler.onTxReceived( response( 11 ) );
+        handler.onTxReceived( response( 13 ) );
+        handler.onTxStreamingComplete( 13 );
+
+        // then
+        assertBatch( transactionApplier, 11 );
+        assertTrue( handler.needsResubscribe() );
+    }
+
+    private TxPullResponse response( long txId )
+    {
+        CommittedTransactionRepresentation tx = mock( CommittedTransactionRepresentation.class );
+        when( tx.getCommitEntry() ).thenReturn( new OnePhaseCommit( txId, 0 ) );
+        return new TxPullResponse( storeId, tx );
+    }
+
+    private static void assertBatch( TransactionApplier transactionApplier, long... txIds ) throws Exception
+    {
+        ArgumentCaptor<TransactionToApply> batch = ArgumentCaptor.forClass( TransactionToApply.class );
+        verify( transactionApplier ).appendToLogAndApplyToStore( batch.capture() );
+        TransactionToApply tx = batch.getValue();
+        for ( long txId : txIds )
+        {
+            assertEquals( txId, tx.transactionId() );
+            tx = tx.next();
+        }
+        assertNull( tx );
+    }
 }
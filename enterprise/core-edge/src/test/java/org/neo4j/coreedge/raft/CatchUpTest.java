@@ -25,8 +25,11 @@ import org.neo4j.coreedge.raft.RaftMessages.NewEntry.Request;
 import org.neo4j.coreedge.raft.log.RaftStorageException;
 import org.neo4j.coreedge.raft.log.ReadableRaftLog;
 import org.neo4j.coreedge.raft.membership.RaftTestGroup;
+import org.neo4j.coreedge.raft.replication.shipping.RaftLogShipper;
 import org.neo4j.coreedge.server.RaftTestMember;
+import org.neo4j.helpers.FakeClock;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -64,6 +67,7 @@ public class CatchUpTest
     public void newMemberWithNoLogShouldCatchUpFromPeers() throws Throwable
     {
         DirectNetworking net = new DirectNetworking();
+        FakeClock clock = new FakeClock();
 
         // given
         final long leaderId = 0;
@@ -72,7 +76,7 @@ public class CatchUpTest
         final long[] awakeMembers = {leaderId, 1};
         final long[] allMembers = {leaderId, 1, sleepyId};
 
-        RaftTestFixture fixture = new RaftTestFixture( net, 3, allMembers );
+        RaftTestFixture fixture = new RaftTestFixture( clock, net, 3, allMembers );
         fixture.members().withId( leaderId ).raftInstance().bootstrapWithInitialMembers( new RaftTestGroup( allMembers ) );
 
         fixture.members().withId( leaderId ).timeoutService().invokeTimeout( RaftInstance.Timeouts.ELECTION );
@@ -99,7 +103,8 @@ public class CatchUpTest
 
         // when
         net.reconnect( sleepyId );
-        Thread.sleep( 500 ); // TODO: This needs an injectable/controllable timeout service for the log shipper.
+        clock.forward( 1, SECONDS );
+        fixture.members().withId( leaderId ).timeoutService().invokeTimeout( RaftLogShipper.Timeouts.RESEND );
         net.processMessages();
 
         // then
@@ -19,28 +19,57 @@
  */
 package org.neo4j.coreedge.raft;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
-import org.neo4j.helpers.Pair;
-
-import static org.mockito.Mockito.mock;
-
 public class ControlledRenewableTimeoutService implements RenewableTimeoutService
 {
-    private Map<TimeoutName, Pair<TimeoutHandler, RenewableTimeout>> handlers = new HashMap<>();
+    private Map<TimeoutName, List<ControlledTimeout>> timeouts = new HashMap<>();
 
     @Override
     public RenewableTimeout create( TimeoutName name, long delayInMillis, long randomRangeInMillis, TimeoutHandler handler )
     {
-        RenewableTimeout timeout = mock( RenewableTimeout.class );
-        handlers.put( name, Pair.of( handler, timeout ) );
+        ControlledTimeout timeout = new ControlledTimeout( handler );
+        timeouts.computeIfAbsent( name, key -> new ArrayList<>() ).add( timeout );
         return timeout;
     }
 
+    /**
+     * Invokes the handlers of all timeouts created with the given name that have not been cancelled since.
+     */
     public void invokeTimeout( TimeoutName name )
     {
-        Pair<TimeoutHandler, RenewableTimeout> pair = handlers.get( name );
-        pair.first().onTimeout( pair.other() );
+        for ( ControlledTimeout timeout : new ArrayList<>( timeouts.getOrDefault( name, new ArrayList<>() ) ) )
+        {
+            if ( !timeout.cancelled )
+            {
+                timeout.handler.onTimeout( timeout );
+            }
+        }
+    }
+
+    private static class ControlledTimeout implements RenewableTimeout
+    {
+        private final TimeoutHandler handler;
+        private boolean cancelled;
+
+        ControlledTimeout( TimeoutHandler handler )
+        {
+            this.handler = handler;
+        }
+
+        @Override
+        public void renew()
+        {
+            cancelled = false;
+        }
+
+        @Override
+        public void cancel()
+        {
+            cancelled = true;
+        }
     }
 }
@@ -489,6 +489,17 @@ public class RaftInstanceTest
             }
         }
 
+        @Override
+        public long append( RaftLogEntry... entries ) throws RaftStorageException
+        {
+            long index = -1;
+            for ( RaftLogEntry entry : entries )
+            {
+                index = append( entry );
+            }
+            return index;
+        }
+
         @Override
         public void truncate( long fromIndex ) throws RaftStorageException
         {
@@ -75,6 +75,7 @@ public class RaftTestFixture
                     .outbound( outbound )
                     .raftLog ( fixtureMember.raftLog )
                     .timeoutService( fixtureMember.timeoutService )
+                    .clock( clock )
                     .build();
 
             members.put( id, fixtureMember );
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.coreedge.raft;
+
+import org.junit.Test;
+
+import java.util.concurrent.Future;
+
+import org.neo4j.coreedge.raft.RaftMessages.NewEntry.Request;
+import org.neo4j.coreedge.raft.membership.RaftTestGroup;
+import org.neo4j.coreedge.raft.replication.shipping.RaftLogShipper;
+import org.neo4j.coreedge.server.RaftTestMember;
+import org.neo4j.helpers.FakeClock;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import static org.neo4j.coreedge.raft.ReplicatedInteger.valueOf;
+
+public class ReadIndexTest
+{
+    private final DirectNetworking net = new DirectNetworking();
+    private final long leaderId = 0;
+    private final long[] allMembers = {leaderId, 1, 2};
+    private final FakeClock clock = new FakeClock();
+    private final RaftTestFixture fixture = new RaftTestFixture( clock, net, 3, allMembers );
+
+    @Test
+    public void followerShouldServeReadOnceItHasAppliedTheLeadersCommitIndex() throws Throwable
+    {
+        // given a follower which missed the latest commit
+        electLeaderAndCommit( 42 );
+        net.disconnect( 1 );
+        commit( 43 );
+        net.reconnect( 1 );
+        RaftInstance<RaftTestMember> follower = fixture.members().withId( 1 ).raftInstance();
+        long leaderCommitIndex = fixture.members().withId( leaderId ).raftLog().commitIndex();
+
+        // when
+        Future<Long> readIndex = follower.requestReadIndex();
+        net.processMessages();
+
+        // then the follower still has to catch up before serving the read
+        assertTrue( fixture.members().withId( 1 ).raftLog().commitIndex() < leaderCommitIndex );
+        assertFalse( readIndex.isDone() );
+
+        // when the log shipper to the follower times out and resends
+        clock.forward( 1, SECONDS );
+        fixture.members().withId( leaderId ).timeoutService().invokeTimeout( RaftLogShipper.Timeouts.RESEND );
+        net.processMessages();
+
+        // then
+        assertEquals( leaderCommitIndex, (long) readIndex.get( 1, SECONDS ) );
+        assertEquals( leaderCommitIndex, fixture.members().withId( 1 ).raftLog().commitIndex() );
+    }
+
+    @Test
+    public void leaderShouldServeReadWhenConfirmedByMajority() throws Throwable
+    {
+        // given
+        electLeaderAndCommit( 42 );
+        RaftInstance<RaftTestMember> leader = fixture.members().withId( leaderId ).raftInstance();
+        net.disconnect( 2 );
+
+        // when
+        Future<Long> readIndex = leader.requestReadIndex();
+        net.processMessages();
+
+        // then
+        assertEquals( fixture.members().withId( leaderId ).raftLog().commitIndex(), (long) readIndex.get( 1, SECONDS ) );
+    }
+
+    @Test
+    public void leaderShouldNotServeReadWithoutMajority() throws Throwable
+    {
+        // given
+        electLeaderAndCommit( 42 );
+        RaftInstance<RaftTestMember> leader = fixture.members().withId( leaderId ).raftInstance();
+        net.disconnect( 1 );
+        net.disconnect( 2 );
+
+        // when
+        Future<Long> readIndex = leader.requestReadIndex();
+        net.processMessages();
+        fixture.members().withId( leaderId ).timeoutService().invokeTimeout( RaftInstance.Timeouts.HEARTBEAT );
+        net.processMessages();
+
+        // then
+        assertFalse( readIndex.isDone() );
+
+        // when
+        net.reconnect( 1 );
+        fixture.members().withId( leaderId ).timeoutService().invokeTimeout( RaftInstance.Timeouts.HEARTBEAT );
+        net.processMessages();
+
+        // then
+        assertEquals( fixture.members().withId( leaderId ).raftLog().commitIndex(), (long) readIndex.get( 1, SECONDS ) );
+    }
+
+    @Test
+    public void leaderShouldRefuseReadBeforeCommittingInItsTerm() throws Throwable
+    {
+        // given
+        fixture.members().withId( leaderId ).raftInstance().bootstrapWithInitialMembers(
+                new RaftTestGroup( allMembers ) );
+        fixture.members().withId( leaderId ).timeoutService().invokeTimeout( RaftInstance.Timeouts.ELECTION );
+        net.processMessages();
+
+        // when
+        Future<Long> readIndex = fixture.members().withId( 1 ).raftInstance().requestReadIndex();
+        net.processMessages();
+
+        // then
+        assertEquals( -1L, (long) readIndex.get( 1, SECONDS ) );
+    }
+
+    private void electLeaderAndCommit( int value ) throws Throwable
+    {
+        fixture.members().withId( leaderId ).raftInstance().bootstrapWithInitialMembers(
+                new RaftTestGroup( allMembers ) );
+        fixture.members().withId( leaderId ).timeoutService().invokeTimeout( RaftInstance.Timeouts.ELECTION );
+        net.processMessages();
+        commit( value );
+    }
+
+    private void commit( int value )
+    {
+        RaftTestMember leader = fixture.members().withId( leaderId ).member();
+        fixture.members().withId( leaderId ).raftInstance().handle( new Request<>( leader, valueOf( value ) ) );
+        net.processMessages();
+    }
+}
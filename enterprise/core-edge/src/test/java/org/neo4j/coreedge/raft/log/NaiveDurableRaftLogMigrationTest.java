@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.coreedge.raft.log;
+
+import java.io.File;
+
+import org.junit.Test;
+
+import org.neo4j.coreedge.raft.ReplicatedInteger;
+import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
+import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.logging.NullLog;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class NaiveDurableRaftLogMigrationTest
+{
+    private final File directory = new File( "raft-log" );
+
+    @Test
+    public void shouldCopyEntriesAndCommitIndexIntoSegmentedLog() throws Throwable
+    {
+        // Given
+        EphemeralFileSystemAbstraction fileSystem = new EphemeralFileSystemAbstraction();
+        fileSystem.mkdir( directory );
+        NaiveDurableRaftLog oldLog = new NaiveDurableRaftLog( fileSystem, directory,
+                new DummyRaftableContentSerializer(), new Monitors() );
+        for ( int i = 0; i < 5; i++ )
+        {
+            oldLog.append( entry( i / 2, i ) );
+        }
+        oldLog.commit( 2 );
+        oldLog.shutdown();
+
+        // When
+        NaiveDurableRaftLogMigration migration = migration( fileSystem );
+        assertThat( migration.isNeeded(), is( true ) );
+        migration.migrate();
+
+        // Then
+        assertThat( migration.isNeeded(), is( false ) );
+        assertThat( fileSystem.fileExists(
+                new File( directory, NaiveDurableRaftLogMigration.CONTENT_FILE_NAME ) ), is( false ) );
+        SegmentedRaftLog newLog = new SegmentedRaftLog( fileSystem, directory,
+                new DummyRaftableContentSerializer(), new Monitors(), 2, 0 );
+        assertThat( newLog.appendIndex(), is( 4L ) );
+        assertThat( newLog.commitIndex(), is( 2L ) );
+        for ( int i = 0; i < 5; i++ )
+        {
+            assertThat( newLog.readLogEntry( i ), equalTo( entry( i / 2, i ) ) );
+        }
+    }
+
+    @Test
+    public void shouldStartOverAfterInterruptedMigration() throws Throwable
+    {
+        // Given an interrupted migration, which left a segment behind next to the old log
+        EphemeralFileSystemAbstraction fileSystem = new EphemeralFileSystemAbstraction();
+        fileSystem.mkdir( directory );
+        NaiveDurableRaftLog oldLog = new NaiveDurableRaftLog( fileSystem, directory,
+                new DummyRaftableContentSerializer(), new Monitors() );
+        oldLog.append( entry( 1, 1 ), entry( 1, 2 ) );
+        oldLog.shutdown();
+        SegmentedRaftLog partialLog = new SegmentedRaftLog( fileSystem, directory,
+                new DummyRaftableContentSerializer(), new Monitors(), 2, 0 );
+        partialLog.append( entry( 1, 1 ) );
+        partialLog.shutdown();
+
+        // When
+        migration( fileSystem ).migrate();
+
+        // Then
+        SegmentedRaftLog newLog = new SegmentedRaftLog( fileSystem, directory,
+                new DummyRaftableContentSerializer(), new Monitors(), 2, 0 );
+        assertThat( newLog.appendIndex(), is( 1L ) );
+        assertThat( newLog.readLogEntry( 0 ), equalTo( entry( 1, 1 ) ) );
+        assertThat( newLog.readLogEntry( 1 ), equalTo( entry( 1, 2 ) ) );
+    }
+
+    private NaiveDurableRaftLogMigration migration( EphemeralFileSystemAbstraction fileSystem )
+    {
+        return new NaiveDurableRaftLogMigration( fileSystem, directory, new DummyRaftableContentSerializer(),
+                new Monitors(), 2, NullLog.getInstance() );
+    }
+
+    private static RaftLogEntry entry( long term, int value )
+    {
+        return new RaftLogEntry( term, ReplicatedInteger.valueOf( value ) );
+    }
+}
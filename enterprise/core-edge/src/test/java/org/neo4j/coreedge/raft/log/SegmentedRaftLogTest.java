@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.coreedge.raft.log;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import org.neo4j.coreedge.raft.ReplicatedInteger;
+import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.fs.StoreFileChannel;
+import org.neo4j.kernel.monitoring.Monitors;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SegmentedRaftLogTest
+{
+    private final File directory = new File( "raft-log" );
+
+    @Test
+    public void shouldForceOnceForAllEntriesAppendedTogether() throws Exception
+    {
+        // Given
+        FileSystemAbstraction fsa = mock( FileSystemAbstraction.class );
+        StoreFileChannel segmentChannel = mock( StoreFileChannel.class );
+        StoreFileChannel commitChannel = mock( StoreFileChannel.class );
+        when( fsa.open( eq( new File( directory, SegmentedRaftLog.SEGMENT_FILE_PREFIX + 0 ) ), anyString() ) )
+                .thenReturn( segmentChannel );
+        when( fsa.open( eq( new File( directory, SegmentedRaftLog.COMMIT_FILE_NAME ) ), anyString() ) )
+                .thenReturn( commitChannel );
+
+        SegmentedRaftLog log = new SegmentedRaftLog( fsa, directory, new DummyRaftableContentSerializer(),
+                new Monitors(), 10, 10 );
+        verify( segmentChannel, times( 1 ) ).force( anyBoolean() ); // the segment header
+
+        // When
+        log.append( entry( 1, 1 ), entry( 1, 2 ), entry( 1, 3 ) );
+
+        // Then
+        verify( segmentChannel, times( 1 + 3 ) ).writeAll( any( ByteBuffer.class ), anyLong() );
+        verify( segmentChannel, times( 2 ) ).force( anyBoolean() );
+
+        // When
+        log.commit( 2 );
+
+        // Then the commit index is written, but forced together with the next append
+        verify( commitChannel ).writeAll( any( ByteBuffer.class ), anyLong() );
+        verify( commitChannel, times( 1 ) ).force( anyBoolean() );
+    }
+
+    @Test
+    public void shouldReadEntriesAcrossSegmentsAfterRestart() throws Exception
+    {
+        // Given
+        EphemeralFileSystemAbstraction fileSystem = new EphemeralFileSystemAbstraction();
+        SegmentedRaftLog log = createRaftLog( fileSystem, 2 );
+
+        // When
+        for ( int i = 0; i < 5; i++ )
+        {
+            log.append( entry( i, i ) );
+        }
+        fileSystem.crash();
+        log = createRaftLog( fileSystem, 2 );
+
+        // Then
+        assertThat( fileSystem.fileExists( new File( directory, SegmentedRaftLog.SEGMENT_FILE_PREFIX + 2 ) ), is( true ) );
+        assertThat( log.appendIndex(), is( 4L ) );
+        for ( int i = 0; i < 5; i++ )
+        {
+            assertThat( log.readLogEntry( i ), equalTo( entry( i, i ) ) );
+            assertThat( log.readEntryTerm( i ), is( (long) i ) );
+        }
+    }
+
+    @Test
+    public void shouldTruncateAcrossSegments() throws Exception
+    {
+        // Given
+        EphemeralFileSystemAbstraction fileSystem = new EphemeralFileSystemAbstraction();
+        SegmentedRaftLog log = createRaftLog( fileSystem, 2 );
+        for ( int i = 0; i < 5; i++ )
+        {
+            log.append( entry( 1, i ) );
+        }
+
+        // When
+        log.truncate( 1 );
+        log.append( entry( 2, 10 ), entry( 2, 11 ) );
+
+        // Then
+        assertThat( fileSystem.fileExists( new File( directory, SegmentedRaftLog.SEGMENT_FILE_PREFIX + 2 ) ), is( false ) );
+        log = createRaftLog( fileSystem, 2 );
+        assertThat( log.appendIndex(), is( 2L ) );
+        assertThat( log.readLogEntry( 0 ), equalTo( entry( 1, 0 ) ) );
+        assertThat( log.readLogEntry( 1 ), equalTo( entry( 2, 10 ) ) );
+        assertThat( log.readLogEntry( 2 ), equalTo( entry( 2, 11 ) ) );
+    }
+
+    @Test
+    public void shouldCutOffIncompleteEntryAtEndOfLastSegment() throws Exception
+    {
+        // Given
+        EphemeralFileSystemAbstraction fileSystem = new EphemeralFileSystemAbstraction();
+        SegmentedRaftLog log = createRaftLog( fileSystem, 10 );
+        log.append( entry( 1, 1 ), entry( 1, 2 ) );
+        File segmentFile = new File( directory, SegmentedRaftLog.SEGMENT_FILE_PREFIX + 0 );
+        try ( StoreChannel channel = fileSystem.open( segmentFile, "rw" ) )
+        {
+            ByteBuffer partialEntry = ByteBuffer.allocate( SegmentedRaftLog.ENTRY_HEADER_LENGTH );
+            partialEntry.putLong( 1 );
+            partialEntry.putInt( 100 );
+            partialEntry.flip();
+            channel.writeAll( partialEntry, channel.size() );
+        }
+
+        // When
+        log = createRaftLog( fileSystem, 10 );
+        log.append( entry( 1, 3 ) );
+
+        // Then
+        log = createRaftLog( fileSystem, 10 );
+        assertThat( log.appendIndex(), is( 2L ) );
+        assertThat( log.readLogEntry( 2 ), equalTo( entry( 1, 3 ) ) );
+    }
+
+    @Test
+    public void shouldDeleteLastSegmentWithIncompleteHeader() throws Exception
+    {
+        for ( int headerBytes : new int[] {0, SegmentedRaftLog.SEGMENT_HEADER_LENGTH / 2} )
+        {
+            // Given a crash in the middle of creating segment 2
+            EphemeralFileSystemAbstraction fileSystem = new EphemeralFileSystemAbstraction();
+            SegmentedRaftLog log = createRaftLog( fileSystem, 2 );
+            for ( int i = 0; i < 4; i++ )
+            {
+                log.append( entry( 1, i ) );
+            }
+            File segmentFile = new File( directory, SegmentedRaftLog.SEGMENT_FILE_PREFIX + 2 );
+            try ( StoreChannel channel = fileSystem.open( segmentFile, "rw" ) )
+            {
+                channel.writeAll( ByteBuffer.allocate( headerBytes ), 0 );
+            }
+
+            // When
+            log = createRaftLog( fileSystem, 2 );
+
+            // Then
+            assertThat( log.appendIndex(), is( 3L ) );
+            assertThat( log.readLogEntry( 3 ), equalTo( entry( 1, 3 ) ) );
+
+            // and the segment is created again by the next append
+            log.append( entry( 1, 4 ) );
+            log = createRaftLog( fileSystem, 2 );
+            assertThat( log.appendIndex(), is( 4L ) );
+            assertThat( log.readLogEntry( 4 ), equalTo( entry( 1, 4 ) ) );
+        }
+    }
+
+    @Test
+    public void shouldCutOffZeroedRecordsAtEndOfLastSegment() throws Exception
+    {
+        // Given a crash where the file size was updated, but the appended records never written
+        EphemeralFileSystemAbstraction fileSystem = new EphemeralFileSystemAbstraction();
+        SegmentedRaftLog log = createRaftLog( fileSystem, 10 );
+        log.append( entry( 1, 1 ), entry( 1, 2 ) );
+        File segmentFile = new File( directory, SegmentedRaftLog.SEGMENT_FILE_PREFIX + 0 );
+        try ( StoreChannel channel = fileSystem.open( segmentFile, "rw" ) )
+        {
+            channel.writeAll( ByteBuffer.allocate( SegmentedRaftLog.ENTRY_HEADER_LENGTH * 3 ), channel.size() );
+        }
+
+        // When
+        log = createRaftLog( fileSystem, 10 );
+        log.append( entry( 1, 3 ) );
+
+        // Then
+        log = createRaftLog( fileSystem, 10 );
+        assertThat( log.appendIndex(), is( 2L ) );
+        assertThat( log.readLogEntry( 1 ), equalTo( entry( 1, 2 ) ) );
+        assertThat( log.readLogEntry( 2 ), equalTo( entry( 1, 3 ) ) );
+    }
+
+    @Test
+    public void shouldCutOffRecordWithWrongChecksumAtEndOfLastSegment() throws Exception
+    {
+        // Given a torn last record, where the header made it to disk but only part of the content did
+        EphemeralFileSystemAbstraction fileSystem = new EphemeralFileSystemAbstraction();
+        SegmentedRaftLog log = createRaftLog( fileSystem, 10 );
+        log.append( entry( 1, 1 ), entry( 1, 2 ) );
+        File segmentFile = new File( directory, SegmentedRaftLog.SEGMENT_FILE_PREFIX + 0 );
+        try ( StoreChannel channel = fileSystem.open( segmentFile, "rw" ) )
+        {
+            ByteBuffer lastByte = ByteBuffer.allocate( 1 );
+            channel.read( lastByte, channel.size() - 1 );
+            lastByte.flip();
+            lastByte.put( 0, (byte) (lastByte.get( 0 ) + 1) );
+            channel.writeAll( lastByte, channel.size() - 1 );
+        }
+
+        // When
+        log = createRaftLog( fileSystem, 10 );
+
+        // Then
+        assertThat( log.appendIndex(), is( 0L ) );
+        assertThat( log.readLogEntry( 0 ), equalTo( entry( 1, 1 ) ) );
+    }
+
+    private SegmentedRaftLog createRaftLog( EphemeralFileSystemAbstraction fileSystem, int entriesPerSegment )
+    {
+        fileSystem.mkdir( directory );
+        return new SegmentedRaftLog( fileSystem, directory, new DummyRaftableContentSerializer(), new Monitors(),
+                entriesPerSegment, 1 );
+    }
+
+    private static RaftLogEntry entry( long term, int value )
+    {
+        return new RaftLogEntry( term, ReplicatedInteger.valueOf( value ) );
+    }
+}
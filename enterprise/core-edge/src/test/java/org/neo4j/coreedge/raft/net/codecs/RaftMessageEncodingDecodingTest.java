@@ -141,6 +141,16 @@ public class RaftMessageEncodingDecodingTest
         serializeReadBackAndVerifyMessage( request );
     }
 
+    @Test
+    public void shouldSerializeReadIndexMessages() throws Exception
+    {
+        CoreMember sender = new CoreMember( address( "127.0.0.1:5001" ), address( "127.0.0.2:5001" ) );
+        serializeReadBackAndVerifyMessage( new RaftMessages.ReadIndex.Request<>( sender, 7 ) );
+        serializeReadBackAndVerifyMessage( new RaftMessages.ReadIndex.Response<>( sender, 7, 42 ) );
+        serializeReadBackAndVerifyMessage( new RaftMessages.LeadershipCheck.Request<>( sender, 3, 11 ) );
+        serializeReadBackAndVerifyMessage( new RaftMessages.LeadershipCheck.Response<>( sender, 3, 11 ) );
+    }
+
     public void serializeReadBackAndVerifyMessage( RaftMessages.Message message ) throws Exception
     {
         // Given
@@ -20,6 +20,7 @@
 package org.neo4j.coreedge.raft.replication;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.UUID;
 
@@ -38,6 +39,7 @@ import org.neo4j.coreedge.raft.replication.storeid.SeedStoreId;
 import org.neo4j.coreedge.raft.replication.token.ReplicatedTokenRequest;
 import org.neo4j.coreedge.raft.replication.token.ReplicatedTokenRequestSerializer;
 import org.neo4j.coreedge.raft.replication.token.TokenType;
+import org.neo4j.coreedge.raft.replication.tx.ReplicatedTransactionBatch;
 import org.neo4j.coreedge.raft.replication.tx.ReplicatedTransactionFactory;
 import org.neo4j.coreedge.server.CoreMember;
 import org.neo4j.kernel.IdType;
@@ -87,6 +89,25 @@ public class CoreReplicatedContentMarshalTest
         assertThat( marshal.deserialize( buffer ), equalTo( replicatedTx ) );
     }
 
+    @Test
+    public void shouldMarshalTransactionBatch() throws Exception
+    {
+        ByteBuf buffer = Unpooled.buffer();
+        PhysicalTransactionRepresentation representation = new PhysicalTransactionRepresentation( Collections
+                .<Command>emptyList() );
+        representation.setHeader( new byte[]{0}, 1, 1, 1, 1, 1, 1 );
+
+        ReplicatedContent batch = new ReplicatedTransactionBatch( Arrays.asList(
+                ReplicatedTransactionFactory.createImmutableReplicatedTransaction( representation, globalSession,
+                        new LocalOperationId( 0, 0 ) ),
+                ReplicatedTransactionFactory.createImmutableReplicatedTransaction( representation, globalSession,
+                        new LocalOperationId( 1, 0 ) ) ) );
+
+        marshal.serialize( batch, buffer );
+
+        assertThat( marshal.deserialize( buffer ), equalTo( batch ) );
+    }
+
     @Test
     public void shouldMarshallMemberSet() throws Exception
     {
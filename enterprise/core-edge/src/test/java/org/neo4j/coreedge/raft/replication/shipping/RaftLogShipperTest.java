@@ -25,7 +25,9 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.UUID;
 
+import org.neo4j.coreedge.raft.ControlledRenewableTimeoutService;
 import org.neo4j.coreedge.raft.LeaderContext;
 import org.neo4j.coreedge.raft.OutboundMessageCollector;
 import org.neo4j.coreedge.raft.RaftMessages.AppendEntries;
@@ -34,25 +36,35 @@ import org.neo4j.coreedge.raft.ReplicatedString;
 import org.neo4j.coreedge.raft.log.InMemoryRaftLog;
 import org.neo4j.coreedge.raft.log.RaftLog;
 import org.neo4j.coreedge.raft.log.RaftLogEntry;
+import org.neo4j.coreedge.raft.replication.session.GlobalSession;
+import org.neo4j.coreedge.raft.replication.session.LocalOperationId;
+import org.neo4j.coreedge.raft.replication.tx.ReplicatedTransaction;
+import org.neo4j.coreedge.server.CoreMember;
 import org.neo4j.coreedge.server.RaftTestMember;
 import org.neo4j.helpers.Clock;
 import org.neo4j.helpers.collection.IteratorUtil;
+import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.logging.NullLogProvider;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import static org.neo4j.coreedge.server.AdvertisedSocketAddress.address;
+
 public class RaftLogShipperTest
 {
     OutboundMessageCollector outbound;
     RaftLog raftLog;
     Clock clock;
+    ControlledRenewableTimeoutService timeoutService;
     RaftTestMember leader;
     RaftTestMember follower;
     long leaderTerm;
     long leaderCommit;
     long retryTimeMillis;
     int catchupBatchSize = 64;
+    long catchupBatchBytes = 1024 * 1024;
+    int maxInFlightBatches = 1;
     int maxAllowedShippingLag = 256;
 
     RaftLogShipper<RaftTestMember> logShipper;
@@ -69,6 +81,7 @@ public class RaftLogShipperTest
         outbound = new OutboundMessageCollector();
         raftLog = new InMemoryRaftLog();
         clock = Clock.SYSTEM_CLOCK;
+        timeoutService = new ControlledRenewableTimeoutService();
         leader = new RaftTestMember( 0 );
         follower = new RaftTestMember( 1 );
         leaderTerm = 0;
@@ -89,8 +102,9 @@ public class RaftLogShipperTest
     public void startLogShipper()
     {
         logShipper = new RaftLogShipper<>( outbound, NullLogProvider.getInstance(), raftLog,
-                clock, leader, follower, leaderTerm, leaderCommit, retryTimeMillis,
-                catchupBatchSize, maxAllowedShippingLag );
+                clock, timeoutService, leader, follower, leaderTerm, leaderCommit, retryTimeMillis,
+                catchupBatchSize, catchupBatchBytes, maxInFlightBatches, maxAllowedShippingLag,
+                new Monitors().newMonitor( LogShippingMonitor.class ) );
         logShipper.start();
     }
 
@@ -262,4 +276,58 @@ public class RaftLogShipperTest
 
         assertEquals( ENTRY_COUNT-1, matchIndex );
     }
+
+    @Test
+    public void shouldHaveSeveralBatchesOutstandingWhenCatchingUp() throws Throwable
+    {
+        // given
+        catchupBatchSize = 2;
+        maxInFlightBatches = 3;
+        for ( int i = 0; i < 10; i++ )
+        {
+            raftLog.append( new RaftLogEntry( 0, ReplicatedInteger.valueOf( i ) ) );
+        }
+        startLogShipper();
+
+        // when
+        outbound.clear();
+        logShipper.onMatch( 0, new LeaderContext( 0, 0 ) );
+
+        // then
+        assertEquals( 3, outbound.sentTo( follower ).size() );
+        AppendEntries.Request last = (AppendEntries.Request) IteratorUtil.last( outbound.sentTo( follower ) );
+        assertEquals( 4, last.prevLogIndex() );
+
+        // when the first batch is matched
+        outbound.clear();
+        logShipper.onMatch( 2, new LeaderContext( 0, 0 ) );
+
+        // then one more batch is sent
+        assertEquals( 1, outbound.sentTo( follower ).size() );
+        last = (AppendEntries.Request) IteratorUtil.last( outbound.sentTo( follower ) );
+        assertEquals( 6, last.prevLogIndex() );
+        assertEquals( 2, last.entries().length );
+    }
+
+    @Test
+    public void shouldBoundCatchupBatchesByBytes() throws Throwable
+    {
+        // given entries of a little over 1000 bytes each
+        catchupBatchBytes = 2500;
+        CoreMember owner = new CoreMember( address( "localhost:1" ), address( "localhost:2" ) );
+        for ( int i = 0; i < 5; i++ )
+        {
+            raftLog.append( new RaftLogEntry( 0, new ReplicatedTransaction( new byte[1000],
+                    new GlobalSession( UUID.randomUUID(), owner ), new LocalOperationId( 0, i ) ) ) );
+        }
+        startLogShipper();
+
+        // when
+        outbound.clear();
+        logShipper.onMatch( -1, new LeaderContext( 0, 0 ) );
+
+        // then
+        AppendEntries.Request request = (AppendEntries.Request) IteratorUtil.single( outbound.sentTo( follower ) );
+        assertEquals( 2, request.entries().length );
+    }
 }
@@ -23,6 +23,7 @@ import org.junit.Test;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
@@ -227,4 +228,36 @@ public class ReplicatedTransactionStateMachineTest
                 any( CommitEvent.class ), any( TransactionApplicationMode.class ) );
     }
 
+    @Test
+    public void shouldCommitEachTransactionOfBatchInOrder() throws Exception
+    {
+        // given
+        GlobalSessionTracker sessionTracker = new GlobalSessionTracker();
+        LocalOperationId firstOperationId = new LocalOperationId( 0, 0 );
+        LocalOperationId secondOperationId = new LocalOperationId( 1, 0 );
+
+        ReplicatedTransaction first = ReplicatedTransactionFactory.createImmutableReplicatedTransaction(
+                mock( PhysicalTransactionRepresentation.class ), globalSession, firstOperationId );
+        ReplicatedTransaction second = ReplicatedTransactionFactory.createImmutableReplicatedTransaction(
+                mock( PhysicalTransactionRepresentation.class ), globalSession, secondOperationId );
+
+        TransactionCommitProcess localCommitProcess = mock( TransactionCommitProcess.class );
+        when( localCommitProcess.commit( any( TransactionToApply.class ),
+                any( CommitEvent.class ), any( TransactionApplicationMode.class ) ) )
+                .thenReturn( 4L ).thenReturn( 5L );
+        ReplicatedTransactionStateMachine listener = new ReplicatedTransactionStateMachine( localCommitProcess,
+                sessionTracker, globalSession );
+
+        Future<Long> firstFuture = listener.getFutureTxId( firstOperationId );
+        Future<Long> secondFuture = listener.getFutureTxId( secondOperationId );
+
+        // when
+        listener.onReplicated( new ReplicatedTransactionBatch( Arrays.asList( first, second ) ) );
+
+        // then
+        verify( localCommitProcess, times( 2 ) ).commit( any( TransactionToApply.class ),
+                any( CommitEvent.class ), eq( TransactionApplicationMode.EXTERNAL ) );
+        assertEquals( 4L, (long) firstFuture.get( 1, TimeUnit.SECONDS ) );
+        assertEquals( 5L, (long) secondFuture.get( 1, TimeUnit.SECONDS ) );
+    }
 }
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.coreedge.raft.replication.tx;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.neo4j.coreedge.raft.replication.ReplicatedContent;
+import org.neo4j.coreedge.raft.replication.Replicator;
+import org.neo4j.coreedge.raft.replication.Replicator.ReplicationFailedException;
+import org.neo4j.coreedge.raft.replication.id.ReplicatedIdAllocationRequest;
+import org.neo4j.coreedge.raft.replication.session.GlobalSession;
+import org.neo4j.coreedge.raft.replication.session.LocalOperationId;
+import org.neo4j.coreedge.server.CoreMember;
+import org.neo4j.helpers.Clock;
+import org.neo4j.kernel.IdType;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+import static org.neo4j.coreedge.server.AdvertisedSocketAddress.address;
+
+public class TransactionBatchingReplicatorTest
+{
+    private static final int TX_SIZE = 10;
+
+    private final CoreMember coreMember = new CoreMember( address( "core:1" ), address( "raft:1" ) );
+    private final GlobalSession globalSession = new GlobalSession( UUID.randomUUID(), coreMember );
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void shutdownExecutor()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldReplicateConcurrentTransactionsAsOneBatch() throws Exception
+    {
+        // given a batch which is only complete once all transactions have joined it
+        int transactions = 5;
+        CapturingReplicator delegate = new CapturingReplicator();
+        TransactionBatchingReplicator replicator = new TransactionBatchingReplicator( delegate, Clock.SYSTEM_CLOCK,
+                transactions * TX_SIZE, 60_000 );
+
+        // when
+        List<Future<Void>> futures = new ArrayList<>();
+        for ( int i = 0; i < transactions; i++ )
+        {
+            futures.add( replicateAsync( replicator, tx( i ) ) );
+        }
+        for ( Future<Void> future : futures )
+        {
+            future.get();
+        }
+
+        // then
+        assertThat( delegate.replicated.size(), is( 1 ) );
+        ReplicatedContent content = delegate.replicated.get( 0 );
+        assertThat( content, instanceOf( ReplicatedTransactionBatch.class ) );
+        assertThat( ((ReplicatedTransactionBatch) content).transactions().size(), is( transactions ) );
+    }
+
+    @Test
+    public void shouldReplicateLoneTransactionOnItsOwnAfterMaxDelay() throws Exception
+    {
+        // given
+        CapturingReplicator delegate = new CapturingReplicator();
+        TransactionBatchingReplicator replicator = new TransactionBatchingReplicator( delegate, Clock.SYSTEM_CLOCK,
+                1024, 10 );
+        ReplicatedTransaction transaction = tx( 0 );
+
+        // when
+        replicator.replicate( transaction );
+
+        // then
+        assertThat( delegate.replicated.size(), is( 1 ) );
+        assertThat( delegate.replicated.get( 0 ), is( (ReplicatedContent) transaction ) );
+    }
+
+    @Test
+    public void shouldReplicateOtherContentDirectly() throws Exception
+    {
+        // given
+        CapturingReplicator delegate = new CapturingReplicator();
+        TransactionBatchingReplicator replicator = new TransactionBatchingReplicator( delegate, Clock.SYSTEM_CLOCK,
+                1024, 60_000 );
+        ReplicatedContent content = new ReplicatedIdAllocationRequest( coreMember, IdType.NODE, 0, 10 );
+
+        // when
+        replicator.replicate( content );
+
+        // then
+        assertThat( delegate.replicated.size(), is( 1 ) );
+        assertThat( delegate.replicated.get( 0 ), is( content ) );
+    }
+
+    @Test
+    public void shouldFailAllTransactionsOfBatchIfReplicationFails() throws Exception
+    {
+        // given
+        Replicator delegate = new CapturingReplicator()
+        {
+            @Override
+            public void replicate( ReplicatedContent content ) throws ReplicationFailedException
+            {
+                throw new ReplicationFailedException( "Only leader is allowed to replicate" );
+            }
+        };
+        TransactionBatchingReplicator replicator = new TransactionBatchingReplicator( delegate, Clock.SYSTEM_CLOCK,
+                2 * TX_SIZE, 60_000 );
+
+        // when
+        Future<Void> first = replicateAsync( replicator, tx( 0 ) );
+        Future<Void> second = replicateAsync( replicator, tx( 1 ) );
+
+        // then
+        assertReplicationFailed( first );
+        assertReplicationFailed( second );
+    }
+
+    private void assertReplicationFailed( Future<Void> future ) throws InterruptedException
+    {
+        try
+        {
+            future.get();
+            fail( "Should have failed" );
+        }
+        catch ( ExecutionException e )
+        {
+            assertThat( e.getCause(), instanceOf( ReplicationFailedException.class ) );
+        }
+    }
+
+    private Future<Void> replicateAsync( final Replicator replicator, final ReplicatedTransaction transaction )
+    {
+        return executor.submit( new Callable<Void>()
+        {
+            @Override
+            public Void call() throws Exception
+            {
+                replicator.replicate( transaction );
+                return null;
+            }
+        } );
+    }
+
+    private ReplicatedTransaction tx( int localSessionId )
+    {
+        return new ReplicatedTransaction( new byte[TX_SIZE], globalSession, new LocalOperationId( localSessionId, 0 ) );
+    }
+
+    private static class CapturingReplicator implements Replicator
+    {
+        final List<ReplicatedContent> replicated = new ArrayList<>();
+
+        @Override
+        public synchronized void replicate( ReplicatedContent content ) throws ReplicationFailedException
+        {
+            replicated.add( content );
+        }
+
+        @Override
+        public void subscribe( ReplicatedContentListener listener )
+        {
+        }
+
+        @Override
+        public void unsubscribe( ReplicatedContentListener listener )
+        {
+        }
+    }
+}
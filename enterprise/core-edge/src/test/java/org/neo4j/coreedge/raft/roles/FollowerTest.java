@@ -643,6 +643,12 @@ public class FollowerTest
             return 0;
         }
 
+        @Override
+        public long append( RaftLogEntry... entries ) throws RaftStorageException
+        {
+            return 0;
+        }
+
         @Override
         public void truncate( long fromIndex ) throws RaftStorageException
         {
@@ -120,6 +120,37 @@ public class CoreServerReplicationIT
         }
     }
 
+    @Test
+    public void shouldSeeCommittedTransactionInLinearizableReadOnEveryCoreServer() throws Exception
+    {
+        // given
+        File dbDir = dir.directory();
+        cluster = Cluster.start( dbDir, 3, 0 );
+        GraphDatabaseService leader = cluster.findLeader( 5000 );
+
+        // when
+        try ( Transaction tx = leader.beginTx() )
+        {
+            Node node = leader.createNode( label( "boo" ) );
+            node.setProperty( "foobar", "baz_bat" );
+            tx.success();
+        }
+
+        // then every core server sees it right away, without waiting for it to arrive
+        for ( final CoreGraphDatabase db : cluster.coreServers() )
+        {
+            try ( Transaction tx = db.beginLinearizableTx( 15, SECONDS ) )
+            {
+                assertEquals( 1L, count( GlobalGraphOperations.at( db ).getAllNodes() ) );
+                for ( Node node : GlobalGraphOperations.at( db ).getAllNodes() )
+                {
+                    assertEquals( "baz_bat", node.getProperty( "foobar" ) );
+                }
+                tx.success();
+            }
+        }
+    }
+
     @Test
     public void shouldReplicateTransactionToCoreServersAddedAfterInitialStartUp() throws Exception
     {
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.perftest.enterprise.cluster;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import org.neo4j.cluster.ClusterSettings;
+import org.neo4j.coreedge.raft.roles.Role;
+import org.neo4j.coreedge.server.CoreEdgeClusterSettings;
+import org.neo4j.coreedge.server.core.CoreGraphDatabase;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.factory.HighlyAvailableGraphDatabaseFactory;
+import org.neo4j.kernel.GraphDatabaseDependencies;
+import org.neo4j.kernel.ha.HaSettings;
+import org.neo4j.kernel.ha.HighlyAvailableGraphDatabase;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+/**
+ * The clustered commit paths that can be measured. Member {@code i} of a cluster listens on ports
+ * {@code basePort + i}, {@code basePort + 100 + i} and, for core-edge, {@code basePort + 200 + i}.
+ */
+enum ClusterType
+{
+    /**
+     * Commits go through MasterTransactionCommitProcess on the master, or are forwarded to it from a slave, and are
+     * pushed to {@code ha.tx_push_factor} slaves before they are acknowledged.
+     */
+    HA
+    {
+        @Override
+        LocalCluster start( File directory, int size, int basePort, Map<String,String> tuning )
+                throws InterruptedException, ExecutionException
+        {
+            String initialHosts = addresses( size, basePort );
+            List<Callable<GraphDatabaseService>> members = new ArrayList<>();
+            for ( int i = 0; i < size; i++ )
+            {
+                File storeDir = new File( directory, "ha-" + i );
+                Map<String,String> config = new HashMap<>( tuning );
+                config.put( ClusterSettings.server_id.name(), String.valueOf( i + 1 ) );
+                config.put( ClusterSettings.initial_hosts.name(), initialHosts );
+                config.put( ClusterSettings.cluster_server.name(), "127.0.0.1:" + (basePort + i) );
+                config.put( HaSettings.ha_server.name(), "127.0.0.1:" + (basePort + 100 + i) );
+                members.add( () -> awaitAvailable( new HighlyAvailableGraphDatabaseFactory()
+                        .newEmbeddedDatabaseBuilder( storeDir )
+                        .setConfig( config )
+                        .newGraphDatabase() ) );
+            }
+            return LocalCluster.start( members, member -> ((HighlyAvailableGraphDatabase) member).isMaster() );
+        }
+    },
+
+    /**
+     * Commits go through ReplicatedTransactionCommitProcess on the raft leader and are acknowledged once a majority
+     * of the core members have appended them. Core followers do not accept writes.
+     */
+    CORE_EDGE
+    {
+        @Override
+        LocalCluster start( File directory, int size, int basePort, Map<String,String> tuning )
+                throws InterruptedException, ExecutionException
+        {
+            String initialHosts = addresses( size, basePort );
+            List<Callable<GraphDatabaseService>> members = new ArrayList<>();
+            for ( int i = 0; i < size; i++ )
+            {
+                File storeDir = new File( directory, "core-" + i );
+                Map<String,String> config = new HashMap<>( tuning );
+                config.put( ClusterSettings.server_id.name(), String.valueOf( i ) );
+                config.put( CoreEdgeClusterSettings.initial_core_cluster_members.name(), initialHosts );
+                config.put( CoreEdgeClusterSettings.expected_core_cluster_size.name(), String.valueOf( size ) );
+                config.put( CoreEdgeClusterSettings.cluster_listen_address.name(), "127.0.0.1:" + (basePort + i) );
+                config.put( CoreEdgeClusterSettings.transaction_listen_address.name(),
+                        "127.0.0.1:" + (basePort + 100 + i) );
+                config.put( CoreEdgeClusterSettings.transaction_advertised_address.name(),
+                        "127.0.0.1:" + (basePort + 100 + i) );
+                config.put( CoreEdgeClusterSettings.raft_listen_address.name(), "127.0.0.1:" + (basePort + 200 + i) );
+                config.put( CoreEdgeClusterSettings.raft_advertised_address.name(),
+                        "127.0.0.1:" + (basePort + 200 + i) );
+                members.add( () -> awaitAvailable(
+                        new CoreGraphDatabase( storeDir, config, GraphDatabaseDependencies.newDependencies() ) ) );
+            }
+            return LocalCluster.start( members, member -> ((CoreGraphDatabase) member).getRole() == Role.LEADER );
+        }
+    };
+
+    abstract LocalCluster start( File directory, int size, int basePort, Map<String,String> tuning )
+            throws InterruptedException, ExecutionException;
+
+    private static String addresses( int size, int basePort )
+    {
+        StringBuilder addresses = new StringBuilder();
+        for ( int i = 0; i < size; i++ )
+        {
+            addresses.append( i == 0 ? "" : "," ).append( "127.0.0.1:" ).append( basePort + i );
+        }
+        return addresses.toString();
+    }
+
+    private static GraphDatabaseService awaitAvailable( GraphDatabaseService member )
+    {
+        if ( !member.isAvailable( MINUTES.toMillis( 2 ) ) )
+        {
+            member.shutdown();
+            throw new IllegalStateException( "Cluster member did not become available" );
+        }
+        return member;
+    }
+}
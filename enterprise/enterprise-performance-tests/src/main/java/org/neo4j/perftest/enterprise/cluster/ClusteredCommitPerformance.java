@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.perftest.enterprise.cluster;
+
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.util.DefaultPrettyPrinter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.kernel.ha.HaSettings;
+import org.neo4j.perftest.enterprise.util.Configuration;
+import org.neo4j.perftest.enterprise.util.Conversion;
+import org.neo4j.perftest.enterprise.util.Parameters;
+import org.neo4j.perftest.enterprise.util.Setting;
+
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+import static org.neo4j.io.fs.FileUtils.newFilePrintWriter;
+import static org.neo4j.perftest.enterprise.util.Configuration.SYSTEM_PROPERTIES;
+import static org.neo4j.perftest.enterprise.util.Configuration.settingsOf;
+import static org.neo4j.perftest.enterprise.util.DirectlyCorrelatedParameter.param;
+import static org.neo4j.perftest.enterprise.util.DirectlyCorrelatedParameter.passOn;
+import static org.neo4j.perftest.enterprise.util.Predicate.integerRange;
+import static org.neo4j.perftest.enterprise.util.Setting.adaptSetting;
+import static org.neo4j.perftest.enterprise.util.Setting.booleanSetting;
+import static org.neo4j.perftest.enterprise.util.Setting.enumSetting;
+import static org.neo4j.perftest.enterprise.util.Setting.integerSetting;
+import static org.neo4j.perftest.enterprise.util.Setting.restrictSetting;
+import static org.neo4j.perftest.enterprise.util.Setting.stringSetting;
+
+/**
+ * Measures commit latency and throughput of a cluster running in this JVM, so that regressions in the replication
+ * path show up as changes in the reported percentiles.
+ */
+public class ClusteredCommitPerformance
+{
+    static final Setting<ClusterType> cluster_type = enumSetting( "cluster_type", ClusterType.HA );
+    static final Setting<Integer> cluster_size = intSetting( "cluster_size", 3, 1, 99 );
+    static final Setting<Integer> base_port = intSetting( "base_port", 20000, 1024, 65000 );
+    static final Setting<String> store_dir = stringSetting( "store_dir", "target/clustered-commit-perf" );
+    static final Setting<String> report_file = stringSetting( "report_file", "target/clustered-commit-perf.json" );
+    static final Setting<Integer> threads = intSetting( "threads", 4, 1, 1024 );
+    static final Setting<Integer> warmup_transactions = intSetting( "warmup_transactions", 1000, 0, Integer.MAX_VALUE );
+    static final Setting<Integer> transactions = intSetting( "transactions", 10000, 1, Integer.MAX_VALUE );
+    static final Setting<Integer> nodes_per_transaction = intSetting( "nodes_per_transaction", 1, 1, 100000 );
+    static final Setting<Integer> payload_size = intSetting( "payload_size", 64, 0, Integer.MAX_VALUE );
+    static final Setting<Boolean> write_on_slaves = booleanSetting( "write_on_slaves", false );
+    static final Setting<Integer> tx_push_factor = intSetting( "ha.tx_push_factor", 1, 0, 98 );
+    static final Setting<String> pagecache_memory = stringSetting( "dbms.pagecache.memory", "100M" );
+
+    private static final String[] PERCENTILES = {"50", "90", "99", "99.9", "99.99"};
+
+    /**
+     * Sample execution:
+     * java -cp ... org.neo4j.perftest.enterprise.cluster.ClusteredCommitPerformance
+     * -cluster_type CORE_EDGE
+     * -cluster_size 3
+     * -threads 8
+     * -transactions 20000
+     * -report_file target/core-edge-commit.json
+     * <p>
+     * {@code transactions} and {@code warmup_transactions} are per thread. {@code write_on_slaves} spreads the
+     * threads over the HA slaves instead of writing on the master, which core-edge does not support.
+     */
+    public static void main( String... args ) throws Exception
+    {
+        run( Parameters.configuration( SYSTEM_PROPERTIES, settingsOf( ClusteredCommitPerformance.class ) )
+                .convert( args ) );
+    }
+
+    private static void run( Configuration configuration ) throws Exception
+    {
+        ClusterType clusterType = configuration.get( cluster_type );
+        if ( configuration.get( write_on_slaves ) && clusterType != ClusterType.HA )
+        {
+            throw new IllegalArgumentException( "Only HA accepts writes on members other than the leader." );
+        }
+
+        File directory = new File( configuration.get( store_dir ) );
+        FileUtils.deleteRecursively( directory );
+        Map<String,String> tuning = passOn( configuration,
+                param( GraphDatabaseSettings.pagecache_memory, pagecache_memory ),
+                param( HaSettings.tx_push_factor, tx_push_factor ) );
+
+        LocalCluster cluster = clusterType.start( directory, configuration.get( cluster_size ),
+                configuration.get( base_port ), tuning );
+        try
+        {
+            GraphDatabaseService leader = cluster.awaitLeader( MINUTES.toMillis( 2 ) );
+            List<GraphDatabaseService> writers =
+                    configuration.get( write_on_slaves ) ? cluster.followers( leader ) : singletonList( leader );
+            if ( writers.isEmpty() )
+            {
+                throw new IllegalArgumentException( "There are no slaves to write on in a cluster of one." );
+            }
+            measure( configuration, writers );
+        }
+        finally
+        {
+            cluster.shutdown();
+        }
+    }
+
+    private static void measure( Configuration configuration, List<GraphDatabaseService> writers ) throws Exception
+    {
+        int threadCount = configuration.get( threads );
+        CountDownLatch warmedUp = new CountDownLatch( threadCount );
+        CountDownLatch start = new CountDownLatch( 1 );
+        ExecutorService executor = Executors.newFixedThreadPool( threadCount );
+        try
+        {
+            List<Future<LatencyHistogram>> workloads = new ArrayList<>();
+            for ( int i = 0; i < threadCount; i++ )
+            {
+                workloads.add( executor.submit( new CommitWorkload( writers.get( i % writers.size() ), warmedUp, start,
+                        configuration.get( warmup_transactions ), configuration.get( transactions ),
+                        configuration.get( nodes_per_transaction ), configuration.get( payload_size ) ) ) );
+            }
+
+            warmedUp.await();
+            long startTime = System.nanoTime();
+            start.countDown();
+            LatencyHistogram latencies = new LatencyHistogram();
+            for ( Future<LatencyHistogram> workload : workloads )
+            {
+                latencies.add( workload.get() );
+            }
+            long elapsedNanos = System.nanoTime() - startTime;
+
+            report( configuration, latencies, elapsedNanos );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void report( Configuration configuration, LatencyHistogram latencies, long elapsedNanos )
+            throws IOException
+    {
+        double transactionsPerSecond = latencies.count() * 1_000_000_000.0 / elapsedNanos;
+        System.out.printf( "Committed %d transactions in %.3f s, %.1f tx/s%n",
+                latencies.count(), elapsedNanos / 1_000_000_000.0, transactionsPerSecond );
+        System.out.printf( "Latency (ms) min %.3f, mean %.3f", millis( latencies.min() ), latencies.mean() / 1e6 );
+        for ( String percentile : PERCENTILES )
+        {
+            System.out.printf( ", p%s %.3f", percentile, millis( valueAtPercentile( latencies, percentile ) ) );
+        }
+        System.out.printf( ", max %.3f%n", millis( latencies.max() ) );
+
+        try ( JsonGenerator json = new JsonFactory().configure( JsonGenerator.Feature.AUTO_CLOSE_TARGET, true )
+                .createJsonGenerator( newFilePrintWriter( new File( configuration.get( report_file ) ),
+                        StandardCharsets.UTF_8 ) ) )
+        {
+            json.setPrettyPrinter( new DefaultPrettyPrinter() );
+            json.writeStartObject();
+            {
+                json.writeFieldName( "config" );
+                json.writeStartObject();
+                for ( Setting<?> setting : settingsOf( ClusteredCommitPerformance.class ) )
+                {
+                    emitSetting( json, configuration, setting );
+                }
+                json.writeEndObject();
+            }
+            json.writeNumberField( "transactions", latencies.count() );
+            json.writeNumberField( "time", millis( elapsedNanos ) );
+            json.writeNumberField( "transactionsPerSecond", transactionsPerSecond );
+            {
+                json.writeFieldName( "latency" );
+                json.writeStartObject();
+                json.writeNumberField( "min", millis( latencies.min() ) );
+                json.writeNumberField( "mean", latencies.mean() / 1e6 );
+                for ( String percentile : PERCENTILES )
+                {
+                    json.writeNumberField( "p" + percentile, millis( valueAtPercentile( latencies, percentile ) ) );
+                }
+                json.writeNumberField( "max", millis( latencies.max() ) );
+                json.writeEndObject();
+            }
+            json.writeEndObject();
+        }
+    }
+
+    private static <T> void emitSetting( JsonGenerator json, Configuration configuration, Setting<T> setting )
+            throws IOException
+    {
+        json.writeStringField( setting.name(), setting.asString( configuration.get( setting ) ) );
+    }
+
+    private static long valueAtPercentile( LatencyHistogram latencies, String percentile )
+    {
+        return latencies.valueAtPercentile( Double.parseDouble( percentile ) );
+    }
+
+    private static double millis( long nanos )
+    {
+        return nanos / 1e6;
+    }
+
+    private static Setting<Integer> intSetting( String name, int defaultValue, int min, int max )
+    {
+        return adaptSetting( restrictSetting( integerSetting( name, defaultValue ), integerRange( min, max ) ),
+                Conversion.TO_INTEGER );
+    }
+}
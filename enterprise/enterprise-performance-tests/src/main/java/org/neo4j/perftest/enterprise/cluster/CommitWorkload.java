@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.perftest.enterprise.cluster;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+
+import static org.neo4j.graphdb.Label.label;
+
+/**
+ * Commits small write transactions on one cluster member and records how long each took, from beginning the
+ * transaction until it is closed, which includes replicating it. Measured transactions only begin once every
+ * workload has finished its warmup and the run is started.
+ */
+class CommitWorkload implements Callable<LatencyHistogram>
+{
+    private static final Label LABEL = label( "Commit" );
+
+    private final GraphDatabaseService db;
+    private final CountDownLatch warmedUp;
+    private final CountDownLatch start;
+    private final int warmupTransactions;
+    private final int transactions;
+    private final int nodesPerTransaction;
+    private final String payload;
+
+    CommitWorkload( GraphDatabaseService db, CountDownLatch warmedUp, CountDownLatch start, int warmupTransactions,
+            int transactions, int nodesPerTransaction, int payloadSize )
+    {
+        this.db = db;
+        this.warmedUp = warmedUp;
+        this.start = start;
+        this.warmupTransactions = warmupTransactions;
+        this.transactions = transactions;
+        this.nodesPerTransaction = nodesPerTransaction;
+        this.payload = payload( payloadSize );
+    }
+
+    @Override
+    public LatencyHistogram call() throws Exception
+    {
+        try
+        {
+            run( warmupTransactions, new LatencyHistogram() );
+        }
+        finally
+        {
+            warmedUp.countDown();
+        }
+        start.await();
+        LatencyHistogram latencies = new LatencyHistogram();
+        run( transactions, latencies );
+        return latencies;
+    }
+
+    private void run( int transactions, LatencyHistogram latencies )
+    {
+        for ( int i = 0; i < transactions; i++ )
+        {
+            long startTime = System.nanoTime();
+            try ( Transaction tx = db.beginTx() )
+            {
+                for ( int j = 0; j < nodesPerTransaction; j++ )
+                {
+                    Node node = db.createNode( LABEL );
+                    node.setProperty( "payload", payload );
+                }
+                tx.success();
+            }
+            latencies.record( System.nanoTime() - startTime );
+        }
+    }
+
+    private static String payload( int size )
+    {
+        StringBuilder payload = new StringBuilder( size );
+        for ( int i = 0; i < size; i++ )
+        {
+            payload.append( (char) ('a' + i % 26) );
+        }
+        return payload.toString();
+    }
+}
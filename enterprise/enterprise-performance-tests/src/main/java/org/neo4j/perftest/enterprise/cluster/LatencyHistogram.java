@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.perftest.enterprise.cluster;
+
+/**
+ * Log-linear histogram in the spirit of HdrHistogram. Values are counted in buckets that are never wider than
+ * 1/64 of the values they hold, so percentiles come out within about 1.5% of the recorded values, using the same
+ * few kilobytes no matter how many values are recorded or how far apart they are.
+ * <p>
+ * Not thread safe, give each recording thread its own histogram and {@link #add(LatencyHistogram) add} them up.
+ */
+class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;
+
+    private final long[] counts = new long[(65 - SUB_BUCKET_BITS) * SUB_BUCKET_HALF];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    void record( long value )
+    {
+        value = Math.max( 0, value );
+        counts[indexOf( value )]++;
+        count++;
+        sum += value;
+        min = Math.min( min, value );
+        max = Math.max( max, value );
+    }
+
+    void add( LatencyHistogram other )
+    {
+        for ( int i = 0; i < counts.length; i++ )
+        {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        min = Math.min( min, other.min );
+        max = Math.max( max, other.max );
+    }
+
+    long count()
+    {
+        return count;
+    }
+
+    long min()
+    {
+        return count == 0 ? 0 : min;
+    }
+
+    long max()
+    {
+        return max;
+    }
+
+    double mean()
+    {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * @return the highest value equivalent to the value at the given percentile, i.e. at most {@link #max()}.
+     */
+    long valueAtPercentile( double percentile )
+    {
+        long target = Math.max( 1, (long) Math.ceil( percentile / 100.0 * count ) );
+        long seen = 0;
+        for ( int i = 0; i < counts.length; i++ )
+        {
+            seen += counts[i];
+            if ( seen >= target )
+            {
+                return Math.min( highestValueIn( i ), max );
+            }
+        }
+        return max;
+    }
+
+    private static int indexOf( long value )
+    {
+        if ( value < SUB_BUCKET_COUNT )
+        {
+            return (int) value;
+        }
+        int shift = 64 - Long.numberOfLeadingZeros( value ) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKET_HALF + (int) (value >>> shift);
+    }
+
+    private static long highestValueIn( int index )
+    {
+        if ( index < SUB_BUCKET_COUNT )
+        {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_HALF - 1;
+        long subBucket = index - shift * SUB_BUCKET_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.perftest.enterprise.cluster;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Members of a cluster running in this JVM, talking to each other over loopback.
+ */
+class LocalCluster
+{
+    private final List<GraphDatabaseService> members;
+    private final Predicate<GraphDatabaseService> isLeader;
+
+    private LocalCluster( List<GraphDatabaseService> members, Predicate<GraphDatabaseService> isLeader )
+    {
+        this.members = members;
+        this.isLeader = isLeader;
+    }
+
+    /**
+     * Starts all members at once, since members of either cluster type wait for each other to form the cluster.
+     */
+    static LocalCluster start( List<Callable<GraphDatabaseService>> members,
+            Predicate<GraphDatabaseService> isLeader ) throws InterruptedException, ExecutionException
+    {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        List<GraphDatabaseService> started = new ArrayList<>();
+        ExecutionException failure = null;
+        try
+        {
+            for ( Future<GraphDatabaseService> member : executor.invokeAll( members ) )
+            {
+                try
+                {
+                    started.add( member.get() );
+                }
+                catch ( ExecutionException e )
+                {
+                    failure = e;
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        if ( failure != null )
+        {
+            new LocalCluster( started, isLeader ).shutdown();
+            throw failure;
+        }
+        return new LocalCluster( started, isLeader );
+    }
+
+    GraphDatabaseService awaitLeader( long timeoutMillis )
+    {
+        long endTime = System.currentTimeMillis() + timeoutMillis;
+        do
+        {
+            for ( GraphDatabaseService member : members )
+            {
+                if ( isLeader.test( member ) )
+                {
+                    return member;
+                }
+            }
+            LockSupport.parkNanos( MILLISECONDS.toNanos( 100 ) );
+        }
+        while ( System.currentTimeMillis() < endTime );
+        throw new IllegalStateException( "No leader elected within " + timeoutMillis + "ms" );
+    }
+
+    List<GraphDatabaseService> followers( GraphDatabaseService leader )
+    {
+        List<GraphDatabaseService> followers = new ArrayList<>( members );
+        followers.remove( leader );
+        return followers;
+    }
+
+    void shutdown()
+    {
+        for ( GraphDatabaseService member : members )
+        {
+            member.shutdown();
+        }
+    }
+}
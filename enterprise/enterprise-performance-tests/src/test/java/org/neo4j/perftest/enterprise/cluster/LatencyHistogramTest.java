@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.perftest.enterprise.cluster;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class LatencyHistogramTest
+{
+    @Test
+    public void shouldReportSmallValuesExactly() throws Exception
+    {
+        // given
+        LatencyHistogram histogram = new LatencyHistogram();
+        for ( int i = 1; i <= 100; i++ )
+        {
+            histogram.record( i );
+        }
+
+        // then
+        assertEquals( 100, histogram.count() );
+        assertEquals( 1, histogram.min() );
+        assertEquals( 50.5, histogram.mean(), 0.0 );
+        assertEquals( 50, histogram.valueAtPercentile( 50 ) );
+        assertEquals( 99, histogram.valueAtPercentile( 99 ) );
+        assertEquals( 100, histogram.valueAtPercentile( 100 ) );
+    }
+
+    @Test
+    public void shouldReportLargeValuesWithinBucketPrecision() throws Exception
+    {
+        // given
+        LatencyHistogram histogram = new LatencyHistogram();
+        for ( long i = 1; i <= 100_000; i++ )
+        {
+            histogram.record( i * 1_000 );
+        }
+
+        // then
+        assertWithinPrecision( 50_000_000, histogram.valueAtPercentile( 50 ) );
+        assertWithinPrecision( 99_900_000, histogram.valueAtPercentile( 99.9 ) );
+        assertEquals( 100_000_000, histogram.valueAtPercentile( 100 ) );
+        assertEquals( 100_000_000, histogram.max() );
+    }
+
+    @Test
+    public void shouldAddUpHistogramsOfDifferentThreads() throws Exception
+    {
+        // given
+        LatencyHistogram fast = new LatencyHistogram();
+        LatencyHistogram slow = new LatencyHistogram();
+        for ( int i = 0; i < 99; i++ )
+        {
+            fast.record( 10 );
+        }
+        slow.record( 1_000_000 );
+
+        // when
+        LatencyHistogram all = new LatencyHistogram();
+        all.add( fast );
+        all.add( slow );
+
+        // then
+        assertEquals( 100, all.count() );
+        assertEquals( 10, all.min() );
+        assertEquals( 10, all.valueAtPercentile( 99 ) );
+        assertEquals( 1_000_000, all.valueAtPercentile( 99.9 ) );
+    }
+
+    private static void assertWithinPrecision( long expected, long actual )
+    {
+        assertEquals( expected, actual, expected / 64.0 );
+    }
+}
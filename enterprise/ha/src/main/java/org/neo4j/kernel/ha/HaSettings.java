@@ -96,6 +96,15 @@ public class HaSettings
     @Description( "Size of batches of transactions applied on slaves when pulling from master" )
     public static final Setting<Integer> pull_apply_batch_size = setting( "ha.pull_apply_batch_size", INTEGER, "100" );
 
+    @Description( "Whether slaves should grab the exclusive node and relationship locks of a transaction on the " +
+                  "master all in one request, just before the transaction commits, instead of making one request " +
+                  "per lock. Until then these locks exclude no other transaction, neither on other instances nor " +
+                  "on the same slave, so concurrent writes to the same node or relationship are only ordered at " +
+                  "commit and deadlocks are detected at commit. Locks grabbed explicitly are always grabbed on " +
+                  "the master right away." )
+    public static final Setting<Boolean> batch_slave_exclusive_locks =
+            setting( "ha.batch_slave_exclusive_locks", BOOLEAN, Settings.FALSE );
+
     public enum TxPushStrategy
     {
         @Description("Round robin")
@@ -33,18 +33,30 @@ public class LockManagerSwitcher extends AbstractComponentSwitcher<Locks>
     private final RequestContextFactory requestContextFactory;
     private final AvailabilityGuard availabilityGuard;
     private final Factory<Locks> locksFactory;
+    private final boolean batchExclusiveLocks;
+    private final SlaveLockManager.Monitor monitor;
 
     private volatile Locks currentLocks;
 
     public LockManagerSwitcher( DelegateInvocationHandler<Locks> delegate, DelegateInvocationHandler<Master> master,
             RequestContextFactory requestContextFactory, AvailabilityGuard availabilityGuard,
             Factory<Locks> locksFactory )
+    {
+        this( delegate, master, requestContextFactory, availabilityGuard, locksFactory, false,
+                SlaveLockManager.NO_MONITOR );
+    }
+
+    public LockManagerSwitcher( DelegateInvocationHandler<Locks> delegate, DelegateInvocationHandler<Master> master,
+            RequestContextFactory requestContextFactory, AvailabilityGuard availabilityGuard,
+            Factory<Locks> locksFactory, boolean batchExclusiveLocks, SlaveLockManager.Monitor monitor )
     {
         super( delegate );
         this.master = master;
         this.requestContextFactory = requestContextFactory;
         this.availabilityGuard = availabilityGuard;
         this.locksFactory = locksFactory;
+        this.batchExclusiveLocks = batchExclusiveLocks;
+        this.monitor = monitor;
     }
 
     @Override
@@ -58,7 +70,7 @@ public class LockManagerSwitcher extends AbstractComponentSwitcher<Locks>
     protected Locks getSlaveImpl()
     {
         currentLocks = new SlaveLockManager( locksFactory.newInstance(), requestContextFactory, master.cement(),
-                availabilityGuard );
+                availabilityGuard, batchExclusiveLocks, monitor );
         return currentLocks;
     }
 
@@ -111,6 +111,7 @@ import org.neo4j.kernel.ha.com.slave.InvalidEpochExceptionHandler;
 import org.neo4j.kernel.ha.com.slave.MasterClientResolver;
 import org.neo4j.kernel.ha.com.slave.SlaveServer;
 import org.neo4j.kernel.ha.id.HaIdGeneratorFactory;
+import org.neo4j.kernel.ha.lock.SlaveLockManager;
 import org.neo4j.kernel.ha.management.ClusterDatabaseInfoProvider;
 import org.neo4j.kernel.ha.management.HighlyAvailableKernelData;
 import org.neo4j.kernel.ha.transaction.CommitPusher;
@@ -132,6 +133,7 @@ import org.neo4j.kernel.impl.factory.CommunityEditionModule;
 import org.neo4j.kernel.impl.factory.EditionModule;
 import org.neo4j.kernel.impl.factory.GraphDatabaseFacadeFactory;
 import org.neo4j.kernel.impl.factory.PlatformModule;
+import org.neo4j.kernel.impl.locking.LockTracer;
 import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.kernel.impl.logging.LogService;
 import org.neo4j.kernel.impl.store.NeoStores;
@@ -196,7 +198,8 @@ public class HighlyAvailableEditionModule
 
         TransactionCommittingResponseUnpacker responseUnpacker = dependencies.satisfyDependency(
                 new TransactionCommittingResponseUnpacker( dependencies,
-                        config.get( HaSettings.pull_apply_batch_size ) ) );
+                        config.get( HaSettings.pull_apply_batch_size ),
+                        monitors.newMonitor( TransactionCommittingResponseUnpacker.Monitor.class ) ) );
 
         Supplier<KernelAPI> kernelProvider = dependencies.provideDependency( KernelAPI.class );
 
@@ -493,7 +496,8 @@ public class HighlyAvailableEditionModule
         // Create HA services
         lockManager = dependencies.satisfyDependency(
                 createLockManager( componentSwitcherContainer, config, masterDelegateInvocationHandler,
-                        requestContextFactory, platformModule.availabilityGuard, logging ) );
+                        requestContextFactory, platformModule.availabilityGuard, logging,
+                        platformModule.tracers.lockTracer, platformModule.monitors ) );
 
         propertyKeyTokenHolder = dependencies.satisfyDependency( new DelegatingPropertyKeyTokenHolder(
                 createPropertyKeyCreator( config, componentSwitcherContainer,
@@ -614,17 +618,18 @@ public class HighlyAvailableEditionModule
             Config config,
             DelegateInvocationHandler<Master> masterDelegateInvocationHandler,
             RequestContextFactory requestContextFactory,
-            AvailabilityGuard availabilityGuard, LogService logging )
+            AvailabilityGuard availabilityGuard, LogService logging, LockTracer lockTracer, Monitors monitors )
     {
         DelegateInvocationHandler<Locks> lockManagerDelegate = new DelegateInvocationHandler<>( Locks.class );
         Locks lockManager = (Locks) newProxyInstance( Locks.class.getClassLoader(), new Class[]{Locks.class},
                 lockManagerDelegate );
 
-        Factory<Locks> locksFactory = () -> CommunityEditionModule.createLockManager( config, logging );
+        Factory<Locks> locksFactory = () -> CommunityEditionModule.createLockManager( config, logging, lockTracer );
 
         LockManagerSwitcher lockManagerModeSwitcher = new LockManagerSwitcher(
                 lockManagerDelegate, masterDelegateInvocationHandler, requestContextFactory, availabilityGuard,
-                locksFactory );
+                locksFactory, config.get( HaSettings.batch_slave_exclusive_locks ),
+                monitors.newMonitor( SlaveLockManager.Monitor.class ) );
 
         componentSwitcherContainer.add( lockManagerModeSwitcher );
         return lockManager;
@@ -26,25 +26,47 @@ import org.neo4j.kernel.impl.locking.Locks;
 
 public class SlaveLockManager implements Locks
 {
+    public interface Monitor
+    {
+        /**
+         * @param lockRoundTrips the number of lock requests the ended lock session, i.e. typically one
+         * transaction, has made to the master.
+         */
+        void lockSessionEnded( int lockRoundTrips );
+    }
+
+    public static final Monitor NO_MONITOR = lockRoundTrips -> {
+    };
+
     private final RequestContextFactory requestContextFactory;
     private final Locks local;
     private final Master master;
     private final AvailabilityGuard availabilityGuard;
+    private final boolean batchExclusiveLocks;
+    private final Monitor monitor;
 
     public SlaveLockManager( Locks localLocks, RequestContextFactory requestContextFactory, Master master,
                              AvailabilityGuard availabilityGuard )
+    {
+        this( localLocks, requestContextFactory, master, availabilityGuard, false, NO_MONITOR );
+    }
+
+    public SlaveLockManager( Locks localLocks, RequestContextFactory requestContextFactory, Master master,
+                             AvailabilityGuard availabilityGuard, boolean batchExclusiveLocks, Monitor monitor )
     {
         this.requestContextFactory = requestContextFactory;
         this.availabilityGuard = availabilityGuard;
         this.local = localLocks;
         this.master = master;
+        this.batchExclusiveLocks = batchExclusiveLocks;
+        this.monitor = monitor;
     }
 
     @Override
     public Client newClient()
     {
-        return new SlaveLocksClient(
-                master, local.newClient(), local, requestContextFactory, availabilityGuard );
+        return new SlaveLocksClient( master, local.newClient(), local, requestContextFactory, availabilityGuard,
+                batchExclusiveLocks, monitor );
     }
 
     @Override
@@ -53,6 +75,12 @@ public class SlaveLockManager implements Locks
         local.accept( visitor );
     }
 
+    @Override
+    public void acceptWaits( WaitVisitor visitor )
+    {
+        local.acceptWaits( visitor );
+    }
+
     @Override
     public void close()
     {
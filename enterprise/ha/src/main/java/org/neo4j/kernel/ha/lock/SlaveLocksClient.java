@@ -19,10 +19,14 @@
  */
 package org.neo4j.kernel.ha.lock;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.com.RequestContext;
 import org.neo4j.com.Response;
 import org.neo4j.graphdb.TransientDatabaseFailureException;
@@ -47,6 +51,12 @@ import static org.neo4j.kernel.impl.locking.LockType.WRITE;
  * The client maintains a local "real" lock client, backed by some regular Locks implementation, but it also coordinates
  * with the master for certain types of locks. If you grab a lock on a node, for instance, this class will grab a
  * cluster-global lock by talking to the master machine, and then grab that same lock locally before returning.
+ * <p/>
+ * If exclusive locks are batched, exclusive node and relationship locks are only noted when asked for. They are then
+ * grabbed on the master all in one request once the client is {@link #prepare() prepared}, i.e. before the
+ * transaction creates its commands, instead of making one network round trip per lock, and locally right after.
+ * Until then they exclude no other transaction, not even on this slave. A lock is never held locally without being
+ * held on the master, so other transactions on this slave wait for it on the master, like for any other lock.
  */
 class SlaveLocksClient implements Locks.Client
 {
@@ -55,11 +65,17 @@ class SlaveLocksClient implements Locks.Client
     private final Locks localLockManager;
     private final RequestContextFactory requestContextFactory;
     private final AvailabilityGuard availabilityGuard;
+    private final boolean batchExclusiveLocks;
+    private final SlaveLockManager.Monitor monitor;
 
     // Using atomic ints to avoid creating garbage through boxing.
     private final Map<Locks.ResourceType, Map<Long, AtomicInteger>> sharedLocks;
     private final Map<Locks.ResourceType, Map<Long, AtomicInteger>> exclusiveLocks;
+    // Exclusive locks asked for, but not yet grabbed on the master nor locally
+    private final Map<Locks.ResourceType, PrimitiveLongSet> deferredExclusiveLocks;
     private boolean initialized = false;
+    private boolean prepared = false;
+    private int lockRoundTrips;
 
     public SlaveLocksClient(
             Master master,
@@ -67,14 +83,30 @@ class SlaveLocksClient implements Locks.Client
             Locks localLockManager,
             RequestContextFactory requestContextFactory,
             AvailabilityGuard availabilityGuard )
+    {
+        this( master, local, localLockManager, requestContextFactory, availabilityGuard, false,
+                SlaveLockManager.NO_MONITOR );
+    }
+
+    public SlaveLocksClient(
+            Master master,
+            Locks.Client local,
+            Locks localLockManager,
+            RequestContextFactory requestContextFactory,
+            AvailabilityGuard availabilityGuard,
+            boolean batchExclusiveLocks,
+            SlaveLockManager.Monitor monitor )
     {
         this.master = master;
         this.client = local;
         this.localLockManager = localLockManager;
         this.requestContextFactory = requestContextFactory;
         this.availabilityGuard = availabilityGuard;
+        this.batchExclusiveLocks = batchExclusiveLocks;
+        this.monitor = monitor;
         sharedLocks = new HashMap<>();
         exclusiveLocks = new HashMap<>();
+        deferredExclusiveLocks = new HashMap<>();
     }
 
     private Map<Long, AtomicInteger> getLockMap(
@@ -126,16 +158,23 @@ class SlaveLocksClient implements Locks.Client
             // We already hold this lock, just increment the local reference count
             preExistingLock.incrementAndGet();
         }
+        else if ( canDeferOnMaster( resourceType ) )
+        {
+            lockMap.put( resourceId, new AtomicInteger( 1 ) );
+            deferredExclusiveLocks( resourceType ).add( resourceId );
+        }
         else if ( acquireExclusiveOnMaster( resourceType, resourceId ) )
         {
-            if ( client.tryExclusiveLock( resourceType, resourceId ) )
-            {
-                lockMap.put( resourceId, new AtomicInteger( 1 ) );
-            }
-            else
-            {
-                throw new LocalDeadlockDetectedException( client, localLockManager, resourceType, resourceId, WRITE );
-            }
+            acquireExclusiveLocally( resourceType, resourceId );
+            lockMap.put( resourceId, new AtomicInteger( 1 ) );
+        }
+    }
+
+    private void acquireExclusiveLocally( Locks.ResourceType resourceType, long resourceId )
+    {
+        if ( !client.tryExclusiveLock( resourceType, resourceId ) )
+        {
+            throw new LocalDeadlockDetectedException( client, localLockManager, resourceType, resourceId, WRITE );
         }
     }
 
@@ -181,8 +220,33 @@ class SlaveLocksClient implements Locks.Client
         if ( counter.decrementAndGet() == 0 )
         {
             lockMap.remove( resourceId );
-            client.releaseExclusive( resourceType, resourceId );
+            PrimitiveLongSet deferred = deferredExclusiveLocks.get( resourceType );
+            if ( deferred == null || !deferred.remove( resourceId ) )
+            {
+                client.releaseExclusive( resourceType, resourceId );
+            }
+        }
+    }
+
+    @Override
+    public void prepare()
+    {
+        for ( Map.Entry<Locks.ResourceType,PrimitiveLongSet> deferred : deferredExclusiveLocks.entrySet() )
+        {
+            if ( !deferred.getValue().isEmpty() )
+            {
+                // Sorted, so that transactions grabbing overlapping batches don't deadlock each other on the master
+                long[] resourceIds = PrimitiveLongCollections.asArray( deferred.getValue().iterator() );
+                Arrays.sort( resourceIds );
+                acquireExclusiveOnMaster( deferred.getKey(), resourceIds );
+                deferred.getValue().clear();
+                for ( long resourceId : resourceIds )
+                {
+                    acquireExclusiveLocally( deferred.getKey(), resourceId );
+                }
+            }
         }
+        prepared = true;
     }
 
     @Override
@@ -190,6 +254,8 @@ class SlaveLocksClient implements Locks.Client
     {
         sharedLocks.clear();
         exclusiveLocks.clear();
+        deferredExclusiveLocks.clear();
+        prepared = false;
         client.releaseAll();
         if ( initialized )
         {
@@ -198,7 +264,9 @@ class SlaveLocksClient implements Locks.Client
                 // Lock session is closed on master at this point
             }
             initialized = false;
+            monitor.lockSessionEnded( lockRoundTrips );
         }
+        lockRoundTrips = 0;
     }
 
     @Override
@@ -230,6 +298,7 @@ class SlaveLocksClient implements Locks.Client
             makeSureTxHasBeenInitialized();
 
             RequestContext requestContext = newRequestContextFor( this );
+            lockRoundTrips++;
             try ( Response<LockResult> response = master.acquireSharedLock( requestContext, resourceType, resourceId ) )
             {
                 return receiveLockResponse( response );
@@ -241,11 +310,29 @@ class SlaveLocksClient implements Locks.Client
         }
     }
 
-    private boolean acquireExclusiveOnMaster( Locks.ResourceType resourceType, long resourceId )
+    private boolean canDeferOnMaster( Locks.ResourceType resourceType )
+    {
+        return batchExclusiveLocks && !prepared &&
+               (resourceType == ResourceTypes.NODE || resourceType == ResourceTypes.RELATIONSHIP);
+    }
+
+    private PrimitiveLongSet deferredExclusiveLocks( Locks.ResourceType resourceType )
+    {
+        PrimitiveLongSet deferred = deferredExclusiveLocks.get( resourceType );
+        if ( deferred == null )
+        {
+            deferred = Primitive.longSet();
+            deferredExclusiveLocks.put( resourceType, deferred );
+        }
+        return deferred;
+    }
+
+    private boolean acquireExclusiveOnMaster( Locks.ResourceType resourceType, long... resourceIds )
     {
         makeSureTxHasBeenInitialized();
         RequestContext requestContext = newRequestContextFor( this );
-        try ( Response<LockResult> response = master.acquireExclusiveLock( requestContext, resourceType, resourceId ) )
+        lockRoundTrips++;
+        try ( Response<LockResult> response = master.acquireExclusiveLock( requestContext, resourceType, resourceIds ) )
         {
             return receiveLockResponse( response );
         }
@@ -22,6 +22,7 @@ package org.neo4j.kernel.ha.lock;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
@@ -43,6 +44,9 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -211,4 +215,87 @@ public class SlaveLocksClientTest
             // THEN Good
         }
     }
+
+    @Test
+    public void shouldTakeBatchedExclusiveLocksOnMasterInOneRequestWhenPrepared() throws Exception
+    {
+        // Given
+        SlaveLockManager.Monitor monitor = mock( SlaveLockManager.Monitor.class );
+        client = new SlaveLocksClient( master, local, lockManager, requestContextFactory, availabilityGuard, true,
+                monitor );
+
+        // When
+        client.acquireExclusive( NODE, 3 );
+        client.acquireExclusive( NODE, 1 );
+        client.acquireExclusive( NODE, 2 );
+
+        // Then the locks are taken neither on the master nor locally
+        verify( master, never() ).acquireExclusiveLock(
+                any( RequestContext.class ), any( Locks.ResourceType.class ), Matchers.<long[]>anyVararg() );
+        verify( local, never() ).tryExclusiveLock( any( Locks.ResourceType.class ), any( long.class ) );
+        verify( local, never() ).acquireExclusive( any( Locks.ResourceType.class ), any( long.class ) );
+
+        // When
+        client.prepare();
+        client.acquireExclusive( NODE, 4 );
+
+        // Then the batch is taken in one request, then locally, and later locks right away
+        InOrder inOrder = inOrder( master, local );
+        inOrder.verify( master ).acquireExclusiveLock( null, NODE, 1, 2, 3 );
+        inOrder.verify( local ).tryExclusiveLock( NODE, 1 );
+        inOrder.verify( local ).tryExclusiveLock( NODE, 2 );
+        inOrder.verify( local ).tryExclusiveLock( NODE, 3 );
+        inOrder.verify( master ).acquireExclusiveLock( null, NODE, 4 );
+        inOrder.verify( local ).tryExclusiveLock( NODE, 4 );
+
+        // When
+        client.releaseAll();
+
+        // Then
+        verify( monitor ).lockSessionEnded( 2 );
+    }
+
+    @Test
+    public void shouldNotTakeBatchedExclusiveLockOnMasterIfReleasedBeforePrepared() throws Exception
+    {
+        // Given
+        client = new SlaveLocksClient( master, local, lockManager, requestContextFactory, availabilityGuard, true,
+                SlaveLockManager.NO_MONITOR );
+        client.acquireExclusive( NODE, 1 );
+        client.acquireExclusive( NODE, 2 );
+
+        // When
+        client.releaseExclusive( NODE, 1 );
+        client.prepare();
+
+        // Then
+        verify( master ).acquireExclusiveLock( null, NODE, 2 );
+        verify( master, times( 1 ) ).acquireExclusiveLock(
+                any( RequestContext.class ), any( Locks.ResourceType.class ), Matchers.<long[]>anyVararg() );
+        verify( local, never() ).releaseExclusive( NODE, 1 );
+        verify( local, never() ).tryExclusiveLock( NODE, 1 );
+        verify( local ).tryExclusiveLock( NODE, 2 );
+    }
+
+    @Test
+    public void shouldFailBatchedExclusiveLockIfHeldLocallyWhenPrepared() throws Exception
+    {
+        // Given
+        client = new SlaveLocksClient( master, local, lockManager, requestContextFactory, availabilityGuard, true,
+                SlaveLockManager.NO_MONITOR );
+        client.acquireExclusive( NODE, 1 );
+        when( local.tryExclusiveLock( NODE, 1 ) ).thenReturn( false );
+
+        try
+        {
+            // When
+            client.prepare();
+            fail( "Should have thrown" );
+        }
+        catch ( LocalDeadlockDetectedException e )
+        {
+            // Then the master was asked first, since a lock is only held locally when it is held on the master
+            verify( master ).acquireExclusiveLock( null, NODE, 1 );
+        }
+    }
 }
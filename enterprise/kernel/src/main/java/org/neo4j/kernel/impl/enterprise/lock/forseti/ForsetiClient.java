@@ -19,17 +19,18 @@
  */
 package org.neo4j.kernel.impl.enterprise.lock.forseti;
 
-import java.util.concurrent.ConcurrentMap;
-
 import org.neo4j.collection.pool.LinkedQueuePool;
 import org.neo4j.collection.primitive.Primitive;
 import org.neo4j.collection.primitive.PrimitiveIntIterator;
 import org.neo4j.collection.primitive.PrimitiveLongIntMap;
 import org.neo4j.collection.primitive.PrimitiveLongVisitor;
+import org.neo4j.collection.primitive.hopscotch.StripedPrimitiveLongObjectHashMap;
 import org.neo4j.kernel.DeadlockDetectedException;
 import org.neo4j.kernel.impl.locking.AcquireLockTimeoutException;
 import org.neo4j.kernel.impl.locking.LockClientAlreadyClosedException;
 import org.neo4j.kernel.impl.locking.LockClientStateHolder;
+import org.neo4j.kernel.impl.locking.LockTracer;
+import org.neo4j.kernel.impl.locking.LockWaitEvent;
 import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.kernel.impl.util.collection.SimpleBitSet;
 import org.neo4j.kernel.impl.util.concurrent.WaitStrategy;
@@ -53,7 +54,7 @@ public class ForsetiClient implements Locks.Client
     private final int clientId;
 
     /** resourceType -> lock map. These are the global lock maps, shared across all clients. */
-    private final ConcurrentMap<Long, ForsetiLockManager.Lock>[] lockMaps;
+    private final StripedPrimitiveLongObjectHashMap<ForsetiLockManager.Lock>[] lockMaps;
 
     /** resourceType -> wait strategy */
     private final WaitStrategy<AcquireLockTimeoutException>[] waitStrategies;
@@ -61,6 +62,9 @@ public class ForsetiClient implements Locks.Client
     /** Handle to return client to pool when closed. */
     private final LinkedQueuePool<ForsetiClient> clientPool;
 
+    /** Tracer of lock waits, only consulted when this client has to wait for a lock. */
+    private final LockTracer tracer;
+
     /**
      * The client uses this to track which locks it holds. It is solely an optimization to ensure we don't need to
      * coordinate if we grab the same lock multiple times.
@@ -89,15 +93,27 @@ public class ForsetiClient implements Locks.Client
      * we want to hold in the global lock map. */
     private final ExclusiveLock myExclusiveLock = new ExclusiveLock(this);
 
+    /**
+     * What this client is currently waiting for, for introspection. The fields are written before the volatile
+     * {@link #waiting} flag is raised, but may change while being read, so introspection is best-effort.
+     */
+    private volatile boolean waiting;
+    private boolean waitingForExclusive;
+    private Locks.ResourceType waitingForResourceType;
+    private long waitingForResourceId;
+    private long waitStartMillis;
+
     public ForsetiClient( int id,
-                          ConcurrentMap<Long, ForsetiLockManager.Lock>[] lockMaps,
+                          StripedPrimitiveLongObjectHashMap<ForsetiLockManager.Lock>[] lockMaps,
                           WaitStrategy<AcquireLockTimeoutException>[] waitStrategies,
-                          LinkedQueuePool<ForsetiClient> clientPool )
+                          LinkedQueuePool<ForsetiClient> clientPool,
+                          LockTracer tracer )
     {
         this.clientId = id;
         this.lockMaps = lockMaps;
         this.waitStrategies = waitStrategies;
         this.clientPool = clientPool;
+        this.tracer = tracer;
         this.sharedLockCounts = new PrimitiveLongIntMap[lockMaps.length];
         this.exclusiveLockCounts = new PrimitiveLongIntMap[lockMaps.length];
 
@@ -125,10 +141,11 @@ public class ForsetiClient implements Locks.Client
         {
             throw new LockClientAlreadyClosedException( String.format( "%s is already closed", this ) );
         }
+        LockWaitEvent waitEvent = null;
         try
         {
             // Grab the global lock map we will be using
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            StripedPrimitiveLongObjectHashMap<ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
 
             // And grab our local lock maps
             PrimitiveLongIntMap heldShareLocks = sharedLockCounts[resourceType.typeId()];
@@ -207,6 +224,12 @@ public class ForsetiClient implements Locks.Client
                     throw new UnsupportedOperationException( "Unknown lock type: " + existingLock );
                 }
 
+                // We are about to wait, so let the tracer know, unless we already did
+                if ( waitEvent == null )
+                {
+                    waitEvent = beginWait( false, resourceType, resourceId );
+                }
+
                 // Apply the designated wait strategy
                 waitStrategies[resourceType.typeId()].apply( tries++ );
 
@@ -222,6 +245,7 @@ public class ForsetiClient implements Locks.Client
         }
         finally
         {
+            endWait( waitEvent );
             stateHolder.decrementActiveClients();
         }
     }
@@ -236,9 +260,10 @@ public class ForsetiClient implements Locks.Client
         {
             throw new LockClientAlreadyClosedException( String.format( "%s is already closed", this ) );
         }
+        LockWaitEvent waitEvent = null;
         try
         {
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            StripedPrimitiveLongObjectHashMap<ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
             PrimitiveLongIntMap heldLocks = exclusiveLockCounts[resourceType.typeId()];
 
             int heldCount = heldLocks.get( resourceId );
@@ -259,6 +284,10 @@ public class ForsetiClient implements Locks.Client
                 {
                     throw new LockClientAlreadyClosedException( String.format( "%s is already closed", this ) );
                 }
+                if ( waitEvent == null )
+                {
+                    waitEvent = beginWait( true, resourceType, resourceId );
+                }
                 // If this is a shared lock:
                 // Given a grace period of tries (to try and not starve readers), grab an update lock and wait for it
                 // to convert to an exclusive lock.
@@ -281,6 +310,7 @@ public class ForsetiClient implements Locks.Client
         }
         finally
         {
+            endWait( waitEvent );
             stateHolder.decrementActiveClients();
         }
     }
@@ -296,7 +326,7 @@ public class ForsetiClient implements Locks.Client
 
         try
         {
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            StripedPrimitiveLongObjectHashMap<ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
             PrimitiveLongIntMap heldLocks = exclusiveLockCounts[resourceType.typeId()];
 
             int heldCount = heldLocks.get( resourceId );
@@ -350,7 +380,7 @@ public class ForsetiClient implements Locks.Client
         }
         try
         {
-            ConcurrentMap<Long,ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            StripedPrimitiveLongObjectHashMap<ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
             PrimitiveLongIntMap heldShareLocks = sharedLockCounts[resourceType.typeId()];
             PrimitiveLongIntMap heldExclusiveLocks = exclusiveLockCounts[resourceType.typeId()];
 
@@ -462,7 +492,7 @@ public class ForsetiClient implements Locks.Client
                 return;
             }
 
-            ConcurrentMap<Long,ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            StripedPrimitiveLongObjectHashMap<ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
             if ( sharedLockCounts[resourceType.typeId()].containsKey( resourceId ) )
             {
                 // We are still holding a shared lock, so we will release it to be reused
@@ -649,7 +679,8 @@ public class ForsetiClient implements Locks.Client
     }
 
     /** Release a lock from the global pool. */
-    private void releaseGlobalLock( ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap, long resourceId )
+    private void releaseGlobalLock( StripedPrimitiveLongObjectHashMap<ForsetiLockManager.Lock> lockMap,
+                                    long resourceId )
     {
         ForsetiLockManager.Lock lock = lockMap.get( resourceId );
         if( lock instanceof ExclusiveLock )
@@ -684,7 +715,8 @@ public class ForsetiClient implements Locks.Client
     }
 
     /** Attempt to upgrade a share lock to an exclusive lock, grabbing the share lock if we don't hold it. */
-    private boolean tryUpgradeSharedToExclusive( Locks.ResourceType resourceType, ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap,
+    private boolean tryUpgradeSharedToExclusive( Locks.ResourceType resourceType,
+                                                 StripedPrimitiveLongObjectHashMap<ForsetiLockManager.Lock> lockMap,
                                                  long resourceId, SharedLock sharedLock ) throws AcquireLockTimeoutException
     {
         int tries = 0;
@@ -763,6 +795,43 @@ public class ForsetiClient implements Locks.Client
         return false;
     }
 
+    private LockWaitEvent beginWait( boolean exclusive, Locks.ResourceType resourceType, long resourceId )
+    {
+        waitingForExclusive = exclusive;
+        waitingForResourceType = resourceType;
+        waitingForResourceId = resourceId;
+        waitStartMillis = System.currentTimeMillis();
+        waiting = true;
+        return tracer.waitForLock( exclusive, resourceType, resourceId );
+    }
+
+    private void endWait( LockWaitEvent waitEvent )
+    {
+        if ( waitEvent != null )
+        {
+            waiting = false;
+            waitEvent.close();
+        }
+    }
+
+    /**
+     * Report what this client is currently waiting for, if anything, to the given visitor.
+     * This is for introspection only, and the reported wait may be slightly out of date.
+     */
+    void visitWait( Locks.WaitVisitor visitor, long currentTimeMillis )
+    {
+        if ( !waiting )
+        {
+            return;
+        }
+        Locks.ResourceType resourceType = waitingForResourceType;
+        long resourceId = waitingForResourceId;
+        ForsetiLockManager.Lock lock = lockMaps[resourceType.typeId()].get( resourceId );
+        String blockedBy = lock == null ? "" : lock.describeWaitList();
+        visitor.visit( clientId, waitingForExclusive, resourceType, resourceId,
+                Math.max( 0, currentTimeMillis - waitStartMillis ), blockedBy );
+    }
+
     private void clearWaitList()
     {
         waitList.clear();
@@ -816,9 +885,10 @@ public class ForsetiClient implements Locks.Client
      */
     private class ReleaseSharedDontCheckExclusiveVisitor implements PrimitiveLongVisitor<RuntimeException>
     {
-        private ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap;
+        private StripedPrimitiveLongObjectHashMap<ForsetiLockManager.Lock> lockMap;
 
-        private PrimitiveLongVisitor<RuntimeException> initialize( ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap )
+        private PrimitiveLongVisitor<RuntimeException> initialize(
+                StripedPrimitiveLongObjectHashMap<ForsetiLockManager.Lock> lockMap )
         {
             this.lockMap = lockMap;
             return this;
@@ -840,10 +910,10 @@ public class ForsetiClient implements Locks.Client
     private class ReleaseExclusiveLocksAndClearSharedVisitor implements PrimitiveLongVisitor<RuntimeException>
     {
         private PrimitiveLongIntMap sharedLockCounts;
-        private ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap;
+        private StripedPrimitiveLongObjectHashMap<ForsetiLockManager.Lock> lockMap;
 
         private PrimitiveLongVisitor<RuntimeException> initialize( PrimitiveLongIntMap sharedLockCounts,
-                                                 ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap )
+                                                 StripedPrimitiveLongObjectHashMap<ForsetiLockManager.Lock> lockMap )
         {
             this.sharedLockCounts = sharedLockCounts;
             this.lockMap = lockMap;
@@ -19,16 +19,19 @@
  */
 package org.neo4j.kernel.impl.enterprise.lock.forseti;
 
-import java.util.Map;
+import java.util.Collections;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.neo4j.collection.pool.LinkedQueuePool;
-import org.neo4j.collection.pool.Pool;
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongObjectVisitor;
+import org.neo4j.collection.primitive.hopscotch.StripedPrimitiveLongObjectHashMap;
 import org.neo4j.kernel.impl.locking.AcquireLockTimeoutException;
+import org.neo4j.kernel.impl.locking.LockTracer;
 import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.kernel.impl.util.collection.SimpleBitSet;
 import org.neo4j.kernel.impl.util.concurrent.WaitStrategy;
@@ -90,8 +93,9 @@ import org.neo4j.kernel.impl.util.concurrent.WaitStrategy;
  * be worth investigating fat locks, or in any case optimize the current way SharedLock adds and removes clients from
  * its holder list.
  *
- * The maps used by forseti should be replaced by faster concurrent maps, perhaps a striped hopscotch map or something
- * similar.
+ * The lock maps are lock-striped hopscotch maps, which avoids boxing resource ids and allocating map entries on every
+ * acquire and release. Should the stripe monitors themselves show up as a point of contention, a lock-free
+ * open-addressing map would be the next step.
  */
 public class ForsetiLockManager implements Locks
 {
@@ -107,21 +111,32 @@ public class ForsetiLockManager implements Locks
 
     }
 
+    /**
+     * Number of stripes in each lock map. Keeps the chance of two clients contending on the same stripe low, while
+     * keeping the footprint of empty lock maps small.
+     */
+    static final int LOCK_MAP_STRIPES = 128;
+
     /** Pointers to lock maps, one array per resource type. */
-    private final ConcurrentMap<Long, ForsetiLockManager.Lock>[] lockMaps;
+    private final StripedPrimitiveLongObjectHashMap<ForsetiLockManager.Lock>[] lockMaps;
 
     /** Reverse lookup resource types by id, used for introspection */
     private final ResourceType[] resourceTypes;
 
     /** Pool forseti clients. */
-    private final Pool<ForsetiClient> clientPool;
+    private final ForsetiClientFlyweightPool clientPool;
     private volatile boolean closed;
 
-    @SuppressWarnings( "unchecked" )
     public ForsetiLockManager( ResourceType... resourceTypes )
+    {
+        this( LockTracer.NULL, resourceTypes );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    public ForsetiLockManager( LockTracer tracer, ResourceType... resourceTypes )
     {
         int maxResourceId = findMaxResourceId( resourceTypes );
-        this.lockMaps = new ConcurrentMap[maxResourceId];
+        this.lockMaps = new StripedPrimitiveLongObjectHashMap[maxResourceId];
         this.resourceTypes = new ResourceType[maxResourceId];
 
         /* Wait strategies per resource type */
@@ -129,7 +144,7 @@ public class ForsetiLockManager implements Locks
 
         for ( ResourceType type : resourceTypes )
         {
-            this.lockMaps[type.typeId()] = new ConcurrentHashMap<>(16, 0.6f, 512);
+            this.lockMaps[type.typeId()] = Primitive.concurrentLongObjectMap( LOCK_MAP_STRIPES );
             waitStrategies[type.typeId()] = type.waitStrategy();
             this.resourceTypes[type.typeId()] = type;
         }
@@ -138,7 +153,7 @@ public class ForsetiLockManager implements Locks
         // TODO be good enough. In fact, we could add the required fields for such a stack
         // TODO to the ForsetiClient objects themselves, making the stack garbage-free in
         // TODO the (presumably) common case of client re-use.
-        clientPool = new ForsetiClientFlyweightPool( lockMaps, waitStrategies );
+        clientPool = new ForsetiClientFlyweightPool( lockMaps, waitStrategies, tracer );
     }
 
     /**
@@ -161,22 +176,36 @@ public class ForsetiLockManager implements Locks
     }
 
     @Override
-    public void accept( Visitor out )
+    public void accept( final Visitor out )
     {
         for ( int i = 0; i < lockMaps.length; i++ )
         {
             if(lockMaps[i] != null)
             {
-                ResourceType type = resourceTypes[i];
-                for ( Map.Entry<Long, Lock> entry : lockMaps[i].entrySet() )
+                final ResourceType type = resourceTypes[i];
+                lockMaps[i].visitEntries( new PrimitiveLongObjectVisitor<Lock,RuntimeException>()
                 {
-                    Lock lock = entry.getValue();
-                    out.visit( type, entry.getKey(), lock.describeWaitList(), 0, System.identityHashCode( lock ) );
-                }
+                    @Override
+                    public boolean visited( long resourceId, Lock lock )
+                    {
+                        out.visit( type, resourceId, lock.describeWaitList(), 0, System.identityHashCode( lock ) );
+                        return false;
+                    }
+                } );
             }
         }
     }
 
+    @Override
+    public void acceptWaits( WaitVisitor visitor )
+    {
+        long now = System.currentTimeMillis();
+        for ( ForsetiClient client : clientPool.clients )
+        {
+            client.visitWait( visitor, now );
+        }
+    }
+
     private int findMaxResourceId( ResourceType[] resourceTypes )
     {
         int max = 0;
@@ -201,16 +230,22 @@ public class ForsetiLockManager implements Locks
         /** Re-use ids, forseti uses these in arrays, so we want to keep them low and not loose them. */
         // TODO we could use a synchronised SimpleBitSet instead, since we know that we only care about reusing a very limited set of integers.
         private final Queue<Integer> unusedIds = new ConcurrentLinkedQueue<>();
-        private final ConcurrentMap<Long, ForsetiLockManager.Lock>[] lockMaps;
+        private final StripedPrimitiveLongObjectHashMap<ForsetiLockManager.Lock>[] lockMaps;
         private final WaitStrategy<AcquireLockTimeoutException>[] waitStrategies;
+        private final LockTracer tracer;
+
+        /** All clients created by this pool and not yet disposed, used for introspecting lock waits. */
+        private final Set<ForsetiClient> clients = Collections.newSetFromMap( new ConcurrentHashMap<>() );
 
         public ForsetiClientFlyweightPool(
-                ConcurrentMap<Long, ForsetiLockManager.Lock>[] lockMaps,
-                WaitStrategy<AcquireLockTimeoutException>[] waitStrategies )
+                StripedPrimitiveLongObjectHashMap<ForsetiLockManager.Lock>[] lockMaps,
+                WaitStrategy<AcquireLockTimeoutException>[] waitStrategies,
+                LockTracer tracer )
         {
             super( 128, null);
             this.lockMaps = lockMaps;
             this.waitStrategies = waitStrategies;
+            this.tracer = tracer;
         }
 
         @Override
@@ -221,13 +256,16 @@ public class ForsetiLockManager implements Locks
             {
                 id = clientIds.getAndIncrement();
             }
-            return new ForsetiClient( id, lockMaps, waitStrategies, this );
+            ForsetiClient client = new ForsetiClient( id, lockMaps, waitStrategies, this, tracer );
+            clients.add( client );
+            return client;
         }
 
         @Override
         protected void dispose( ForsetiClient resource )
         {
             super.dispose( resource );
+            clients.remove( resource );
             if ( resource.id() < 1024 )
             {
                 // Re-use all ids < 1024
@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.enterprise.lock.forseti;
 
 import org.neo4j.helpers.Service;
+import org.neo4j.kernel.impl.locking.LockTracer;
 import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.kernel.impl.locking.ResourceTypes;
 
@@ -36,4 +37,10 @@ public class ForsetiLocksFactory extends Locks.Factory
     {
         return new ForsetiLockManager( ResourceTypes.values() );
     }
+
+    @Override
+    public Locks newInstance( Locks.ResourceType[] resourceTypes, LockTracer lockTracer )
+    {
+        return new ForsetiLockManager( lockTracer, ResourceTypes.values() );
+    }
 }
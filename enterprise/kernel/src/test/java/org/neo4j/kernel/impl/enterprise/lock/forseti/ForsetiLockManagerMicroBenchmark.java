@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.enterprise.lock.forseti;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.kernel.impl.locking.ResourceTypes;
+
+import static java.lang.System.nanoTime;
+
+/**
+ * Measures acquire/release throughput of the {@link ForsetiLockManager} lock maps for 1 to 64 threads, doubling
+ * the number of threads for every round. Run with:
+ *
+ * <pre>
+ * -DBenchmark=UNCONTENDED|SHARED|MIXED [-DminThreads=1] [-DmaxThreads=64] [-Diterations=10] [-DlockCount=1000000]
+ * </pre>
+ */
+public class ForsetiLockManagerMicroBenchmark
+{
+    public static void main( String... args ) throws InterruptedException
+    {
+        Benchmark benchmark = Benchmark.valueOf( System.getProperty( "Benchmark", Benchmark.UNCONTENDED.name() ) );
+        int minThreads = Integer.getInteger( "minThreads", 1 );
+        int maxThreads = Integer.getInteger( "maxThreads", 64 );
+        int iterations = Integer.getInteger( "iterations", 10 );
+        int lockCount = Integer.getInteger( "lockCount", 1_000_000 );
+        for ( int threads = minThreads; threads <= maxThreads; threads *= 2 )
+        {
+            System.out.printf( "=== %s - %s threads ===%n", benchmark, threads );
+            for ( int i = 0; i < iterations; i++ )
+            {
+                execute( benchmark, threads, lockCount );
+            }
+        }
+    }
+
+    enum Benchmark
+    {
+        /** Each thread exclusively locks its own, disjoint, range of node ids. */
+        UNCONTENDED
+                {
+                    @Override
+                    void lockAndRelease( Locks.Client client, int thread, int threads, long i )
+                    {
+                        long nodeId = i * threads + thread;
+                        client.acquireExclusive( ResourceTypes.NODE, nodeId );
+                        client.releaseExclusive( ResourceTypes.NODE, nodeId );
+                    }
+                },
+        /** All threads share lock the same small set of node ids, like a set of popular nodes. */
+        SHARED
+                {
+                    @Override
+                    void lockAndRelease( Locks.Client client, int thread, int threads, long i )
+                    {
+                        long nodeId = i % 1024;
+                        client.acquireShared( ResourceTypes.NODE, nodeId );
+                        client.releaseShared( ResourceTypes.NODE, nodeId );
+                    }
+                },
+        /** Like a write transaction, threads share lock the schema and exclusively lock disjoint node ids. */
+        MIXED
+                {
+                    @Override
+                    void lockAndRelease( Locks.Client client, int thread, int threads, long i )
+                    {
+                        long nodeId = i * threads + thread;
+                        client.acquireShared( ResourceTypes.SCHEMA, ResourceTypes.schemaResource() );
+                        client.acquireExclusive( ResourceTypes.NODE, nodeId );
+                        client.releaseExclusive( ResourceTypes.NODE, nodeId );
+                        client.releaseShared( ResourceTypes.SCHEMA, ResourceTypes.schemaResource() );
+                    }
+                };
+
+        abstract void lockAndRelease( Locks.Client client, int thread, int threads, long i );
+    }
+
+    private static void execute( final Benchmark benchmark, final int threadCount, final int lockCount )
+            throws InterruptedException
+    {
+        final Locks locks = new ForsetiLockManager( ResourceTypes.values() );
+        final CountDownLatch start = new CountDownLatch( 1 );
+        Thread[] threads = new Thread[threadCount];
+        for ( int t = 0; t < threadCount; t++ )
+        {
+            final int thread = t;
+            threads[t] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try ( Locks.Client client = locks.newClient() )
+                    {
+                        start.await();
+                        for ( long i = 0; i < lockCount; i++ )
+                        {
+                            benchmark.lockAndRelease( client, thread, threadCount, i );
+                        }
+                    }
+                    catch ( InterruptedException e )
+                    {
+                        throw new RuntimeException( e );
+                    }
+                }
+            };
+            threads[t].start();
+        }
+
+        long time = nanoTime();
+        start.countDown();
+        for ( Thread thread : threads )
+        {
+            thread.join();
+        }
+        time = nanoTime() - time;
+        locks.close();
+
+        double totalOps = (double) lockCount * threadCount;
+        System.out.printf( "total=%.3fms; throughput=%.0f acquire+release/s; avg=%.3fns%n",
+                time / 1_000_000.0, totalOps / (time / 1_000_000_000.0), time * threadCount / totalOps );
+    }
+}
@@ -27,6 +27,7 @@ import org.neo4j.io.pagecache.monitoring.PageCacheMonitor;
 import org.neo4j.kernel.IdGeneratorFactory;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.api.LogRotationMonitor;
+import org.neo4j.kernel.impl.locking.LockWaitMonitor;
 import org.neo4j.kernel.impl.logging.LogService;
 import org.neo4j.kernel.impl.spi.KernelContext;
 import org.neo4j.kernel.impl.transaction.TransactionCounters;
@@ -52,6 +53,7 @@ public class MetricsExtension implements Lifecycle
     private final CheckPointerMonitor checkPointerMonitor;
     private final IdGeneratorFactory idGeneratorFactory;
     private final LogRotationMonitor logRotationMonitor;
+    private final LockWaitMonitor lockWaitMonitor;
     private final DataSourceManager dataSourceManager;
     private final DependencyResolver dependencyResolver;
     private final KernelContext kernelContext;
@@ -67,6 +69,7 @@ public class MetricsExtension implements Lifecycle
         pageCacheCounters = dependencies.pageCacheCounters();
         checkPointerMonitor = dependencies.checkPointerCounters();
         logRotationMonitor = dependencies.logRotationCounters();
+        lockWaitMonitor = dependencies.lockWaitCounters();
         idGeneratorFactory = dependencies.idGeneratorFactory();
         dependencyResolver = dependencies.getDependencyResolver();
         kernelContext = dependencies.kernelContext();
@@ -91,8 +94,8 @@ public class MetricsExtension implements Lifecycle
 
         // Setup metric gathering
         Neo4jMetricsFactory factory = new Neo4jMetricsFactory( registry, configuration, monitors, dataSourceManager,
-                transactionCounters, pageCacheCounters, checkPointerMonitor, logRotationMonitor, idGeneratorFactory,
-                dependencyResolver, logService) ;
+                transactionCounters, pageCacheCounters, checkPointerMonitor, logRotationMonitor, lockWaitMonitor,
+                idGeneratorFactory, dependencyResolver, logService) ;
         life.add( factory.newInstance() );
 
         life.init();
@@ -25,6 +25,7 @@ import org.neo4j.kernel.IdGeneratorFactory;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.extension.KernelExtensionFactory;
 import org.neo4j.kernel.impl.api.LogRotationMonitor;
+import org.neo4j.kernel.impl.locking.LockWaitMonitor;
 import org.neo4j.kernel.impl.logging.LogService;
 import org.neo4j.kernel.impl.spi.KernelContext;
 import org.neo4j.kernel.impl.transaction.TransactionCounters;
@@ -51,6 +52,8 @@ public class MetricsKernelExtensionFactory extends KernelExtensionFactory<Metric
 
         LogRotationMonitor logRotationCounters();
 
+        LockWaitMonitor lockWaitCounters();
+
         IdGeneratorFactory idGeneratorFactory();
 
         Monitors monitors();
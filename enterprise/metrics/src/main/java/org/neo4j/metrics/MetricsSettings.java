@@ -78,6 +78,10 @@ public class MetricsSettings
                   + "complete." )
     public static Setting<Boolean> neoLogRotationEnabled = setting(
             "metrics.neo4j.logrotation.enabled", Settings.BOOLEAN, neoEnabled );
+    @Description( "Enable reporting metrics about lock waits; how often transactions have to wait for locks, and for " +
+                  "how long, per resource type." )
+    public static Setting<Boolean> neoLockingEnabled = setting(
+            "metrics.neo4j.locking.enabled", Settings.BOOLEAN, neoEnabled );
     @Description( "Enable reporting metrics about HA cluster info." )
     public static Setting<Boolean> neoClusterEnabled = setting(
             "metrics.neo4j.cluster.enabled", Settings.BOOLEAN, neoEnabled );
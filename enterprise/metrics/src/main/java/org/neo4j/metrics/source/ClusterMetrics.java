@@ -20,11 +20,18 @@
 package org.neo4j.metrics.source;
 
 import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricFilter;
 import com.codahale.metrics.MetricRegistry;
 
 import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 
+import org.neo4j.com.storecopy.TransactionCommittingResponseUnpacker;
+import org.neo4j.coreedge.raft.replication.shipping.LogShippingMonitor;
+import org.neo4j.coreedge.server.CoreMember;
 import org.neo4j.function.Predicate;
 import org.neo4j.function.Predicates;
 import org.neo4j.graphdb.DependencyResolver;
@@ -32,6 +39,7 @@ import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.ha.SlaveUpdatePuller;
 import org.neo4j.kernel.impl.annotations.Documented;
 import org.neo4j.kernel.ha.cluster.member.ClusterMembers;
+import org.neo4j.kernel.ha.lock.SlaveLockManager;
 import org.neo4j.kernel.impl.logging.LogService;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 import org.neo4j.kernel.monitoring.Monitors;
@@ -49,10 +57,18 @@ public class ClusterMetrics extends LifecycleAdapter
     public static final String SLAVE_PULL_UPDATES = name( NAME_PREFIX, "slave_pull_updates" );
     @Documented( "The highest transaction id that has been pulled in the last pull updates by this instance" )
     public static final String SLAVE_PULL_UPDATE_UP_TO_TX = name( NAME_PREFIX, "slave_pull_update_up_to_tx" );
+    @Documented( "The time in milliseconds since the master committed the last transaction applied by this slave, " +
+                 "or zero if the last pull of updates found nothing more to apply" )
+    public static final String SLAVE_APPLY_LAG = name( NAME_PREFIX, "slave_apply_lag" );
+    @Documented( "The distribution of the number of lock requests made to the master per transaction on this slave" )
+    public static final String SLAVE_LOCK_ROUND_TRIPS = name( NAME_PREFIX, "slave_lock_round_trips" );
     @Documented( "Whether or not this instance is the master in the cluster" )
     public static final String IS_MASTER = name( NAME_PREFIX, "is_master" );
     @Documented( "Whether or not this instance is available in the cluster" )
     public static final String IS_AVAILABLE = name( NAME_PREFIX, "is_available" );
+    @Documented( "Per follower of a core leader: the number of entries the follower lags behind (lag), " +
+                 "and the rate of entries (shipped_entries) and bytes (shipped_bytes) shipped to it" )
+    public static final String CORE_LOG_SHIPPING = name( NAME_PREFIX, "core", "log_shipping" );
 
     private final Config config;
     private final Monitors monitors;
@@ -60,6 +76,16 @@ public class ClusterMetrics extends LifecycleAdapter
     private final DependencyResolver dependencyResolver;
     private final LogService logService;
     private final SlaveUpdatePullerMonitor monitor = new SlaveUpdatePullerMonitor();
+    private final SlaveApplyMonitor applyMonitor = new SlaveApplyMonitor();
+    private final SlaveLockManager.Monitor lockMonitor = new SlaveLockManager.Monitor()
+    {
+        @Override
+        public void lockSessionEnded( int lockRoundTrips )
+        {
+            registry.histogram( SLAVE_LOCK_ROUND_TRIPS ).update( lockRoundTrips );
+        }
+    };
+    private final LogShippingMetrics logShippingMetrics = new LogShippingMetrics();
     private ClusterMembers clusterMembers = null;
 
     public ClusterMetrics( Config config, Monitors monitors, MetricRegistry registry,
@@ -75,10 +101,18 @@ public class ClusterMetrics extends LifecycleAdapter
     @Override
     public void start() throws Throwable
     {
+        if ( config.get( MetricsSettings.neoClusterEnabled ) )
+        {
+            monitors.addMonitorListener( logShippingMetrics );
+        }
+
         if ( config.get( MetricsSettings.neoClusterEnabled ) && resolveClusterMembersDependencyOrLogWarning() )
         {
             monitors.addMonitorListener( monitor );
 
+            monitors.addMonitorListener( applyMonitor );
+            monitors.addMonitorListener( lockMonitor );
+
             registry.register( IS_MASTER, new RoleGauge( Predicates.equalTo( MASTER ) ) );
             registry.register( IS_AVAILABLE, new RoleGauge( Predicates.not( Predicates.equalTo( UNKNOWN ) ) ) );
 
@@ -100,6 +134,15 @@ public class ClusterMetrics extends LifecycleAdapter
                 }
             } );
 
+            registry.register( SLAVE_APPLY_LAG, new Gauge<Long>()
+            {
+                @Override
+                public Long getValue()
+                {
+                    return applyMonitor.applyLag();
+                }
+            } );
+
         }
     }
 
@@ -121,15 +164,33 @@ public class ClusterMetrics extends LifecycleAdapter
     @Override
     public void stop() throws IOException
     {
+        if ( config.get( MetricsSettings.neoClusterEnabled ) )
+        {
+            monitors.removeMonitorListener( logShippingMetrics );
+            registry.removeMatching( new MetricFilter()
+            {
+                @Override
+                public boolean matches( String name, Metric metric )
+                {
+                    return name.startsWith( CORE_LOG_SHIPPING );
+                }
+            } );
+            logShippingMetrics.lags.clear();
+        }
+
         if ( config.get( MetricsSettings.neoClusterEnabled ) && (clusterMembers != null) )
         {
             registry.remove( SLAVE_PULL_UPDATES );
             registry.remove( SLAVE_PULL_UPDATE_UP_TO_TX );
+            registry.remove( SLAVE_APPLY_LAG );
+            registry.remove( SLAVE_LOCK_ROUND_TRIPS );
 
             registry.remove( IS_MASTER );
             registry.remove( IS_AVAILABLE );
 
             monitors.removeMonitorListener( monitor );
+            monitors.removeMonitorListener( applyMonitor );
+            monitors.removeMonitorListener( lockMonitor );
         }
     }
 
@@ -146,6 +207,100 @@ public class ClusterMetrics extends LifecycleAdapter
         }
     }
 
+    /**
+     * The lag is worked out when read rather than when a batch is applied, so that it keeps growing while this
+     * slave doesn't get any further, and drops to zero once a pull of updates shows there's nothing left to apply.
+     */
+    private static class SlaveApplyMonitor
+            implements TransactionCommittingResponseUnpacker.Monitor, SlaveUpdatePuller.Monitor
+    {
+        private volatile long lastAppliedTxId;
+        private volatile long lastAppliedTimeCommitted;
+        private volatile boolean caughtUp = true;
+
+        @Override
+        public void appliedBatch( long lastTransactionId, long lastTransactionTimeCommitted, int batchSize )
+        {
+            this.lastAppliedTimeCommitted = lastTransactionTimeCommitted;
+            this.lastAppliedTxId = lastTransactionId;
+            this.caughtUp = false;
+        }
+
+        @Override
+        public void pulledUpdates( long lastAppliedTxIdBeforePull )
+        {
+            if ( lastAppliedTxId <= lastAppliedTxIdBeforePull )
+            {
+                caughtUp = true;
+            }
+        }
+
+        long applyLag()
+        {
+            if ( caughtUp )
+            {
+                return 0;
+            }
+            // Commit times are from the clock of the master, so skew between the clocks of master and slave
+            // skews the lag just as much. Kept from going negative when the slave clock is behind.
+            return Math.max( 0, System.currentTimeMillis() - lastAppliedTimeCommitted );
+        }
+    }
+
+    /**
+     * Registers metrics for each follower the first time it's shipped to, since followers come and go with
+     * cluster membership and leadership changes.
+     */
+    private class LogShippingMetrics implements LogShippingMonitor
+    {
+        private final ConcurrentMap<String,AtomicLong> lags = new ConcurrentHashMap<>();
+
+        @Override
+        public void shipped( Object follower, int entries, long bytes )
+        {
+            String followerName = followerName( follower );
+            registry.meter( name( CORE_LOG_SHIPPING, followerName, "shipped_entries" ) ).mark( entries );
+            registry.meter( name( CORE_LOG_SHIPPING, followerName, "shipped_bytes" ) ).mark( bytes );
+        }
+
+        @Override
+        public void matched( Object follower, long matchIndex, long leaderAppendIndex )
+        {
+            lag( followerName( follower ) ).set( Math.max( 0, leaderAppendIndex - matchIndex ) );
+        }
+
+        private AtomicLong lag( String followerName )
+        {
+            AtomicLong lag = lags.get( followerName );
+            if ( lag == null )
+            {
+                final AtomicLong newLag = new AtomicLong();
+                lag = lags.putIfAbsent( followerName, newLag );
+                if ( lag == null )
+                {
+                    lag = newLag;
+                    registry.register( name( CORE_LOG_SHIPPING, followerName, "lag" ), new Gauge<Long>()
+                    {
+                        @Override
+                        public Long getValue()
+                        {
+                            return newLag.get();
+                        }
+                    } );
+                }
+            }
+            return lag;
+        }
+
+        private String followerName( Object follower )
+        {
+            String name = follower instanceof CoreMember
+                          ? ((CoreMember) follower).getRaftAddress().toString()
+                          : String.valueOf( follower );
+            return name.replaceAll( "[^A-Za-z0-9_-]", "_" );
+        }
+    }
+
     private class RoleGauge implements Gauge<Integer>
     {
         private Predicate<String> rolePredicate;
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.metrics.source;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+import java.io.IOException;
+
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.annotations.Documented;
+import org.neo4j.kernel.impl.locking.LockWaitMonitor;
+import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.kernel.impl.locking.ResourceTypes;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.metrics.MetricsSettings;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+@Documented( ".Database Locking Metrics" )
+public class LockingMetrics extends LifecycleAdapter
+{
+    private static final String LOCKS_PREFIX = "neo4j.locks";
+    private static final String RESOURCE_TYPE = "<resource_type>";
+
+    @Documented( "The total number of times transactions had to wait for a lock on the given resource type" )
+    public static final String LOCK_WAITS = name( LOCKS_PREFIX, RESOURCE_TYPE, "waits" );
+    @Documented( "The total time, in milliseconds, spent waiting for locks on the given resource type" )
+    public static final String LOCK_WAIT_TOTAL_TIME = name( LOCKS_PREFIX, RESOURCE_TYPE, "wait_time_total" );
+    @Documented( "Median time, in microseconds, spent waiting for a lock on the given resource type, " +
+                 "as the upper bound of a power-of-two histogram bucket" )
+    public static final String LOCK_WAIT_TIME_P50 = name( LOCKS_PREFIX, RESOURCE_TYPE, "wait_time_p50" );
+    @Documented( "99th percentile of time, in microseconds, spent waiting for a lock on the given resource type, " +
+                 "as the upper bound of a power-of-two histogram bucket" )
+    public static final String LOCK_WAIT_TIME_P99 = name( LOCKS_PREFIX, RESOURCE_TYPE, "wait_time_p99" );
+
+    private final MetricRegistry registry;
+    private final Config config;
+    private final LockWaitMonitor lockWaitMonitor;
+
+    public LockingMetrics( MetricRegistry registry, Config config, LockWaitMonitor lockWaitMonitor )
+    {
+        this.registry = registry;
+        this.config = config;
+        this.lockWaitMonitor = lockWaitMonitor;
+    }
+
+    @Override
+    public void start() throws Throwable
+    {
+        if ( config.get( MetricsSettings.neoLockingEnabled ) )
+        {
+            for ( final ResourceTypes resourceType : ResourceTypes.values() )
+            {
+                registry.register( metricName( LOCK_WAITS, resourceType ), new Gauge<Long>()
+                {
+                    @Override
+                    public Long getValue()
+                    {
+                        return lockWaitMonitor.numberOfLockWaits( resourceType );
+                    }
+                } );
+
+                registry.register( metricName( LOCK_WAIT_TOTAL_TIME, resourceType ), new Gauge<Long>()
+                {
+                    @Override
+                    public Long getValue()
+                    {
+                        return lockWaitMonitor.lockWaitAccumulatedTotalTimeMillis( resourceType );
+                    }
+                } );
+
+                registry.register( metricName( LOCK_WAIT_TIME_P50, resourceType ), new Gauge<Long>()
+                {
+                    @Override
+                    public Long getValue()
+                    {
+                        return lockWaitMonitor.lockWaitTimePercentileMicros( resourceType, 50 );
+                    }
+                } );
+
+                registry.register( metricName( LOCK_WAIT_TIME_P99, resourceType ), new Gauge<Long>()
+                {
+                    @Override
+                    public Long getValue()
+                    {
+                        return lockWaitMonitor.lockWaitTimePercentileMicros( resourceType, 99 );
+                    }
+                } );
+            }
+        }
+    }
+
+    @Override
+    public void stop() throws IOException
+    {
+        if ( config.get( MetricsSettings.neoLockingEnabled ) )
+        {
+            for ( ResourceTypes resourceType : ResourceTypes.values() )
+            {
+                registry.remove( metricName( LOCK_WAITS, resourceType ) );
+                registry.remove( metricName( LOCK_WAIT_TOTAL_TIME, resourceType ) );
+                registry.remove( metricName( LOCK_WAIT_TIME_P50, resourceType ) );
+                registry.remove( metricName( LOCK_WAIT_TIME_P99, resourceType ) );
+            }
+        }
+    }
+
+    static String metricName( String template, Locks.ResourceType resourceType )
+    {
+        return template.replace( RESOURCE_TYPE, resourceType.toString().toLowerCase() );
+    }
+}
@@ -29,6 +29,7 @@ import org.neo4j.io.pagecache.monitoring.PageCacheMonitor;
 import org.neo4j.kernel.IdGeneratorFactory;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.api.LogRotationMonitor;
+import org.neo4j.kernel.impl.locking.LockWaitMonitor;
 import org.neo4j.kernel.impl.logging.LogService;
 import org.neo4j.kernel.impl.transaction.TransactionCounters;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointerMonitor;
@@ -47,6 +48,7 @@ public class Neo4jMetricsFactory implements Factory<Lifecycle>
     private final PageCacheMonitor pageCacheCounters;
     private final CheckPointerMonitor checkPointerMonitor;
     private final LogRotationMonitor logRotationMonitor;
+    private final LockWaitMonitor lockWaitMonitor;
     private final IdGeneratorFactory idGeneratorFactory;
     private final DependencyResolver dependencyResolver;
     private final LogService logService;
@@ -54,8 +56,8 @@ public class Neo4jMetricsFactory implements Factory<Lifecycle>
     public Neo4jMetricsFactory( MetricRegistry registry, Config config, Monitors monitors,
             DataSourceManager dataSourceManager, TransactionCounters transactionCounters,
             PageCacheMonitor pageCacheCounters, CheckPointerMonitor checkPointerMonitor,
-            LogRotationMonitor logRotationMonitor, IdGeneratorFactory idGeneratorFactory,
-            DependencyResolver dependencyResolver, LogService logService )
+            LogRotationMonitor logRotationMonitor, LockWaitMonitor lockWaitMonitor,
+            IdGeneratorFactory idGeneratorFactory, DependencyResolver dependencyResolver, LogService logService )
     {
         this.registry = registry;
         this.config = config;
@@ -65,6 +67,7 @@ public class Neo4jMetricsFactory implements Factory<Lifecycle>
         this.pageCacheCounters = pageCacheCounters;
         this.checkPointerMonitor = checkPointerMonitor;
         this.logRotationMonitor = logRotationMonitor;
+        this.lockWaitMonitor = lockWaitMonitor;
         this.idGeneratorFactory = idGeneratorFactory;
         this.dependencyResolver = dependencyResolver;
         this.logService = logService;
@@ -78,6 +81,7 @@ public class Neo4jMetricsFactory implements Factory<Lifecycle>
         final PageCacheMetrics pageCacheMetrics = new PageCacheMetrics( registry, config, pageCacheCounters );
         final CheckPointingMetrics checkPointingMetrics =
                 new CheckPointingMetrics( registry, config, checkPointerMonitor, logRotationMonitor );
+        final LockingMetrics lockingMetrics = new LockingMetrics( registry, config, lockWaitMonitor );
         final EntityCountMetrics entityCountMetrics = new EntityCountMetrics( registry, config, idGeneratorFactory );
 
         final NetworkMetrics networkMetrics = new NetworkMetrics( config, monitors, registry );
@@ -93,6 +97,7 @@ public class Neo4jMetricsFactory implements Factory<Lifecycle>
                 transactionMetrics.start();
                 pageCacheMetrics.start();
                 checkPointingMetrics.start();
+                lockingMetrics.start();
                 entityCountMetrics.start();
                 networkMetrics.start();
                 clusterMetrics.start();
@@ -106,6 +111,7 @@ public class Neo4jMetricsFactory implements Factory<Lifecycle>
                 transactionMetrics.stop();
                 pageCacheMetrics.stop();
                 checkPointingMetrics.stop();
+                lockingMetrics.stop();
                 entityCountMetrics.stop();
                 networkMetrics.stop();
                 clusterMetrics.stop();
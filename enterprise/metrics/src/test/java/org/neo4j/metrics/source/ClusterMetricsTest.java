@@ -35,6 +35,7 @@ import java.util.SortedMap;
 import java.util.concurrent.TimeUnit;
 
 import org.neo4j.cluster.InstanceId;
+import org.neo4j.coreedge.raft.replication.shipping.LogShippingMonitor;
 import org.neo4j.graphdb.DependencyResolver;
 import org.neo4j.helpers.Settings;
 import org.neo4j.kernel.configuration.Config;
@@ -49,7 +50,9 @@ import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.metrics.MetricsSettings;
 
+import static com.codahale.metrics.MetricRegistry.name;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
@@ -167,6 +170,39 @@ public class ClusterMetricsTest
         assertEquals( 0, reporter.isAvailableValue );
     }
 
+    @Test
+    public void clusterMetricsReportLogShippingPerFollower() throws Throwable
+    {
+        // given
+        MetricRegistry metricRegistry = new MetricRegistry();
+        Config config = new Config( stringMap( MetricsSettings.neoClusterEnabled.name(), Settings.TRUE ) );
+        DependencyResolver dependencyResolver = mock( DependencyResolver.class );
+        LogService logService = mock( LogService.class );
+
+        Monitors monitors = new Monitors();
+        LifeSupport life = new LifeSupport();
+        life.add( new ClusterMetrics( config, monitors, metricRegistry, dependencyResolver, logService ) );
+        life.start();
+
+        // when
+        LogShippingMonitor logShippingMonitor = monitors.newMonitor( LogShippingMonitor.class );
+        logShippingMonitor.shipped( "follower:1", 3, 300 );
+        logShippingMonitor.matched( "follower:1", 5, 8 );
+
+        // then
+        String prefix = name( ClusterMetrics.CORE_LOG_SHIPPING, "follower_1" );
+        assertEquals( 3L, metricRegistry.getGauges().get( name( prefix, "lag" ) ).getValue() );
+        assertEquals( 3, metricRegistry.getMeters().get( name( prefix, "shipped_entries" ) ).getCount() );
+        assertEquals( 300, metricRegistry.getMeters().get( name( prefix, "shipped_bytes" ) ).getCount() );
+
+        // when
+        life.stop();
+
+        // then
+        assertEquals( 0, metricRegistry.getMeters().size() );
+        assertNull( metricRegistry.getGauges().get( name( prefix, "lag" ) ) );
+    }
+
     ClusterMembers getClusterMembers( String memberRole, HighAvailabilityMemberState memberState )
     {
         HighAvailabilityMemberStateMachine stateMachine = mock( HighAvailabilityMemberStateMachine.class );